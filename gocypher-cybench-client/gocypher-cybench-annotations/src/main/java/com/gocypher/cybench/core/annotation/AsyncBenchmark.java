@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks asynchronous benchmark method returning {@link java.util.concurrent.CompletionStage} (e.g.
+ * {@code CompletableFuture}), or reactive type having {@code toFuture()} method returning it (e.g. Reactor
+ * {@code Mono}). Instead of the synchronous call measured by JMH, launcher measures time from submission to completion
+ * of returned stage, keeping {@link #inFlight()} operations in flight per benchmark thread.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AsyncBenchmark {
+
+    /**
+     * @return count of operations submitted and not yet completed at any time, per benchmark thread
+     */
+    int inFlight() default 1;
+}
@@ -53,6 +53,15 @@ public final class JSONUtils {
         }
     }
 
+    public static <T> T parseJsonIntoObject(String jsonString, Class<T> type) {
+        try {
+            return mapper.readValue(jsonString, type);
+        } catch (Exception e) {
+            LOG.error("Error on parsing json into object: type={}", type.getName(), e);
+            return null;
+        }
+    }
+
     public static String marshalToJson(Object item) {
         try {
             return mapper.writeValueAsString(item);
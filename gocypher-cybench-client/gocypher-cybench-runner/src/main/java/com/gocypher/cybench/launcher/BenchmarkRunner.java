@@ -22,6 +22,8 @@ package com.gocypher.cybench.launcher;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.reflect.AnnotatedElement;
@@ -33,12 +35,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.profile.SafepointsProfiler;
-import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Defaults;
 import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
 import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.UnCloseablePrintStream;
+import org.openjdk.jmh.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,13 +58,46 @@ import com.gocypher.cybench.core.utils.SecurityUtils;
 import com.gocypher.cybench.launcher.environment.model.HardwareProperties;
 import com.gocypher.cybench.launcher.environment.model.JVMProperties;
 import com.gocypher.cybench.launcher.environment.services.CollectSystemInformation;
+import com.gocypher.cybench.launcher.model.AbComparisonReport;
+import com.gocypher.cybench.launcher.model.BaselineComparisonReport;
 import com.gocypher.cybench.launcher.model.BenchmarkOverviewReport;
 import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.JvmConfiguration;
+import com.gocypher.cybench.launcher.model.TrendReport;
+import com.gocypher.cybench.launcher.profilers.ContentionProfiler;
+import com.gocypher.cybench.launcher.profilers.GCPauseProfiler;
+import com.gocypher.cybench.launcher.profilers.JfrProfiler;
+import com.gocypher.cybench.launcher.profilers.JitProfiler;
+import com.gocypher.cybench.launcher.profilers.PerformanceProfiler;
+import com.gocypher.cybench.launcher.profilers.StackSamplingProfiler;
+import com.gocypher.cybench.launcher.profilers.ThreadAllocationProfiler;
+import com.gocypher.cybench.launcher.report.BaselineComparator;
+import com.gocypher.cybench.launcher.report.ChangePointDetector;
+import com.gocypher.cybench.launcher.report.CheckpointManifest;
+import com.gocypher.cybench.launcher.report.ComplexityAnalyzer;
 import com.gocypher.cybench.launcher.report.DeliveryService;
+import com.gocypher.cybench.launcher.report.HistoryStore;
+import com.gocypher.cybench.launcher.report.JvmMatrixComparator;
+import com.gocypher.cybench.launcher.report.ReportJournal;
 import com.gocypher.cybench.launcher.report.ReportingService;
+import com.gocypher.cybench.launcher.report.ResultCache;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+import com.gocypher.cybench.launcher.services.AbComparison;
+import com.gocypher.cybench.launcher.services.AdaptiveMeasurement;
+import com.gocypher.cybench.launcher.services.AsyncMeasurement;
+import com.gocypher.cybench.launcher.services.BenchmarkPlanner;
 import com.gocypher.cybench.launcher.services.ConfigurationHandler;
+import com.gocypher.cybench.launcher.services.JvmMatrix;
+import com.gocypher.cybench.launcher.services.MacroBenchmark;
+import com.gocypher.cybench.launcher.services.OpenLoopSweep;
+import com.gocypher.cybench.launcher.services.ParallelScheduler;
+import com.gocypher.cybench.launcher.services.ScalabilitySweep;
+import com.gocypher.cybench.launcher.services.WarmUpController;
+import com.gocypher.cybench.launcher.services.WorkItemRunner;
 import com.gocypher.cybench.launcher.utils.ComputationUtils;
 import com.gocypher.cybench.launcher.utils.Constants;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
 import com.gocypher.cybench.launcher.utils.SecurityBuilder;
 
 public class BenchmarkRunner {
@@ -70,8 +110,20 @@ public class BenchmarkRunner {
             + System.getProperty(Constants.CYB_REPORT_JSON_FILE, "report.cybench");
     public static final String CYB_REPORT_CYB_FILE = CYB_REPORT_FOLDER
             + System.getProperty(Constants.CYB_REPORT_CYB_FILE, "report.cyb");
+    public static final String CYB_REPORT_JOURNAL_FILE = CYB_REPORT_FOLDER
+            + System.getProperty(Constants.CYB_REPORT_JOURNAL_FILE, "report-journal.jsonl");
+    public static final String CYB_REPORT_CHECKPOINT_FILE = CYB_REPORT_FOLDER
+            + System.getProperty(Constants.CYB_REPORT_CHECKPOINT_FILE, "checkpoint-manifest.txt");
+    private static final String CYB_CACHE_FOLDER = System.getProperty("cybench.cache.folder",
+            CYB_REPORT_FOLDER + "cache" + File.separator);
+    public static final String CYB_HISTORY_FOLDER = System.getProperty("cybench.history.folder",
+            CYB_REPORT_FOLDER + "history" + File.separator);
+    private static final String CYB_JFR_FOLDER = CYB_REPORT_FOLDER + "jfr" + File.separator;
+    private static final String CYB_FLAME_GRAPH_FOLDER = CYB_REPORT_FOLDER + "flamegraphs" + File.separator;
+    private static final String CYB_WARM_UP_HISTORY_FILE = CYB_CACHE_FOLDER + "warm-up-history.properties";
     static Properties cfg = new Properties();
     private static String benchSource = "CyBench Launcher";
+    private static final int BASELINE_REGRESSION_EXIT_CODE = 2;
     private static final String REPORT_NOT_SENT = "You may submit your report '{}' manually at {}";
 
     public static void main(String... args) throws Exception {
@@ -80,6 +132,11 @@ public class BenchmarkRunner {
         LOG.info("                                 Starting CyBench benchmarks                             ");
         LOG.info("-----------------------------------------------------------------------------------------");
         identifyPropertiesFromArguments(args);
+        List<String> runModeConflicts = ConfigurationHandler.findRunModeConflicts(BenchmarkRunner::getProperty);
+        if (!runModeConflicts.isEmpty()) {
+            runModeConflicts.forEach(conflict -> LOG.error("Incompatible run modes: {}", conflict));
+            throw new IllegalArgumentException("Incompatible run modes: " + String.join("; ", runModeConflicts));
+        }
 
         LOG.info("Collecting hardware, software information...");
         HardwareProperties hwProperties = CollectSystemInformation.getEnvironmentProperties();
@@ -110,6 +167,7 @@ public class BenchmarkRunner {
         Set<Mode> modes = setExecutionModes(getProperty(Constants.BENCHMARK_MODES));
 
         String tempBenchmark = null;
+        List<String> benchmarkIncludes = new ArrayList<>();
         SecurityBuilder securityBuilder = new SecurityBuilder();
         Map<String, Object> benchmarkSetting = new HashMap<>();
         Map<String, String> generatedFingerprints = new HashMap<>();
@@ -132,7 +190,7 @@ public class BenchmarkRunner {
                     tempBenchmark = classObj.getName();
 
                     if (!classObj.getName().isEmpty()) {
-                        optBuild.include(classObj.getName());
+                        benchmarkIncludes.add(classObj.getName());
                         foundBenchmarks = true;
                         if (classObj.getName().startsWith("com.gocypher.cybench.")) {
                             securityBuilder.generateSecurityHashForClasses(classObj);
@@ -179,7 +237,15 @@ public class BenchmarkRunner {
             // }
         }
 
-        if (foundBenchmarks) {
+        List<Class<?>> workloadClasses = getMacroWorkloadClasses();
+        for (Class<?> workloadClass : workloadClasses) {
+            // workload has no generated JMH code, so its class fingerprint identifies it in history
+            String workloadFingerprint = SecurityUtils.computeClassHash(workloadClass);
+            classFingerprints.put(MacroBenchmark.getReportName(workloadClass), workloadFingerprint);
+            generatedFingerprints.put(MacroBenchmark.getReportName(workloadClass), workloadFingerprint);
+        }
+
+        if (foundBenchmarks || !workloadClasses.isEmpty()) {
             if (System.getProperty(Constants.REPORT_SOURCE) != null) {
                 benchSource = System.getProperty(Constants.REPORT_SOURCE);
             }
@@ -196,23 +262,160 @@ public class BenchmarkRunner {
                 // .addProfiler(HotspotRuntimeProfiler.class) // obsolete
                 .addProfiler(GCProfiler.class) //
                 .addProfiler(SafepointsProfiler.class) //
+                .addProfiler(PerformanceProfiler.class) //
+                .addProfiler(GCPauseProfiler.class) //
+                .addProfiler(ThreadAllocationProfiler.class) //
                 .detectJvmArgs();
+        if (Boolean.parseBoolean(getProperty(Constants.JFR_PROFILER))) {
+            optionBuilder = addJfrProfiler(optionBuilder);
+        }
+        if (Boolean.parseBoolean(getProperty(Constants.STACK_PROFILER))) {
+            String initLine = "dir=" + CYB_FLAME_GRAPH_FOLDER //
+                    + ";interval=" + StringUtils.defaultIfEmpty(getProperty(Constants.STACK_SAMPLING_INTERVAL), "10") //
+                    + ";depth=" + StringUtils.defaultIfEmpty(getProperty(Constants.STACK_DEPTH), "256");
+            LOG.info("Stack sampling profiler enabled, flame graphs are stored to {}", CYB_FLAME_GRAPH_FOLDER);
+            optionBuilder = optionBuilder.addProfiler(StackSamplingProfiler.class, initLine);
+        }
+        if (Boolean.parseBoolean(getProperty(Constants.CONTENTION_PROFILER))) {
+            optionBuilder = optionBuilder.addProfiler(ContentionProfiler.class, "interval="
+                    + StringUtils.defaultIfEmpty(getProperty(Constants.CONTENTION_SAMPLING_INTERVAL), "10"));
+        }
+        if (Boolean.parseBoolean(getProperty(Constants.JIT_PROFILER))) {
+            optionBuilder = addJitProfiler(optionBuilder);
+        }
 
         optionBuilder = setMeasurementProperties(optionBuilder, forks, measurementIterations, measurementSeconds,
                 warmUpIterations, warmUpSeconds, threads, modes);
-        Options opt = optionBuilder.build();
-
-        Runner runner = new Runner(opt);
-        Collection<RunResult> results = Collections.emptyList();
-        if (foundBenchmarks) {
-            results = runner.run();
+        // includes are kept out of base options, as JMH merges includes of parent options
+        Options baseOptions = optionBuilder.build();
+        ChainedOptionsBuilder includeBuilder = new OptionsBuilder().parent(baseOptions);
+        for (String benchmarkInclude : benchmarkIncludes) {
+            includeBuilder = includeBuilder.include(benchmarkInclude);
+        }
+        Options opt = includeBuilder.build();
+
+        ReportJournal journal = new ReportJournal(CYB_REPORT_JOURNAL_FILE);
+        CheckpointManifest manifest = new CheckpointManifest(CYB_REPORT_CHECKPOINT_FILE);
+        List<JvmConfiguration> jvmConfigurations = createJvmConfigurations();
+        boolean jvmMatrix = jvmConfigurations.size() > 1;
+        boolean resume = Boolean.parseBoolean(getProperty(Constants.RESUME_RUN)) && manifest.load() > 0;
+        boolean incremental = Boolean.parseBoolean(getProperty(Constants.INCREMENTAL_RUN));
+        if (!resume) {
+            journal.clear();
+            manifest.clear();
+        }
+        boolean rawSamples = Boolean.parseBoolean(getProperty(Constants.RAW_SAMPLES));
+        boolean scoreHistogram = Boolean.parseBoolean(getProperty(Constants.SCORE_HISTOGRAM));
+        String scorePercentile = getProperty(Constants.SCORE_PERCENTILE);
+        StreamingOutputFormat outputFormat = new StreamingOutputFormat(createConsoleOutputFormat(opt), journal,
+                manifest, defaultBenchmarksMetadata, benchmarkReport -> {
+                    enrichBenchmarkReport(benchmarkReport, generatedFingerprints, manualFingerprints,
+                            classFingerprints);
+                    // fork variance and bimodality are derived from samples even when samples are not kept
+                    if (!rawSamples) {
+                        benchmarkReport.setForkSamples(null);
+                    }
+                    if (StringUtils.isNotBlank(scorePercentile)) {
+                        applyScorePercentile(benchmarkReport, Double.parseDouble(scorePercentile.trim()));
+                    }
+                    if (!scoreHistogram) {
+                        benchmarkReport.setScoreHistogram(null);
+                    }
+                });
+        ResultCache resultCache = new ResultCache(CYB_CACHE_FOLDER,
+                getEnvironmentIdentity(hwProperties, jvmProperties));
+        AdaptiveMeasurement adaptiveMeasurement = createAdaptiveMeasurement();
+        WarmUpController warmUpController = createWarmUpController();
+        ScalabilitySweep scalabilitySweep = createScalabilitySweep(hwProperties);
+        OpenLoopSweep openLoopSweep = createOpenLoopSweep();
+        WorkItemRunner workItemRunner = createWorkItemRunner(adaptiveMeasurement, warmUpController,
+                createAsyncMeasurement(), scalabilitySweep, openLoopSweep);
+        ParallelScheduler parallelScheduler = createParallelScheduler();
+        AbComparison abComparison = createAbComparison();
+        AbComparisonReport abComparisonReport = null;
+        if (foundBenchmarks && abComparison != null) {
+            abComparisonReport = abComparison
+                    .run(JvmMatrix.applyConfiguration(opt, jvmConfigurations.get(0), jvmMatrix));
+        } else if (foundBenchmarks) {
+            for (JvmConfiguration jvmConfiguration : jvmConfigurations) {
+                Options configurationBaseOptions = JvmMatrix.applyConfiguration(baseOptions, jvmConfiguration,
+                        jvmMatrix);
+                Options configurationOptions = JvmMatrix.applyConfiguration(opt, jvmConfiguration, jvmMatrix);
+                if (jvmMatrix) {
+                    LOG.info("Running benchmarks with JVM configuration: {}", jvmConfiguration);
+                    outputFormat.setReportCustomizer(
+                            benchmarkReport -> benchmarkReport.setJvmConfiguration(jvmConfiguration.getName()));
+                }
+                List<BenchmarkWorkItem> workItems = BenchmarkPlanner.planWorkItems(configurationOptions);
+                // asynchronous benchmarks are not run by JMH, so work items are run one by one
+                boolean asyncBenchmarks = workItems.stream()
+                        .anyMatch(workItem -> AsyncMeasurement.getAsyncBenchmark(workItem) != null);
+                if (resume || incremental || adaptiveMeasurement != null || warmUpController != null
+                        || parallelScheduler != null || scalabilitySweep != null || openLoopSweep != null
+                        || asyncBenchmarks) {
+                    List<BenchmarkWorkItem> remainingItems = new ArrayList<>();
+                    int finishedCount = 0;
+                    int cachedCount = 0;
+                    for (BenchmarkWorkItem workItem : workItems) {
+                        if (resume && manifest.isFinished(workItem.getKey())) {
+                            finishedCount++;
+                        } else if (incremental && reuseCachedReport(workItem, resultCache, journal, manifest,
+                                generatedFingerprints, classFingerprints)) {
+                            cachedCount++;
+                        } else {
+                            remainingItems.add(workItem);
+                        }
+                    }
+                    LOG.info("Benchmarks planned: total={}, finished={}, cached={}, remaining={}", workItems.size(),
+                            finishedCount, cachedCount, remainingItems.size());
+                    if (parallelScheduler != null) {
+                        parallelScheduler.run(configurationBaseOptions, remainingItems, outputFormat,
+                                workItemRunner);
+                    } else {
+                        runWorkItems(configurationBaseOptions, remainingItems, outputFormat, workItemRunner);
+                    }
+                } else {
+                    new Runner(configurationOptions, outputFormat).run();
+                }
+            }
+        }
+        if (!workloadClasses.isEmpty()) {
+            MacroBenchmark macroBenchmark = createMacroBenchmark();
+            for (JvmConfiguration jvmConfiguration : jvmConfigurations) {
+                if (jvmMatrix) {
+                    LOG.info("Running macro-benchmarks with JVM configuration: {}", jvmConfiguration);
+                    outputFormat.setReportCustomizer(
+                            benchmarkReport -> benchmarkReport.setJvmConfiguration(jvmConfiguration.getName()));
+                }
+                for (Class<?> workloadClass : workloadClasses) {
+                    if (resume && manifest.isFinished(MacroBenchmark.createWorkItem(workloadClass).getKey())) {
+                        LOG.info("Macro-benchmark already finished: {}", workloadClass.getName());
+                        continue;
+                    }
+                    macroBenchmark.run(JvmMatrix.applyConfiguration(baseOptions, jvmConfiguration, jvmMatrix),
+                            workloadClass, outputFormat, defaultBenchmarksMetadata);
+                }
+            }
         }
 
-        LOG.info("Benchmark finished, executed tests count: {}", results.size());
+        LOG.info("Benchmark finished, executed tests count: {}", outputFormat.getBenchmarksCount());
 
-        BenchmarkOverviewReport report = ReportingService.getInstance().createBenchmarkReport(results,
-                defaultBenchmarksMetadata);
-        // BenchmarkOverviewReport report = ReportingService.getInstance().createBenchmarkReport(results);
+        Collection<BenchmarkReport> benchmarkReports = journal.readLatest();
+        if (incremental) {
+            storeReportsToCache(benchmarkReports, resultCache);
+        }
+        BenchmarkOverviewReport report = ReportingService.getInstance().createOverviewReport(benchmarkReports);
+        if (Boolean.parseBoolean(getProperty(Constants.COMPLEXITY_ANALYSIS))) {
+            String complexityParams = getProperty(Constants.COMPLEXITY_PARAMS);
+            report.setComplexityReports(ComplexityAnalyzer.analyze(benchmarkReports,
+                    StringUtils.isBlank(complexityParams) ? Collections.emptyList()
+                            : Arrays.stream(complexityParams.split(",")).map(String::trim)
+                                    .collect(Collectors.toList())));
+        }
+        report.setAbComparisonReport(abComparisonReport);
+        if (jvmMatrix && abComparison == null) {
+            report.setJvmMatrixReport(JvmMatrixComparator.compare(jvmConfigurations, benchmarkReports));
+        }
         report.getEnvironmentSettings().put("environment", hwProperties);
         report.getEnvironmentSettings().put("jvmEnvironment", jvmProperties);
         report.getEnvironmentSettings().put("unclassifiedProperties",
@@ -220,37 +423,19 @@ public class BenchmarkRunner {
         report.getEnvironmentSettings().put("userDefinedProperties", getUserDefinedProperties());
         report.setBenchmarkSettings(benchmarkSetting);
 
-        for (String s : report.getBenchmarks().keySet()) {
-            List<BenchmarkReport> custom = new ArrayList<>(report.getBenchmarks().get(s));
-            custom.forEach(benchmarkReport -> {
-                String name = benchmarkReport.getName();
-                benchmarkReport.setClassFingerprint(classFingerprints.get(name));
-                benchmarkReport.setGeneratedFingerprint(generatedFingerprints.get(name));
-                benchmarkReport.setManualFingerprint(manualFingerprints.get(name));
-                try {
-                    JMHUtils.ClassAndMethod classAndMethod = new JMHUtils.ClassAndMethod(name).invoke();
-                    String clazz = classAndMethod.getClazz();
-                    String method = classAndMethod.getMethod();
-                    LOG.info("Adding metadata for benchmark: " + clazz + " test: " + method);
-                    Class<?> aClass = Class.forName(clazz);
-                    Optional<Method> benchmarkMethod = JMHUtils.getBenchmarkMethod(method, aClass);
-                    appendMetadataFromClass(aClass, benchmarkReport);
-                    appendMetadataFromAnnotated(benchmarkMethod, benchmarkReport);
-                    appendMetadataFromJavaDoc(aClass, benchmarkMethod, benchmarkReport);
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
-                }
-            });
-        }
         if (report.getBenchmarks() != null && report.getBenchmarks().size() > 0) {
-            List<BenchmarkReport> customBenchmarksCategoryCheck = report.getBenchmarks().get("CUSTOM");
-            report.getBenchmarks().remove("CUSTOM");
-            for (BenchmarkReport benchReport : customBenchmarksCategoryCheck) {
-                report.addToBenchmarks(benchReport);
-            }
             report.computeScores();
             getReportUploadStatus(report);
         }
+        BaselineComparisonReport baselineComparison = null;
+        if (Boolean.parseBoolean(getProperty(Constants.BASELINE_COMPARE))) {
+            // baseline is chosen before report of this run is stored
+            baselineComparison = compareWithBaseline(report, benchmarkReports);
+            report.setBaselineComparison(baselineComparison);
+        }
+        if (Boolean.parseBoolean(getProperty(Constants.HISTORY_STORE))) {
+            storeHistory(report, benchmarkReports);
+        }
         try {
             LOG.info("Generating JSON report...");
             String reportJSON;
@@ -292,6 +477,7 @@ public class BenchmarkRunner {
             LOG.info("Saving encrypted test results to '{}'", cybReportFile);
             IOUtils.storeResultsToFile(cybReportFile, reportEncrypted);
 
+            manifest.clear();
             LOG.info("Removing all temporary auto-generated files....");
             IOUtils.removeTestDataFiles();
             LOG.info("Removed all temporary auto-generated files!!!");
@@ -314,6 +500,395 @@ public class BenchmarkRunner {
         LOG.info("                                 Finished CyBench benchmarking ({})                      ",
                 ComputationUtils.formatInterval(System.currentTimeMillis() - start));
         LOG.info("-----------------------------------------------------------------------------------------");
+        if (baselineComparison != null && baselineComparison.isThresholdExceeded()) {
+            LOG.error("Performance regressions exceed threshold: regressions={}, allowed={}",
+                    baselineComparison.getRegressionsCount(), baselineComparison.getMaxRegressions());
+            System.exit(BASELINE_REGRESSION_EXIT_CODE);
+        }
+    }
+
+    private static void enrichBenchmarkReport(BenchmarkReport benchmarkReport,
+            Map<String, String> generatedFingerprints, Map<String, String> manualFingerprints,
+            Map<String, String> classFingerprints) {
+        String name = benchmarkReport.getName();
+        benchmarkReport.setClassFingerprint(classFingerprints.get(name));
+        benchmarkReport.setGeneratedFingerprint(generatedFingerprints.get(name));
+        benchmarkReport.setManualFingerprint(manualFingerprints.get(name));
+        try {
+            JMHUtils.ClassAndMethod classAndMethod = new JMHUtils.ClassAndMethod(name).invoke();
+            String clazz = classAndMethod.getClazz();
+            String method = classAndMethod.getMethod();
+            LOG.info("Adding metadata for benchmark: " + clazz + " test: " + method);
+            Class<?> aClass = Class.forName(clazz);
+            Optional<Method> benchmarkMethod = JMHUtils.getBenchmarkMethod(method, aClass);
+            appendMetadataFromClass(aClass, benchmarkReport);
+            appendMetadataFromAnnotated(benchmarkMethod, benchmarkReport);
+            appendMetadataFromJavaDoc(aClass, benchmarkMethod, benchmarkReport);
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reports percentile of sampling mode as benchmark score instead of mean, so scoring, history and baseline
+     * comparison target tail latency.
+     */
+    private static void applyScorePercentile(BenchmarkReport benchmarkReport, double percentile) {
+        if (benchmarkReport.getScorePercentiles() == null) {
+            return;
+        }
+        String key = BenchmarkReport.percentileKey(percentile);
+        Double score = benchmarkReport.getScorePercentiles().get(key);
+        if (score == null && benchmarkReport.getScoreHistogram() != null) {
+            score = ScoreHistogram.decode(benchmarkReport.getScoreHistogram()).getPercentile(percentile);
+            benchmarkReport.getScorePercentiles().put(key, score);
+        }
+        if (score != null && !score.isNaN()) {
+            benchmarkReport.setScore(score);
+            benchmarkReport.setScorePercentile(percentile);
+        }
+    }
+
+    private static void runWorkItems(Options baseOptions, List<BenchmarkWorkItem> workItems,
+            StreamingOutputFormat outputFormat, WorkItemRunner runner) {
+        for (BenchmarkWorkItem workItem : workItems) {
+            try {
+                runner.run(baseOptions, workItem, outputFormat);
+            } catch (RunnerException e) {
+                LOG.error("Failed to run benchmark: {}", workItem, e);
+            }
+        }
+    }
+
+    /**
+     * Composes runner of enabled modes: sweeps run before measurement, asynchronous benchmarks are measured by their
+     * own harness, and other benchmarks by adaptive measurement, warm-up detection or plain JMH run.
+     */
+    private static WorkItemRunner createWorkItemRunner(AdaptiveMeasurement adaptiveMeasurement,
+            WarmUpController warmUpController, AsyncMeasurement asyncMeasurement, ScalabilitySweep scalabilitySweep,
+            OpenLoopSweep openLoopSweep) {
+        WorkItemRunner runner = WorkItemRunner.JMH;
+        if (adaptiveMeasurement != null) {
+            runner = (options, workItem, format) -> adaptiveMeasurement.run(options, workItem, format,
+                    warmUpController);
+        } else if (warmUpController != null) {
+            runner = warmUpController::run;
+        }
+        runner = asyncMeasurement.wrap(runner);
+        if (scalabilitySweep != null) {
+            runner = scalabilitySweep.wrap(runner);
+        }
+        if (openLoopSweep != null) {
+            runner = openLoopSweep.wrap(runner);
+        }
+        return runner;
+    }
+
+    private static AdaptiveMeasurement createAdaptiveMeasurement() {
+        if (!Boolean.parseBoolean(getProperty(Constants.ADAPTIVE_MEASUREMENT))) {
+            return null;
+        }
+        double targetError = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.ADAPTIVE_TARGET_ERROR), "1.0"));
+        double confidence = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.ADAPTIVE_CONFIDENCE), "0.99"));
+        int minIterations = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.ADAPTIVE_MIN_ITERATIONS), "5"));
+        int maxIterations = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.ADAPTIVE_MAX_ITERATIONS), "50"));
+        LOG.info("Adaptive measurement enabled: targetError={}%, confidence={}, iterations={}..{}", targetError,
+                confidence, minIterations, maxIterations);
+        return new AdaptiveMeasurement(targetError, confidence, minIterations, maxIterations);
+    }
+
+    private static WarmUpController createWarmUpController() {
+        if (!Boolean.parseBoolean(getProperty(Constants.WARM_UP_DETECTION))) {
+            return null;
+        }
+        int maxIterations = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.WARM_UP_MAX_ITERATIONS), "10"));
+        int window = Integer.parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.WARM_UP_WINDOW), "4"));
+        double tolerance = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.WARM_UP_TOLERANCE), "2.0"));
+        LOG.info("Warm-up detection enabled: maxIterations={}, window={}, tolerance={}%, history={}", maxIterations,
+                window, tolerance, CYB_WARM_UP_HISTORY_FILE);
+        return new WarmUpController(maxIterations, window, tolerance, CYB_WARM_UP_HISTORY_FILE);
+    }
+
+    private static ScalabilitySweep createScalabilitySweep(HardwareProperties hwProperties) {
+        if (!Boolean.parseBoolean(getProperty(Constants.SCALABILITY_SWEEP))) {
+            return null;
+        }
+        int maxThreads = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.SCALABILITY_MAX_THREADS), "0"));
+        if (maxThreads <= 0) {
+            Integer logicalThreads = hwProperties.getHwProcLogicalThreadsCount();
+            maxThreads = logicalThreads == null || logicalThreads <= 0 ? Runtime.getRuntime().availableProcessors()
+                    : logicalThreads;
+        }
+        LOG.info("Scalability sweep enabled: maxThreads={}", maxThreads);
+        return new ScalabilitySweep(maxThreads);
+    }
+
+    private static AsyncMeasurement createAsyncMeasurement() {
+        int inFlight = Integer.parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.ASYNC_IN_FLIGHT), "0"));
+        return new AsyncMeasurement(inFlight);
+    }
+
+    private static ChainedOptionsBuilder addJfrProfiler(ChainedOptionsBuilder optionBuilder) {
+        if (!isJfrSupported("JFR profiler")) {
+            return optionBuilder;
+        }
+        String initLine = "dir=" + CYB_JFR_FOLDER //
+                + ";settings=" + StringUtils.defaultIfEmpty(getProperty(Constants.JFR_SETTINGS), "profile") //
+                + ";period=" + StringUtils.defaultIfEmpty(getProperty(Constants.JFR_SAMPLING_PERIOD), "10") //
+                + ";top=" + StringUtils.defaultIfEmpty(getProperty(Constants.JFR_TOP), "10");
+        LOG.info("JFR profiler enabled, recordings are stored to {}", CYB_JFR_FOLDER);
+        return optionBuilder.addProfiler(JfrProfiler.class, initLine);
+    }
+
+    private static ChainedOptionsBuilder addJitProfiler(ChainedOptionsBuilder optionBuilder) {
+        if (!isJfrSupported("JIT profiler")) {
+            return optionBuilder;
+        }
+        return optionBuilder.addProfiler(JitProfiler.class,
+                "top=" + StringUtils.defaultIfEmpty(getProperty(Constants.JIT_TOP), "10"));
+    }
+
+    /**
+     * Checks launcher JVM, which instantiates profilers as well. Forks of other JVMs without JFR skip the profiler.
+     */
+    private static boolean isJfrSupported(String profiler) {
+        try {
+            Class.forName("jdk.jfr.Recording");
+            return true;
+        } catch (ClassNotFoundException exc) {
+            LOG.error("{} is not supported by JVM {}, benchmarks will be run without it", profiler,
+                    System.getProperty("java.vm.version"));
+            return false;
+        }
+    }
+
+    private static List<Class<?>> getMacroWorkloadClasses() {
+        List<Class<?>> workloadClasses = new ArrayList<>();
+        String workloads = getProperty(Constants.MACRO_WORKLOADS);
+        if (StringUtils.isBlank(workloads)) {
+            return workloadClasses;
+        }
+        for (String workload : workloads.split(",")) {
+            try {
+                workloadClasses.add(Class.forName(workload.trim()));
+            } catch (ClassNotFoundException exc) {
+                LOG.error("Macro-benchmark workload class not found in the classpath: {}", workload, exc);
+            }
+        }
+        return workloadClasses;
+    }
+
+    private static MacroBenchmark createMacroBenchmark() {
+        int warmUpSeconds = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.MACRO_WARM_UP_SECONDS), "10"));
+        int seconds = Integer.parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.MACRO_SECONDS), "60"));
+        int sampleSeconds = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.MACRO_SAMPLE_SECONDS), "1"));
+        String args = getProperty(Constants.MACRO_WORKLOAD_ARGS);
+        return new MacroBenchmark(warmUpSeconds, seconds, sampleSeconds, StringUtils.isBlank(args)
+                ? Collections.emptyList() : Arrays.asList(args.trim().split("\\s+")));
+    }
+
+    private static OpenLoopSweep createOpenLoopSweep() {
+        if (!Boolean.parseBoolean(getProperty(Constants.OPEN_LOOP))) {
+            return null;
+        }
+        String rates = getProperty(Constants.OPEN_LOOP_RATES);
+        double[] targetRates = StringUtils.isBlank(rates) ? new double[0]
+                : Arrays.stream(rates.split(",")).map(String::trim).mapToDouble(Double::parseDouble).toArray();
+        int threads = Integer.parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.OPEN_LOOP_THREADS), "1"));
+        int warmUpSeconds = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.OPEN_LOOP_WARM_UP_SECONDS), "1"));
+        int seconds = Integer.parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.OPEN_LOOP_SECONDS), "5"));
+        LOG.info("Open loop measurement enabled: rates={}, threads={}, warmUp={}s, measurement={}s",
+                targetRates.length == 0 ? "auto" : Arrays.toString(targetRates), threads, warmUpSeconds, seconds);
+        return new OpenLoopSweep(targetRates, threads, warmUpSeconds, seconds);
+    }
+
+    /**
+     * JVM used by forks is set by {@code javaToUsePath} and {@code javaOptions*} properties. JVM matrix run adds
+     * configuration for every combination of {@code jvmMatrixJavaPaths} and {@code jvmMatrixOptions.*} alternatives.
+     */
+    private static List<JvmConfiguration> createJvmConfigurations() {
+        List<String> commonJvmArgs = JvmMatrix
+                .splitJvmArgs(String.join(" ", getPropertiesWithPrefix(Constants.JAVA_OPTIONS_PREFIX).values()));
+        String javaToUsePath = getProperty(Constants.JAVA_TO_USE_PATH);
+        List<String> javaPaths = StringUtils.isBlank(javaToUsePath) ? Collections.emptyList()
+                : Collections.singletonList(javaToUsePath.trim());
+        Map<String, List<String>> dimensions = new TreeMap<>();
+        if (Boolean.parseBoolean(getProperty(Constants.JVM_MATRIX))) {
+            String matrixJavaPaths = getProperty(Constants.JVM_MATRIX_JAVA_PATHS);
+            if (StringUtils.isNotBlank(matrixJavaPaths)) {
+                javaPaths = Arrays.stream(matrixJavaPaths.split(",")).map(String::trim).filter(StringUtils::isNotEmpty)
+                        .collect(Collectors.toList());
+            }
+            for (Map.Entry<String, String> option : getPropertiesWithPrefix(Constants.JVM_MATRIX_OPTIONS_PREFIX)
+                    .entrySet()) {
+                dimensions.put(option.getKey().substring(Constants.JVM_MATRIX_OPTIONS_PREFIX.length()),
+                        Arrays.stream(option.getValue().split("\\|", -1)).map(String::trim).distinct()
+                                .collect(Collectors.toList()));
+            }
+        }
+        List<JvmConfiguration> jvmConfigurations = JvmMatrix.createConfigurations(javaPaths, commonJvmArgs,
+                dimensions);
+        if (jvmConfigurations.size() > 1) {
+            LOG.info("JVM matrix run enabled: configurations={}", jvmConfigurations.size());
+        }
+        return jvmConfigurations;
+    }
+
+    private static AbComparison createAbComparison() {
+        if (!Boolean.parseBoolean(getProperty(Constants.AB_COMPARISON))) {
+            return null;
+        }
+        String classpathA = getProperty(Constants.AB_CLASSPATH_A);
+        String classpathB = getProperty(Constants.AB_CLASSPATH_B);
+        if (StringUtils.isBlank(classpathA) || StringUtils.isBlank(classpathB)) {
+            LOG.error("A/B comparison is not run, both {} and {} must be set", Constants.AB_CLASSPATH_A,
+                    Constants.AB_CLASSPATH_B);
+            return null;
+        }
+        int rounds = Integer.parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.AB_ROUNDS), "5"));
+        double confidence = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.AB_CONFIDENCE), "0.95"));
+        LOG.info("A/B comparison enabled: classpathA={}, classpathB={}, rounds={}, confidence={}", classpathA,
+                classpathB, rounds, confidence);
+        return new AbComparison(classpathA, classpathB, rounds, confidence);
+    }
+
+    private static BaselineComparisonReport compareWithBaseline(BenchmarkOverviewReport report,
+            Collection<BenchmarkReport> benchmarkReports) {
+        String baselineReport = getProperty(Constants.BASELINE_REPORT);
+        File baselineFile;
+        if (StringUtils.isNotBlank(baselineReport)) {
+            baselineFile = new File(baselineReport.trim());
+        } else {
+            String fingerprint = BaselineComparator.environmentFingerprint(
+                    JSONUtils.parseJsonIntoMap(JSONUtils.marshalToJson(report.getEnvironmentSettings())));
+            baselineFile = BaselineComparator.findLatestBaseline(new File(IOUtils.getReportsPath("", "")),
+                    fingerprint);
+        }
+        Map<?, ?> baseline = baselineFile == null || !baselineFile.isFile() ? null
+                : BaselineComparator.loadReport(baselineFile);
+        if (baseline == null) {
+            LOG.warn("Baseline report not found, benchmarks are not compared: {}", baselineFile);
+            return null;
+        }
+        double confidence = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.BASELINE_CONFIDENCE), "0.99"));
+        double regressionThreshold = Double.parseDouble(
+                StringUtils.defaultIfEmpty(getProperty(Constants.BASELINE_REGRESSION_THRESHOLD), "5.0"));
+        int maxRegressions = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.BASELINE_MAX_REGRESSIONS), "0"));
+        BaselineComparisonReport baselineComparison = BaselineComparator.compare(baseline, benchmarkReports,
+                confidence, regressionThreshold, maxRegressions);
+        baselineComparison.setBaselineReport(baselineFile.getPath());
+        LOG.info("Compared with baseline report={}: benchmarks={}, regressions={}, improvements={}", baselineFile,
+                baselineComparison.getComparisons().size(), baselineComparison.getRegressionsCount(),
+                baselineComparison.getImprovementsCount());
+        return baselineComparison;
+    }
+
+    private static void storeHistory(BenchmarkOverviewReport report, Collection<BenchmarkReport> benchmarkReports) {
+        try (HistoryStore historyStore = new HistoryStore(CYB_HISTORY_FOLDER)) {
+            Map<?, ?> environmentSettings = JSONUtils
+                    .parseJsonIntoMap(JSONUtils.marshalToJson(report.getEnvironmentSettings()));
+            int appended = historyStore.appendReports(benchmarkReports, report.getTimestamp(), environmentSettings);
+            LOG.info("Stored {} results to history={}, records={}", appended, CYB_HISTORY_FOLDER,
+                    historyStore.getRecordsCount());
+            if (Boolean.parseBoolean(getProperty(Constants.TREND_ANALYSIS))) {
+                report.setTrendReport(analyzeTrends(historyStore, environmentSettings));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Error on storing results to history={}", CYB_HISTORY_FOLDER, e);
+        }
+    }
+
+    private static TrendReport analyzeTrends(HistoryStore historyStore, Map<?, ?> environmentSettings) {
+        double significance = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.TREND_SIGNIFICANCE), "0.01"));
+        int minSegmentSize = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.TREND_MIN_SEGMENT_SIZE), "3"));
+        double noiseThreshold = Double
+                .parseDouble(StringUtils.defaultIfEmpty(getProperty(Constants.TREND_NOISE_THRESHOLD), "5.0"));
+        ChangePointDetector detector = new ChangePointDetector(significance,
+                ChangePointDetector.DEFAULT_PERMUTATIONS, minSegmentSize, noiseThreshold);
+        // history of benchmarks measured on the same hardware and JVM as this run
+        TrendReport trendReport = detector.analyze(historyStore,
+                historyStore.findSeries(null, HistoryStore.getHardwareId(environmentSettings),
+                        HistoryStore.getJvmVersion(environmentSettings)));
+        LOG.info("Trend analysis found {} change points in history of {} benchmarks",
+                trendReport.getChangePointsCount(), trendReport.getBenchmarks().size());
+        return trendReport;
+    }
+
+    private static ParallelScheduler createParallelScheduler() {
+        if (!Boolean.parseBoolean(getProperty(Constants.PARALLEL_EXECUTION))) {
+            return null;
+        }
+        int maxParallel = Integer
+                .parseInt(StringUtils.defaultIfEmpty(getProperty(Constants.PARALLEL_MAX_BENCHMARKS), "0"));
+        ParallelScheduler parallelScheduler = ParallelScheduler.create(maxParallel);
+        if (parallelScheduler != null) {
+            LOG.info("Parallel execution enabled: parallelism={}", parallelScheduler.getParallelism());
+        }
+        return parallelScheduler;
+    }
+
+    private static boolean reuseCachedReport(BenchmarkWorkItem workItem, ResultCache resultCache,
+            ReportJournal journal, CheckpointManifest manifest, Map<String, String> generatedFingerprints,
+            Map<String, String> classFingerprints) {
+        String cacheKey = resultCache.createKey(workItem.getKey(), generatedFingerprints.get(workItem.getBenchmark()),
+                classFingerprints.get(workItem.getBenchmark()));
+        BenchmarkReport cachedReport = resultCache.get(cacheKey);
+        if (cachedReport == null) {
+            return false;
+        }
+        LOG.info("Reusing cached result of unchanged benchmark: {}", workItem);
+        journal.append(cachedReport);
+        manifest.markFinished(workItem.getKey());
+        return true;
+    }
+
+    private static void storeReportsToCache(Collection<BenchmarkReport> benchmarkReports, ResultCache resultCache) {
+        for (BenchmarkReport benchmarkReport : benchmarkReports) {
+            if (!ResultCache.isCached(benchmarkReport)) {
+                resultCache.put(resultCache.createKey(BenchmarkWorkItem.keyOf(benchmarkReport),
+                        benchmarkReport.getGeneratedFingerprint(), benchmarkReport.getClassFingerprint()),
+                        benchmarkReport);
+            }
+        }
+    }
+
+    /**
+     * Cached results are valid only for same JVM, hardware, execution, measurement and profiler settings.
+     */
+    private static String getEnvironmentIdentity(HardwareProperties hwProperties, JVMProperties jvmProperties) {
+        StringBuilder identity = new StringBuilder();
+        identity.append(jvmProperties.getJvmVmName()).append('|').append(jvmProperties.getJvmVmVersion()).append('|')
+                .append(jvmProperties.getJvmVendor()).append('|');
+        identity.append(hwProperties.getHwProcName()).append('|').append(hwProperties.getHwProcCoresCount())
+                .append('|').append(hwProperties.getHwProcLogicalThreadsCount()).append('|')
+                .append(hwProperties.getHwMemTotalMemoryBytes()).append('|').append(hwProperties.getHwOsName())
+                .append('|');
+        identity.append(System.getProperty("os.arch")).append('|').append(Runtime.getRuntime().availableProcessors())
+                .append('|');
+        identity.append(ResultCache.getSettingsIdentity(BenchmarkRunner::getProperty));
+        identity.append(getPropertiesWithPrefix(Constants.JAVA_OPTIONS_PREFIX)).append('|');
+        return identity.toString();
+    }
+
+    private static OutputFormat createConsoleOutputFormat(Options opt) throws UnsupportedEncodingException {
+        // runner closes output format when finished, so System.out must be protected from closing
+        PrintStream out = new UnCloseablePrintStream(System.out, Utils.guessConsoleEncoding());
+        return OutputFormatFactory.createFormatInstance(out, opt.verbosity().orElse(Defaults.VERBOSITY));
     }
 
     private static void appendMetadataFromJavaDoc(Class<?> aClass, Optional<Method> benchmarkMethod,
@@ -468,6 +1043,21 @@ public class BenchmarkRunner {
         }
     }
 
+    /**
+     * @return configuration and system properties having given name prefix, system properties take precedence
+     */
+    private static Map<String, String> getPropertiesWithPrefix(String prefix) {
+        Map<String, String> properties = new TreeMap<>();
+        Set<String> keys = new HashSet<>(cfg.stringPropertyNames());
+        keys.addAll(System.getProperties().stringPropertyNames());
+        for (String key : keys) {
+            if (key.startsWith(prefix)) {
+                properties.put(key, getProperty(key));
+            }
+        }
+        return properties;
+    }
+
     private static Map<String, Object> getUserDefinedProperties() {
         Map<String, Object> userProperties = new HashMap<>();
         Set<String> keys = cfg.stringPropertyNames();
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.launcher.model.HistoryRecord;
+import com.gocypher.cybench.launcher.model.HistorySeries;
+import com.gocypher.cybench.launcher.report.BaselineComparator;
+import com.gocypher.cybench.launcher.report.ChangePointDetector;
+import com.gocypher.cybench.launcher.report.HistoryStore;
+import com.gocypher.cybench.launcher.utils.Constants;
+
+/**
+ * Command line queries of results history store, e.g.
+ * {@code HistoryQuery timeseries benchmark=ListBenchmarks from=2021-01-01}. Commands:
+ * <ul>
+ * <li>{@code import <reports folder>} - append results of JSON reports stored by earlier runs</li>
+ * <li>{@code series} - list stored series</li>
+ * <li>{@code timeseries} - scores of every run</li>
+ * <li>{@code percentiles} - score percentiles per time bucket</li>
+ * <li>{@code best}, {@code worst} - best and worst runs</li>
+ * <li>{@code changepoints} - JSON list of change points and stability of every series</li>
+ * </ul>
+ * Options: {@code folder=<history folder>}, {@code benchmark=<name regex>}, {@code hardware=<hardware id>},
+ * {@code jvm=<part of JVM version>}, {@code from=<yyyy-MM-dd>}, {@code to=<yyyy-MM-dd>}, {@code bucketDays=30},
+ * {@code percentiles=50,90,99}, {@code limit=5}, {@code significance=0.01}, {@code minSegmentSize=3},
+ * {@code noiseThreshold=5.0}.
+ */
+public final class HistoryQuery {
+    private static final PrintStream OUT = System.out;
+
+    private HistoryQuery() {
+    }
+
+    public static void main(String... args) throws Exception {
+        if (args.length == 0) {
+            OUT.println("Usage: HistoryQuery import <reports folder> | series | timeseries | percentiles | best | worst"
+                    + " | changepoints [folder=] [benchmark=] [hardware=] [jvm=] [from=] [to=] [bucketDays=]"
+                    + " [percentiles=] [limit=] [significance=] [minSegmentSize=] [noiseThreshold=]");
+            return;
+        }
+        String command = args[0];
+        Map<String, String> options = new HashMap<>();
+        List<String> arguments = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            if (option.length == 2) {
+                options.put(option[0], option[1]);
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        long from = options.containsKey("from") ? dateFormat.parse(options.get("from")).getTime() : Long.MIN_VALUE;
+        long to = options.containsKey("to") ? dateFormat.parse(options.get("to")).getTime() : Long.MAX_VALUE;
+        int limit = Integer.parseInt(options.getOrDefault("limit", "5"));
+
+        long start = System.nanoTime();
+        int recordsRead = 0;
+        try (HistoryStore store = new HistoryStore(
+                options.getOrDefault("folder", BenchmarkRunner.CYB_HISTORY_FOLDER))) {
+            if ("import".equals(command)) {
+                importReports(store, arguments.isEmpty() ? "reports" : arguments.get(0));
+                return;
+            }
+            List<HistorySeries> found = store.findSeries(options.get("benchmark"), options.get("hardware"),
+                    options.get("jvm"));
+            if ("changepoints".equals(command)) {
+                // JSON only, so output can be processed by other tools
+                OUT.println(JSONUtils.marshalToPrettyJson(createDetector(options).analyze(store, found)));
+                return;
+            }
+            for (HistorySeries series : found) {
+                OUT.printf("%s %s %s [%s, %s] (%s)%n", series.getName(), series.getMode(), series.getParams(),
+                        series.getHardwareId(), series.getJvmVersion(), series.getUnits());
+                if ("series".equals(command)) {
+                    continue;
+                }
+                List<HistoryRecord> records = store.getRecords(series, from, to);
+                recordsRead += records.size();
+                if ("timeseries".equals(command)) {
+                    printRecords(records);
+                } else if ("best".equals(command) || "worst".equals(command)) {
+                    printRecords(HistoryStore.rankRecords(series, records, "best".equals(command), limit));
+                } else if ("percentiles".equals(command)) {
+                    printPercentiles(records, options);
+                } else {
+                    OUT.println("Unknown command: " + command);
+                    return;
+                }
+            }
+        }
+        OUT.printf("Read %d records in %d ms%n", recordsRead,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static ChangePointDetector createDetector(Map<String, String> options) {
+        return new ChangePointDetector(Double.parseDouble(options.getOrDefault("significance", "0.01")),
+                ChangePointDetector.DEFAULT_PERMUTATIONS,
+                Integer.parseInt(options.getOrDefault("minSegmentSize", "3")),
+                Double.parseDouble(options.getOrDefault("noiseThreshold", "5.0")));
+    }
+
+    private static void importReports(HistoryStore store, String reportsFolder) throws Exception {
+        File[] reportFiles = new File(reportsFolder).listFiles((dir, name) -> name.endsWith(Constants.CYB_REPORT_FILE_EXTENSION));
+        if (reportFiles == null) {
+            OUT.println("Reports folder not found: " + reportsFolder);
+            return;
+        }
+        Arrays.sort(reportFiles, Comparator.comparingLong(File::lastModified));
+        int imported = 0;
+        for (File reportFile : reportFiles) {
+            Map<?, ?> report = BaselineComparator.loadReport(reportFile);
+            if (report != null) {
+                imported += store.importReport(report);
+            }
+        }
+        OUT.printf("Imported %d results of %d reports, store has %d records%n", imported, reportFiles.length,
+                store.getRecordsCount());
+    }
+
+    private static void printRecords(List<HistoryRecord> records) {
+        for (HistoryRecord record : records) {
+            OUT.printf("  %tF %<tT  %.6g  sd=%.4g  n=%d%n", record.getTimestamp(), record.getScore(),
+                    record.getStdDevScore(), record.getN());
+        }
+    }
+
+    private static void printPercentiles(List<HistoryRecord> records, Map<String, String> options) {
+        String[] names = StringUtils.split(options.getOrDefault("percentiles", "50,90,99"), ',');
+        double[] percentiles = Arrays.stream(names).mapToDouble(Double::parseDouble).toArray();
+        long bucketMillis = TimeUnit.DAYS.toMillis(Long.parseLong(options.getOrDefault("bucketDays", "30")));
+        for (Map.Entry<Long, double[]> bucket : HistoryStore
+                .computePercentilesOverTime(records, bucketMillis, percentiles).entrySet()) {
+            StringBuilder line = new StringBuilder(String.format("  %tF", bucket.getKey()));
+            for (int i = 0; i < names.length; i++) {
+                line.append(String.format("  p%s=%.6g", names[i].trim(), bucket.getValue()[i]));
+            }
+            OUT.println(line);
+        }
+    }
+}
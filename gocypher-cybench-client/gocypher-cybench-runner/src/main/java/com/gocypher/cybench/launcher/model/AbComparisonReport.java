@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of A/B comparison session: benchmarks of classpath A and classpath B run in interleaved forks, compared by
+ * Welch's t-test over per-fork scores.
+ */
+public class AbComparisonReport implements Serializable {
+    private static final long serialVersionUID = 6254079862150113390L;
+
+    public static final String VERDICT_IMPROVED = "improved";
+    public static final String VERDICT_REGRESSED = "regressed";
+    public static final String VERDICT_NO_DIFFERENCE = "no significant difference";
+    public static final String VERDICT_INSUFFICIENT_DATA = "insufficient data";
+
+    private String classpathA;
+    private String classpathB;
+    private int rounds;
+    private double confidence;
+    private List<AbBenchmarkComparison> comparisons = new ArrayList<>();
+    /* benchmarks found only on one side, prefixed with side name */
+    private List<String> unmatchedBenchmarks = new ArrayList<>();
+
+    public String getClasspathA() {
+        return classpathA;
+    }
+
+    public void setClasspathA(String classpathA) {
+        this.classpathA = classpathA;
+    }
+
+    public String getClasspathB() {
+        return classpathB;
+    }
+
+    public void setClasspathB(String classpathB) {
+        this.classpathB = classpathB;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(int rounds) {
+        this.rounds = rounds;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+
+    public List<AbBenchmarkComparison> getComparisons() {
+        return comparisons;
+    }
+
+    public void setComparisons(List<AbBenchmarkComparison> comparisons) {
+        this.comparisons = comparisons;
+    }
+
+    public List<String> getUnmatchedBenchmarks() {
+        return unmatchedBenchmarks;
+    }
+
+    public void setUnmatchedBenchmarks(List<String> unmatchedBenchmarks) {
+        this.unmatchedBenchmarks = unmatchedBenchmarks;
+    }
+
+    @Override
+    public String toString() {
+        return "AbComparisonReport{" +
+                "classpathA='" + classpathA + '\'' +
+                ", classpathB='" + classpathB + '\'' +
+                ", rounds=" + rounds +
+                ", confidence=" + confidence +
+                ", comparisons=" + comparisons +
+                ", unmatchedBenchmarks=" + unmatchedBenchmarks +
+                '}';
+    }
+
+    /**
+     * Benchmark of side A paired with benchmark of side B by {@code @BenchmarkTag}, or by name if it has no tag.
+     * Delta is B minus A, with confidence interval {@code [deltaLow, deltaHigh]} and two-sided p-value of Welch's
+     * t-test.
+     */
+    public static class AbBenchmarkComparison implements Serializable {
+        private static final long serialVersionUID = -1863287296429525418L;
+
+        private String benchmarkA;
+        private String benchmarkB;
+        private String tag;
+        private String mode;
+        private Map<String, String> params;
+        private String scoreUnit;
+        private List<Double> scoresA = new ArrayList<>();
+        private List<Double> scoresB = new ArrayList<>();
+        private Double meanA;
+        private Double meanB;
+        private Double delta;
+        private Double deltaPercent;
+        private Double deltaLow;
+        private Double deltaHigh;
+        private Double welchPValue;
+        private String verdict;
+
+        public String getBenchmarkA() {
+            return benchmarkA;
+        }
+
+        public void setBenchmarkA(String benchmarkA) {
+            this.benchmarkA = benchmarkA;
+        }
+
+        public String getBenchmarkB() {
+            return benchmarkB;
+        }
+
+        public void setBenchmarkB(String benchmarkB) {
+            this.benchmarkB = benchmarkB;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public void setTag(String tag) {
+            this.tag = tag;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public Map<String, String> getParams() {
+            return params;
+        }
+
+        public void setParams(Map<String, String> params) {
+            this.params = params;
+        }
+
+        public String getScoreUnit() {
+            return scoreUnit;
+        }
+
+        public void setScoreUnit(String scoreUnit) {
+            this.scoreUnit = scoreUnit;
+        }
+
+        public List<Double> getScoresA() {
+            return scoresA;
+        }
+
+        public void setScoresA(List<Double> scoresA) {
+            this.scoresA = scoresA;
+        }
+
+        public List<Double> getScoresB() {
+            return scoresB;
+        }
+
+        public void setScoresB(List<Double> scoresB) {
+            this.scoresB = scoresB;
+        }
+
+        public Double getMeanA() {
+            return meanA;
+        }
+
+        public void setMeanA(Double meanA) {
+            this.meanA = meanA;
+        }
+
+        public Double getMeanB() {
+            return meanB;
+        }
+
+        public void setMeanB(Double meanB) {
+            this.meanB = meanB;
+        }
+
+        public Double getDelta() {
+            return delta;
+        }
+
+        public void setDelta(Double delta) {
+            this.delta = delta;
+        }
+
+        public Double getDeltaPercent() {
+            return deltaPercent;
+        }
+
+        public void setDeltaPercent(Double deltaPercent) {
+            this.deltaPercent = deltaPercent;
+        }
+
+        public Double getDeltaLow() {
+            return deltaLow;
+        }
+
+        public void setDeltaLow(Double deltaLow) {
+            this.deltaLow = deltaLow;
+        }
+
+        public Double getDeltaHigh() {
+            return deltaHigh;
+        }
+
+        public void setDeltaHigh(Double deltaHigh) {
+            this.deltaHigh = deltaHigh;
+        }
+
+        public Double getWelchPValue() {
+            return welchPValue;
+        }
+
+        public void setWelchPValue(Double welchPValue) {
+            this.welchPValue = welchPValue;
+        }
+
+        public String getVerdict() {
+            return verdict;
+        }
+
+        public void setVerdict(String verdict) {
+            this.verdict = verdict;
+        }
+
+        @Override
+        public String toString() {
+            return "AbBenchmarkComparison{" +
+                    "benchmarkA='" + benchmarkA + '\'' +
+                    ", benchmarkB='" + benchmarkB + '\'' +
+                    ", tag='" + tag + '\'' +
+                    ", mode='" + mode + '\'' +
+                    ", params=" + params +
+                    ", scoreUnit='" + scoreUnit + '\'' +
+                    ", meanA=" + meanA +
+                    ", meanB=" + meanB +
+                    ", delta=" + delta +
+                    ", deltaPercent=" + deltaPercent +
+                    ", deltaLow=" + deltaLow +
+                    ", deltaHigh=" + deltaHigh +
+                    ", welchPValue=" + welchPValue +
+                    ", verdict='" + verdict + '\'' +
+                    '}';
+        }
+    }
+}
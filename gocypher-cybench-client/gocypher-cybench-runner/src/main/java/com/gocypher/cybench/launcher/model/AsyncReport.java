@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Completion latency and throughput of asynchronous benchmark, measured from submission of every operation to
+ * completion of its stage, with fixed count of operations in flight.
+ */
+public class AsyncReport implements Serializable {
+    private static final long serialVersionUID = -6370428158244617093L;
+
+    private int threads;
+    /* operations in flight per thread */
+    private int inFlight;
+    private String latencyUnits;
+    /* operations completed in measurement iterations */
+    private long operations;
+    /* completed operations per second */
+    private Double throughput;
+    /* mean time of synchronous call returning the stage, in latency units */
+    private Double submissionTime;
+    private Double meanLatency;
+    private Map<String, Double> latencyPercentiles;
+    /* encoded ScoreHistogram of completion latency */
+    private String latencyHistogram;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public String getLatencyUnits() {
+        return latencyUnits;
+    }
+
+    public void setLatencyUnits(String latencyUnits) {
+        this.latencyUnits = latencyUnits;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public void setOperations(long operations) {
+        this.operations = operations;
+    }
+
+    public Double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(Double throughput) {
+        this.throughput = throughput;
+    }
+
+    public Double getSubmissionTime() {
+        return submissionTime;
+    }
+
+    public void setSubmissionTime(Double submissionTime) {
+        this.submissionTime = submissionTime;
+    }
+
+    public Double getMeanLatency() {
+        return meanLatency;
+    }
+
+    public void setMeanLatency(Double meanLatency) {
+        this.meanLatency = meanLatency;
+    }
+
+    public Map<String, Double> getLatencyPercentiles() {
+        return latencyPercentiles;
+    }
+
+    public void setLatencyPercentiles(Map<String, Double> latencyPercentiles) {
+        this.latencyPercentiles = latencyPercentiles;
+    }
+
+    public String getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public void setLatencyHistogram(String latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncReport{" +
+                "threads=" + threads +
+                ", inFlight=" + inFlight +
+                ", latencyUnits='" + latencyUnits + '\'' +
+                ", operations=" + operations +
+                ", throughput=" + throughput +
+                ", submissionTime=" + submissionTime +
+                ", meanLatency=" + meanLatency +
+                ", latencyPercentiles=" + latencyPercentiles +
+                '}';
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparison of benchmarks of current run with the same benchmarks (name, mode and params) of baseline report.
+ * Change is regression or improvement when it is statistically significant and exceeds regression threshold.
+ */
+public class BaselineComparisonReport implements Serializable {
+    private static final long serialVersionUID = -2874506167452920651L;
+
+    public static final String VERDICT_IMPROVED = "improved";
+    public static final String VERDICT_REGRESSED = "regressed";
+    public static final String VERDICT_NO_DIFFERENCE = "no significant difference";
+
+    private String baselineReport;
+    private Long baselineTimestamp;
+    private double confidence;
+    /* minimal change of score in percents to be reported as regression or improvement */
+    private double regressionThreshold;
+    private int maxRegressions;
+    private int regressionsCount;
+    private int improvementsCount;
+    private boolean thresholdExceeded;
+    private List<BaselineBenchmarkComparison> comparisons = new ArrayList<>();
+    private List<String> newBenchmarks = new ArrayList<>();
+    private List<String> missingBenchmarks = new ArrayList<>();
+
+    public String getBaselineReport() {
+        return baselineReport;
+    }
+
+    public void setBaselineReport(String baselineReport) {
+        this.baselineReport = baselineReport;
+    }
+
+    public Long getBaselineTimestamp() {
+        return baselineTimestamp;
+    }
+
+    public void setBaselineTimestamp(Long baselineTimestamp) {
+        this.baselineTimestamp = baselineTimestamp;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+
+    public double getRegressionThreshold() {
+        return regressionThreshold;
+    }
+
+    public void setRegressionThreshold(double regressionThreshold) {
+        this.regressionThreshold = regressionThreshold;
+    }
+
+    public int getMaxRegressions() {
+        return maxRegressions;
+    }
+
+    public void setMaxRegressions(int maxRegressions) {
+        this.maxRegressions = maxRegressions;
+    }
+
+    public int getRegressionsCount() {
+        return regressionsCount;
+    }
+
+    public void setRegressionsCount(int regressionsCount) {
+        this.regressionsCount = regressionsCount;
+    }
+
+    public int getImprovementsCount() {
+        return improvementsCount;
+    }
+
+    public void setImprovementsCount(int improvementsCount) {
+        this.improvementsCount = improvementsCount;
+    }
+
+    public boolean isThresholdExceeded() {
+        return thresholdExceeded;
+    }
+
+    public void setThresholdExceeded(boolean thresholdExceeded) {
+        this.thresholdExceeded = thresholdExceeded;
+    }
+
+    public List<BaselineBenchmarkComparison> getComparisons() {
+        return comparisons;
+    }
+
+    public void setComparisons(List<BaselineBenchmarkComparison> comparisons) {
+        this.comparisons = comparisons;
+    }
+
+    public List<String> getNewBenchmarks() {
+        return newBenchmarks;
+    }
+
+    public void setNewBenchmarks(List<String> newBenchmarks) {
+        this.newBenchmarks = newBenchmarks;
+    }
+
+    public List<String> getMissingBenchmarks() {
+        return missingBenchmarks;
+    }
+
+    public void setMissingBenchmarks(List<String> missingBenchmarks) {
+        this.missingBenchmarks = missingBenchmarks;
+    }
+
+    @Override
+    public String toString() {
+        return "BaselineComparisonReport{" +
+                "baselineReport='" + baselineReport + '\'' +
+                ", baselineTimestamp=" + baselineTimestamp +
+                ", confidence=" + confidence +
+                ", regressionThreshold=" + regressionThreshold +
+                ", maxRegressions=" + maxRegressions +
+                ", regressionsCount=" + regressionsCount +
+                ", improvementsCount=" + improvementsCount +
+                ", thresholdExceeded=" + thresholdExceeded +
+                ", newBenchmarks=" + newBenchmarks +
+                ", missingBenchmarks=" + missingBenchmarks +
+                '}';
+    }
+
+    /**
+     * Delta is change of current score relative to baseline score in percents, with confidence interval
+     * {@code [deltaLowPercent, deltaHighPercent]}. P-value is missing if any report has no score statistics.
+     */
+    public static class BaselineBenchmarkComparison implements Serializable {
+        private static final long serialVersionUID = 5381526404981693146L;
+
+        private String name;
+        private String mode;
+        private Map<String, String> params;
+        private String jvmConfiguration;
+        private String units;
+        /* compared score percentile, or null if mean scores are compared */
+        private Double scorePercentile;
+        private Double baselineScore;
+        private Double score;
+        private Double deltaPercent;
+        private Double deltaLowPercent;
+        private Double deltaHighPercent;
+        private Double welchPValue;
+        private String verdict;
+        /* flame graphs of current and baseline run, if benchmarks were run with stack profiler */
+        private String flameGraph;
+        private String baselineFlameGraph;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public Map<String, String> getParams() {
+            return params;
+        }
+
+        public void setParams(Map<String, String> params) {
+            this.params = params;
+        }
+
+        public String getJvmConfiguration() {
+            return jvmConfiguration;
+        }
+
+        public void setJvmConfiguration(String jvmConfiguration) {
+            this.jvmConfiguration = jvmConfiguration;
+        }
+
+        public String getUnits() {
+            return units;
+        }
+
+        public void setUnits(String units) {
+            this.units = units;
+        }
+
+        public Double getScorePercentile() {
+            return scorePercentile;
+        }
+
+        public void setScorePercentile(Double scorePercentile) {
+            this.scorePercentile = scorePercentile;
+        }
+
+        public Double getBaselineScore() {
+            return baselineScore;
+        }
+
+        public void setBaselineScore(Double baselineScore) {
+            this.baselineScore = baselineScore;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+
+        public Double getDeltaPercent() {
+            return deltaPercent;
+        }
+
+        public void setDeltaPercent(Double deltaPercent) {
+            this.deltaPercent = deltaPercent;
+        }
+
+        public Double getDeltaLowPercent() {
+            return deltaLowPercent;
+        }
+
+        public void setDeltaLowPercent(Double deltaLowPercent) {
+            this.deltaLowPercent = deltaLowPercent;
+        }
+
+        public Double getDeltaHighPercent() {
+            return deltaHighPercent;
+        }
+
+        public void setDeltaHighPercent(Double deltaHighPercent) {
+            this.deltaHighPercent = deltaHighPercent;
+        }
+
+        public Double getWelchPValue() {
+            return welchPValue;
+        }
+
+        public void setWelchPValue(Double welchPValue) {
+            this.welchPValue = welchPValue;
+        }
+
+        public String getVerdict() {
+            return verdict;
+        }
+
+        public void setVerdict(String verdict) {
+            this.verdict = verdict;
+        }
+
+        public String getFlameGraph() {
+            return flameGraph;
+        }
+
+        public void setFlameGraph(String flameGraph) {
+            this.flameGraph = flameGraph;
+        }
+
+        public String getBaselineFlameGraph() {
+            return baselineFlameGraph;
+        }
+
+        public void setBaselineFlameGraph(String baselineFlameGraph) {
+            this.baselineFlameGraph = baselineFlameGraph;
+        }
+
+        @Override
+        public String toString() {
+            return "BaselineBenchmarkComparison{" +
+                    "name='" + name + '\'' +
+                    ", mode='" + mode + '\'' +
+                    ", params=" + params +
+                    ", jvmConfiguration='" + jvmConfiguration + '\'' +
+                    ", units='" + units + '\'' +
+                    ", scorePercentile=" + scorePercentile +
+                    ", baselineScore=" + baselineScore +
+                    ", score=" + score +
+                    ", deltaPercent=" + deltaPercent +
+                    ", deltaLowPercent=" + deltaLowPercent +
+                    ", deltaHighPercent=" + deltaHighPercent +
+                    ", welchPValue=" + welchPValue +
+                    ", verdict='" + verdict + '\'' +
+                    ", flameGraph='" + flameGraph + '\'' +
+                    ", baselineFlameGraph='" + baselineFlameGraph + '\'' +
+                    '}';
+        }
+    }
+}
@@ -42,6 +42,11 @@ public class BenchmarkOverviewReport implements Serializable {
     private Map<String, Object> environmentSettings;
     private Map<String, Object> benchmarkSettings;
     private Map<String, List<BenchmarkReport>> benchmarks;
+    private List<ComplexityReport> complexityReports;
+    private JvmMatrixReport jvmMatrixReport;
+    private AbComparisonReport abComparisonReport;
+    private BaselineComparisonReport baselineComparison;
+    private TrendReport trendReport;
 
     public BenchmarkOverviewReport() {
         benchmarks = new HashMap<>();
@@ -158,6 +163,46 @@ public class BenchmarkOverviewReport implements Serializable {
         this.benchmarkSettings = benchmarkSettings;
     }
 
+    public List<ComplexityReport> getComplexityReports() {
+        return complexityReports;
+    }
+
+    public void setComplexityReports(List<ComplexityReport> complexityReports) {
+        this.complexityReports = complexityReports;
+    }
+
+    public JvmMatrixReport getJvmMatrixReport() {
+        return jvmMatrixReport;
+    }
+
+    public void setJvmMatrixReport(JvmMatrixReport jvmMatrixReport) {
+        this.jvmMatrixReport = jvmMatrixReport;
+    }
+
+    public AbComparisonReport getAbComparisonReport() {
+        return abComparisonReport;
+    }
+
+    public void setAbComparisonReport(AbComparisonReport abComparisonReport) {
+        this.abComparisonReport = abComparisonReport;
+    }
+
+    public BaselineComparisonReport getBaselineComparison() {
+        return baselineComparison;
+    }
+
+    public void setBaselineComparison(BaselineComparisonReport baselineComparison) {
+        this.baselineComparison = baselineComparison;
+    }
+
+    public TrendReport getTrendReport() {
+        return trendReport;
+    }
+
+    public void setTrendReport(TrendReport trendReport) {
+        this.trendReport = trendReport;
+    }
+
     public String getReportURL() {
         return reportURL;
     }
@@ -191,6 +236,11 @@ public class BenchmarkOverviewReport implements Serializable {
                 ", categoriesOverview=" + categoriesOverview +
                 ", environmentSettings=" + environmentSettings +
                 ", benchmarks=" + benchmarks +
+                ", complexityReports=" + complexityReports +
+                ", jvmMatrixReport=" + jvmMatrixReport +
+                ", abComparisonReport=" + abComparisonReport +
+                ", baselineComparison=" + baselineComparison +
+                ", trendReport=" + trendReport +
                 ", reportURL=" + reportURL +
                 '}';
     }
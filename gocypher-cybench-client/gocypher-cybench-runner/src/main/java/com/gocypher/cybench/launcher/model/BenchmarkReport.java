@@ -21,7 +21,9 @@ package com.gocypher.cybench.launcher.model;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -42,6 +44,9 @@ public class BenchmarkReport implements Serializable {
     private static final Logger LOG = LoggerFactory.getLogger(BenchmarkReport.class);
     private String name;
     private Double score;
+    /* primary score and its units as measured by JMH, before unit conversion and percentile score */
+    private Double rawScore;
+    private String rawUnits;
     private Double operationTime;
     private String units;
     private String mode;
@@ -56,6 +61,21 @@ public class BenchmarkReport implements Serializable {
     private int benchMeasurementSeconds;
     private int benchWarmUpIteration;
     private int benchWarmUpSeconds;
+    /* set when warm-up length was detected: true if benchmark reached steady state within warm-up limit */
+    private Boolean warmUpSteadyState;
+    /* CPUs the benchmark was pinned to and benchmarks running at the same time, set on parallel execution */
+    private String cpuSet;
+    private List<String> concurrentBenchmarks;
+    private ScalabilityReport scalability;
+    private OpenLoopReport openLoop;
+    private AsyncReport async;
+    private MacroReport macro;
+    private JfrReport jfr;
+    private StackProfileReport stackProfile;
+    private ContentionReport contention;
+    private JitReport jit;
+    /* name of JVM configuration the benchmark was run with, set on JVM matrix run */
+    private String jvmConfiguration;
     private String generatedFingerprint;
     private String manualFingerprint;
     private String classFingerprint;
@@ -64,6 +84,23 @@ public class BenchmarkReport implements Serializable {
     private Double maxScore;
     private Double stdDevScore;
     private Long n;
+    /* half-width of score confidence interval in percents of mean score */
+    private Double scoreErrorRelative;
+    private Double scoreErrorConfidence;
+    /* primary score of every measurement iteration grouped by fork, in JMH score units, kept when rawSamples is set */
+    private double[][] forkSamples;
+    /* variance of fork means and of iteration scores within forks */
+    private Double betweenForkVariance;
+    private Double withinForkVariance;
+    private Double bimodalityCoefficient;
+    /* set when iteration scores form two clusters, e.g. forks settled at different scores */
+    private Boolean bimodal;
+    /* score percentiles of sampling modes keyed by percentile key, e.g. p99.9 */
+    private Map<String, Double> scorePercentiles;
+    /* encoded ScoreHistogram of all samples of sampling modes, kept when scoreHistogram is set */
+    private String scoreHistogram;
+    /* percentile reported as score instead of mean, e.g. 99.0 */
+    private Double scorePercentile;
     private Double gcCalls;
     private Double gcTime;
     private Double gcAllocationRate;
@@ -72,6 +109,12 @@ public class BenchmarkReport implements Serializable {
     private Double gcChurnPsEdenSpaceNorm;
     private Double gcChurnPsSurvivorSpace;
     private Double gcChurnPsSurvivorSpaceNorm;
+    private Double gcPauseCount;
+    private Double gcPauseTime;
+    private Double gcPauseMax;
+    private Double gcPauseP99;
+    /* every GC secondary result keyed by normalized pool/collector name, e.g. churn.eden, pause.young.p99 */
+    private Map<String, Double> gcMetrics;
     private Double threadsAliveCount;
     private Double threadsDaemonCount;
     private Double threadsStartedCount;
@@ -107,14 +150,39 @@ public class BenchmarkReport implements Serializable {
     private Double threadsSyncParksCount;
 
     private Double performanceProcessCpuLoad;
+    private Double performanceProcessCpuLoadMax;
     private Double performanceProcessHeapMemoryUsed;
+    private Double performanceProcessHeapMemoryMax;
     private Double performanceProcessNonHeapMemoryUsed;
     private Double performanceSystemCpuLoad;
 
+    /* allocations of benchmark worker threads only, see ThreadAllocationProfiler */
+    private Double threadAllocationRate;
+    private Double threadAllocationRateNorm;
+    private Double threadAllocationNormMin;
+    private Double threadAllocationNormMax;
+    private Double threadAllocationSkew;
+
     public BenchmarkReport() {
 
     }
 
+    public Double getRawScore() {
+        return rawScore;
+    }
+
+    public void setRawScore(Double rawScore) {
+        this.rawScore = rawScore;
+    }
+
+    public String getRawUnits() {
+        return rawUnits;
+    }
+
+    public void setRawUnits(String rawUnits) {
+        this.rawUnits = rawUnits;
+    }
+
     @JsonIgnore
     public String getReportClassName() {
         if (name != null) {
@@ -287,6 +355,94 @@ public class BenchmarkReport implements Serializable {
         this.n = n;
     }
 
+    public Double getScoreErrorRelative() {
+        return scoreErrorRelative;
+    }
+
+    public void setScoreErrorRelative(Double scoreErrorRelative) {
+        this.scoreErrorRelative = scoreErrorRelative;
+    }
+
+    public Double getScoreErrorConfidence() {
+        return scoreErrorConfidence;
+    }
+
+    public void setScoreErrorConfidence(Double scoreErrorConfidence) {
+        this.scoreErrorConfidence = scoreErrorConfidence;
+    }
+
+    public double[][] getForkSamples() {
+        return forkSamples;
+    }
+
+    public void setForkSamples(double[][] forkSamples) {
+        this.forkSamples = forkSamples;
+    }
+
+    public Double getBetweenForkVariance() {
+        return betweenForkVariance;
+    }
+
+    public void setBetweenForkVariance(Double betweenForkVariance) {
+        this.betweenForkVariance = betweenForkVariance;
+    }
+
+    public Double getWithinForkVariance() {
+        return withinForkVariance;
+    }
+
+    public void setWithinForkVariance(Double withinForkVariance) {
+        this.withinForkVariance = withinForkVariance;
+    }
+
+    public Double getBimodalityCoefficient() {
+        return bimodalityCoefficient;
+    }
+
+    public void setBimodalityCoefficient(Double bimodalityCoefficient) {
+        this.bimodalityCoefficient = bimodalityCoefficient;
+    }
+
+    public Boolean getBimodal() {
+        return bimodal;
+    }
+
+    public void setBimodal(Boolean bimodal) {
+        this.bimodal = bimodal;
+    }
+
+    public Map<String, Double> getScorePercentiles() {
+        return scorePercentiles;
+    }
+
+    public void setScorePercentiles(Map<String, Double> scorePercentiles) {
+        this.scorePercentiles = scorePercentiles;
+    }
+
+    public String getScoreHistogram() {
+        return scoreHistogram;
+    }
+
+    public void setScoreHistogram(String scoreHistogram) {
+        this.scoreHistogram = scoreHistogram;
+    }
+
+    public Double getScorePercentile() {
+        return scorePercentile;
+    }
+
+    public void setScorePercentile(Double scorePercentile) {
+        this.scorePercentile = scorePercentile;
+    }
+
+    /**
+     * @return key of percentile in score percentiles, e.g. {@code p99.9}
+     */
+    @JsonIgnore
+    public static String percentileKey(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString();
+    }
+
     public Double getGcCalls() {
         return gcCalls;
     }
@@ -351,6 +507,46 @@ public class BenchmarkReport implements Serializable {
         this.gcChurnPsSurvivorSpaceNorm = gcChurnPsSurvivorSpaceNorm;
     }
 
+    public Double getGcPauseCount() {
+        return gcPauseCount;
+    }
+
+    public void setGcPauseCount(Double gcPauseCount) {
+        this.gcPauseCount = gcPauseCount;
+    }
+
+    public Double getGcPauseTime() {
+        return gcPauseTime;
+    }
+
+    public void setGcPauseTime(Double gcPauseTime) {
+        this.gcPauseTime = gcPauseTime;
+    }
+
+    public Double getGcPauseMax() {
+        return gcPauseMax;
+    }
+
+    public void setGcPauseMax(Double gcPauseMax) {
+        this.gcPauseMax = gcPauseMax;
+    }
+
+    public Double getGcPauseP99() {
+        return gcPauseP99;
+    }
+
+    public void setGcPauseP99(Double gcPauseP99) {
+        this.gcPauseP99 = gcPauseP99;
+    }
+
+    public Map<String, Double> getGcMetrics() {
+        return gcMetrics;
+    }
+
+    public void setGcMetrics(Map<String, Double> gcMetrics) {
+        this.gcMetrics = gcMetrics;
+    }
+
     public Double getThreadsAliveCount() {
         return threadsAliveCount;
     }
@@ -583,6 +779,102 @@ public class BenchmarkReport implements Serializable {
         this.benchWarmUpSeconds = benchWarmUpSeconds;
     }
 
+    public Boolean getWarmUpSteadyState() {
+        return warmUpSteadyState;
+    }
+
+    public void setWarmUpSteadyState(Boolean warmUpSteadyState) {
+        this.warmUpSteadyState = warmUpSteadyState;
+    }
+
+    public String getCpuSet() {
+        return cpuSet;
+    }
+
+    public void setCpuSet(String cpuSet) {
+        this.cpuSet = cpuSet;
+    }
+
+    public List<String> getConcurrentBenchmarks() {
+        return concurrentBenchmarks;
+    }
+
+    public void setConcurrentBenchmarks(List<String> concurrentBenchmarks) {
+        this.concurrentBenchmarks = concurrentBenchmarks;
+    }
+
+    public ScalabilityReport getScalability() {
+        return scalability;
+    }
+
+    public void setScalability(ScalabilityReport scalability) {
+        this.scalability = scalability;
+    }
+
+    public OpenLoopReport getOpenLoop() {
+        return openLoop;
+    }
+
+    public void setOpenLoop(OpenLoopReport openLoop) {
+        this.openLoop = openLoop;
+    }
+
+    public AsyncReport getAsync() {
+        return async;
+    }
+
+    public void setAsync(AsyncReport async) {
+        this.async = async;
+    }
+
+    public MacroReport getMacro() {
+        return macro;
+    }
+
+    public void setMacro(MacroReport macro) {
+        this.macro = macro;
+    }
+
+    public JfrReport getJfr() {
+        return jfr;
+    }
+
+    public void setJfr(JfrReport jfr) {
+        this.jfr = jfr;
+    }
+
+    public StackProfileReport getStackProfile() {
+        return stackProfile;
+    }
+
+    public void setStackProfile(StackProfileReport stackProfile) {
+        this.stackProfile = stackProfile;
+    }
+
+    public ContentionReport getContention() {
+        return contention;
+    }
+
+    public void setContention(ContentionReport contention) {
+        this.contention = contention;
+    }
+
+    public JitReport getJit() {
+        return jit;
+    }
+
+    public void setJit(JitReport jit) {
+        this.jit = jit;
+    }
+
+    public String getJvmConfiguration() {
+        return jvmConfiguration;
+    }
+
+    public void setJvmConfiguration(String jvmConfiguration) {
+        this.jvmConfiguration = jvmConfiguration;
+    }
+
     public Double getPerformanceProcessCpuLoad() {
         return performanceProcessCpuLoad;
     }
@@ -599,6 +891,22 @@ public class BenchmarkReport implements Serializable {
         this.performanceProcessHeapMemoryUsed = performanceProcessHeapMemoryUsed;
     }
 
+    public Double getPerformanceProcessCpuLoadMax() {
+        return performanceProcessCpuLoadMax;
+    }
+
+    public void setPerformanceProcessCpuLoadMax(Double performanceProcessCpuLoadMax) {
+        this.performanceProcessCpuLoadMax = performanceProcessCpuLoadMax;
+    }
+
+    public Double getPerformanceProcessHeapMemoryMax() {
+        return performanceProcessHeapMemoryMax;
+    }
+
+    public void setPerformanceProcessHeapMemoryMax(Double performanceProcessHeapMemoryMax) {
+        this.performanceProcessHeapMemoryMax = performanceProcessHeapMemoryMax;
+    }
+
     public Double getPerformanceProcessNonHeapMemoryUsed() {
         return performanceProcessNonHeapMemoryUsed;
     }
@@ -615,6 +923,46 @@ public class BenchmarkReport implements Serializable {
         this.performanceSystemCpuLoad = performanceSystemCpuLoad;
     }
 
+    public Double getThreadAllocationRate() {
+        return threadAllocationRate;
+    }
+
+    public void setThreadAllocationRate(Double threadAllocationRate) {
+        this.threadAllocationRate = threadAllocationRate;
+    }
+
+    public Double getThreadAllocationRateNorm() {
+        return threadAllocationRateNorm;
+    }
+
+    public void setThreadAllocationRateNorm(Double threadAllocationRateNorm) {
+        this.threadAllocationRateNorm = threadAllocationRateNorm;
+    }
+
+    public Double getThreadAllocationNormMin() {
+        return threadAllocationNormMin;
+    }
+
+    public void setThreadAllocationNormMin(Double threadAllocationNormMin) {
+        this.threadAllocationNormMin = threadAllocationNormMin;
+    }
+
+    public Double getThreadAllocationNormMax() {
+        return threadAllocationNormMax;
+    }
+
+    public void setThreadAllocationNormMax(Double threadAllocationNormMax) {
+        this.threadAllocationNormMax = threadAllocationNormMax;
+    }
+
+    public Double getThreadAllocationSkew() {
+        return threadAllocationSkew;
+    }
+
+    public void setThreadAllocationSkew(Double threadAllocationSkew) {
+        this.threadAllocationSkew = threadAllocationSkew;
+    }
+
     public Double getOperationTime() {
         return operationTime;
     }
@@ -630,13 +978,17 @@ public class BenchmarkReport implements Serializable {
         return metadata;
     }
 
-    // ^see above
-    @JsonAnySetter
     public void addMetadata(String key, String val) {
+        putMetadata("bench" + camelCase(key), val);
+    }
+
+    // ^see above, keys are already prefixed when report is read back from JSON
+    @JsonAnySetter
+    public void putMetadata(String key, String val) {
         if (metadata == null) {
             metadata = new HashMap<>();
         }
-        metadata.put("bench" + camelCase(key), val);
+        metadata.put(key, val);
     }
 
     @JsonIgnore
@@ -660,6 +1012,18 @@ public class BenchmarkReport implements Serializable {
                 ", benchMeasurementSeconds=" + benchMeasurementSeconds +
                 ", benchWarmUpIteration=" + benchWarmUpIteration +
                 ", benchWarmUpSeconds=" + benchWarmUpSeconds +
+                ", warmUpSteadyState=" + warmUpSteadyState +
+                ", cpuSet='" + cpuSet + '\'' +
+                ", concurrentBenchmarks=" + concurrentBenchmarks +
+                ", scalability=" + scalability +
+                ", openLoop=" + openLoop +
+                ", async=" + async +
+                ", macro=" + macro +
+                ", jfr=" + jfr +
+                ", stackProfile=" + stackProfile +
+                ", contention=" + contention +
+                ", jit=" + jit +
+                ", jvmConfiguration='" + jvmConfiguration + '\'' +
                 ", generatedFingerprint='" + generatedFingerprint + '\'' +
                 ", manualFingerprint='" + manualFingerprint + '\'' +
                 ", classFingerprint='" + classFingerprint + '\'' +
@@ -668,14 +1032,32 @@ public class BenchmarkReport implements Serializable {
                 ", maxScore=" + maxScore +
                 ", stdDevScore=" + stdDevScore +
                 ", n=" + n +
+                ", scoreErrorRelative=" + scoreErrorRelative +
+                ", scoreErrorConfidence=" + scoreErrorConfidence +
+                ", betweenForkVariance=" + betweenForkVariance +
+                ", withinForkVariance=" + withinForkVariance +
+                ", bimodalityCoefficient=" + bimodalityCoefficient +
+                ", bimodal=" + bimodal +
+                ", scorePercentiles=" + scorePercentiles +
+                ", scorePercentile=" + scorePercentile +
                 ", gcCalls=" + gcCalls +
                 ", gcTime=" + gcTime +
                 ", gcAllocationRate=" + gcAllocationRate +
                 ", gcAllocationRateNorm=" + gcAllocationRateNorm +
+                ", threadAllocationRate=" + threadAllocationRate +
+                ", threadAllocationRateNorm=" + threadAllocationRateNorm +
+                ", threadAllocationNormMin=" + threadAllocationNormMin +
+                ", threadAllocationNormMax=" + threadAllocationNormMax +
+                ", threadAllocationSkew=" + threadAllocationSkew +
                 ", gcChurnPsEdenSpace=" + gcChurnPsEdenSpace +
                 ", gcChurnPsEdenSpaceNorm=" + gcChurnPsEdenSpaceNorm +
                 ", gcChurnPsSurvivorSpace=" + gcChurnPsSurvivorSpace +
                 ", gcChurnPsSurvivorSpaceNorm=" + gcChurnPsSurvivorSpaceNorm +
+                ", gcPauseCount=" + gcPauseCount +
+                ", gcPauseTime=" + gcPauseTime +
+                ", gcPauseMax=" + gcPauseMax +
+                ", gcPauseP99=" + gcPauseP99 +
+                ", gcMetrics=" + gcMetrics +
                 ", threadsAliveCount=" + threadsAliveCount +
                 ", threadsDaemonCount=" + threadsDaemonCount +
                 ", threadsStartedCount=" + threadsStartedCount +
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Single benchmark execution unit: benchmark method, mode and one combination of {@code @Param} values.
+ */
+public class BenchmarkWorkItem {
+    private static final String PARAM_METADATA_PREFIX = "benchParam";
+
+    private final String benchmark;
+    private final Mode mode;
+    private final Map<String, String> params;
+    private final int threads;
+
+    public BenchmarkWorkItem(String benchmark, Mode mode, Map<String, String> params) {
+        this(benchmark, mode, params, 1);
+    }
+
+    public BenchmarkWorkItem(String benchmark, Mode mode, Map<String, String> params, int threads) {
+        this.benchmark = benchmark;
+        this.mode = mode;
+        this.params = new TreeMap<>(params);
+        this.threads = threads;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    /**
+     * @return benchmark threads count, {@link org.openjdk.jmh.annotations.Threads#MAX} when using all CPUs
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public String getKey() {
+        Map<String, String> keyParams = new TreeMap<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            keyParams.put(BenchmarkReport.camelCase(param.getKey()), param.getValue());
+        }
+        return toKey(benchmark, mode.shortLabel(), keyParams);
+    }
+
+    public static String keyOf(BenchmarkParams benchmarkParams) {
+        Map<String, String> params = new TreeMap<>();
+        for (String key : benchmarkParams.getParamsKeys()) {
+            params.put(key, benchmarkParams.getParam(key));
+        }
+        return new BenchmarkWorkItem(benchmarkParams.getBenchmark(), benchmarkParams.getMode(), params).getKey();
+    }
+
+    public static String keyOf(BenchmarkReport report) {
+        return toKey(report.getName(), report.getMode(), paramsOf(report));
+    }
+
+    /**
+     * @return work item key with characters not allowed in file names replaced, used to name profiler output files
+     */
+    public static String fileNameOf(String key) {
+        return key.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    public static Map<String, String> paramsOf(BenchmarkReport report) {
+        // report keeps params as "benchParam<Name>" metadata
+        Map<String, String> params = new TreeMap<>();
+        if (report.getMetadata() != null) {
+            for (Map.Entry<String, String> metadata : report.getMetadata().entrySet()) {
+                if (metadata.getKey().startsWith(PARAM_METADATA_PREFIX)) {
+                    params.put(metadata.getKey().substring(PARAM_METADATA_PREFIX.length()), metadata.getValue());
+                }
+            }
+        }
+        return params;
+    }
+
+    private static String toKey(String benchmark, String mode, Map<String, String> params) {
+        StringBuilder key = new StringBuilder(benchmark).append('|').append(mode).append('|');
+        boolean first = true;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!first) {
+                key.append(',');
+            }
+            key.append(param.getKey()).append('=').append(param.getValue());
+            first = false;
+        }
+        return key.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Empirical complexity of one benchmark across values of its size parameter: cost of operation fitted as
+ * {@code constant + coefficient * f(size)} for every complexity class, best fitting class and detected cost cliffs.
+ */
+public class ComplexityReport implements Serializable {
+    private static final long serialVersionUID = 1187451542350213985L;
+
+    private String name;
+    private String mode;
+    /* JVM configuration of matrix run, null if benchmarks did not run in JVM matrix */
+    private String jvmConfiguration;
+    private String sizeParam;
+    /* values of other benchmark params, same for all points */
+    private Map<String, String> params = new TreeMap<>();
+    /* operation cost unit, time per operation */
+    private String costUnits;
+    private List<ComplexityPoint> points = new ArrayList<>();
+    private String complexity;
+    private Double constant;
+    private Double coefficient;
+    /* R squared of relative residuals of best fit */
+    private Double fitRSquared;
+    /* root mean square of relative residuals of best fit, in percents */
+    private Double relativeRmse;
+    /* R squared of every fitted complexity class */
+    private Map<String, Double> fits = new TreeMap<>();
+    private List<CostCliff> cliffs = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getJvmConfiguration() {
+        return jvmConfiguration;
+    }
+
+    public void setJvmConfiguration(String jvmConfiguration) {
+        this.jvmConfiguration = jvmConfiguration;
+    }
+
+    public String getSizeParam() {
+        return sizeParam;
+    }
+
+    public void setSizeParam(String sizeParam) {
+        this.sizeParam = sizeParam;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, String> params) {
+        this.params = params;
+    }
+
+    public String getCostUnits() {
+        return costUnits;
+    }
+
+    public void setCostUnits(String costUnits) {
+        this.costUnits = costUnits;
+    }
+
+    public List<ComplexityPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<ComplexityPoint> points) {
+        this.points = points;
+    }
+
+    public String getComplexity() {
+        return complexity;
+    }
+
+    public void setComplexity(String complexity) {
+        this.complexity = complexity;
+    }
+
+    public Double getConstant() {
+        return constant;
+    }
+
+    public void setConstant(Double constant) {
+        this.constant = constant;
+    }
+
+    public Double getCoefficient() {
+        return coefficient;
+    }
+
+    public void setCoefficient(Double coefficient) {
+        this.coefficient = coefficient;
+    }
+
+    public Double getFitRSquared() {
+        return fitRSquared;
+    }
+
+    public void setFitRSquared(Double fitRSquared) {
+        this.fitRSquared = fitRSquared;
+    }
+
+    public Double getRelativeRmse() {
+        return relativeRmse;
+    }
+
+    public void setRelativeRmse(Double relativeRmse) {
+        this.relativeRmse = relativeRmse;
+    }
+
+    public Map<String, Double> getFits() {
+        return fits;
+    }
+
+    public void setFits(Map<String, Double> fits) {
+        this.fits = fits;
+    }
+
+    public List<CostCliff> getCliffs() {
+        return cliffs;
+    }
+
+    public void setCliffs(List<CostCliff> cliffs) {
+        this.cliffs = cliffs;
+    }
+
+    @Override
+    public String toString() {
+        return "ComplexityReport{" +
+                "name='" + name + '\'' +
+                ", mode='" + mode + '\'' +
+                ", jvmConfiguration='" + jvmConfiguration + '\'' +
+                ", sizeParam='" + sizeParam + '\'' +
+                ", params=" + params +
+                ", complexity='" + complexity + '\'' +
+                ", constant=" + constant +
+                ", coefficient=" + coefficient +
+                ", fitRSquared=" + fitRSquared +
+                ", relativeRmse=" + relativeRmse +
+                ", cliffs=" + cliffs +
+                '}';
+    }
+
+    public static class ComplexityPoint implements Serializable {
+        private static final long serialVersionUID = -2871393297427432166L;
+
+        private double size;
+        private Double cost;
+        /* cost divided by best fit complexity function, constant when benchmark follows fitted complexity */
+        private Double normalizedCost;
+
+        public ComplexityPoint() {
+        }
+
+        public ComplexityPoint(double size, Double cost) {
+            this.size = size;
+            this.cost = cost;
+        }
+
+        public double getSize() {
+            return size;
+        }
+
+        public void setSize(double size) {
+            this.size = size;
+        }
+
+        public Double getCost() {
+            return cost;
+        }
+
+        public void setCost(Double cost) {
+            this.cost = cost;
+        }
+
+        public Double getNormalizedCost() {
+            return normalizedCost;
+        }
+
+        public void setNormalizedCost(Double normalizedCost) {
+            this.normalizedCost = normalizedCost;
+        }
+
+        @Override
+        public String toString() {
+            return "ComplexityPoint{" +
+                    "size=" + size +
+                    ", cost=" + cost +
+                    ", normalizedCost=" + normalizedCost +
+                    '}';
+        }
+    }
+
+    /**
+     * Jump of normalized cost between two consecutive sizes, typically caused by data outgrowing a cache level.
+     */
+    public static class CostCliff implements Serializable {
+        private static final long serialVersionUID = 5264325581939371128L;
+
+        private double fromSize;
+        private double toSize;
+        private Double costIncrease;
+
+        public CostCliff() {
+        }
+
+        public CostCliff(double fromSize, double toSize, Double costIncrease) {
+            this.fromSize = fromSize;
+            this.toSize = toSize;
+            this.costIncrease = costIncrease;
+        }
+
+        public double getFromSize() {
+            return fromSize;
+        }
+
+        public void setFromSize(double fromSize) {
+            this.fromSize = fromSize;
+        }
+
+        public double getToSize() {
+            return toSize;
+        }
+
+        public void setToSize(double toSize) {
+            this.toSize = toSize;
+        }
+
+        public Double getCostIncrease() {
+            return costIncrease;
+        }
+
+        public void setCostIncrease(Double costIncrease) {
+            this.costIncrease = costIncrease;
+        }
+
+        @Override
+        public String toString() {
+            return "CostCliff{" +
+                    "fromSize=" + fromSize +
+                    ", toSize=" + toSize +
+                    ", costIncrease=" + costIncrease +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Lock contention of benchmark worker threads from thread contention monitoring, aggregated over all forks. Shares are
+ * in percents.
+ */
+public class ContentionReport implements Serializable {
+    private static final long serialVersionUID = 6610357492805125394L;
+
+    /* samples of worker threads running benchmark code */
+    private Double samples;
+    /* times worker threads blocked to enter a monitor */
+    private Double blockedCount;
+    /* total time worker threads were blocked, ms */
+    private Double blockedTime;
+    /* times worker threads waited, e.g. parked on java.util.concurrent lock */
+    private Double waitedCount;
+    /* total time worker threads waited, ms */
+    private Double waitedTime;
+    /* blockedCount, blockedTime, waitedCount and waitedTime of every worker thread */
+    private Map<String, Map<String, Double>> threads;
+    /* share of samples blocked or waiting on lock, by lock class */
+    private Map<String, Double> locks;
+    /* share of samples blocked or waiting on lock, by lock owner thread */
+    private Map<String, Double> owners;
+
+    public Double getSamples() {
+        return samples;
+    }
+
+    public void setSamples(Double samples) {
+        this.samples = samples;
+    }
+
+    public Double getBlockedCount() {
+        return blockedCount;
+    }
+
+    public void setBlockedCount(Double blockedCount) {
+        this.blockedCount = blockedCount;
+    }
+
+    public Double getBlockedTime() {
+        return blockedTime;
+    }
+
+    public void setBlockedTime(Double blockedTime) {
+        this.blockedTime = blockedTime;
+    }
+
+    public Double getWaitedCount() {
+        return waitedCount;
+    }
+
+    public void setWaitedCount(Double waitedCount) {
+        this.waitedCount = waitedCount;
+    }
+
+    public Double getWaitedTime() {
+        return waitedTime;
+    }
+
+    public void setWaitedTime(Double waitedTime) {
+        this.waitedTime = waitedTime;
+    }
+
+    public Map<String, Map<String, Double>> getThreads() {
+        return threads;
+    }
+
+    public void setThreads(Map<String, Map<String, Double>> threads) {
+        this.threads = threads;
+    }
+
+    public Map<String, Double> getLocks() {
+        return locks;
+    }
+
+    public void setLocks(Map<String, Double> locks) {
+        this.locks = locks;
+    }
+
+    public Map<String, Double> getOwners() {
+        return owners;
+    }
+
+    public void setOwners(Map<String, Double> owners) {
+        this.owners = owners;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentionReport{" +
+                "samples=" + samples +
+                ", blockedCount=" + blockedCount +
+                ", blockedTime=" + blockedTime +
+                ", waitedCount=" + waitedCount +
+                ", waitedTime=" + waitedTime +
+                ", threads=" + threads +
+                ", locks=" + locks +
+                ", owners=" + owners +
+                '}';
+    }
+}
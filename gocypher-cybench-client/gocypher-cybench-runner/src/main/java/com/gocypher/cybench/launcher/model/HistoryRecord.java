@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+
+/**
+ * Single result of {@link HistorySeries}. Missing statistics are {@code NaN}.
+ */
+public class HistoryRecord implements Serializable {
+    private static final long serialVersionUID = 3867443069102838734L;
+
+    private long timestamp;
+    private double score;
+    private double stdDevScore = Double.NaN;
+    private double minScore = Double.NaN;
+    private double maxScore = Double.NaN;
+    private long n;
+
+    public HistoryRecord() {
+    }
+
+    public HistoryRecord(long timestamp, double score, double stdDevScore, double minScore, double maxScore,
+            long n) {
+        this.timestamp = timestamp;
+        this.score = score;
+        this.stdDevScore = stdDevScore;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.n = n;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public double getStdDevScore() {
+        return stdDevScore;
+    }
+
+    public void setStdDevScore(double stdDevScore) {
+        this.stdDevScore = stdDevScore;
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(double minScore) {
+        this.minScore = minScore;
+    }
+
+    public double getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(double maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public long getN() {
+        return n;
+    }
+
+    public void setN(long n) {
+        this.n = n;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryRecord{" +
+                "timestamp=" + timestamp +
+                ", score=" + score +
+                ", stdDevScore=" + stdDevScore +
+                ", minScore=" + minScore +
+                ", maxScore=" + maxScore +
+                ", n=" + n +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results history series: results of one benchmark (name, mode and params) measured on same hardware and JVM version.
+ */
+public class HistorySeries implements Serializable {
+    private static final long serialVersionUID = -4473119531726066313L;
+
+    private int id = -1;
+    private String name;
+    private String mode;
+    private Map<String, String> params = new TreeMap<>();
+    private String hardwareId;
+    private String jvmVersion;
+    private String units;
+
+    public HistorySeries() {
+    }
+
+    public HistorySeries(String name, String mode, Map<String, String> params, String hardwareId,
+            String jvmVersion, String units) {
+        this.name = name;
+        this.mode = mode;
+        this.params = new TreeMap<>(params);
+        this.hardwareId = hardwareId;
+        this.jvmVersion = jvmVersion;
+        this.units = units;
+    }
+
+    /**
+     * @return identity of series, not including units and store assigned id
+     */
+    public String getKey() {
+        return name + '|' + mode + '|' + params + '|' + hardwareId + '|' + jvmVersion;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, String> params) {
+        this.params = params;
+    }
+
+    public String getHardwareId() {
+        return hardwareId;
+    }
+
+    public void setHardwareId(String hardwareId) {
+        this.hardwareId = hardwareId;
+    }
+
+    public String getJvmVersion() {
+        return jvmVersion;
+    }
+
+    public void setJvmVersion(String jvmVersion) {
+        this.jvmVersion = jvmVersion;
+    }
+
+    public String getUnits() {
+        return units;
+    }
+
+    public void setUnits(String units) {
+        this.units = units;
+    }
+
+    @Override
+    public String toString() {
+        return "HistorySeries{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", mode='" + mode + '\'' +
+                ", params=" + params +
+                ", hardwareId='" + hardwareId + '\'' +
+                ", jvmVersion='" + jvmVersion + '\'' +
+                ", units='" + units + '\'' +
+                '}';
+    }
+}
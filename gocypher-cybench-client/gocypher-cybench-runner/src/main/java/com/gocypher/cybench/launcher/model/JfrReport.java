@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java Flight Recorder summary of benchmark worker threads, aggregated over all forks. Shares are in percents.
+ */
+public class JfrReport implements Serializable {
+    private static final long serialVersionUID = 2950315794208167553L;
+
+    /* execution samples of worker threads */
+    private Double samples;
+    /* share of execution samples with method on top of the stack */
+    private Map<String, Double> hotMethods;
+    /* share of sampled allocated bytes by "method:class" allocation site */
+    private Map<String, Double> allocationSites;
+    /* share of worker thread time by state: java, native, blocked, waiting, sleeping */
+    private Map<String, Double> threadStates;
+    /* JFR recording files of every fork */
+    private List<String> recordings;
+
+    public Double getSamples() {
+        return samples;
+    }
+
+    public void setSamples(Double samples) {
+        this.samples = samples;
+    }
+
+    public Map<String, Double> getHotMethods() {
+        return hotMethods;
+    }
+
+    public void setHotMethods(Map<String, Double> hotMethods) {
+        this.hotMethods = hotMethods;
+    }
+
+    public Map<String, Double> getAllocationSites() {
+        return allocationSites;
+    }
+
+    public void setAllocationSites(Map<String, Double> allocationSites) {
+        this.allocationSites = allocationSites;
+    }
+
+    public Map<String, Double> getThreadStates() {
+        return threadStates;
+    }
+
+    public void setThreadStates(Map<String, Double> threadStates) {
+        this.threadStates = threadStates;
+    }
+
+    public List<String> getRecordings() {
+        return recordings;
+    }
+
+    public void setRecordings(List<String> recordings) {
+        this.recordings = recordings;
+    }
+
+    @Override
+    public String toString() {
+        return "JfrReport{" +
+                "samples=" + samples +
+                ", hotMethods=" + hotMethods +
+                ", allocationSites=" + allocationSites +
+                ", threadStates=" + threadStates +
+                ", recordings=" + recordings +
+                '}';
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * JIT compiler activity in methods reachable from the benchmark during measurement iterations, aggregated over all
+ * forks.
+ */
+public class JitReport implements Serializable {
+    private static final long serialVersionUID = -3906270915364283561L;
+
+    /* JIT compilation time of the whole JVM during measurement iterations, ms */
+    private Double compilationTime;
+    /* compilations overlapping measurement iterations */
+    private Double compilations;
+    private Double c2Compilations;
+    private Double osrCompilations;
+    private Double failedCompilations;
+    /* measurement iterations overlapping with compilation */
+    private Double compilingIterations;
+    /* true when any measurement iteration overlaps with compilation, so score may be unstable */
+    private Boolean compilationOverlap;
+    /* deoptimizations during measurement iterations */
+    private Double deoptimizations;
+    /* failed inlining decisions of compilations overlapping measurement iterations */
+    private Double failedInlinings;
+    /* deoptimizations by "method:reason" */
+    private Map<String, Double> deoptimizedMethods;
+    /* failed inlining decisions by "caller -> callee: message" */
+    private Map<String, Double> inliningFailures;
+    /* execution samples of worker threads running interpreted method */
+    private Map<String, Double> interpretedMethods;
+
+    public Double getCompilationTime() {
+        return compilationTime;
+    }
+
+    public void setCompilationTime(Double compilationTime) {
+        this.compilationTime = compilationTime;
+    }
+
+    public Double getCompilations() {
+        return compilations;
+    }
+
+    public void setCompilations(Double compilations) {
+        this.compilations = compilations;
+    }
+
+    public Double getC2Compilations() {
+        return c2Compilations;
+    }
+
+    public void setC2Compilations(Double c2Compilations) {
+        this.c2Compilations = c2Compilations;
+    }
+
+    public Double getOsrCompilations() {
+        return osrCompilations;
+    }
+
+    public void setOsrCompilations(Double osrCompilations) {
+        this.osrCompilations = osrCompilations;
+    }
+
+    public Double getFailedCompilations() {
+        return failedCompilations;
+    }
+
+    public void setFailedCompilations(Double failedCompilations) {
+        this.failedCompilations = failedCompilations;
+    }
+
+    public Double getCompilingIterations() {
+        return compilingIterations;
+    }
+
+    public void setCompilingIterations(Double compilingIterations) {
+        this.compilingIterations = compilingIterations;
+    }
+
+    public Boolean getCompilationOverlap() {
+        return compilationOverlap;
+    }
+
+    public void setCompilationOverlap(Boolean compilationOverlap) {
+        this.compilationOverlap = compilationOverlap;
+    }
+
+    public Double getDeoptimizations() {
+        return deoptimizations;
+    }
+
+    public void setDeoptimizations(Double deoptimizations) {
+        this.deoptimizations = deoptimizations;
+    }
+
+    public Double getFailedInlinings() {
+        return failedInlinings;
+    }
+
+    public void setFailedInlinings(Double failedInlinings) {
+        this.failedInlinings = failedInlinings;
+    }
+
+    public Map<String, Double> getDeoptimizedMethods() {
+        return deoptimizedMethods;
+    }
+
+    public void setDeoptimizedMethods(Map<String, Double> deoptimizedMethods) {
+        this.deoptimizedMethods = deoptimizedMethods;
+    }
+
+    public Map<String, Double> getInliningFailures() {
+        return inliningFailures;
+    }
+
+    public void setInliningFailures(Map<String, Double> inliningFailures) {
+        this.inliningFailures = inliningFailures;
+    }
+
+    public Map<String, Double> getInterpretedMethods() {
+        return interpretedMethods;
+    }
+
+    public void setInterpretedMethods(Map<String, Double> interpretedMethods) {
+        this.interpretedMethods = interpretedMethods;
+    }
+
+    @Override
+    public String toString() {
+        return "JitReport{" +
+                "compilationTime=" + compilationTime +
+                ", compilations=" + compilations +
+                ", c2Compilations=" + c2Compilations +
+                ", osrCompilations=" + osrCompilations +
+                ", failedCompilations=" + failedCompilations +
+                ", compilingIterations=" + compilingIterations +
+                ", compilationOverlap=" + compilationOverlap +
+                ", deoptimizations=" + deoptimizations +
+                ", failedInlinings=" + failedInlinings +
+                ", deoptimizedMethods=" + deoptimizedMethods +
+                ", inliningFailures=" + inliningFailures +
+                ", interpretedMethods=" + interpretedMethods +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM used to run forked benchmarks: java executable and JVM arguments.
+ */
+public class JvmConfiguration implements Serializable {
+    private static final long serialVersionUID = -6650463014925183466L;
+
+    private String name;
+    private String javaPath;
+    private List<String> jvmArgs = new ArrayList<>();
+
+    public JvmConfiguration() {
+    }
+
+    public JvmConfiguration(String name, String javaPath, List<String> jvmArgs) {
+        this.name = name;
+        this.javaPath = javaPath;
+        this.jvmArgs = jvmArgs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getJavaPath() {
+        return javaPath;
+    }
+
+    public void setJavaPath(String javaPath) {
+        this.javaPath = javaPath;
+    }
+
+    public List<String> getJvmArgs() {
+        return jvmArgs;
+    }
+
+    public void setJvmArgs(List<String> jvmArgs) {
+        this.jvmArgs = jvmArgs;
+    }
+
+    @Override
+    public String toString() {
+        return "JvmConfiguration{" +
+                "name='" + name + '\'' +
+                ", javaPath='" + javaPath + '\'' +
+                ", jvmArgs=" + jvmArgs +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Comparison of benchmark scores measured under every JVM configuration of JVM matrix run. Relative scores are
+ * normalized to the first configuration so that higher is always better, also for time based benchmark modes.
+ */
+public class JvmMatrixReport implements Serializable {
+    private static final long serialVersionUID = 3304946419306478581L;
+
+    private List<JvmConfiguration> configurations = new ArrayList<>();
+    /* benchmark key -> configuration name -> score */
+    private Map<String, Map<String, Double>> scores = new TreeMap<>();
+    /* benchmark key -> configuration name -> score relative to first configuration */
+    private Map<String, Map<String, Double>> relativeScores = new TreeMap<>();
+    /* benchmark key -> name of configuration with best score */
+    private Map<String, String> bestConfigurations = new TreeMap<>();
+    /* configuration name -> geometric mean of relative scores of all benchmarks */
+    private Map<String, Double> overallRelativeScores = new TreeMap<>();
+    private String bestConfiguration;
+
+    public List<JvmConfiguration> getConfigurations() {
+        return configurations;
+    }
+
+    public void setConfigurations(List<JvmConfiguration> configurations) {
+        this.configurations = configurations;
+    }
+
+    public Map<String, Map<String, Double>> getScores() {
+        return scores;
+    }
+
+    public void setScores(Map<String, Map<String, Double>> scores) {
+        this.scores = scores;
+    }
+
+    public Map<String, Map<String, Double>> getRelativeScores() {
+        return relativeScores;
+    }
+
+    public void setRelativeScores(Map<String, Map<String, Double>> relativeScores) {
+        this.relativeScores = relativeScores;
+    }
+
+    public Map<String, String> getBestConfigurations() {
+        return bestConfigurations;
+    }
+
+    public void setBestConfigurations(Map<String, String> bestConfigurations) {
+        this.bestConfigurations = bestConfigurations;
+    }
+
+    public Map<String, Double> getOverallRelativeScores() {
+        return overallRelativeScores;
+    }
+
+    public void setOverallRelativeScores(Map<String, Double> overallRelativeScores) {
+        this.overallRelativeScores = overallRelativeScores;
+    }
+
+    public String getBestConfiguration() {
+        return bestConfiguration;
+    }
+
+    public void setBestConfiguration(String bestConfiguration) {
+        this.bestConfiguration = bestConfiguration;
+    }
+
+    @Override
+    public String toString() {
+        return "JvmMatrixReport{" +
+                "configurations=" + configurations +
+                ", bestConfigurations=" + bestConfigurations +
+                ", overallRelativeScores=" + overallRelativeScores +
+                ", bestConfiguration='" + bestConfiguration + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measurement of macro-benchmark workload run in a fresh JVM: counter rates and latencies exposed by workload, GC, CPU
+ * and memory usage, over the whole measurement and sampled over time.
+ */
+public class MacroReport implements Serializable {
+    private static final long serialVersionUID = -2204638617436170911L;
+
+    private String workload;
+    private int warmUpSeconds;
+    private int measurementSeconds;
+    private int sampleSeconds;
+    private String latencyUnits;
+    /* counter increments per second */
+    private Map<String, Double> counterRates;
+    private Map<String, Map<String, Double>> latencyPercentiles;
+    /* encoded ScoreHistogram of every latency */
+    private Map<String, String> latencyHistograms;
+    private long gcCount;
+    /* GC time in milliseconds */
+    private double gcTime;
+    /* process CPU load in percents of all CPUs */
+    private Double processCpuLoad;
+    private Double processCpuLoadMax;
+    /* memory in MB */
+    private Double heapUsedMax;
+    /* resident set size, null if not available on the platform */
+    private Double rssMax;
+    private List<MacroSample> samples = new ArrayList<>();
+
+    public String getWorkload() {
+        return workload;
+    }
+
+    public void setWorkload(String workload) {
+        this.workload = workload;
+    }
+
+    public int getWarmUpSeconds() {
+        return warmUpSeconds;
+    }
+
+    public void setWarmUpSeconds(int warmUpSeconds) {
+        this.warmUpSeconds = warmUpSeconds;
+    }
+
+    public int getMeasurementSeconds() {
+        return measurementSeconds;
+    }
+
+    public void setMeasurementSeconds(int measurementSeconds) {
+        this.measurementSeconds = measurementSeconds;
+    }
+
+    public int getSampleSeconds() {
+        return sampleSeconds;
+    }
+
+    public void setSampleSeconds(int sampleSeconds) {
+        this.sampleSeconds = sampleSeconds;
+    }
+
+    public String getLatencyUnits() {
+        return latencyUnits;
+    }
+
+    public void setLatencyUnits(String latencyUnits) {
+        this.latencyUnits = latencyUnits;
+    }
+
+    public Map<String, Double> getCounterRates() {
+        return counterRates;
+    }
+
+    public void setCounterRates(Map<String, Double> counterRates) {
+        this.counterRates = counterRates;
+    }
+
+    public Map<String, Map<String, Double>> getLatencyPercentiles() {
+        return latencyPercentiles;
+    }
+
+    public void setLatencyPercentiles(Map<String, Map<String, Double>> latencyPercentiles) {
+        this.latencyPercentiles = latencyPercentiles;
+    }
+
+    public Map<String, String> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    public void setLatencyHistograms(Map<String, String> latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
+
+    public double getGcTime() {
+        return gcTime;
+    }
+
+    public void setGcTime(double gcTime) {
+        this.gcTime = gcTime;
+    }
+
+    public Double getProcessCpuLoad() {
+        return processCpuLoad;
+    }
+
+    public void setProcessCpuLoad(Double processCpuLoad) {
+        this.processCpuLoad = processCpuLoad;
+    }
+
+    public Double getProcessCpuLoadMax() {
+        return processCpuLoadMax;
+    }
+
+    public void setProcessCpuLoadMax(Double processCpuLoadMax) {
+        this.processCpuLoadMax = processCpuLoadMax;
+    }
+
+    public Double getHeapUsedMax() {
+        return heapUsedMax;
+    }
+
+    public void setHeapUsedMax(Double heapUsedMax) {
+        this.heapUsedMax = heapUsedMax;
+    }
+
+    public Double getRssMax() {
+        return rssMax;
+    }
+
+    public void setRssMax(Double rssMax) {
+        this.rssMax = rssMax;
+    }
+
+    public List<MacroSample> getSamples() {
+        return samples;
+    }
+
+    public void setSamples(List<MacroSample> samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public String toString() {
+        return "MacroReport{" +
+                "workload='" + workload + '\'' +
+                ", warmUpSeconds=" + warmUpSeconds +
+                ", measurementSeconds=" + measurementSeconds +
+                ", sampleSeconds=" + sampleSeconds +
+                ", latencyUnits='" + latencyUnits + '\'' +
+                ", counterRates=" + counterRates +
+                ", latencyPercentiles=" + latencyPercentiles +
+                ", gcCount=" + gcCount +
+                ", gcTime=" + gcTime +
+                ", processCpuLoad=" + processCpuLoad +
+                ", processCpuLoadMax=" + processCpuLoadMax +
+                ", heapUsedMax=" + heapUsedMax +
+                ", rssMax=" + rssMax +
+                ", samples=" + samples +
+                '}';
+    }
+
+    /**
+     * Metrics of one sampling interval.
+     */
+    public static class MacroSample implements Serializable {
+        private static final long serialVersionUID = 5290715342307562398L;
+
+        /* end of interval in seconds since measurement start */
+        private double time;
+        private Map<String, Double> counterRates;
+        private Map<String, Map<String, Double>> latencyPercentiles;
+        private long gcCount;
+        private double gcTime;
+        private Double processCpuLoad;
+        private Double heapUsed;
+        private Double rss;
+
+        public double getTime() {
+            return time;
+        }
+
+        public void setTime(double time) {
+            this.time = time;
+        }
+
+        public Map<String, Double> getCounterRates() {
+            return counterRates;
+        }
+
+        public void setCounterRates(Map<String, Double> counterRates) {
+            this.counterRates = counterRates;
+        }
+
+        public Map<String, Map<String, Double>> getLatencyPercentiles() {
+            return latencyPercentiles;
+        }
+
+        public void setLatencyPercentiles(Map<String, Map<String, Double>> latencyPercentiles) {
+            this.latencyPercentiles = latencyPercentiles;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public void setGcCount(long gcCount) {
+            this.gcCount = gcCount;
+        }
+
+        public double getGcTime() {
+            return gcTime;
+        }
+
+        public void setGcTime(double gcTime) {
+            this.gcTime = gcTime;
+        }
+
+        public Double getProcessCpuLoad() {
+            return processCpuLoad;
+        }
+
+        public void setProcessCpuLoad(Double processCpuLoad) {
+            this.processCpuLoad = processCpuLoad;
+        }
+
+        public Double getHeapUsed() {
+            return heapUsed;
+        }
+
+        public void setHeapUsed(Double heapUsed) {
+            this.heapUsed = heapUsed;
+        }
+
+        public Double getRss() {
+            return rss;
+        }
+
+        public void setRss(Double rss) {
+            this.rss = rss;
+        }
+
+        @Override
+        public String toString() {
+            return "MacroSample{" +
+                    "time=" + time +
+                    ", counterRates=" + counterRates +
+                    ", latencyPercentiles=" + latencyPercentiles +
+                    ", gcCount=" + gcCount +
+                    ", gcTime=" + gcTime +
+                    ", processCpuLoad=" + processCpuLoad +
+                    ", heapUsed=" + heapUsed +
+                    ", rss=" + rss +
+                    '}';
+        }
+    }
+}
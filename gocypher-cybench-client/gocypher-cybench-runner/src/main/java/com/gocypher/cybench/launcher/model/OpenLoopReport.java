@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency of benchmark invoked at fixed target rates (open loop). Latency is measured from intended start of every
+ * invocation, so time waiting behind slow invocations is included.
+ */
+public class OpenLoopReport implements Serializable {
+    private static final long serialVersionUID = 3561937620470358243L;
+
+    private int threads;
+    private String latencyUnits;
+    /* mean closed loop invocation time in latency units, estimated before sweep */
+    private Double serviceTime;
+    /* highest target rate sustained with latency below the knee, null if no rate was sustained */
+    private Double saturationRate;
+    private List<OpenLoopPoint> points = new ArrayList<>();
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public String getLatencyUnits() {
+        return latencyUnits;
+    }
+
+    public void setLatencyUnits(String latencyUnits) {
+        this.latencyUnits = latencyUnits;
+    }
+
+    public Double getServiceTime() {
+        return serviceTime;
+    }
+
+    public void setServiceTime(Double serviceTime) {
+        this.serviceTime = serviceTime;
+    }
+
+    public Double getSaturationRate() {
+        return saturationRate;
+    }
+
+    public void setSaturationRate(Double saturationRate) {
+        this.saturationRate = saturationRate;
+    }
+
+    public List<OpenLoopPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<OpenLoopPoint> points) {
+        this.points = points;
+    }
+
+    @Override
+    public String toString() {
+        return "OpenLoopReport{" +
+                "threads=" + threads +
+                ", latencyUnits='" + latencyUnits + '\'' +
+                ", serviceTime=" + serviceTime +
+                ", saturationRate=" + saturationRate +
+                ", points=" + points +
+                '}';
+    }
+
+    /**
+     * Latency measured at one target rate.
+     */
+    public static class OpenLoopPoint implements Serializable {
+        private static final long serialVersionUID = -6153428731526011736L;
+
+        /* invocations per second */
+        private double targetRate;
+        private double achievedRate;
+        /* invocations started before measurement deadline */
+        private long invocations;
+        /* scheduled invocations not started before measurement deadline, latency waited until deadline included */
+        private long missedInvocations;
+        /* achieved target rate with latency below the knee */
+        private boolean sustained;
+        private Map<String, Double> latencyPercentiles;
+        /* encoded ScoreHistogram of all latencies, including missed invocations */
+        private String latencyHistogram;
+
+        public double getTargetRate() {
+            return targetRate;
+        }
+
+        public void setTargetRate(double targetRate) {
+            this.targetRate = targetRate;
+        }
+
+        public double getAchievedRate() {
+            return achievedRate;
+        }
+
+        public void setAchievedRate(double achievedRate) {
+            this.achievedRate = achievedRate;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        public void setInvocations(long invocations) {
+            this.invocations = invocations;
+        }
+
+        public long getMissedInvocations() {
+            return missedInvocations;
+        }
+
+        public void setMissedInvocations(long missedInvocations) {
+            this.missedInvocations = missedInvocations;
+        }
+
+        public boolean isSustained() {
+            return sustained;
+        }
+
+        public void setSustained(boolean sustained) {
+            this.sustained = sustained;
+        }
+
+        public Map<String, Double> getLatencyPercentiles() {
+            return latencyPercentiles;
+        }
+
+        public void setLatencyPercentiles(Map<String, Double> latencyPercentiles) {
+            this.latencyPercentiles = latencyPercentiles;
+        }
+
+        public String getLatencyHistogram() {
+            return latencyHistogram;
+        }
+
+        public void setLatencyHistogram(String latencyHistogram) {
+            this.latencyHistogram = latencyHistogram;
+        }
+
+        @Override
+        public String toString() {
+            return "OpenLoopPoint{" +
+                    "targetRate=" + targetRate +
+                    ", achievedRate=" + achievedRate +
+                    ", invocations=" + invocations +
+                    ", missedInvocations=" + missedInvocations +
+                    ", sustained=" + sustained +
+                    ", latencyPercentiles=" + latencyPercentiles +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark throughput measured at different threads counts, with fitted Amdahl's law and Universal Scalability Law
+ * coefficients.
+ */
+public class ScalabilityReport implements Serializable {
+    private static final long serialVersionUID = -3202871482853318867L;
+
+    private List<ScalabilityPoint> points = new ArrayList<>();
+    /* Amdahl's law: speedup(N) = N / (1 + serialFraction * (N - 1)) */
+    private Double amdahlSerialFraction;
+    /* USL: speedup(N) = N / (1 + contention * (N - 1) + coherency * N * (N - 1)) */
+    private Double uslContention;
+    private Double uslCoherency;
+    /* threads count of maximal USL throughput, null when throughput never degrades */
+    private Double uslPeakThreads;
+
+    public List<ScalabilityPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<ScalabilityPoint> points) {
+        this.points = points;
+    }
+
+    public Double getAmdahlSerialFraction() {
+        return amdahlSerialFraction;
+    }
+
+    public void setAmdahlSerialFraction(Double amdahlSerialFraction) {
+        this.amdahlSerialFraction = amdahlSerialFraction;
+    }
+
+    public Double getUslContention() {
+        return uslContention;
+    }
+
+    public void setUslContention(Double uslContention) {
+        this.uslContention = uslContention;
+    }
+
+    public Double getUslCoherency() {
+        return uslCoherency;
+    }
+
+    public void setUslCoherency(Double uslCoherency) {
+        this.uslCoherency = uslCoherency;
+    }
+
+    public Double getUslPeakThreads() {
+        return uslPeakThreads;
+    }
+
+    public void setUslPeakThreads(Double uslPeakThreads) {
+        this.uslPeakThreads = uslPeakThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "ScalabilityReport{" +
+                "points=" + points +
+                ", amdahlSerialFraction=" + amdahlSerialFraction +
+                ", uslContention=" + uslContention +
+                ", uslCoherency=" + uslCoherency +
+                ", uslPeakThreads=" + uslPeakThreads +
+                '}';
+    }
+
+    public static class ScalabilityPoint implements Serializable {
+        private static final long serialVersionUID = 7610466924218371235L;
+
+        private int threads;
+        private Double score;
+        private Double speedup;
+        private Double efficiency;
+
+        public ScalabilityPoint() {
+        }
+
+        public ScalabilityPoint(int threads, Double score, Double speedup, Double efficiency) {
+            this.threads = threads;
+            this.score = score;
+            this.speedup = speedup;
+            this.efficiency = efficiency;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+
+        public Double getSpeedup() {
+            return speedup;
+        }
+
+        public void setSpeedup(Double speedup) {
+            this.speedup = speedup;
+        }
+
+        public Double getEfficiency() {
+            return efficiency;
+        }
+
+        public void setEfficiency(Double efficiency) {
+            this.efficiency = efficiency;
+        }
+
+        @Override
+        public String toString() {
+            return "ScalabilityPoint{" +
+                    "threads=" + threads +
+                    ", score=" + score +
+                    ", speedup=" + speedup +
+                    ", efficiency=" + efficiency +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+
+/**
+ * Wall-clock stack samples of benchmark worker threads from all forks, stored as collapsed stacks and SVG flame graph.
+ */
+public class StackProfileReport implements Serializable {
+    private static final long serialVersionUID = -1785042934625372178L;
+
+    private Double samples;
+    /* path of collapsed stacks file */
+    private String collapsedStacks;
+    /* path of SVG flame graph */
+    private String flameGraph;
+
+    public Double getSamples() {
+        return samples;
+    }
+
+    public void setSamples(Double samples) {
+        this.samples = samples;
+    }
+
+    public String getCollapsedStacks() {
+        return collapsedStacks;
+    }
+
+    public void setCollapsedStacks(String collapsedStacks) {
+        this.collapsedStacks = collapsedStacks;
+    }
+
+    public String getFlameGraph() {
+        return flameGraph;
+    }
+
+    public void setFlameGraph(String flameGraph) {
+        this.flameGraph = flameGraph;
+    }
+
+    @Override
+    public String toString() {
+        return "StackProfileReport{" +
+                "samples=" + samples +
+                ", collapsedStacks='" + collapsedStacks + '\'' +
+                ", flameGraph='" + flameGraph + '\'' +
+                '}';
+    }
+}
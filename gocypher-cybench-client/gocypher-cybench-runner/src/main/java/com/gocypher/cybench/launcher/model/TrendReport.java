@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change points found in results history of benchmarks: lasting shifts of score, each attributed to the run which
+ * introduced it, and stability rating of every benchmark.
+ */
+public class TrendReport implements Serializable {
+    private static final long serialVersionUID = 6052876530297374911L;
+
+    public static final String STABILITY_STABLE = "stable";
+    public static final String STABILITY_SHIFTED = "shifted";
+    public static final String STABILITY_NOISY = "noisy";
+    public static final String STABILITY_INSUFFICIENT_DATA = "insufficient data";
+    public static final String DIRECTION_REGRESSION = "regression";
+    public static final String DIRECTION_IMPROVEMENT = "improvement";
+
+    private double significance;
+    private int permutations;
+    /* minimal count of runs between change points */
+    private int minSegmentSize;
+    /* coefficient of variation in percents above which benchmark is noisy */
+    private double noiseThreshold;
+    private int changePointsCount;
+    private List<BenchmarkTrend> benchmarks = new ArrayList<>();
+
+    public double getSignificance() {
+        return significance;
+    }
+
+    public void setSignificance(double significance) {
+        this.significance = significance;
+    }
+
+    public int getPermutations() {
+        return permutations;
+    }
+
+    public void setPermutations(int permutations) {
+        this.permutations = permutations;
+    }
+
+    public int getMinSegmentSize() {
+        return minSegmentSize;
+    }
+
+    public void setMinSegmentSize(int minSegmentSize) {
+        this.minSegmentSize = minSegmentSize;
+    }
+
+    public double getNoiseThreshold() {
+        return noiseThreshold;
+    }
+
+    public void setNoiseThreshold(double noiseThreshold) {
+        this.noiseThreshold = noiseThreshold;
+    }
+
+    public int getChangePointsCount() {
+        return changePointsCount;
+    }
+
+    public void setChangePointsCount(int changePointsCount) {
+        this.changePointsCount = changePointsCount;
+    }
+
+    public List<BenchmarkTrend> getBenchmarks() {
+        return benchmarks;
+    }
+
+    public void setBenchmarks(List<BenchmarkTrend> benchmarks) {
+        this.benchmarks = benchmarks;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendReport{" +
+                "significance=" + significance +
+                ", permutations=" + permutations +
+                ", minSegmentSize=" + minSegmentSize +
+                ", noiseThreshold=" + noiseThreshold +
+                ", changePointsCount=" + changePointsCount +
+                '}';
+    }
+
+    /**
+     * History of one benchmark (name, mode and params) on same hardware and JVM.
+     */
+    public static class BenchmarkTrend implements Serializable {
+        private static final long serialVersionUID = -1797930465233905347L;
+
+        private String name;
+        private String mode;
+        private Map<String, String> params;
+        private String hardwareId;
+        private String jvmVersion;
+        private String units;
+        private int runs;
+        private Long firstTimestamp;
+        private Long lastTimestamp;
+        private Double latestMean;
+        /* coefficient of variation in percents of runs after last change point */
+        private Double coefficientOfVariation;
+        private String stability;
+        private List<ChangePoint> changePoints = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public Map<String, String> getParams() {
+            return params;
+        }
+
+        public void setParams(Map<String, String> params) {
+            this.params = params;
+        }
+
+        public String getHardwareId() {
+            return hardwareId;
+        }
+
+        public void setHardwareId(String hardwareId) {
+            this.hardwareId = hardwareId;
+        }
+
+        public String getJvmVersion() {
+            return jvmVersion;
+        }
+
+        public void setJvmVersion(String jvmVersion) {
+            this.jvmVersion = jvmVersion;
+        }
+
+        public String getUnits() {
+            return units;
+        }
+
+        public void setUnits(String units) {
+            this.units = units;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public void setRuns(int runs) {
+            this.runs = runs;
+        }
+
+        public Long getFirstTimestamp() {
+            return firstTimestamp;
+        }
+
+        public void setFirstTimestamp(Long firstTimestamp) {
+            this.firstTimestamp = firstTimestamp;
+        }
+
+        public Long getLastTimestamp() {
+            return lastTimestamp;
+        }
+
+        public void setLastTimestamp(Long lastTimestamp) {
+            this.lastTimestamp = lastTimestamp;
+        }
+
+        public Double getLatestMean() {
+            return latestMean;
+        }
+
+        public void setLatestMean(Double latestMean) {
+            this.latestMean = latestMean;
+        }
+
+        public Double getCoefficientOfVariation() {
+            return coefficientOfVariation;
+        }
+
+        public void setCoefficientOfVariation(Double coefficientOfVariation) {
+            this.coefficientOfVariation = coefficientOfVariation;
+        }
+
+        public String getStability() {
+            return stability;
+        }
+
+        public void setStability(String stability) {
+            this.stability = stability;
+        }
+
+        public List<ChangePoint> getChangePoints() {
+            return changePoints;
+        }
+
+        public void setChangePoints(List<ChangePoint> changePoints) {
+            this.changePoints = changePoints;
+        }
+
+        @Override
+        public String toString() {
+            return "BenchmarkTrend{" +
+                    "name='" + name + '\'' +
+                    ", mode='" + mode + '\'' +
+                    ", params=" + params +
+                    ", hardwareId='" + hardwareId + '\'' +
+                    ", jvmVersion='" + jvmVersion + '\'' +
+                    ", units='" + units + '\'' +
+                    ", runs=" + runs +
+                    ", firstTimestamp=" + firstTimestamp +
+                    ", lastTimestamp=" + lastTimestamp +
+                    ", latestMean=" + latestMean +
+                    ", coefficientOfVariation=" + coefficientOfVariation +
+                    ", stability='" + stability + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Lasting shift of score, introduced by run of given timestamp.
+     */
+    public static class ChangePoint implements Serializable {
+        private static final long serialVersionUID = 2518840374622961530L;
+
+        private long timestamp;
+        private long previousTimestamp;
+        /* index of run introducing shift in benchmark history */
+        private int runIndex;
+        private double meanBefore;
+        private double meanAfter;
+        private double changePercent;
+        private double permutationPValue;
+        private String direction;
+        private String generatedFingerprint;
+        private String classFingerprint;
+        /* benchmark fingerprints differ from the previous run */
+        private boolean codeChanged;
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public long getPreviousTimestamp() {
+            return previousTimestamp;
+        }
+
+        public void setPreviousTimestamp(long previousTimestamp) {
+            this.previousTimestamp = previousTimestamp;
+        }
+
+        public int getRunIndex() {
+            return runIndex;
+        }
+
+        public void setRunIndex(int runIndex) {
+            this.runIndex = runIndex;
+        }
+
+        public double getMeanBefore() {
+            return meanBefore;
+        }
+
+        public void setMeanBefore(double meanBefore) {
+            this.meanBefore = meanBefore;
+        }
+
+        public double getMeanAfter() {
+            return meanAfter;
+        }
+
+        public void setMeanAfter(double meanAfter) {
+            this.meanAfter = meanAfter;
+        }
+
+        public double getChangePercent() {
+            return changePercent;
+        }
+
+        public void setChangePercent(double changePercent) {
+            this.changePercent = changePercent;
+        }
+
+        public double getPermutationPValue() {
+            return permutationPValue;
+        }
+
+        public void setPermutationPValue(double permutationPValue) {
+            this.permutationPValue = permutationPValue;
+        }
+
+        public String getDirection() {
+            return direction;
+        }
+
+        public void setDirection(String direction) {
+            this.direction = direction;
+        }
+
+        public String getGeneratedFingerprint() {
+            return generatedFingerprint;
+        }
+
+        public void setGeneratedFingerprint(String generatedFingerprint) {
+            this.generatedFingerprint = generatedFingerprint;
+        }
+
+        public String getClassFingerprint() {
+            return classFingerprint;
+        }
+
+        public void setClassFingerprint(String classFingerprint) {
+            this.classFingerprint = classFingerprint;
+        }
+
+        public boolean isCodeChanged() {
+            return codeChanged;
+        }
+
+        public void setCodeChanged(boolean codeChanged) {
+            this.codeChanged = codeChanged;
+        }
+
+        @Override
+        public String toString() {
+            return "ChangePoint{" +
+                    "timestamp=" + timestamp +
+                    ", previousTimestamp=" + previousTimestamp +
+                    ", runIndex=" + runIndex +
+                    ", meanBefore=" + meanBefore +
+                    ", meanAfter=" + meanAfter +
+                    ", changePercent=" + changePercent +
+                    ", permutationPValue=" + permutationPValue +
+                    ", direction='" + direction + '\'' +
+                    ", generatedFingerprint='" + generatedFingerprint + '\'' +
+                    ", classFingerprint='" + classFingerprint + '\'' +
+                    ", codeChanged=" + codeChanged +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * Lock contention profiler of benchmark worker threads, built on {@link ThreadMXBean} thread contention monitoring
+ * enabled in the fork. Results of every measurement iteration:
+ * <ul>
+ * <li>{@code ·contention.blocked.count}, {@code ·contention.blocked.time} - times worker threads blocked to enter a
+ * monitor and total time blocked, ms</li>
+ * <li>{@code ·contention.waited.count}, {@code ·contention.waited.time} - times worker threads waited (wait, join,
+ * park, e.g. on {@code java.util.concurrent} locks) and total time waited, ms</li>
+ * <li>{@code ·contention.thread.<thread>.<blocked|waited>.<count|time>} - same values of every worker thread</li>
+ * <li>{@code ·contention.lock.<class>} - share of worker thread samples blocked or waiting on lock of given class,
+ * %</li>
+ * <li>{@code ·contention.owner.<thread>} - share of worker thread samples blocked or waiting on lock owned by given
+ * thread, %</li>
+ * </ul>
+ * Locks and owners are sampled every {@code interval} milliseconds, counting only samples of workers running benchmark
+ * code. Counts and times also include few idle waits of worker threads between iterations. Times are not reported
+ * when JVM does not support contention monitoring.
+ */
+public class ContentionProfiler implements InternalProfiler {
+    public static final String PREFIX = "·contention";
+    public static final String THREAD = PREFIX + ".thread.";
+    public static final String LOCK = PREFIX + ".lock.";
+    public static final String OWNER = PREFIX + ".owner.";
+    public static final String BLOCKED_COUNT = ".blocked.count";
+    public static final String BLOCKED_TIME = ".blocked.time";
+    public static final String WAITED_COUNT = ".waited.count";
+    public static final String WAITED_TIME = ".waited.time";
+
+    private static final String WORKER_THREAD = "jmh-worker";
+    private static final String BENCHMARK_STUB = "_jmhTest";
+
+    private final long intervalMillis;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean timed;
+    private final Map<String, Long> locks = new HashMap<>();
+    private final Map<String, Long> owners = new HashMap<>();
+    private Map<Long, ThreadInfo> iterationStartInfos = Collections.emptyMap();
+    private Thread sampler;
+    private volatile boolean measuring;
+    private volatile long[] workerIds;
+    private long samples;
+    private int measurementIteration;
+
+    public ContentionProfiler() throws ProfilerException {
+        this("");
+    }
+
+    public ContentionProfiler(String initLine) throws ProfilerException {
+        ProfilerOptions options = new ProfilerOptions(initLine);
+        intervalMillis = Math.max(1, options.getLong("interval", 10));
+        timed = threadBean.isThreadContentionMonitoringSupported();
+        if (timed) {
+            threadBean.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "CyBench lock contention of benchmark worker threads";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT) {
+            return;
+        }
+        // workers not started yet are missing, their counters are taken from zero
+        iterationStartInfos = getWorkerInfos();
+        workerIds = null;
+        synchronized (locks) {
+            locks.clear();
+            owners.clear();
+            samples = 0;
+        }
+        measuring = true;
+        if (sampler == null) {
+            sampler = new Thread(this::sample, "cybench-contention-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT) {
+            return Collections.emptyList();
+        }
+        measuring = false;
+        List<Result> results = new ArrayList<>();
+        long blockedCount = 0;
+        long blockedTime = 0;
+        long waitedCount = 0;
+        long waitedTime = 0;
+        for (ThreadInfo info : getWorkerInfos().values()) {
+            ThreadInfo start = iterationStartInfos.get(info.getThreadId());
+            String thread = THREAD + getShortName(info.getThreadName());
+            long threadBlockedCount = info.getBlockedCount() - (start == null ? 0 : start.getBlockedCount());
+            long threadWaitedCount = info.getWaitedCount() - (start == null ? 0 : start.getWaitedCount());
+            results.add(new ScalarResult(thread + BLOCKED_COUNT, threadBlockedCount, "counts", AggregationPolicy.SUM));
+            results.add(new ScalarResult(thread + WAITED_COUNT, threadWaitedCount, "counts", AggregationPolicy.SUM));
+            blockedCount += threadBlockedCount;
+            waitedCount += threadWaitedCount;
+            if (timed) {
+                long threadBlockedTime = info.getBlockedTime() - (start == null ? 0 : start.getBlockedTime());
+                long threadWaitedTime = info.getWaitedTime() - (start == null ? 0 : start.getWaitedTime());
+                results.add(new ScalarResult(thread + BLOCKED_TIME, threadBlockedTime, "ms", AggregationPolicy.SUM));
+                results.add(new ScalarResult(thread + WAITED_TIME, threadWaitedTime, "ms", AggregationPolicy.SUM));
+                blockedTime += threadBlockedTime;
+                waitedTime += threadWaitedTime;
+            }
+        }
+        results.add(new ScalarResult(PREFIX + BLOCKED_COUNT, blockedCount, "counts", AggregationPolicy.SUM));
+        results.add(new ScalarResult(PREFIX + WAITED_COUNT, waitedCount, "counts", AggregationPolicy.SUM));
+        if (timed) {
+            results.add(new ScalarResult(PREFIX + BLOCKED_TIME, blockedTime, "ms", AggregationPolicy.SUM));
+            results.add(new ScalarResult(PREFIX + WAITED_TIME, waitedTime, "ms", AggregationPolicy.SUM));
+        }
+        synchronized (locks) {
+            results.add(new ScalarResult(PREFIX + ".samples", samples, "counts", AggregationPolicy.SUM));
+            // shares are reported every iteration, so average over iterations and forks is not diluted
+            addShares(results, LOCK, locks);
+            addShares(results, OWNER, owners);
+        }
+        if (++measurementIteration >= iterationParams.getCount() && sampler != null) {
+            measurementIteration = 0;
+            sampler.interrupt();
+            sampler = null;
+        }
+        return results;
+    }
+
+    private void addShares(List<Result> results, String prefix, Map<String, Long> counts) {
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            results.add(new ScalarResult(prefix + count.getKey(), count.getValue() * 100.0 / samples, "%",
+                    AggregationPolicy.AVG));
+        }
+    }
+
+    private void sample() {
+        long next = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            if (measuring) {
+                long[] ids = workerIds;
+                if (ids == null || ids.length == 0) {
+                    ids = getWorkerInfos().keySet().stream().mapToLong(Long::longValue).toArray();
+                    workerIds = ids;
+                }
+                for (ThreadInfo info : threadBean.getThreadInfo(ids, Integer.MAX_VALUE)) {
+                    if (info != null && isRunningBenchmark(info)) {
+                        addSample(info);
+                    }
+                }
+            }
+            next += TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            long sleepNanos = next - System.nanoTime();
+            try {
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } else {
+                    // sampling can't keep up with interval, so missed samples are skipped
+                    next = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void addSample(ThreadInfo info) {
+        synchronized (locks) {
+            samples++;
+            if (info.getLockInfo() == null) {
+                return;
+            }
+            locks.merge(info.getLockInfo().getClassName(), 1L, Long::sum);
+            if (info.getLockOwnerName() != null) {
+                owners.merge(getShortName(info.getLockOwnerName()), 1L, Long::sum);
+            }
+        }
+    }
+
+    private Map<Long, ThreadInfo> getWorkerInfos() {
+        Map<Long, ThreadInfo> workers = new HashMap<>();
+        for (ThreadInfo info : threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0)) {
+            if (info != null && info.getThreadName().contains(WORKER_THREAD)) {
+                workers.put(info.getThreadId(), info);
+            }
+        }
+        return workers;
+    }
+
+    private static boolean isRunningBenchmark(ThreadInfo info) {
+        // idle workers wait for next task of JMH executor, which is not a contention of benchmark
+        for (StackTraceElement frame : info.getStackTrace()) {
+            if (frame.getClassName().endsWith(BENCHMARK_STUB)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strips benchmark name from worker thread names, so threads of all forks and benchmarks are named alike.
+     */
+    private static String getShortName(String threadName) {
+        int worker = threadName.indexOf(WORKER_THREAD);
+        return worker < 0 ? threadName : threadName.substring(worker);
+    }
+}
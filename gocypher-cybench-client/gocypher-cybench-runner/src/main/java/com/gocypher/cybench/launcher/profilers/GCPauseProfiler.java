@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Collects GC pause distribution (count, total, max, p99) of measurement iterations from
+ * {@link GarbageCollectorMXBean} notifications inside the benchmark fork. Results are reported for all collectors
+ * together ({@code ·gc.pause.*}) and for every collector separately ({@code ·gc.pause.<collector>.*}). p99 is
+ * computed once over pauses of all measurement iterations of the fork, when the last iteration ends, and the worst
+ * fork p99 is reported when benchmark has several forks.
+ * <p>
+ * Notification listeners are registered only while the benchmark is running, so pauses of other benchmarks run in the
+ * same JVM (e.g. without forks) are not recorded.
+ * <p>
+ * Collectors reporting concurrent cycles (e.g. {@code ZGC Cycles}, {@code Shenandoah Cycles}) are reported
+ * separately, but are not counted as pauses.
+ */
+public class GCPauseProfiler implements InternalProfiler {
+    public static final String PREFIX = "·gc.pause";
+
+    private final List<Pause> pauses = Collections.synchronizedList(new ArrayList<>());
+    private final Map<NotificationEmitter, NotificationListener> listeners = new HashMap<>();
+    private final Map<String, List<Long>> forkPauses = new TreeMap<>();
+    private volatile boolean measuring;
+    private int measurementIteration;
+
+    @Override
+    public String getDescription() {
+        return "CyBench GC pause distribution per collector";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (listeners.isEmpty()) {
+            addListeners();
+        }
+        if (iterationParams.getType() == IterationType.MEASUREMENT) {
+            pauses.clear();
+            measuring = true;
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT) {
+            return Collections.emptyList();
+        }
+        measuring = false;
+        List<Pause> iterationPauses;
+        synchronized (pauses) {
+            iterationPauses = new ArrayList<>(pauses);
+            pauses.clear();
+        }
+        boolean lastIteration = ++measurementIteration >= iterationParams.getCount();
+        if (lastIteration) {
+            measurementIteration = 0;
+            removeListeners();
+        }
+
+        Map<String, List<Long>> byCollector = new TreeMap<>();
+        List<Long> allPauses = new ArrayList<>();
+        for (Pause pause : iterationPauses) {
+            byCollector.computeIfAbsent(pause.collector, k -> new ArrayList<>()).add(pause.duration);
+            if (!isConcurrentCycle(pause.collector)) {
+                allPauses.add(pause.duration);
+            }
+        }
+        // collectors are known upfront, so report zeroes as well to keep the labels stable between iterations
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            byCollector.computeIfAbsent(gcBean.getName(), k -> new ArrayList<>());
+        }
+
+        List<Result> results = new ArrayList<>();
+        addDistribution(results, PREFIX, allPauses);
+        forkPauses.computeIfAbsent(PREFIX, k -> new ArrayList<>()).addAll(allPauses);
+        for (Map.Entry<String, List<Long>> collector : byCollector.entrySet()) {
+            String label = PREFIX + "." + toLabel(collector.getKey());
+            addDistribution(results, label, collector.getValue());
+            forkPauses.computeIfAbsent(label, k -> new ArrayList<>()).addAll(collector.getValue());
+        }
+        if (lastIteration) {
+            // p99 of iterations can't be combined, so it is computed once from pooled pauses of the fork
+            for (Map.Entry<String, List<Long>> pauses : forkPauses.entrySet()) {
+                Collections.sort(pauses.getValue());
+                results.add(new ScalarResult(pauses.getKey() + ".p99", percentile(pauses.getValue(), 0.99), "ms",
+                        AggregationPolicy.MAX));
+            }
+            forkPauses.clear();
+        }
+        return results;
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        if (!measuring || !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                .equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                .from((CompositeData) notification.getUserData());
+        pauses.add(new Pause(info.getGcName(), info.getGcInfo().getDuration()));
+    }
+
+    private void addListeners() {
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) {
+                NotificationListener listener = this::handleNotification;
+                ((NotificationEmitter) gcBean).addNotificationListener(listener, null, null);
+                listeners.put((NotificationEmitter) gcBean, listener);
+            }
+        }
+    }
+
+    private void removeListeners() {
+        for (Map.Entry<NotificationEmitter, NotificationListener> listener : listeners.entrySet()) {
+            try {
+                listener.getKey().removeNotificationListener(listener.getValue());
+            } catch (Exception e) {
+                // listener is already gone
+            }
+        }
+        listeners.clear();
+    }
+
+    private static void addDistribution(List<Result> results, String label, List<Long> durations) {
+        Collections.sort(durations);
+        long total = 0;
+        for (Long duration : durations) {
+            total += duration;
+        }
+        long max = durations.isEmpty() ? 0 : durations.get(durations.size() - 1);
+        results.add(new ScalarResult(label + ".count", durations.size(), "counts", AggregationPolicy.SUM));
+        results.add(new ScalarResult(label + ".time", total, "ms", AggregationPolicy.SUM));
+        results.add(new ScalarResult(label + ".max", max, "ms", AggregationPolicy.MAX));
+    }
+
+    static double percentile(List<Long> sortedValues, double quantile) {
+        if (sortedValues.isEmpty()) {
+            return 0;
+        }
+        int idx = (int) Math.ceil(quantile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, Math.min(idx, sortedValues.size() - 1)));
+    }
+
+    public static boolean isConcurrentCycle(String collector) {
+        return collector.contains("Cycles") || collector.contains("Concurrent GC");
+    }
+
+    /**
+     * @return collector name as part of result label, e.g. {@code G1_Young_Generation}
+     */
+    static String toLabel(String name) {
+        return name.replaceAll("[^a-zA-Z0-9]", "_");
+    }
+
+    private static class Pause {
+        private final String collector;
+        private final long duration;
+
+        Pause(String collector, long duration) {
+            this.collector = collector;
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.results.TextResult;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Records Java Flight Recorder events during measurement iterations of the benchmark fork, dumps recording to
+ * {@code dir} and summarizes events of benchmark worker threads in every measurement iteration:
+ * <ul>
+ * <li>{@code ·jfr.hot.<method>} - share of execution samples with method on top of the stack, %</li>
+ * <li>{@code ·jfr.alloc.<method>:<class>} - share of sampled allocated bytes by allocation site, %</li>
+ * <li>{@code ·jfr.state.<state>} - share of worker thread time spent running Java or native code, blocked on monitor,
+ * waiting (parked or in {@code Object.wait}) and sleeping, %. Waits shorter than 1 ms are counted as running</li>
+ * </ul>
+ * Only {@code top} methods and allocation sites are reported. Readable summary of all measurement iterations,
+ * including path of the recording, is reported as {@code ·jfr} text result. Recording is read once, when the last
+ * measurement iteration ends.
+ * <p>
+ * Options: {@code dir} - recordings folder, {@code settings} - JFR configuration name or {@code .jfc} file
+ * ({@code profile} by default), {@code period} - execution sampling period in milliseconds, {@code top} - count of
+ * reported methods and allocation sites.
+ */
+public class JfrProfiler implements InternalProfiler {
+    public static final String PREFIX = "·jfr";
+    public static final String HOT = PREFIX + ".hot.";
+    public static final String ALLOC = PREFIX + ".alloc.";
+    public static final String STATE = PREFIX + ".state.";
+    public static final String RECORDING_LINE = "JFR recording: ";
+
+    private static final String WORKER_THREAD = "jmh-worker";
+    private static final Duration WAIT_THRESHOLD = Duration.ofMillis(1);
+
+    private final Path dir;
+    private final String settings;
+    private final Duration period;
+    private final int top;
+    private final List<Instant[]> iterations = new ArrayList<>();
+    private Recording recording;
+
+    public JfrProfiler() throws ProfilerException {
+        this("");
+    }
+
+    public JfrProfiler(String initLine) throws ProfilerException {
+        JfrSupport.check("JFR profiler");
+        ProfilerOptions options = new ProfilerOptions(initLine);
+        dir = Paths.get(options.getString("dir", "jfr"));
+        settings = options.getString("settings", "profile");
+        period = Duration.ofMillis(Math.max(1, options.getLong("period", 10)));
+        top = (int) options.getLong("top", 10);
+    }
+
+    @Override
+    public String getDescription() {
+        return "CyBench JFR hot methods, allocation sites and thread states";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT) {
+            return;
+        }
+        if (recording == null) {
+            startRecording();
+        }
+        iterations.add(new Instant[] { Instant.now(), null });
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT || recording == null) {
+            return Collections.emptyList();
+        }
+        iterations.get(iterations.size() - 1)[1] = Instant.now();
+        if (iterations.size() < iterationParams.getCount()) {
+            return Collections.emptyList();
+        }
+        try {
+            recording.stop();
+            Files.createDirectories(dir);
+            String fileName = BenchmarkWorkItem.fileNameOf(BenchmarkWorkItem.keyOf(benchmarkParams));
+            Path file = Files.createTempFile(dir, fileName + "-", ".jfr");
+            recording.dump(file);
+            List<Summary> summaries = new ArrayList<>();
+            for (Instant[] iteration : iterations) {
+                summaries.add(new Summary(benchmarkParams.getThreads(), Collections.singletonList(iteration)));
+            }
+            Summary forkSummary = new Summary(benchmarkParams.getThreads(), new ArrayList<>(iterations));
+            summaries.add(forkSummary);
+            readEvents(file, summaries);
+            List<Result> results = getIterationResults(summaries.subList(0, iterations.size()));
+            // text result label gets prefix from JMH
+            results.add(new TextResult(forkSummary.describe(file), PREFIX.substring(1)));
+            return results;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to store JFR recording to " + dir, e);
+        } finally {
+            recording.close();
+            recording = null;
+            iterations.clear();
+        }
+    }
+
+    private void startRecording() {
+        try {
+            recording = new Recording(settings.endsWith(".jfc") ? Configuration.create(Paths.get(settings))
+                    : Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unable to load JFR configuration: " + settings, e);
+        }
+        recording.enable("jdk.ExecutionSample").withPeriod(period);
+        recording.enable("jdk.NativeMethodSample").withPeriod(period);
+        recording.enable("jdk.ObjectAllocationSample").withStackTrace();
+        recording.enable("jdk.ObjectAllocationInNewTLAB").withStackTrace();
+        recording.enable("jdk.ObjectAllocationOutsideTLAB").withStackTrace();
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(WAIT_THRESHOLD);
+        recording.enable("jdk.JavaMonitorWait").withThreshold(WAIT_THRESHOLD);
+        recording.enable("jdk.ThreadPark").withThreshold(WAIT_THRESHOLD);
+        recording.enable("jdk.ThreadSleep").withThreshold(WAIT_THRESHOLD);
+        recording.start();
+    }
+
+    private static void readEvents(Path file, List<Summary> summaries) throws IOException {
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            for (Summary summary : summaries) {
+                summary.add(event);
+            }
+        }
+    }
+
+    private Map<String, Double> getTopShares(Map<String, Double> values) {
+        double total = 0;
+        for (Double value : values.values()) {
+            total += value;
+        }
+        List<Map.Entry<String, Double>> sorted = new ArrayList<>(values.entrySet());
+        sorted.sort(Map.Entry.<String, Double> comparingByValue().reversed());
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> value : sorted.subList(0, Math.min(top, sorted.size()))) {
+            shares.put(value.getKey(), value.getValue() * 100 / total);
+        }
+        return shares;
+    }
+
+    /**
+     * Shares are computed for every measurement iteration, but all of them are reported with the last one, as events
+     * are read once per fork. JMH counts missing iteration results as zeroes, so sum of iteration shares reported once
+     * averages to mean iteration share.
+     */
+    private static List<Result> getIterationResults(List<Summary> iterationSummaries) {
+        double samples = 0;
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (Summary summary : iterationSummaries) {
+            samples += summary.javaSamples;
+            summary.addShares(shares);
+        }
+        List<Result> results = new ArrayList<>();
+        results.add(new ScalarResult(PREFIX + ".samples", samples, "counts", AggregationPolicy.SUM));
+        for (Map.Entry<String, Double> share : shares.entrySet()) {
+            results.add(new ScalarResult(share.getKey(), share.getValue(), "%", AggregationPolicy.AVG));
+        }
+        return results;
+    }
+
+    private static void mergeShares(Map<String, Double> results, String prefix, Map<String, Double> shares) {
+        for (Map.Entry<String, Double> share : shares.entrySet()) {
+            results.merge(prefix + share.getKey(), share.getValue(), Double::sum);
+        }
+    }
+
+    private static void appendShares(StringBuilder summary, String title, Map<String, Double> shares) {
+        summary.append(title).append(':').append(System.lineSeparator());
+        for (Map.Entry<String, Double> share : shares.entrySet()) {
+            summary.append(String.format("%8.2f%%  %s%n", share.getValue(), share.getKey()));
+        }
+    }
+
+    private static boolean isWorker(RecordedThread thread) {
+        return thread != null && thread.getJavaName() != null && thread.getJavaName().contains(WORKER_THREAD);
+    }
+
+    private static String getAllocationSite(RecordedEvent event) {
+        return getTopFrame(event.getStackTrace()) + ":" + getTypeName(event.getClass("objectClass").getName());
+    }
+
+    private static String getTopFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                if (frame.isJavaFrame()) {
+                    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+                }
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * Converts JVM array descriptor (e.g. {@code [B}, {@code [Ljava.lang.String;}) to Java type name.
+     */
+    static String getTypeName(String name) {
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        if (dimensions == 0) {
+            return name;
+        }
+        String element = name.substring(dimensions);
+        switch (element) {
+        case "Z":
+            element = "boolean";
+            break;
+        case "B":
+            element = "byte";
+            break;
+        case "C":
+            element = "char";
+            break;
+        case "S":
+            element = "short";
+            break;
+        case "I":
+            element = "int";
+            break;
+        case "J":
+            element = "long";
+            break;
+        case "F":
+            element = "float";
+            break;
+        case "D":
+            element = "double";
+            break;
+        default:
+            element = element.substring(1, element.length() - 1);
+            break;
+        }
+        StringBuilder typeName = new StringBuilder(element);
+        for (int i = 0; i < dimensions; i++) {
+            typeName.append("[]");
+        }
+        return typeName.toString();
+    }
+
+    /**
+     * Events of worker threads within given measurement iterations, not in harness code between iterations.
+     */
+    private class Summary {
+        private final List<Instant[]> windows;
+        private final double workerMillis;
+        private final Map<String, Double> hotMethods = new HashMap<>();
+        private final Map<String, Double> sampledAllocations = new HashMap<>();
+        private final Map<String, Double> tlabAllocations = new HashMap<>();
+        private final Map<String, Double> waits = new LinkedHashMap<>();
+        private double javaSamples;
+        private double nativeSamples;
+
+        Summary(int threads, List<Instant[]> windows) {
+            this.windows = windows;
+            double windowsMillis = 0;
+            for (Instant[] window : windows) {
+                windowsMillis += Duration.between(window[0], window[1]).toNanos() / 1e6;
+            }
+            workerMillis = threads * windowsMillis;
+            waits.put("blocked", 0.0);
+            waits.put("waiting", 0.0);
+            waits.put("sleeping", 0.0);
+        }
+
+        void add(RecordedEvent event) {
+            switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample":
+                if (isMeasured(event, event.getThread("sampledThread"))) {
+                    hotMethods.merge(getTopFrame(event.getStackTrace()), 1.0, Double::sum);
+                    javaSamples++;
+                }
+                break;
+            case "jdk.NativeMethodSample":
+                if (isMeasured(event, event.getThread("sampledThread"))) {
+                    nativeSamples++;
+                }
+                break;
+            case "jdk.ObjectAllocationSample":
+                if (isMeasured(event, event.getThread())) {
+                    sampledAllocations.merge(getAllocationSite(event), (double) event.getLong("weight"),
+                            Double::sum);
+                }
+                break;
+            case "jdk.ObjectAllocationInNewTLAB":
+                if (isMeasured(event, event.getThread())) {
+                    tlabAllocations.merge(getAllocationSite(event), (double) event.getLong("tlabSize"),
+                            Double::sum);
+                }
+                break;
+            case "jdk.ObjectAllocationOutsideTLAB":
+                if (isMeasured(event, event.getThread())) {
+                    tlabAllocations.merge(getAllocationSite(event), (double) event.getLong("allocationSize"),
+                            Double::sum);
+                }
+                break;
+            case "jdk.JavaMonitorEnter":
+                addWait("blocked", event);
+                break;
+            case "jdk.JavaMonitorWait":
+            case "jdk.ThreadPark":
+                addWait("waiting", event);
+                break;
+            case "jdk.ThreadSleep":
+                addWait("sleeping", event);
+                break;
+            default:
+                break;
+            }
+        }
+
+        void addShares(Map<String, Double> shares) {
+            mergeShares(shares, HOT, getTopShares(hotMethods));
+            mergeShares(shares, ALLOC, getTopShares(getAllocations()));
+            mergeShares(shares, STATE, getStateShares());
+        }
+
+        String describe(Path file) {
+            StringBuilder summary = new StringBuilder();
+            summary.append(RECORDING_LINE).append(file.toAbsolutePath()).append(System.lineSeparator());
+            appendShares(summary, "Hot methods (% of " + (long) javaSamples + " execution samples)",
+                    getTopShares(hotMethods));
+            appendShares(summary, "Allocation sites (% of sampled bytes)", getTopShares(getAllocations()));
+            appendShares(summary, "Thread states (% of worker thread time)", getStateShares());
+            return summary.toString();
+        }
+
+        /**
+         * JVMs having allocation sampling event (JDK 16+) record TLAB events as well, so only one of them is used.
+         */
+        private Map<String, Double> getAllocations() {
+            return sampledAllocations.isEmpty() ? tlabAllocations : sampledAllocations;
+        }
+
+        /**
+         * Time not spent in waits is split between Java and native code by ratio of execution samples, as sampler
+         * visits only limited count of threads every period.
+         */
+        private Map<String, Double> getStateShares() {
+            Map<String, Double> shares = new LinkedHashMap<>();
+            if (workerMillis <= 0) {
+                return shares;
+            }
+            double waitMillis = 0;
+            for (Double millis : waits.values()) {
+                waitMillis += millis;
+            }
+            double runningShare = Math.max(0, 100 - waitMillis * 100 / workerMillis);
+            double samples = javaSamples + nativeSamples;
+            shares.put("java", samples == 0 ? runningShare : runningShare * javaSamples / samples);
+            shares.put("native", samples == 0 ? 0 : runningShare * nativeSamples / samples);
+            for (Map.Entry<String, Double> wait : waits.entrySet()) {
+                shares.put(wait.getKey(), Math.min(100, wait.getValue() * 100 / workerMillis));
+            }
+            return shares;
+        }
+
+        /**
+         * Adds wait time within measurement iterations, as wait may start before iteration.
+         */
+        private void addWait(String state, RecordedEvent event) {
+            if (!isWorker(event.getThread())) {
+                return;
+            }
+            for (Instant[] window : windows) {
+                Instant start = event.getStartTime().isAfter(window[0]) ? event.getStartTime() : window[0];
+                Instant end = event.getEndTime().isBefore(window[1]) ? event.getEndTime() : window[1];
+                if (start.isBefore(end)) {
+                    waits.merge(state, Duration.between(start, end).toNanos() / 1e6, Double::sum);
+                }
+            }
+        }
+
+        private boolean isMeasured(RecordedEvent event, RecordedThread thread) {
+            if (!isWorker(thread)) {
+                return false;
+            }
+            for (Instant[] window : windows) {
+                if (!event.getStartTime().isBefore(window[0]) && !event.getStartTime().isAfter(window[1])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.profilers;
+
+import org.openjdk.jmh.profile.ProfilerException;
+
+/**
+ * Checks that JVM running profiler provides Java Flight Recorder API. Fork JVM may differ from launcher JVM (e.g.
+ * {@code javaToUsePath} or JVM matrix run), and JMH fork runs without profiler failing with {@link ProfilerException},
+ * while linkage error of JFR classes would fail the benchmark.
+ */
+final class JfrSupport {
+    private JfrSupport() {
+    }
+
+    static void check(String profiler) throws ProfilerException {
+        try {
+            Class.forName("jdk.jfr.Recording");
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new ProfilerException(profiler + " requires Java Flight Recorder, which is not supported by JVM "
+                    + System.getProperty("java.vm.version"), e);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.IterationType;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedObject;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tracks JIT compiler activity during measurement iterations of the benchmark fork by Java Flight Recorder compilation,
+ * deoptimization and inlining events, and by {@link CompilationMXBean} compilation time. Only methods reachable from
+ * the benchmark are counted: methods of benchmark class package and of classes found on stacks of benchmark worker
+ * threads (above JMH generated stub) in execution samples of the fork. Results:
+ * <ul>
+ * <li>{@code ·jit.compilation.time} - JIT compilation time of the whole JVM during measurement iterations, ms</li>
+ * <li>{@code ·jit.compilations}, {@code ·jit.compilations.c2}, {@code ·jit.compilations.osr},
+ * {@code ·jit.compilations.failed} - compilations overlapping measurement iterations: all, C2 (tier 4), on-stack
+ * replacements and failed ones</li>
+ * <li>{@code ·jit.compiling.iterations} - measurement iterations overlapping with any compilation</li>
+ * <li>{@code ·jit.deoptimizations}, {@code ·jit.deopt.<method>:<reason>} - deoptimizations during measurement
+ * iterations</li>
+ * <li>{@code ·jit.inlining.failed}, {@code ·jit.inline.<caller> -> <callee>: <message>} - failed inlining
+ * decisions of compilations overlapping measurement iterations, except of JMH infrastructure callees</li>
+ * <li>{@code ·jit.interpreted.<method>} - execution samples of worker threads running interpreted method</li>
+ * </ul>
+ * Only {@code top} deoptimized methods, inlining failures and interpreted methods are reported. All results are
+ * counts, so events of the fork are read once, when the last measurement iteration ends. Recording is started with the
+ * first warm-up iteration, as starting it makes JVM recompile running code.
+ * <p>
+ * Options: {@code top} - count of reported methods, {@code period} - execution sampling period in milliseconds.
+ */
+public class JitProfiler implements InternalProfiler {
+    public static final String PREFIX = "·jit";
+    public static final String COMPILATIONS = PREFIX + ".compilations";
+    public static final String COMPILING_ITERATIONS = PREFIX + ".compiling.iterations";
+    public static final String DEOPT = PREFIX + ".deopt.";
+    public static final String INLINING = PREFIX + ".inline.";
+    public static final String INTERPRETED = PREFIX + ".interpreted.";
+
+    private static final String WORKER_THREAD = "jmh-worker";
+    private static final String BENCHMARK_STUB = "_jmhTest";
+    private static final String JMH_PACKAGE = "org.openjdk.jmh.";
+    private static final int C2_LEVEL = 4;
+
+    private final int top;
+    private final Duration period;
+    private final CompilationMXBean compilationBean = ManagementFactory.getCompilationMXBean();
+    private final List<Instant[]> iterations = new ArrayList<>();
+    private Recording recording;
+    private long iterationCompilationTime;
+
+    public JitProfiler() throws ProfilerException {
+        this("");
+    }
+
+    public JitProfiler(String initLine) throws ProfilerException {
+        JfrSupport.check("JIT profiler");
+        ProfilerOptions options = new ProfilerOptions(initLine);
+        top = (int) options.getLong("top", 10);
+        period = Duration.ofMillis(Math.max(1, options.getLong("period", 10)));
+    }
+
+    @Override
+    public String getDescription() {
+        return "CyBench JIT compilations, deoptimizations and inlining failures";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        // starting recording discards compiled code, so it is started by first warm-up iteration to not disturb
+        // measurement
+        if (recording == null) {
+            recording = new Recording();
+            recording.enable("jdk.Compilation");
+            recording.enable("jdk.Deoptimization");
+            recording.enable("jdk.CompilerInlining");
+            recording.enable("jdk.ExecutionSample").withPeriod(period);
+            recording.start();
+        }
+        if (iterationParams.getType() != IterationType.MEASUREMENT) {
+            return;
+        }
+        iterations.add(new Instant[] { Instant.now(), null });
+        iterationCompilationTime = getCompilationTime();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT || recording == null) {
+            return Collections.emptyList();
+        }
+        long compilationTime = getCompilationTime() - iterationCompilationTime;
+        iterations.get(iterations.size() - 1)[1] = Instant.now();
+        List<Result> results = new ArrayList<>();
+        if (compilationBean != null && compilationBean.isCompilationTimeMonitoringSupported()) {
+            results.add(new ScalarResult(PREFIX + ".compilation.time", compilationTime, "ms",
+                    AggregationPolicy.SUM));
+        }
+        if (iterations.size() < iterationParams.getCount()) {
+            return results;
+        }
+        Path file = null;
+        try {
+            recording.stop();
+            file = Files.createTempFile("cybench-jit", ".jfr");
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            results.addAll(new Summary(getBenchmarkPackage(benchmarkParams), events).getResults());
+            return results;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read JIT events recording", e);
+        } finally {
+            recording.close();
+            recording = null;
+            iterations.clear();
+            deleteQuietly(file);
+        }
+    }
+
+    private long getCompilationTime() {
+        return compilationBean == null || !compilationBean.isCompilationTimeMonitoringSupported() ? 0
+                : compilationBean.getTotalCompilationTime();
+    }
+
+    private static String getBenchmarkPackage(BenchmarkParams benchmarkParams) {
+        String benchmarkClass = benchmarkParams.getBenchmark().substring(0,
+                benchmarkParams.getBenchmark().lastIndexOf('.'));
+        int packageEnd = benchmarkClass.lastIndexOf('.');
+        return packageEnd < 0 ? "" : benchmarkClass.substring(0, packageEnd + 1);
+    }
+
+    private static String getMethodName(RecordedMethod method) {
+        return method == null ? "unknown" : method.getType().getName() + "." + method.getName();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // temporary file is removed by OS
+        }
+    }
+
+    /**
+     * JIT events of methods reachable from the benchmark within measurement iterations of the fork.
+     */
+    private class Summary {
+        private final String benchmarkPackage;
+        private final Set<String> workerClasses = new HashSet<>();
+        private final Map<String, Double> deoptimizedMethods = new HashMap<>();
+        private final Map<String, Double> inliningFailures = new HashMap<>();
+        private final Map<String, Double> interpretedMethods = new HashMap<>();
+        private final boolean[] compilingIterations = new boolean[iterations.size()];
+        private double compilations;
+        private double c2Compilations;
+        private double osrCompilations;
+        private double failedCompilations;
+        private double deoptimizations;
+        private double failedInlinings;
+
+        Summary(String benchmarkPackage, List<RecordedEvent> events) {
+            this.benchmarkPackage = benchmarkPackage;
+            // reachable classes are collected first, as compilations are recorded before methods are sampled
+            for (RecordedEvent event : events) {
+                if ("jdk.ExecutionSample".equals(event.getEventType().getName())) {
+                    addSample(event);
+                }
+            }
+            Set<Integer> measuredCompilations = new HashSet<>();
+            for (RecordedEvent event : events) {
+                switch (event.getEventType().getName()) {
+                case "jdk.Compilation":
+                    if (addCompilation(event)) {
+                        measuredCompilations.add(event.getInt("compileId"));
+                    }
+                    break;
+                case "jdk.Deoptimization":
+                    if (getIteration(event.getStartTime(), event.getStartTime()) >= 0
+                            && isReachable(event.getValue("method"))) {
+                        deoptimizations++;
+                        deoptimizedMethods.merge(getMethodName(event.getValue("method")) + ":"
+                                + event.getString("reason"), 1.0, Double::sum);
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+            for (RecordedEvent event : events) {
+                if ("jdk.CompilerInlining".equals(event.getEventType().getName()) && !event.getBoolean("succeeded")
+                        && measuredCompilations.contains(event.getInt("compileId"))) {
+                    addInliningFailure(event);
+                }
+            }
+        }
+
+        private void addSample(RecordedEvent event) {
+            RecordedThread thread = event.getThread("sampledThread");
+            if (thread == null || thread.getJavaName() == null || !thread.getJavaName().contains(WORKER_THREAD)
+                    || event.getStackTrace() == null) {
+                return;
+            }
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            for (RecordedFrame frame : frames) {
+                String type = frame.getMethod().getType().getName();
+                if (type.endsWith(BENCHMARK_STUB)) {
+                    break;
+                }
+                workerClasses.add(type);
+            }
+            if (!frames.isEmpty() && "Interpreted".equals(frames.get(0).getType())
+                    && getIteration(event.getStartTime(), event.getStartTime()) >= 0) {
+                interpretedMethods.merge(getMethodName(frames.get(0).getMethod()), 1.0, Double::sum);
+            }
+        }
+
+        private void addInliningFailure(RecordedEvent event) {
+            RecordedObject callee = event.getValue("callee");
+            String calleeType = callee.getString("type").replace('/', '.');
+            // JMH prevents inlining of its infrastructure (e.g. blackholes) on purpose
+            if (calleeType.startsWith(JMH_PACKAGE)) {
+                return;
+            }
+            failedInlinings++;
+            inliningFailures.merge(getMethodName(event.getValue("caller")) + " -> " + calleeType + "."
+                    + callee.getString("name") + ": " + event.getString("message"), 1.0, Double::sum);
+        }
+
+        /**
+         * @return {@code true} if compilation of reachable method overlaps measurement iteration
+         */
+        private boolean addCompilation(RecordedEvent event) {
+            int iteration = getIteration(event.getStartTime(), event.getEndTime());
+            if (iteration < 0 || !isReachable(event.getValue("method"))) {
+                return false;
+            }
+            compilations++;
+            if (event.getShort("compileLevel") == C2_LEVEL) {
+                c2Compilations++;
+            }
+            if (event.getBoolean("isOsr")) {
+                osrCompilations++;
+            }
+            if (!event.getBoolean("succeded")) {
+                failedCompilations++;
+            }
+            for (int i = iteration; i < iterations.size(); i++) {
+                if (iterations.get(i)[0].isBefore(event.getEndTime())) {
+                    compilingIterations[i] = true;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return index of first measurement iteration overlapping given time interval, or -1
+         */
+        private int getIteration(Instant start, Instant end) {
+            for (int i = 0; i < iterations.size(); i++) {
+                Instant[] iteration = iterations.get(i);
+                if (!start.isAfter(iteration[1]) && !end.isBefore(iteration[0])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isReachable(RecordedMethod method) {
+            if (method == null) {
+                return false;
+            }
+            String type = method.getType().getName();
+            boolean benchmarkPackage = this.benchmarkPackage.isEmpty() ? type.indexOf('.') < 0
+                    : type.startsWith(this.benchmarkPackage);
+            return benchmarkPackage || workerClasses.contains(type);
+        }
+
+        List<Result> getResults() {
+            int compiling = 0;
+            for (boolean iteration : compilingIterations) {
+                compiling += iteration ? 1 : 0;
+            }
+            List<Result> results = new ArrayList<>();
+            results.add(new ScalarResult(COMPILATIONS, compilations, "counts", AggregationPolicy.SUM));
+            results.add(new ScalarResult(COMPILATIONS + ".c2", c2Compilations, "counts", AggregationPolicy.SUM));
+            results.add(new ScalarResult(COMPILATIONS + ".osr", osrCompilations, "counts", AggregationPolicy.SUM));
+            results.add(new ScalarResult(COMPILATIONS + ".failed", failedCompilations, "counts",
+                    AggregationPolicy.SUM));
+            results.add(new ScalarResult(COMPILING_ITERATIONS, compiling, "counts", AggregationPolicy.SUM));
+            results.add(new ScalarResult(PREFIX + ".deoptimizations", deoptimizations, "counts",
+                    AggregationPolicy.SUM));
+            results.add(new ScalarResult(PREFIX + ".inlining.failed", failedInlinings, "counts",
+                    AggregationPolicy.SUM));
+            addTopCounts(results, DEOPT, deoptimizedMethods);
+            addTopCounts(results, INLINING, inliningFailures);
+            addTopCounts(results, INTERPRETED, interpretedMethods);
+            return results;
+        }
+
+        private void addTopCounts(List<Result> results, String prefix, Map<String, Double> counts) {
+            List<Map.Entry<String, Double>> sorted = new ArrayList<>(counts.entrySet());
+            sorted.sort(Map.Entry.<String, Double> comparingByValue().reversed());
+            for (Map.Entry<String, Double> count : sorted.subList(0, Math.min(top, sorted.size()))) {
+                results.add(new ScalarResult(prefix + count.getKey(), count.getValue(), "counts",
+                        AggregationPolicy.SUM));
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * Samples process and system CPU load and heap/non-heap memory usage of the forked benchmark JVM on a background
+ * thread during every measurement iteration. Values are reported per iteration and averaged (peaks maximized) over
+ * the whole benchmark run as {@code performance*} secondary results.
+ */
+public class PerformanceProfiler implements InternalProfiler {
+    public static final String PROCESS_CPU_LOAD = "performanceProcessCpuLoad";
+    public static final String PROCESS_CPU_LOAD_MAX = "performanceProcessCpuLoadMax";
+    public static final String SYSTEM_CPU_LOAD = "performanceSystemCpuLoad";
+    public static final String PROCESS_HEAP_MEMORY_USED = "performanceProcessHeapMemoryUsed";
+    public static final String PROCESS_HEAP_MEMORY_MAX = "performanceProcessHeapMemoryMax";
+    public static final String PROCESS_NON_HEAP_MEMORY_USED = "performanceProcessNonHeapMemoryUsed";
+
+    private static final long DEFAULT_SAMPLING_INTERVAL_MS = 100;
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final long samplingInterval;
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private Sampler sampler;
+
+    public PerformanceProfiler() throws ProfilerException {
+        this("");
+    }
+
+    public PerformanceProfiler(String initLine) throws ProfilerException {
+        ProfilerOptions options = new ProfilerOptions(initLine);
+        samplingInterval = Math.max(1, options.getLong("samplingInterval", DEFAULT_SAMPLING_INTERVAL_MS));
+        // first CPU load reading has no previous tick to compare to, so take it before measurements start
+        getProcessCpuLoad();
+        getSystemCpuLoad();
+    }
+
+    @Override
+    public String getDescription() {
+        return "CyBench process/system CPU load and heap/non-heap memory usage sampler";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (iterationParams.getType() == IterationType.MEASUREMENT) {
+            sampler = new Sampler();
+            sampler.start();
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (sampler == null) {
+            return Collections.emptyList();
+        }
+        Sampler finished = sampler;
+        sampler = null;
+        finished.finish();
+
+        List<Result> results = new ArrayList<>();
+        if (finished.processCpuSamples > 0) {
+            results.add(new ScalarResult(PROCESS_CPU_LOAD, finished.processCpuSum / finished.processCpuSamples, "%",
+                    AggregationPolicy.AVG));
+            results.add(new ScalarResult(PROCESS_CPU_LOAD_MAX, finished.processCpuMax, "%", AggregationPolicy.MAX));
+        }
+        if (finished.systemCpuSamples > 0) {
+            results.add(new ScalarResult(SYSTEM_CPU_LOAD, finished.systemCpuSum / finished.systemCpuSamples, "%",
+                    AggregationPolicy.AVG));
+        }
+        if (finished.memorySamples > 0) {
+            results.add(new ScalarResult(PROCESS_HEAP_MEMORY_USED, finished.heapSum / finished.memorySamples / MB,
+                    "MB", AggregationPolicy.AVG));
+            results.add(new ScalarResult(PROCESS_HEAP_MEMORY_MAX, finished.heapMax / MB, "MB", AggregationPolicy.MAX));
+            results.add(new ScalarResult(PROCESS_NON_HEAP_MEMORY_USED,
+                    finished.nonHeapSum / finished.memorySamples / MB, "MB", AggregationPolicy.AVG));
+        }
+        return results;
+    }
+
+    private double getProcessCpuLoad() {
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuLoad();
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("deprecation")
+    private double getSystemCpuLoad() {
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getSystemCpuLoad();
+        }
+        return -1;
+    }
+
+    private class Sampler extends Thread {
+        private volatile boolean running = true;
+
+        private double processCpuSum;
+        private double processCpuMax;
+        private int processCpuSamples;
+        private double systemCpuSum;
+        private int systemCpuSamples;
+        private double heapSum;
+        private double heapMax;
+        private double nonHeapSum;
+        private int memorySamples;
+
+        Sampler() {
+            super("cybench-performance-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(samplingInterval);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+
+        void finish() {
+            running = false;
+            interrupt();
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // iterations shorter than sampling interval still get a closing sample
+            sample();
+        }
+
+        private void sample() {
+            // CPU load is negative when not available on the platform
+            double processCpu = getProcessCpuLoad();
+            if (processCpu >= 0) {
+                processCpuSum += processCpu * 100;
+                processCpuMax = Math.max(processCpuMax, processCpu * 100);
+                processCpuSamples++;
+            }
+            double systemCpu = getSystemCpuLoad();
+            if (systemCpu >= 0) {
+                systemCpuSum += systemCpu * 100;
+                systemCpuSamples++;
+            }
+            long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+            heapSum += heapUsed;
+            heapMax = Math.max(heapMax, heapUsed);
+            nonHeapSum += memoryBean.getNonHeapMemoryUsage().getUsed();
+            memorySamples++;
+        }
+    }
+}
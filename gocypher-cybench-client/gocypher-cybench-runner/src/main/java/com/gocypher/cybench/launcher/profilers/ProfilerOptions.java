@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.profile.ProfilerException;
+
+/**
+ * Parses JMH profiler init lines of form {@code key1=value1;key2=value2} used to configure CyBench profilers.
+ */
+public class ProfilerOptions {
+    private final Map<String, String> options = new HashMap<>();
+
+    public ProfilerOptions(String initLine) throws ProfilerException {
+        if (StringUtils.isNotBlank(initLine)) {
+            for (String pair : initLine.split(";")) {
+                if (StringUtils.isBlank(pair)) {
+                    continue;
+                }
+                String[] kv = pair.split("=", 2);
+                if (kv.length != 2) {
+                    throw new ProfilerException("Invalid profiler option '" + pair + "', expected key=value");
+                }
+                options.put(kv[0].trim(), kv[1].trim());
+            }
+        }
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = options.get(key);
+        return StringUtils.isNotEmpty(value) ? value : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) throws ProfilerException {
+        String value = options.get(key);
+        if (StringUtils.isEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ProfilerException("Invalid numeric value for profiler option " + key + "=" + value, e);
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = options.get(key);
+        return StringUtils.isEmpty(value) ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.results.TextResult;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.FlameGraph;
+
+/**
+ * Portable wall-clock sampling profiler: samples stacks of benchmark worker threads by {@link ThreadMXBean} every
+ * {@code interval} milliseconds during measurement iterations, and writes collapsed stacks (one
+ * {@code frame;frame;frame count} line per distinct stack, root frame first) of the fork to {@code dir} when the last
+ * measurement iteration ends.
+ * <p>
+ * Count of samples is reported as {@code ·stack.samples}, path of collapsed stacks file as {@code ·stacks} text
+ * result, which is used to build flame graph of all forks.
+ * <p>
+ * Options: {@code dir} - output folder, {@code interval} - sampling interval in milliseconds, {@code depth} - maximal
+ * sampled stack depth.
+ */
+public class StackSamplingProfiler implements InternalProfiler {
+    public static final String PREFIX = "·stacks";
+    public static final String COLLAPSED_STACKS_LINE = "Collapsed stacks: ";
+
+    private static final String WORKER_THREAD = "jmh-worker";
+
+    private final Path dir;
+    private final long intervalMillis;
+    private final int depth;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final Map<String, Long> stacks = new HashMap<>();
+    private Thread sampler;
+    private volatile boolean measuring;
+    private volatile long[] workerIds;
+    private long iterationSamples;
+    private int measurementIteration;
+
+    public StackSamplingProfiler() throws ProfilerException {
+        this("");
+    }
+
+    public StackSamplingProfiler(String initLine) throws ProfilerException {
+        ProfilerOptions options = new ProfilerOptions(initLine);
+        dir = Paths.get(options.getString("dir", "stacks"));
+        intervalMillis = Math.max(1, options.getLong("interval", 10));
+        depth = (int) Math.max(1, options.getLong("depth", 256));
+    }
+
+    @Override
+    public String getDescription() {
+        return "CyBench portable stack sampling profiler producing collapsed stacks";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT) {
+            return;
+        }
+        // worker threads are started by JMH when iteration begins, so they are looked up by sampler
+        workerIds = null;
+        synchronized (stacks) {
+            iterationSamples = 0;
+        }
+        measuring = true;
+        if (sampler == null) {
+            sampler = new Thread(this::sample, "cybench-stack-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (iterationParams.getType() != IterationType.MEASUREMENT || sampler == null) {
+            return Collections.emptyList();
+        }
+        measuring = false;
+        List<Result> results = new ArrayList<>();
+        synchronized (stacks) {
+            results.add(new ScalarResult(PREFIX + ".samples", iterationSamples, "counts", AggregationPolicy.SUM));
+        }
+        if (++measurementIteration < iterationParams.getCount()) {
+            return results;
+        }
+        measurementIteration = 0;
+        sampler.interrupt();
+        try {
+            sampler.join();
+            Files.createDirectories(dir);
+            String fileName = BenchmarkWorkItem.fileNameOf(BenchmarkWorkItem.keyOf(benchmarkParams));
+            Path file = Files.createTempFile(dir, fileName + "-", FlameGraph.COLLAPSED_EXTENSION);
+            synchronized (stacks) {
+                FlameGraph.writeCollapsed(stacks, file);
+                stacks.clear();
+            }
+            // text result label gets prefix from JMH
+            results.add(new TextResult(COLLAPSED_STACKS_LINE + file.toAbsolutePath() + System.lineSeparator(),
+                    PREFIX.substring(1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to store collapsed stacks to " + dir, e);
+        } finally {
+            sampler = null;
+        }
+        return results;
+    }
+
+    private void sample() {
+        long next = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            if (measuring) {
+                long[] ids = workerIds;
+                if (ids == null || ids.length == 0) {
+                    ids = findWorkers();
+                    workerIds = ids;
+                }
+                for (ThreadInfo info : threadBean.getThreadInfo(ids, depth)) {
+                    if (info != null && info.getStackTrace().length > 0) {
+                        addStack(info.getStackTrace());
+                    }
+                }
+            }
+            next += TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            long sleepNanos = next - System.nanoTime();
+            try {
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } else {
+                    // sampling can't keep up with interval, so missed samples are skipped
+                    next = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private long[] findWorkers() {
+        List<Long> ids = new ArrayList<>();
+        for (ThreadInfo info : threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0)) {
+            if (info != null && info.getThreadName().contains(WORKER_THREAD)) {
+                ids.add(info.getThreadId());
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void addStack(StackTraceElement[] frames) {
+        StringBuilder stack = new StringBuilder();
+        for (int i = frames.length - 1; i >= 0; i--) {
+            if (stack.length() > 0) {
+                stack.append(';');
+            }
+            stack.append(frames[i].getClassName()).append('.').append(frames[i].getMethodName());
+        }
+        synchronized (stacks) {
+            stacks.merge(stack.toString(), 1L, Long::sum);
+            iterationSamples++;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.profilers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.*;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Counts bytes allocated by benchmark worker threads only in every measurement iteration, using per-thread allocation
+ * counters of {@link ThreadMXBean}. Unlike {@code gc.alloc.rate.norm}, result is not affected by JMH infrastructure
+ * and other background threads of the fork, and does not need GC profiler. Results:
+ * <ul>
+ * <li>{@code threadAllocationRate} - allocation rate of worker threads, MB/sec</li>
+ * <li>{@code threadAllocationRateNorm} - bytes allocated by worker threads per operation</li>
+ * <li>{@code threadAllocationNormMin}, {@code threadAllocationNormMax} - bytes allocated per operation by least and
+ * most allocating worker thread, assuming every thread performs equal share of operations</li>
+ * <li>{@code threadAllocationSkew} - spread of bytes allocated by worker threads, (max - min) / mean, %</li>
+ * </ul>
+ * Nothing is reported on JVMs not supporting thread allocation counters.
+ */
+public class ThreadAllocationProfiler implements InternalProfiler {
+    public static final String THREAD_ALLOCATION_RATE = "threadAllocationRate";
+    public static final String THREAD_ALLOCATION_RATE_NORM = "threadAllocationRateNorm";
+    public static final String THREAD_ALLOCATION_NORM_MIN = "threadAllocationNormMin";
+    public static final String THREAD_ALLOCATION_NORM_MAX = "threadAllocationNormMax";
+    public static final String THREAD_ALLOCATION_SKEW = "threadAllocationSkew";
+
+    private static final String WORKER_THREAD = "jmh-worker";
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final ThreadMXBean threadBean;
+    private Map<Long, Long> iterationStartBytes = Collections.emptyMap();
+    private long iterationStart;
+
+    public ThreadAllocationProfiler() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (ThreadMXBean) bean;
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threadBean = null;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "CyBench bytes allocated by benchmark worker threads per operation";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (threadBean == null || iterationParams.getType() != IterationType.MEASUREMENT) {
+            return;
+        }
+        // workers not started yet are missing, their allocations are counted from zero
+        iterationStartBytes = getWorkerAllocatedBytes();
+        iterationStart = System.nanoTime();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        if (threadBean == null || iterationParams.getType() != IterationType.MEASUREMENT) {
+            return Collections.emptyList();
+        }
+        double seconds = (System.nanoTime() - iterationStart) / 1e9;
+        List<Long> threadBytes = new ArrayList<>();
+        long totalBytes = 0;
+        for (Map.Entry<Long, Long> worker : getWorkerAllocatedBytes().entrySet()) {
+            long bytes = worker.getValue() - iterationStartBytes.getOrDefault(worker.getKey(), 0L);
+            // thread ids are not reused while thread is alive, but worker may be replaced between iterations
+            if (bytes >= 0) {
+                threadBytes.add(bytes);
+                totalBytes += bytes;
+            }
+        }
+        if (threadBytes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long minBytes = Collections.min(threadBytes);
+        long maxBytes = Collections.max(threadBytes);
+        double meanBytes = (double) totalBytes / threadBytes.size();
+
+        List<Result> results = new ArrayList<>();
+        results.add(new ScalarResult(THREAD_ALLOCATION_RATE, seconds > 0 ? totalBytes / MB / seconds : 0, "MB/sec",
+                AggregationPolicy.AVG));
+        results.add(new ScalarResult(THREAD_ALLOCATION_SKEW, meanBytes > 0 ? (maxBytes - minBytes) * 100 / meanBytes
+                : 0, "%", AggregationPolicy.AVG));
+        long ops = result.getMetadata() == null ? 0 : result.getMetadata().getAllOps();
+        if (ops > 0) {
+            double threadOps = (double) ops / threadBytes.size();
+            results.add(new ScalarResult(THREAD_ALLOCATION_RATE_NORM, (double) totalBytes / ops, "B/op",
+                    AggregationPolicy.AVG));
+            results.add(new ScalarResult(THREAD_ALLOCATION_NORM_MIN, minBytes / threadOps, "B/op",
+                    AggregationPolicy.MIN));
+            results.add(new ScalarResult(THREAD_ALLOCATION_NORM_MAX, maxBytes / threadOps, "B/op",
+                    AggregationPolicy.MAX));
+        }
+        return results;
+    }
+
+    private Map<Long, Long> getWorkerAllocatedBytes() {
+        Map<Long, Long> workers = new HashMap<>();
+        for (ThreadInfo info : threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0)) {
+            if (info != null && info.getThreadName().contains(WORKER_THREAD)) {
+                long bytes = threadBean.getThreadAllocatedBytes(info.getThreadId());
+                if (bytes >= 0) {
+                    workers.put(info.getThreadId(), bytes);
+                }
+            }
+        }
+        return workers;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.*;
+
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+
+import com.gocypher.cybench.launcher.model.AbComparisonReport;
+import com.gocypher.cybench.launcher.model.AbComparisonReport.AbBenchmarkComparison;
+import com.gocypher.cybench.launcher.utils.ComputationUtils;
+
+/**
+ * Pairs benchmarks of A/B comparison sides and tests difference of their per-fork scores with Welch's t-test.
+ * Benchmarks having {@code @BenchmarkTag} are paired by tag, so renamed benchmark methods are still compared.
+ */
+public final class AbComparator {
+
+    private AbComparator() {
+    }
+
+    /**
+     * @param resultsA
+     *            fork results of side A keyed by work item key
+     * @param tagsA
+     *            benchmark tags of side A keyed by benchmark name
+     */
+    public static AbComparisonReport compare(Map<String, List<BenchmarkResult>> resultsA, Map<String, String> tagsA,
+            Map<String, List<BenchmarkResult>> resultsB, Map<String, String> tagsB, double confidence) {
+        AbComparisonReport report = new AbComparisonReport();
+        report.setConfidence(confidence);
+        Map<String, List<BenchmarkResult>> matchedA = byMatchKey(resultsA, tagsA);
+        Map<String, List<BenchmarkResult>> matchedB = byMatchKey(resultsB, tagsB);
+        for (Map.Entry<String, List<BenchmarkResult>> benchmarkA : matchedA.entrySet()) {
+            List<BenchmarkResult> forksB = matchedB.get(benchmarkA.getKey());
+            if (forksB == null) {
+                report.getUnmatchedBenchmarks().add("A: " + benchmarkA.getKey());
+            } else {
+                report.getComparisons().add(compare(benchmarkA.getValue(), forksB,
+                        tagsA.get(benchmarkA.getValue().get(0).getParams().getBenchmark()), confidence));
+            }
+        }
+        for (String keyB : matchedB.keySet()) {
+            if (!matchedA.containsKey(keyB)) {
+                report.getUnmatchedBenchmarks().add("B: " + keyB);
+            }
+        }
+        return report;
+    }
+
+    private static AbBenchmarkComparison compare(List<BenchmarkResult> forksA, List<BenchmarkResult> forksB,
+            String tag, double confidence) {
+        BenchmarkParams paramsA = forksA.get(0).getParams();
+        AbBenchmarkComparison comparison = new AbBenchmarkComparison();
+        comparison.setBenchmarkA(paramsA.getBenchmark());
+        comparison.setBenchmarkB(forksB.get(0).getParams().getBenchmark());
+        comparison.setTag(tag);
+        comparison.setMode(paramsA.getMode().shortLabel());
+        Map<String, String> params = new TreeMap<>();
+        for (String key : paramsA.getParamsKeys()) {
+            params.put(key, paramsA.getParam(key));
+        }
+        comparison.setParams(params);
+        comparison.setScoreUnit(forksA.get(0).getPrimaryResult().getScoreUnit());
+
+        SummaryStatistics statisticsA = new SummaryStatistics();
+        for (BenchmarkResult fork : forksA) {
+            comparison.getScoresA().add(fork.getPrimaryResult().getScore());
+            statisticsA.addValue(fork.getPrimaryResult().getScore());
+        }
+        SummaryStatistics statisticsB = new SummaryStatistics();
+        for (BenchmarkResult fork : forksB) {
+            comparison.getScoresB().add(fork.getPrimaryResult().getScore());
+            statisticsB.addValue(fork.getPrimaryResult().getScore());
+        }
+        comparison.setMeanA(statisticsA.getMean());
+        comparison.setMeanB(statisticsB.getMean());
+        double delta = statisticsB.getMean() - statisticsA.getMean();
+        comparison.setDelta(delta);
+        if (statisticsA.getMean() != 0) {
+            comparison.setDeltaPercent(delta / statisticsA.getMean() * 100);
+        }
+        double[] interval = ComputationUtils.computeWelchInterval(statisticsA, statisticsB, confidence);
+        if (interval != null) {
+            comparison.setDeltaLow(interval[0]);
+            comparison.setDeltaHigh(interval[1]);
+        }
+        Double pValue = ComputationUtils.computeWelchPValue(statisticsA, statisticsB);
+        comparison.setWelchPValue(pValue);
+        if (pValue == null) {
+            comparison.setVerdict(AbComparisonReport.VERDICT_INSUFFICIENT_DATA);
+        } else if (pValue >= 1 - confidence) {
+            comparison.setVerdict(AbComparisonReport.VERDICT_NO_DIFFERENCE);
+        } else {
+            // higher throughput, but lower time is better
+            boolean higherIsBetter = paramsA.getMode() == Mode.Throughput;
+            comparison.setVerdict(delta > 0 == higherIsBetter ? AbComparisonReport.VERDICT_IMPROVED
+                    : AbComparisonReport.VERDICT_REGRESSED);
+        }
+        return comparison;
+    }
+
+    private static Map<String, List<BenchmarkResult>> byMatchKey(Map<String, List<BenchmarkResult>> results,
+            Map<String, String> tags) {
+        Map<String, List<BenchmarkResult>> matched = new LinkedHashMap<>();
+        for (Map.Entry<String, List<BenchmarkResult>> result : results.entrySet()) {
+            String benchmark = result.getValue().get(0).getParams().getBenchmark();
+            String tag = tags.get(benchmark);
+            // work item key starts with benchmark name, which is replaced by tag to pair renamed methods
+            matched.put(tag == null ? result.getKey() : "@" + tag + result.getKey().substring(benchmark.length()),
+                    result.getValue());
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Line oriented append-only files, whose last line may be incomplete if previous run crashed while writing it.
+ */
+final class AppendOnlyFiles {
+
+    private AppendOnlyFiles() {
+    }
+
+    /**
+     * Appends line to file. Incomplete last line of crashed run is terminated first, so appended line is never joined
+     * to it.
+     */
+    static void appendLine(Path file, String line) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        boolean terminated = isTerminated(file);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            if (!terminated) {
+                writer.write(System.lineSeparator());
+            }
+            writer.write(line);
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Drops incomplete last line of crashed run, so it is neither read nor terminated by next append.
+     *
+     * @return {@code true} if file had incomplete last line
+     */
+    static boolean truncateIncompleteLine(Path file) throws IOException {
+        if (isTerminated(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long end = channel.size();
+            long lineEnd = 0;
+            while (end > 0 && lineEnd == 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                channel.read(buffer, start);
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        lineEnd = start + i + 1;
+                        break;
+                    }
+                }
+                end = start;
+            }
+            channel.truncate(lineEnd);
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if file is missing, empty or ends with line separator
+     */
+    static boolean isTerminated(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return true;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+}
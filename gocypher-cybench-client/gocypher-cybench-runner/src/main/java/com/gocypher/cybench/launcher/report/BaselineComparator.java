@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.openjdk.jmh.annotations.Mode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.launcher.model.BaselineComparisonReport;
+import com.gocypher.cybench.launcher.model.BaselineComparisonReport.BaselineBenchmarkComparison;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.utils.ComputationUtils;
+import com.gocypher.cybench.launcher.utils.Constants;
+
+/**
+ * Finds baseline report among stored JSON reports and compares benchmark reports of current run with it. Every score
+ * change is tested with Welch's t-test over score statistics (mean, standard deviation and measurements count) of
+ * both reports, over fork means when reports have several forks.
+ */
+public final class BaselineComparator {
+    private static final Logger LOG = LoggerFactory.getLogger(BaselineComparator.class);
+    private static final List<String> HARDWARE_KEYS = Arrays.asList("hwProcName", "hwProcCoresCount",
+            "hwProcLogicalThreadsCount", "hwMemTotalMemoryBytes", "hwOsName");
+    private static final List<String> JVM_KEYS = Arrays.asList("jvmVmName", "jvmVmVersion", "jvmVendor");
+
+    private BaselineComparator() {
+    }
+
+    /**
+     * @return hardware and JVM identity of report environment settings
+     */
+    public static String environmentFingerprint(Map<?, ?> environmentSettings) {
+        return hardwareFingerprint(environmentSettings) + jvmFingerprint(environmentSettings);
+    }
+
+    public static String hardwareFingerprint(Map<?, ?> environmentSettings) {
+        StringBuilder fingerprint = new StringBuilder();
+        Map<?, ?> hardware = asMap(environmentSettings.get("environment"));
+        for (String key : HARDWARE_KEYS) {
+            fingerprint.append(hardware.get(key)).append('|');
+        }
+        return fingerprint.toString();
+    }
+
+    public static String jvmFingerprint(Map<?, ?> environmentSettings) {
+        StringBuilder fingerprint = new StringBuilder();
+        Map<?, ?> jvm = asMap(environmentSettings.get("jvmEnvironment"));
+        for (String key : JVM_KEYS) {
+            fingerprint.append(jvm.get(key)).append('|');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * @return most recently modified report of reports folder having given environment fingerprint, or {@code null}
+     *         if there is none
+     */
+    public static File findLatestBaseline(File reportsFolder, String fingerprint) {
+        File[] reportFiles = reportsFolder.listFiles((dir, name) -> name.endsWith(Constants.CYB_REPORT_FILE_EXTENSION));
+        if (reportFiles == null) {
+            return null;
+        }
+        Arrays.sort(reportFiles, Comparator.comparingLong(File::lastModified).reversed());
+        for (File reportFile : reportFiles) {
+            Map<?, ?> report = loadReport(reportFile);
+            if (report != null
+                    && fingerprint.equals(environmentFingerprint(asMap(report.get("environmentSettings"))))) {
+                return reportFile;
+            }
+        }
+        return null;
+    }
+
+    public static Map<?, ?> loadReport(File reportFile) {
+        try {
+            return JSONUtils.parseJsonIntoMap(new String(Files.readAllBytes(reportFile.toPath()),
+                    StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOG.error("Error on reading report={}", reportFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param confidence
+     *            confidence level of significance test, e.g. 0.99
+     * @param regressionThreshold
+     *            minimal score change in percents to be reported as regression or improvement
+     * @param maxRegressions
+     *            regressions allowed before comparison is marked as exceeding threshold
+     */
+    public static BaselineComparisonReport compare(Map<?, ?> baseline, Collection<BenchmarkReport> benchmarkReports,
+            double confidence, double regressionThreshold, int maxRegressions) {
+        BaselineComparisonReport comparisonReport = new BaselineComparisonReport();
+        comparisonReport.setConfidence(confidence);
+        comparisonReport.setRegressionThreshold(regressionThreshold);
+        comparisonReport.setMaxRegressions(maxRegressions);
+        Object timestamp = baseline.get("timestamp");
+        if (timestamp instanceof Number) {
+            comparisonReport.setBaselineTimestamp(((Number) timestamp).longValue());
+        }
+
+        Map<String, BenchmarkReport> baselineReports = readBenchmarkReports(baseline);
+        Set<String> compared = new HashSet<>();
+        for (BenchmarkReport report : benchmarkReports) {
+            String key = keyOf(report);
+            BenchmarkReport baselineReport = baselineReports.get(key);
+            Double baselineScore = baselineReport == null ? null
+                    : getComparableScore(baselineReport, report.getScorePercentile());
+            if (baselineScore == null || baselineScore == 0 || report.getScore() == null) {
+                comparisonReport.getNewBenchmarks().add(key);
+                continue;
+            }
+            compared.add(key);
+            BaselineBenchmarkComparison comparison = compare(baselineReport, baselineScore, report, confidence,
+                    regressionThreshold);
+            comparisonReport.getComparisons().add(comparison);
+            if (BaselineComparisonReport.VERDICT_REGRESSED.equals(comparison.getVerdict())) {
+                comparisonReport.setRegressionsCount(comparisonReport.getRegressionsCount() + 1);
+                LOG.warn("Performance regression: benchmark={}, baseline={}, score={} {}, delta={}%, p={}, profile={}",
+                        key, comparison.getBaselineScore(), comparison.getScore(), comparison.getUnits(),
+                        comparison.getDeltaPercent(), comparison.getWelchPValue(), comparison.getFlameGraph());
+            } else if (BaselineComparisonReport.VERDICT_IMPROVED.equals(comparison.getVerdict())) {
+                comparisonReport.setImprovementsCount(comparisonReport.getImprovementsCount() + 1);
+            }
+        }
+        for (String key : baselineReports.keySet()) {
+            if (!compared.contains(key)) {
+                comparisonReport.getMissingBenchmarks().add(key);
+            }
+        }
+        comparisonReport.setThresholdExceeded(comparisonReport.getRegressionsCount() > maxRegressions);
+        return comparisonReport;
+    }
+
+    /**
+     * @return baseline score measured the same way as score of current run: mean or the same percentile
+     */
+    private static Double getComparableScore(BenchmarkReport baselineReport, Double scorePercentile) {
+        if (Objects.equals(baselineReport.getScorePercentile(), scorePercentile)) {
+            return baselineReport.getScore();
+        }
+        if (scorePercentile == null) {
+            return baselineReport.getMeanScore();
+        }
+        Map<String, Double> percentiles = baselineReport.getScorePercentiles();
+        return percentiles == null ? null : percentiles.get(BenchmarkReport.percentileKey(scorePercentile));
+    }
+
+    private static BaselineBenchmarkComparison compare(BenchmarkReport baselineReport, double baselineScore,
+            BenchmarkReport report, double confidence, double regressionThreshold) {
+        BaselineBenchmarkComparison comparison = new BaselineBenchmarkComparison();
+        comparison.setName(report.getName());
+        comparison.setMode(report.getMode());
+        comparison.setParams(BenchmarkWorkItem.paramsOf(report));
+        comparison.setJvmConfiguration(report.getJvmConfiguration());
+        comparison.setUnits(report.getUnits());
+        comparison.setScorePercentile(report.getScorePercentile());
+        comparison.setBaselineScore(baselineScore);
+        comparison.setScore(report.getScore());
+        if (report.getStackProfile() != null) {
+            comparison.setFlameGraph(report.getStackProfile().getFlameGraph());
+        }
+        if (baselineReport.getStackProfile() != null) {
+            comparison.setBaselineFlameGraph(baselineReport.getStackProfile().getFlameGraph());
+        }
+        double deltaPercent = (report.getScore() - baselineScore) / baselineScore * 100;
+        comparison.setDeltaPercent(deltaPercent);
+
+        StatisticalSummary baselineStatistics = toStatistics(baselineReport);
+        StatisticalSummary statistics = toStatistics(report);
+        Double pValue = null;
+        if (baselineStatistics != null && statistics != null) {
+            pValue = ComputationUtils.computeWelchPValue(baselineStatistics, statistics);
+            double[] interval = ComputationUtils.computeWelchInterval(baselineStatistics, statistics, confidence);
+            if (interval != null) {
+                comparison.setDeltaLowPercent(interval[0] / baselineScore * 100);
+                comparison.setDeltaHighPercent(interval[1] / baselineScore * 100);
+            }
+        }
+        comparison.setWelchPValue(pValue);
+        // without score statistics (e.g. percentile scores) change is judged by regression threshold only
+        boolean significant = pValue == null || pValue < 1 - confidence;
+        if (!significant || Math.abs(deltaPercent) < regressionThreshold) {
+            comparison.setVerdict(BaselineComparisonReport.VERDICT_NO_DIFFERENCE);
+        } else {
+            // higher throughput, but lower time is better
+            boolean higherIsBetter = Mode.Throughput.shortLabel().equals(report.getMode());
+            comparison.setVerdict(deltaPercent > 0 == higherIsBetter ? BaselineComparisonReport.VERDICT_IMPROVED
+                    : BaselineComparisonReport.VERDICT_REGRESSED);
+        }
+        return comparison;
+    }
+
+    /**
+     * Iterations of one fork share its JIT and memory layout state, so with several forks score statistics are the ones
+     * of fork means and measurements count is forks count. Fork means are taken from fork samples, or from fork
+     * variance components when samples are not kept.
+     */
+    private static StatisticalSummary toStatistics(BenchmarkReport report) {
+        // statistics describe mean score only
+        if (report.getScorePercentile() != null || report.getScore() == null) {
+            return null;
+        }
+        double mean = report.getScore();
+        double[][] forkSamples = report.getForkSamples();
+        if (forkSamples != null && forkSamples.length > 1) {
+            SummaryStatistics forkMeans = new SummaryStatistics();
+            for (double[] samples : forkSamples) {
+                if (samples.length > 0) {
+                    forkMeans.addValue(Arrays.stream(samples).average().orElse(0));
+                }
+            }
+            if (forkMeans.getN() > 1) {
+                return new StatisticalSummaryValues(mean, forkMeans.getVariance(), forkMeans.getN(),
+                        forkMeans.getMax(), forkMeans.getMin(), mean * forkMeans.getN());
+            }
+        }
+        int forks = report.getBenchForkCount();
+        if (forks > 1 && report.getBetweenForkVariance() != null && report.getWithinForkVariance() != null
+                && report.getN() != null && report.getN() > forks) {
+            // expected variance of fork means: between-fork variance plus within-fork variance of fork mean
+            double variance = report.getBetweenForkVariance()
+                    + report.getWithinForkVariance() / ((double) report.getN() / forks);
+            return new StatisticalSummaryValues(mean, variance, forks,
+                    report.getMaxScore() == null ? mean : report.getMaxScore(),
+                    report.getMinScore() == null ? mean : report.getMinScore(), mean * forks);
+        }
+        if (report.getStdDevScore() == null || report.getN() == null || report.getN() < 2) {
+            return null;
+        }
+        return new StatisticalSummaryValues(mean, report.getStdDevScore() * report.getStdDevScore(), report.getN(),
+                report.getMaxScore() == null ? mean : report.getMaxScore(),
+                report.getMinScore() == null ? mean : report.getMinScore(), mean * report.getN());
+    }
+
+    /**
+     * @return benchmark reports of JSON report keyed by JVM configuration, name, mode and params
+     */
+    public static Map<String, BenchmarkReport> readBenchmarkReports(Map<?, ?> report) {
+        Map<String, BenchmarkReport> reports = new LinkedHashMap<>();
+        for (Object categoryReports : asMap(report.get("benchmarks")).values()) {
+            if (!(categoryReports instanceof List)) {
+                continue;
+            }
+            for (Object benchmark : (List<?>) categoryReports) {
+                BenchmarkReport benchmarkReport = JSONUtils.parseJsonIntoObject(JSONUtils.marshalToJson(benchmark),
+                        BenchmarkReport.class);
+                if (benchmarkReport != null) {
+                    reports.put(keyOf(benchmarkReport), benchmarkReport);
+                }
+            }
+        }
+        return reports;
+    }
+
+    private static String keyOf(BenchmarkReport report) {
+        String key = BenchmarkWorkItem.keyOf(report);
+        return report.getJvmConfiguration() == null ? key : report.getJvmConfiguration() + "|" + key;
+    }
+
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : Collections.emptyMap();
+    }
+}
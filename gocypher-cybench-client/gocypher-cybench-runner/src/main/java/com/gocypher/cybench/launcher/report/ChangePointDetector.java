@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.*;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.util.ListStatistics;
+
+import com.gocypher.cybench.launcher.model.HistoryRecord;
+import com.gocypher.cybench.launcher.model.HistorySeries;
+import com.gocypher.cybench.launcher.model.TrendReport;
+import com.gocypher.cybench.launcher.model.TrendReport.BenchmarkTrend;
+import com.gocypher.cybench.launcher.model.TrendReport.ChangePoint;
+
+/**
+ * Finds change points in results history by E-divisive means (Matteson and James, 2014): the split of a segment
+ * maximizing energy distance between scores before and after it is accepted, if permutation test shows the distance is
+ * significant, and splitting is repeated for all segments until no significant split remains. Being based on
+ * distances between score distributions, it ignores single outliers and finds only lasting shifts.
+ */
+public class ChangePointDetector {
+    public static final int DEFAULT_PERMUTATIONS = 199;
+    /* fixed seed keeps analysis of the same history reproducible */
+    private static final long PERMUTATIONS_SEED = 0x5DEECE66DL;
+
+    private final double significance;
+    private final int permutations;
+    private final int minSegmentSize;
+    private final double noiseThreshold;
+
+    /**
+     * @param significance
+     *            permutation test p-value below which split is accepted, e.g. 0.01
+     * @param permutations
+     *            count of permutations of permutation test
+     * @param minSegmentSize
+     *            minimal count of runs between change points, at least 2
+     * @param noiseThreshold
+     *            coefficient of variation in percents above which benchmark is rated noisy
+     */
+    public ChangePointDetector(double significance, int permutations, int minSegmentSize, double noiseThreshold) {
+        this.significance = significance;
+        this.permutations = permutations;
+        this.minSegmentSize = Math.max(2, minSegmentSize);
+        this.noiseThreshold = noiseThreshold;
+    }
+
+    public TrendReport createReport() {
+        TrendReport report = new TrendReport();
+        report.setSignificance(significance);
+        report.setPermutations(permutations);
+        report.setMinSegmentSize(minSegmentSize);
+        report.setNoiseThreshold(noiseThreshold);
+        return report;
+    }
+
+    /**
+     * @return trends of all given series of store
+     */
+    public TrendReport analyze(HistoryStore store, Collection<HistorySeries> series) {
+        TrendReport report = createReport();
+        for (HistorySeries historySeries : series) {
+            analyze(report, historySeries, store.getRecords(historySeries, Long.MIN_VALUE, Long.MAX_VALUE),
+                    store.getFingerprints(historySeries));
+        }
+        return report;
+    }
+
+    /**
+     * Analyzes series history and adds its trend to report.
+     */
+    public BenchmarkTrend analyze(TrendReport report, HistorySeries series, List<HistoryRecord> records,
+            NavigableMap<Long, String[]> fingerprints) {
+        BenchmarkTrend trend = new BenchmarkTrend();
+        trend.setName(series.getName());
+        trend.setMode(series.getMode());
+        trend.setParams(series.getParams());
+        trend.setHardwareId(series.getHardwareId());
+        trend.setJvmVersion(series.getJvmVersion());
+        trend.setUnits(series.getUnits());
+        trend.setRuns(records.size());
+        report.getBenchmarks().add(trend);
+        if (records.isEmpty()) {
+            trend.setStability(TrendReport.STABILITY_INSUFFICIENT_DATA);
+            return trend;
+        }
+        trend.setFirstTimestamp(records.get(0).getTimestamp());
+        trend.setLastTimestamp(records.get(records.size() - 1).getTimestamp());
+
+        double[] scores = records.stream().mapToDouble(HistoryRecord::getScore).toArray();
+        SortedMap<Integer, Double> changes = findChangePoints(scores);
+        List<Integer> bounds = new ArrayList<>(changes.keySet());
+        bounds.add(0, 0);
+        bounds.add(scores.length);
+        for (int i = 1; i < bounds.size() - 1; i++) {
+            int change = bounds.get(i);
+            ChangePoint changePoint = createChangePoint(series, records, fingerprints,
+                    mean(scores, bounds.get(i - 1), change), mean(scores, change, bounds.get(i + 1)), change);
+            changePoint.setPermutationPValue(changes.get(change));
+            trend.getChangePoints().add(changePoint);
+        }
+        report.setChangePointsCount(report.getChangePointsCount() + changes.size());
+
+        ListStatistics latest = new ListStatistics();
+        for (int i = bounds.get(bounds.size() - 2); i < scores.length; i++) {
+            latest.addValue(scores[i]);
+        }
+        trend.setLatestMean(latest.getMean());
+        if (latest.getN() > 1 && latest.getMean() != 0) {
+            trend.setCoefficientOfVariation(latest.getStandardDeviation() / Math.abs(latest.getMean()) * 100);
+        }
+        if (scores.length < 2 * minSegmentSize) {
+            trend.setStability(TrendReport.STABILITY_INSUFFICIENT_DATA);
+        } else if (trend.getCoefficientOfVariation() != null && trend.getCoefficientOfVariation() > noiseThreshold) {
+            trend.setStability(TrendReport.STABILITY_NOISY);
+        } else if (!changes.isEmpty()) {
+            trend.setStability(TrendReport.STABILITY_SHIFTED);
+        } else {
+            trend.setStability(TrendReport.STABILITY_STABLE);
+        }
+        return trend;
+    }
+
+    /**
+     * @return indexes of values starting new segment mapped to permutation test p-value of split
+     */
+    public SortedMap<Integer, Double> findChangePoints(double[] values) {
+        Random random = new Random(PERMUTATIONS_SEED);
+        SortedSet<Integer> bounds = new TreeSet<>(Arrays.asList(0, values.length));
+        SortedMap<Integer, Double> changes = new TreeMap<>();
+        while (true) {
+            int bestSplit = -1;
+            double bestDistance = 0;
+            int bestStart = 0;
+            int bestEnd = 0;
+            Integer start = null;
+            for (Integer end : bounds) {
+                if (start != null) {
+                    double[] split = findBestSplit(values, start, end);
+                    if (split != null && split[1] > bestDistance) {
+                        bestSplit = (int) split[0];
+                        bestDistance = split[1];
+                        bestStart = start;
+                        bestEnd = end;
+                    }
+                }
+                start = end;
+            }
+            if (bestSplit < 0) {
+                break;
+            }
+            double pValue = computePValue(values, bestStart, bestEnd, bestDistance, random);
+            if (pValue >= significance) {
+                break;
+            }
+            bounds.add(bestSplit);
+            changes.put(bestSplit, pValue);
+        }
+        return changes;
+    }
+
+    /**
+     * @return index and energy distance of best split of values in {@code [start, end)}, or {@code null} if segment
+     *         is too short to split
+     */
+    private double[] findBestSplit(double[] values, int start, int end) {
+        int size = end - start;
+        if (size < 2 * minSegmentSize) {
+            return null;
+        }
+        double[][] distances = new double[size][size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                distances[i][j] = Math.abs(values[start + i] - values[start + j]);
+                distances[j][i] = distances[i][j];
+                total += distances[i][j];
+            }
+        }
+        // sums of distances within left and right part are updated as split moves right
+        double within1 = 0;
+        double within2 = total;
+        double[] best = null;
+        for (int split = 1; split <= size - minSegmentSize; split++) {
+            int moved = split - 1;
+            for (int i = 0; i < moved; i++) {
+                within1 += distances[moved][i];
+            }
+            for (int j = moved + 1; j < size; j++) {
+                within2 -= distances[moved][j];
+            }
+            if (split < minSegmentSize) {
+                continue;
+            }
+            double n1 = split;
+            double n2 = size - split;
+            double between = total - within1 - within2;
+            double energy = 2 * between / (n1 * n2) - within1 / (n1 * (n1 - 1) / 2) - within2 / (n2 * (n2 - 1) / 2);
+            double distance = n1 * n2 / (n1 + n2) * energy;
+            if (best == null || distance > best[1]) {
+                best = new double[] { start + split, distance };
+            }
+        }
+        return best;
+    }
+
+    private double computePValue(double[] values, int start, int end, double distance, Random random) {
+        double[] permuted = Arrays.copyOfRange(values, start, end);
+        int exceeding = 0;
+        for (int permutation = 0; permutation < permutations; permutation++) {
+            for (int i = permuted.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                double value = permuted[i];
+                permuted[i] = permuted[j];
+                permuted[j] = value;
+            }
+            double[] split = findBestSplit(permuted, 0, permuted.length);
+            if (split != null && split[1] >= distance) {
+                exceeding++;
+            }
+        }
+        return (exceeding + 1) / (double) (permutations + 1);
+    }
+
+    private ChangePoint createChangePoint(HistorySeries series, List<HistoryRecord> records,
+            NavigableMap<Long, String[]> fingerprints, double meanBefore, double meanAfter, int change) {
+        ChangePoint changePoint = new ChangePoint();
+        long timestamp = records.get(change).getTimestamp();
+        long previousTimestamp = records.get(change - 1).getTimestamp();
+        changePoint.setRunIndex(change);
+        changePoint.setTimestamp(timestamp);
+        changePoint.setPreviousTimestamp(previousTimestamp);
+        changePoint.setMeanBefore(meanBefore);
+        changePoint.setMeanAfter(meanAfter);
+        changePoint.setChangePercent(meanBefore == 0 ? 0 : (meanAfter - meanBefore) / Math.abs(meanBefore) * 100);
+        // higher throughput, but lower time is better
+        boolean higherIsBetter = Mode.Throughput.shortLabel().equals(series.getMode());
+        changePoint.setDirection(higherIsBetter == meanAfter > meanBefore ? TrendReport.DIRECTION_IMPROVEMENT
+                : TrendReport.DIRECTION_REGRESSION);
+        Map.Entry<Long, String[]> runFingerprints = fingerprints.floorEntry(timestamp);
+        if (runFingerprints != null) {
+            changePoint.setGeneratedFingerprint(StringUtils.defaultIfEmpty(runFingerprints.getValue()[0], null));
+            changePoint.setClassFingerprint(StringUtils.defaultIfEmpty(runFingerprints.getValue()[1], null));
+            changePoint.setCodeChanged(runFingerprints.getKey() > previousTimestamp);
+        }
+        return changePoint;
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+/**
+ * Append-only list of {@link BenchmarkWorkItem} keys which have finished and have their report stored in
+ * {@link ReportJournal}. Used to skip finished benchmarks when interrupted run is resumed.
+ */
+public class CheckpointManifest {
+    private static final Logger LOG = LoggerFactory.getLogger(CheckpointManifest.class);
+
+    private final Path manifestFile;
+    private final Set<String> finished = new HashSet<>();
+
+    public CheckpointManifest(String manifestFile) {
+        this.manifestFile = Paths.get(manifestFile);
+    }
+
+    public synchronized int load() {
+        finished.clear();
+        if (Files.exists(manifestFile)) {
+            try {
+                // partially written key of crashed run may look like key of other benchmark
+                if (AppendOnlyFiles.truncateIncompleteLine(manifestFile)) {
+                    LOG.warn("Dropped incomplete last line of checkpoint manifest={}", manifestFile);
+                }
+                for (String line : Files.readAllLines(manifestFile, StandardCharsets.UTF_8)) {
+                    if (StringUtils.isNotBlank(line)) {
+                        finished.add(line.trim());
+                    }
+                }
+            } catch (IOException e) {
+                LOG.error("Error on reading checkpoint manifest={}", manifestFile, e);
+            }
+        }
+        return finished.size();
+    }
+
+    public synchronized boolean isFinished(String key) {
+        return finished.contains(key);
+    }
+
+    public synchronized void markFinished(String key) {
+        if (!finished.add(key)) {
+            return;
+        }
+        try {
+            AppendOnlyFiles.appendLine(manifestFile, key);
+        } catch (IOException e) {
+            LOG.error("Error on writing checkpoint manifest={}", manifestFile, e);
+        }
+    }
+
+    public synchronized void clear() {
+        finished.clear();
+        try {
+            Files.deleteIfExists(manifestFile);
+        } catch (IOException e) {
+            LOG.error("Error on removing checkpoint manifest={}", manifestFile, e);
+        }
+    }
+}
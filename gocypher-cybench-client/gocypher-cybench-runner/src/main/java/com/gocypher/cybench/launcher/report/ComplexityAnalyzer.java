@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.*;
+import java.util.function.DoubleUnaryOperator;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.openjdk.jmh.annotations.Mode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.ComplexityReport;
+
+/**
+ * Groups reports of same benchmark differing only in one numeric {@code @Param} and fits empirical complexity of
+ * operation cost against that parameter. Fits are weighted by inverse squared cost, so every size contributes by its
+ * relative error, and best complexity class is chosen by Bayesian information criterion.
+ */
+public final class ComplexityAnalyzer {
+    private static final Logger LOG = LoggerFactory.getLogger(ComplexityAnalyzer.class);
+    private static final int MIN_SIZES = 3;
+    // normalized cost growth between consecutive sizes reported as cliff
+    private static final double CLIFF_RATIO = 1.5;
+
+    private static final Map<String, DoubleUnaryOperator> COMPLEXITIES = new LinkedHashMap<>();
+
+    static {
+        COMPLEXITIES.put("O(1)", null);
+        COMPLEXITIES.put("O(log n)", Math::log);
+        COMPLEXITIES.put("O(n)", n -> n);
+        COMPLEXITIES.put("O(n log n)", n -> n * Math.log(n));
+        COMPLEXITIES.put("O(n^2)", n -> n * n);
+    }
+
+    private ComplexityAnalyzer() {
+    }
+
+    /**
+     * @param sizeParams
+     *            names of size parameters to analyze, empty to analyze every numeric parameter
+     */
+    public static List<ComplexityReport> analyze(Collection<BenchmarkReport> reports, Collection<String> sizeParams) {
+        Map<String, List<BenchmarkReport>> groups = new TreeMap<>();
+        Map<String, String> groupSizeParams = new HashMap<>();
+        for (BenchmarkReport report : reports) {
+            Map<String, String> params = BenchmarkWorkItem.paramsOf(report);
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                if (!NumberUtils.isCreatable(param.getValue()) || !isSizeParam(param.getKey(), sizeParams)) {
+                    continue;
+                }
+                Map<String, String> otherParams = new TreeMap<>(params);
+                otherParams.remove(param.getKey());
+                // same benchmark measured on different JVM configurations of matrix must not be fitted together
+                String groupKey = report.getName() + '|' + report.getMode() + '|' + param.getKey() + '|'
+                        + otherParams;
+                if (report.getJvmConfiguration() != null) {
+                    groupKey = report.getJvmConfiguration() + '|' + groupKey;
+                }
+                groups.computeIfAbsent(groupKey, key -> new ArrayList<>()).add(report);
+                groupSizeParams.put(groupKey, param.getKey());
+            }
+        }
+        List<ComplexityReport> complexityReports = new ArrayList<>();
+        for (Map.Entry<String, List<BenchmarkReport>> group : groups.entrySet()) {
+            ComplexityReport complexityReport = analyzeGroup(group.getValue(), groupSizeParams.get(group.getKey()));
+            if (complexityReport != null) {
+                LOG.info("Benchmark complexity: {}", complexityReport);
+                complexityReports.add(complexityReport);
+            }
+        }
+        return complexityReports;
+    }
+
+    private static ComplexityReport analyzeGroup(List<BenchmarkReport> reports, String sizeParam) {
+        BenchmarkReport first = reports.get(0);
+        boolean throughput = Mode.Throughput.shortLabel().equals(first.getMode());
+        SortedMap<Double, Double> costs = new TreeMap<>();
+        for (BenchmarkReport report : reports) {
+            double size = NumberUtils.createDouble(BenchmarkWorkItem.paramsOf(report).get(sizeParam));
+            // costs are fitted on raw JMH scores, report score may be converted or percentile one
+            Double score = report.getRawScore();
+            if (score != null && score > 0 && size > 0) {
+                costs.put(size, throughput ? 1 / score : score);
+            }
+        }
+        if (costs.size() < MIN_SIZES) {
+            return null;
+        }
+        ComplexityReport complexityReport = new ComplexityReport();
+        complexityReport.setName(first.getName());
+        complexityReport.setMode(first.getMode());
+        complexityReport.setJvmConfiguration(first.getJvmConfiguration());
+        complexityReport.setSizeParam(sizeParam);
+        Map<String, String> params = BenchmarkWorkItem.paramsOf(first);
+        params.remove(sizeParam);
+        complexityReport.setParams(params);
+        complexityReport.setCostUnits(throughput ? invertUnits(first.getRawUnits()) : first.getRawUnits());
+
+        double[] sizes = new double[costs.size()];
+        double[] values = new double[costs.size()];
+        int i = 0;
+        for (Map.Entry<Double, Double> cost : costs.entrySet()) {
+            sizes[i] = cost.getKey();
+            values[i] = cost.getValue();
+            complexityReport.getPoints().add(new ComplexityReport.ComplexityPoint(cost.getKey(), cost.getValue()));
+            i++;
+        }
+
+        double bestCriterion = Double.POSITIVE_INFINITY;
+        double[] bestFit = null;
+        DoubleUnaryOperator bestFunction = null;
+        for (Map.Entry<String, DoubleUnaryOperator> complexity : COMPLEXITIES.entrySet()) {
+            double[] fit = fit(sizes, values, complexity.getValue());
+            if (fit == null) {
+                continue;
+            }
+            complexityReport.getFits().put(complexity.getKey(), fit[3]);
+            int parameters = complexity.getValue() == null ? 1 : 2;
+            double criterion = sizes.length * Math.log(Math.max(fit[2], 1e-12) / sizes.length)
+                    + parameters * Math.log(sizes.length);
+            if (criterion < bestCriterion) {
+                bestCriterion = criterion;
+                bestFit = fit;
+                bestFunction = complexity.getValue();
+                complexityReport.setComplexity(complexity.getKey());
+            }
+        }
+        if (bestFit == null) {
+            return complexityReport;
+        }
+        complexityReport.setConstant(bestFit[0]);
+        complexityReport.setCoefficient(bestFit[1]);
+        complexityReport.setFitRSquared(bestFit[3]);
+        complexityReport.setRelativeRmse(Math.sqrt(bestFit[2] / sizes.length) * 100);
+
+        List<ComplexityReport.ComplexityPoint> points = complexityReport.getPoints();
+        for (int p = 0; p < points.size(); p++) {
+            ComplexityReport.ComplexityPoint point = points.get(p);
+            double fitted = bestFit[0]
+                    + bestFit[1] * (bestFunction == null ? 0 : bestFunction.applyAsDouble(point.getSize()));
+            point.setNormalizedCost(point.getCost() / fitted);
+            if (p > 0) {
+                double increase = point.getNormalizedCost() / points.get(p - 1).getNormalizedCost();
+                if (increase >= CLIFF_RATIO) {
+                    complexityReport.getCliffs().add(
+                            new ComplexityReport.CostCliff(points.get(p - 1).getSize(), point.getSize(), increase));
+                }
+            }
+        }
+        return complexityReport;
+    }
+
+    /**
+     * Weighted least squares fit of {@code cost = constant + coefficient * f(size)} minimizing relative residuals.
+     *
+     * @return constant, coefficient, sum of squared relative residuals and R squared, or {@code null} if cost does
+     *         not grow with given function
+     */
+    private static double[] fit(double[] sizes, double[] values, DoubleUnaryOperator function) {
+        double sw = 0;
+        double swx = 0;
+        double swy = 0;
+        double swxx = 0;
+        double swxy = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double w = 1 / (values[i] * values[i]);
+            double x = function == null ? 0 : function.applyAsDouble(sizes[i]);
+            sw += w;
+            swx += w * x;
+            swy += w * values[i];
+            swxx += w * x * x;
+            swxy += w * x * values[i];
+        }
+        double constant;
+        double coefficient;
+        double determinant = sw * swxx - swx * swx;
+        if (function == null) {
+            constant = swy / sw;
+            coefficient = 0;
+        } else if (determinant <= 0) {
+            return null;
+        } else {
+            coefficient = (sw * swxy - swx * swy) / determinant;
+            constant = (swy - coefficient * swx) / sw;
+            if (coefficient <= 0) {
+                return null;
+            }
+        }
+        double mean = swy / sw;
+        double residuals = 0;
+        double total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double x = function == null ? 0 : function.applyAsDouble(sizes[i]);
+            double residual = (values[i] - constant - coefficient * x) / values[i];
+            double deviation = (values[i] - mean) / values[i];
+            residuals += residual * residual;
+            total += deviation * deviation;
+        }
+        double rSquared = total == 0 ? 1 : 1 - residuals / total;
+        return new double[] { constant, coefficient, residuals, rSquared };
+    }
+
+    private static boolean isSizeParam(String param, Collection<String> sizeParams) {
+        if (sizeParams.isEmpty()) {
+            return true;
+        }
+        for (String sizeParam : sizeParams) {
+            if (param.equalsIgnoreCase(sizeParam)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String invertUnits(String units) {
+        if (units == null || !units.contains("/")) {
+            return units;
+        }
+        // ops/s -> s/op
+        return StringUtils.substringAfter(units, "/") + "/"
+                + StringUtils.removeEnd(StringUtils.substringBefore(units, "/"), "s");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.ContentionReport;
+import com.gocypher.cybench.launcher.profilers.ContentionProfiler;
+
+/**
+ * Maps contention profiler secondary results ({@code ·contention.*}) into {@link ContentionReport} of
+ * {@link BenchmarkReport}. Contended locks and lock owners are ordered by share.
+ */
+public final class ContentionMetricsMapper {
+
+    private ContentionMetricsMapper() {
+    }
+
+    public static void map(RunResult result, BenchmarkReport report) {
+        if (result == null || result.getSecondaryResults() == null
+                || !result.getSecondaryResults().containsKey(ContentionProfiler.PREFIX + ".samples")) {
+            return;
+        }
+        Map<String, Result> secondaryResults = result.getSecondaryResults();
+        ContentionReport contention = new ContentionReport();
+        contention.setSamples(getScore(secondaryResults, ContentionProfiler.PREFIX + ".samples"));
+        contention.setBlockedCount(getScore(secondaryResults, ContentionProfiler.PREFIX
+                + ContentionProfiler.BLOCKED_COUNT));
+        contention.setBlockedTime(getScore(secondaryResults, ContentionProfiler.PREFIX
+                + ContentionProfiler.BLOCKED_TIME));
+        contention.setWaitedCount(getScore(secondaryResults, ContentionProfiler.PREFIX
+                + ContentionProfiler.WAITED_COUNT));
+        contention.setWaitedTime(getScore(secondaryResults, ContentionProfiler.PREFIX
+                + ContentionProfiler.WAITED_TIME));
+        contention.setThreads(getThreads(secondaryResults));
+        contention.setLocks(getShares(secondaryResults, ContentionProfiler.LOCK));
+        contention.setOwners(getShares(secondaryResults, ContentionProfiler.OWNER));
+        report.setContention(contention);
+        if (report.getThreadsSyncContendedLockAttemptsCount() == null) {
+            report.setThreadsSyncContendedLockAttemptsCount(contention.getBlockedCount());
+        }
+    }
+
+    private static Map<String, Map<String, Double>> getThreads(Map<String, Result> secondaryResults) {
+        Map<String, Map<String, Double>> threads = new TreeMap<>();
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (!entry.getKey().startsWith(ContentionProfiler.THREAD)) {
+                continue;
+            }
+            String key = entry.getKey().substring(ContentionProfiler.THREAD.length());
+            // thread names may contain dots, metric is always the last two segments
+            int metric = key.lastIndexOf('.', key.lastIndexOf('.') - 1);
+            if (metric > 0) {
+                threads.computeIfAbsent(key.substring(0, metric), k -> new TreeMap<>())
+                        .put(toCamelCase(key.substring(metric + 1)), entry.getValue().getScore());
+            }
+        }
+        return threads;
+    }
+
+    private static Map<String, Double> getShares(Map<String, Result> secondaryResults, String prefix) {
+        List<Map.Entry<String, Result>> entries = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> Double.compare(b.getValue().getScore(), a.getValue().getScore()));
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (Map.Entry<String, Result> entry : entries) {
+            shares.put(entry.getKey().substring(prefix.length()), entry.getValue().getScore());
+        }
+        return shares;
+    }
+
+    private static Double getScore(Map<String, Result> secondaryResults, String label) {
+        Result value = secondaryResults.get(label);
+        return value == null ? null : value.getScore();
+    }
+
+    private static String toCamelCase(String metric) {
+        int dot = metric.indexOf('.');
+        return metric.substring(0, dot) + Character.toUpperCase(metric.charAt(dot + 1)) + metric.substring(dot + 2);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads and writes collapsed stacks (one {@code frame;frame;frame count} line per distinct stack, root frame first, as
+ * used by flamegraph.pl) and renders them to standalone SVG flame graph. Frames are ordered alphabetically, frame
+ * width is proportional to samples count and hovering frame shows its samples count and share.
+ */
+public final class FlameGraph {
+    public static final String COLLAPSED_EXTENSION = ".collapsed";
+    public static final String SVG_EXTENSION = ".svg";
+
+    private static final int WIDTH = 1200;
+    private static final int PADDING = 10;
+    private static final int TITLE_HEIGHT = 30;
+    private static final int FRAME_HEIGHT = 16;
+    private static final double CHAR_WIDTH = 7;
+    private static final double MIN_FRAME_WIDTH = 0.1;
+
+    private FlameGraph() {
+    }
+
+    public static Map<String, Long> readCollapsed(Path file) throws IOException {
+        Map<String, Long> stacks = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int separator = line.lastIndexOf(' ');
+            if (separator > 0) {
+                stacks.merge(line.substring(0, separator), Long.parseLong(line.substring(separator + 1).trim()),
+                        Long::sum);
+            }
+        }
+        return stacks;
+    }
+
+    public static void writeCollapsed(Map<String, Long> stacks, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> stack : new TreeMap<>(stacks).entrySet()) {
+                out.write(stack.getKey());
+                out.write(' ');
+                out.write(String.valueOf(stack.getValue()));
+                out.newLine();
+            }
+        }
+    }
+
+    public static void writeSvg(Map<String, Long> stacks, String title, Path file) throws IOException {
+        Frame root = new Frame("all");
+        for (Map.Entry<String, Long> stack : stacks.entrySet()) {
+            Frame frame = root;
+            frame.samples += stack.getValue();
+            for (String name : stack.getKey().split(";")) {
+                frame = frame.children.computeIfAbsent(name, Frame::new);
+                frame.samples += stack.getValue();
+            }
+        }
+        int height = TITLE_HEIGHT + (root.getDepth() + 1) * FRAME_HEIGHT + PADDING;
+        double scale = root.samples == 0 ? 0 : (WIDTH - 2.0 * PADDING) / root.samples;
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(String.format(Locale.ROOT,
+                    "<?xml version=\"1.0\" standalone=\"no\"?>%n"
+                            + "<svg version=\"1.1\" width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\" "
+                            + "xmlns=\"http://www.w3.org/2000/svg\">%n"
+                            + "<rect x=\"0\" y=\"0\" width=\"100%%\" height=\"100%%\" fill=\"#f8f8f8\"/>%n"
+                            + "<text x=\"%d\" y=\"20\" font-family=\"Verdana\" font-size=\"15\" "
+                            + "text-anchor=\"middle\">%s</text>%n",
+                    WIDTH, height, WIDTH, height, WIDTH / 2, escape(title)));
+            writeFrame(out, root, root.samples, PADDING, 0, height, scale);
+            out.write("</svg>\n");
+        }
+    }
+
+    private static void writeFrame(Writer out, Frame frame, long total, double x, int level, int height,
+            double scale) throws IOException {
+        double width = frame.samples * scale;
+        if (width < MIN_FRAME_WIDTH) {
+            return;
+        }
+        double y = height - PADDING - (level + 1) * FRAME_HEIGHT;
+        int maxChars = (int) ((width - 6) / CHAR_WIDTH);
+        String label = frame.name.length() <= maxChars ? frame.name
+                : maxChars > 2 ? frame.name.substring(0, maxChars - 2) + ".." : "";
+        out.write(String.format(Locale.ROOT,
+                "<g><title>%s (%d samples, %.2f%%)</title>"
+                        + "<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%d\" fill=\"%s\" rx=\"2\"/>"
+                        + "<text x=\"%.1f\" y=\"%.1f\" font-family=\"Verdana\" font-size=\"12\">%s</text></g>%n",
+                escape(frame.name), frame.samples, frame.samples * 100.0 / total, x, y, width, FRAME_HEIGHT - 1,
+                getColor(frame.name), x + 3, y + FRAME_HEIGHT - 4.5, escape(label)));
+        double childX = x;
+        for (Frame child : frame.children.values()) {
+            writeFrame(out, child, total, childX, level + 1, height, scale);
+            childX += child.samples * scale;
+        }
+    }
+
+    /**
+     * Warm color derived from frame name, so the same frame has the same color in every flame graph.
+     */
+    private static String getColor(String name) {
+        int hash = name.hashCode();
+        int red = 205 + Math.abs(hash % 50);
+        int green = Math.abs((hash >> 8) % 190);
+        int blue = Math.abs((hash >> 16) % 55);
+        return String.format(Locale.ROOT, "rgb(%d,%d,%d)", red, green, blue);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static class Frame {
+        private final String name;
+        private final Map<String, Frame> children = new TreeMap<>();
+        private long samples;
+
+        Frame(String name) {
+            this.name = name;
+        }
+
+        int getDepth() {
+            int depth = 0;
+            List<Frame> level = new ArrayList<>(children.values());
+            while (!level.isEmpty()) {
+                depth++;
+                List<Frame> next = new ArrayList<>();
+                for (Frame frame : level) {
+                    next.addAll(frame.children.values());
+                }
+                level = next;
+            }
+            return depth;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.profilers.GCPauseProfiler;
+
+/**
+ * Maps all GC related JMH secondary results ({@code ·gc.*}) into {@link BenchmarkReport}. Memory pool and collector
+ * names differ between Parallel, G1, ZGC and Shenandoah collectors, so churn pools are normalized to
+ * {@code eden/survivor/old/young/heap} and collectors to {@code young/old/pauses/cycles} to make results of
+ * different collectors comparable.
+ */
+public final class GCMetricsMapper {
+    private static final String GC_PREFIX = "·gc.";
+    private static final String CHURN = "churn.";
+    private static final String PAUSE = "pause.";
+    private static final String NORM = ".norm";
+
+    private GCMetricsMapper() {
+    }
+
+    public static void map(RunResult result, BenchmarkReport report) {
+        if (result == null || result.getSecondaryResults() == null) {
+            return;
+        }
+        Map<String, Result> secondaryResults = result.getSecondaryResults();
+        Map<String, Double> gcMetrics = new TreeMap<>();
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (!entry.getKey().startsWith(GC_PREFIX)) {
+                continue;
+            }
+            String key = entry.getKey().substring(GC_PREFIX.length());
+            double score = entry.getValue().getScore();
+            if (key.startsWith(CHURN)) {
+                mapChurn(gcMetrics, key.substring(CHURN.length()), score);
+            } else if (key.startsWith(PAUSE)) {
+                mapPause(gcMetrics, key.substring(PAUSE.length()), score);
+            } else {
+                gcMetrics.put(key, score);
+            }
+        }
+        if (gcMetrics.isEmpty()) {
+            return;
+        }
+        report.setGcMetrics(gcMetrics);
+
+        report.setGcCalls(gcMetrics.get("count"));
+        report.setGcTime(gcMetrics.get("time"));
+        report.setGcAllocationRate(gcMetrics.get("alloc.rate"));
+        report.setGcAllocationRateNorm(gcMetrics.get("alloc.rate.norm"));
+        report.setGcPauseCount(gcMetrics.get("pause.count"));
+        report.setGcPauseTime(gcMetrics.get("pause.time"));
+        report.setGcPauseMax(gcMetrics.get("pause.max"));
+        report.setGcPauseP99(gcMetrics.get("pause.p99"));
+
+        // Parallel GC specific values kept for reports consumers relying on them
+        report.setGcChurnPsEdenSpace(getScore(secondaryResults, "·gc.churn.PS_Eden_Space"));
+        report.setGcChurnPsEdenSpaceNorm(getScore(secondaryResults, "·gc.churn.PS_Eden_Space.norm"));
+        report.setGcChurnPsSurvivorSpace(getScore(secondaryResults, "·gc.churn.PS_Survivor_Space"));
+        report.setGcChurnPsSurvivorSpaceNorm(getScore(secondaryResults, "·gc.churn.PS_Survivor_Space.norm"));
+    }
+
+    private static void mapChurn(Map<String, Double> gcMetrics, String poolKey, double score) {
+        boolean norm = poolKey.endsWith(NORM);
+        String pool = norm ? poolKey.substring(0, poolKey.length() - NORM.length()) : poolKey;
+        // several pools may map to same normalized pool (e.g. generational ZGC), so churn rates are summed
+        gcMetrics.merge(CHURN + normalizePool(pool) + (norm ? NORM : ""), score, Double::sum);
+    }
+
+    private static void mapPause(Map<String, Double> gcMetrics, String pauseKey, double score) {
+        int idx = pauseKey.lastIndexOf('.');
+        if (idx < 0) {
+            gcMetrics.put(PAUSE + pauseKey, score);
+            return;
+        }
+        String stat = pauseKey.substring(idx + 1);
+        String key = PAUSE + normalizeCollector(pauseKey.substring(0, idx)) + "." + stat;
+        if ("count".equals(stat) || "time".equals(stat)) {
+            gcMetrics.merge(key, score, Double::sum);
+        } else {
+            gcMetrics.merge(key, score, Math::max);
+        }
+    }
+
+    static String normalizePool(String pool) {
+        String name = pool.replace('_', ' ').toLowerCase(Locale.ROOT);
+        if (name.contains("eden")) {
+            return "eden";
+        }
+        if (name.contains("survivor")) {
+            return "survivor";
+        }
+        if (name.contains("old") || name.contains("tenured")) {
+            return "old";
+        }
+        if (name.contains("young")) {
+            return "young";
+        }
+        if (name.contains("zheap") || name.contains("shenandoah") || name.contains("epsilon")) {
+            return "heap";
+        }
+        return sanitize(name);
+    }
+
+    static String normalizeCollector(String collector) {
+        String name = collector.replace('_', ' ');
+        if (GCPauseProfiler.isConcurrentCycle(name)) {
+            return "cycles";
+        }
+        if (name.contains("Scavenge") || name.equals("Copy") || name.contains("ParNew") || name.contains("Young")
+                || name.contains("Minor")) {
+            return "young";
+        }
+        if (name.contains("MarkSweep") || name.contains("Old") || name.contains("Major")) {
+            return "old";
+        }
+        if (name.contains("Pauses")) {
+            return "pauses";
+        }
+        return sanitize(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static String sanitize(String name) {
+        return name.trim().replaceAll("[^a-zA-Z0-9]+", "_");
+    }
+
+    private static Double getScore(Map<String, Result> secondaryResults, String key) {
+        Result result = secondaryResults.get(key);
+        return result == null ? null : result.getScore();
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.util.ListStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.core.utils.SecurityUtils;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.HistoryRecord;
+import com.gocypher.cybench.launcher.model.HistorySeries;
+
+/**
+ * Local append-only store of benchmark results of all runs.
+ * <ul>
+ * <li>series file - one tab separated line per {@link HistorySeries}, its line number is series id</li>
+ * <li>segment file - fixed size binary {@link HistoryRecord}s, every record pointing to previous record of the same
+ * series</li>
+ * <li>index file - memory mapped table of last record of every series, preceded by count of indexed records</li>
+ * <li>fingerprints file - one tab separated line per change of benchmark fingerprints within series</li>
+ * </ul>
+ * Series are queried by walking record chain back from index, so query reads only records of that series. Index is
+ * brought up to date from segment when store is opened, so append interrupted at any point leaves store consistent.
+ * Store is not meant to be shared by concurrently running processes.
+ */
+public class HistoryStore implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HistoryStore.class);
+    private static final String SERIES_FILE = "series.tsv";
+    private static final String SEGMENT_FILE = "history.seg";
+    private static final String INDEX_FILE = "history.idx";
+    private static final String FINGERPRINTS_FILE = "fingerprints.tsv";
+    /* previous record, timestamp, score, stdDevScore, minScore, maxScore, n, series id */
+    private static final int RECORD_SIZE = 7 * Long.BYTES + Integer.BYTES;
+    private static final int INDEX_HEADER_SIZE = Long.BYTES;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    private final Path seriesFile;
+    private final Path fingerprintsFile;
+    private final FileChannel segment;
+    private final FileChannel index;
+    private final List<HistorySeries> series = new ArrayList<>();
+    private final Map<String, HistorySeries> seriesByKey = new HashMap<>();
+    private final Map<Integer, NavigableMap<Long, String[]>> fingerprints = new HashMap<>();
+    private MappedByteBuffer indexBuffer;
+    private MappedByteBuffer segmentBuffer;
+    private long recordsCount;
+
+    public HistoryStore(String folder) throws IOException {
+        Path storeFolder = Paths.get(folder);
+        Files.createDirectories(storeFolder);
+        seriesFile = storeFolder.resolve(SERIES_FILE);
+        fingerprintsFile = storeFolder.resolve(FINGERPRINTS_FILE);
+        loadSeries();
+        loadFingerprints();
+        segment = FileChannel.open(storeFolder.resolve(SEGMENT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = FileChannel.open(storeFolder.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // drop partially written record of interrupted append
+        recordsCount = segment.size() / RECORD_SIZE;
+        segment.truncate(recordsCount * RECORD_SIZE);
+        mapIndex(Math.max(INITIAL_INDEX_CAPACITY, series.size()));
+        updateIndex();
+    }
+
+    public synchronized long getRecordsCount() {
+        return recordsCount;
+    }
+
+    public synchronized List<HistorySeries> getSeries() {
+        return new ArrayList<>(series);
+    }
+
+    /**
+     * @param benchmarkPattern
+     *            regular expression found in benchmark name, or {@code null} to match any
+     * @param hardwareId
+     *            hardware id, or {@code null} to match any
+     * @param jvmVersion
+     *            part of JVM version, or {@code null} to match any
+     */
+    public synchronized List<HistorySeries> findSeries(String benchmarkPattern, String hardwareId,
+            String jvmVersion) {
+        Pattern pattern = benchmarkPattern == null ? null : Pattern.compile(benchmarkPattern);
+        List<HistorySeries> found = new ArrayList<>();
+        for (HistorySeries historySeries : series) {
+            if ((pattern == null || pattern.matcher(historySeries.getName()).find())
+                    && (hardwareId == null || hardwareId.equals(historySeries.getHardwareId()))
+                    && (jvmVersion == null || StringUtils.contains(historySeries.getJvmVersion(), jvmVersion))) {
+                found.add(historySeries);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return records of series having timestamp within {@code [from, to]}, ordered by timestamp
+     */
+    public synchronized List<HistoryRecord> getRecords(HistorySeries historySeries, long from, long to) {
+        List<HistoryRecord> records = new ArrayList<>();
+        mapSegment();
+        long record = getLastRecord(historySeries.getId());
+        while (record >= 0) {
+            int position = (int) (record * RECORD_SIZE);
+            long timestamp = segmentBuffer.getLong(position + Long.BYTES);
+            if (timestamp >= from && timestamp <= to) {
+                records.add(readRecord(position));
+            }
+            record = segmentBuffer.getLong(position);
+        }
+        records.sort(Comparator.comparingLong(HistoryRecord::getTimestamp));
+        return records;
+    }
+
+    /**
+     * Benchmark fingerprints of series runs, keyed by timestamp of run since which fingerprints were in use.
+     *
+     * @return timestamp mapped to generated and class fingerprints
+     */
+    public synchronized NavigableMap<Long, String[]> getFingerprints(HistorySeries historySeries) {
+        return new TreeMap<>(fingerprints.getOrDefault(historySeries.getId(), Collections.emptyNavigableMap()));
+    }
+
+    /**
+     * @return stored series of record
+     */
+    public synchronized HistorySeries append(HistorySeries seriesKey, HistoryRecord record) throws IOException {
+        HistorySeries historySeries = seriesByKey.get(seriesKey.getKey());
+        if (historySeries == null) {
+            historySeries = addSeries(seriesKey);
+        }
+        int seriesId = historySeries.getId();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(getLastRecord(seriesId));
+        buffer.putLong(record.getTimestamp());
+        buffer.putDouble(record.getScore());
+        buffer.putDouble(record.getStdDevScore());
+        buffer.putDouble(record.getMinScore());
+        buffer.putDouble(record.getMaxScore());
+        buffer.putLong(record.getN());
+        buffer.putInt(seriesId);
+        buffer.flip();
+        long position = recordsCount * RECORD_SIZE;
+        while (buffer.hasRemaining()) {
+            position += segment.write(buffer, position);
+        }
+        recordsCount++;
+        indexRecord(seriesId, recordsCount - 1);
+        indexBuffer.putLong(0, recordsCount);
+        return historySeries;
+    }
+
+    /**
+     * Appends reports of one run. Reports already stored for run timestamp (e.g. imported twice) and reports reused
+     * from result cache are skipped.
+     *
+     * @return count of appended reports
+     */
+    public synchronized int appendReports(Collection<BenchmarkReport> reports, long timestamp,
+            Map<?, ?> environmentSettings) throws IOException {
+        String hardwareId = getHardwareId(environmentSettings);
+        String jvmVersion = getJvmVersion(environmentSettings);
+        int appended = 0;
+        for (BenchmarkReport report : reports) {
+            if (report.getScore() == null || ResultCache.isCached(report)) {
+                continue;
+            }
+            // percentile scores are kept apart from mean scores
+            String mode = report.getScorePercentile() == null ? report.getMode()
+                    : report.getMode() + " " + BenchmarkReport.percentileKey(report.getScorePercentile());
+            HistorySeries seriesKey = new HistorySeries(report.getName(), mode,
+                    BenchmarkWorkItem.paramsOf(report), hardwareId,
+                    report.getJvmConfiguration() == null ? jvmVersion
+                            : jvmVersion + " [" + report.getJvmConfiguration() + "]",
+                    report.getUnits());
+            HistorySeries historySeries = seriesByKey.get(seriesKey.getKey());
+            if (historySeries != null && !getRecords(historySeries, timestamp, timestamp).isEmpty()) {
+                continue;
+            }
+            historySeries = append(seriesKey, new HistoryRecord(timestamp, report.getScore(),
+                    toDouble(report.getStdDevScore()), toDouble(report.getMinScore()),
+                    toDouble(report.getMaxScore()), report.getN() == null ? 0 : report.getN()));
+            appendFingerprints(historySeries, timestamp, report.getGeneratedFingerprint(),
+                    report.getClassFingerprint());
+            appended++;
+        }
+        return appended;
+    }
+
+    /**
+     * Appends benchmarks of JSON report, e.g. stored by earlier runs.
+     *
+     * @return count of appended reports
+     */
+    public int importReport(Map<?, ?> report) throws IOException {
+        Object timestamp = report.get("timestamp");
+        Object environmentSettings = report.get("environmentSettings");
+        if (!(timestamp instanceof Number) || !(environmentSettings instanceof Map)) {
+            return 0;
+        }
+        return appendReports(BaselineComparator.readBenchmarkReports(report).values(),
+                ((Number) timestamp).longValue(), (Map<?, ?>) environmentSettings);
+    }
+
+    public static String getHardwareId(Map<?, ?> environmentSettings) {
+        return StringUtils.left(
+                SecurityUtils.computeStringHash(BaselineComparator.hardwareFingerprint(environmentSettings)), 12);
+    }
+
+    public static String getJvmVersion(Map<?, ?> environmentSettings) {
+        Object jvm = environmentSettings.get("jvmEnvironment");
+        if (!(jvm instanceof Map)) {
+            return null;
+        }
+        return StringUtils.trim(StringUtils.defaultString((String) ((Map<?, ?>) jvm).get("jvmVmName")) + " "
+                + StringUtils.defaultString((String) ((Map<?, ?>) jvm).get("jvmVmVersion")));
+    }
+
+    /**
+     * @param bucketMillis
+     *            length of time bucket
+     * @param percentiles
+     *            percentiles to compute, in range (0, 100]
+     * @return start of every time bucket mapped to score percentiles of records within it
+     */
+    public static SortedMap<Long, double[]> computePercentilesOverTime(List<HistoryRecord> records,
+            long bucketMillis, double... percentiles) {
+        SortedMap<Long, ListStatistics> buckets = new TreeMap<>();
+        for (HistoryRecord record : records) {
+            buckets.computeIfAbsent(record.getTimestamp() / bucketMillis * bucketMillis, k -> new ListStatistics())
+                    .addValue(record.getScore());
+        }
+        SortedMap<Long, double[]> result = new TreeMap<>();
+        for (Map.Entry<Long, ListStatistics> bucket : buckets.entrySet()) {
+            double[] values = new double[percentiles.length];
+            for (int i = 0; i < percentiles.length; i++) {
+                values[i] = bucket.getValue().getPercentile(percentiles[i]);
+            }
+            result.put(bucket.getKey(), values);
+        }
+        return result;
+    }
+
+    /**
+     * @return best (highest throughput or lowest time) or worst records of series
+     */
+    public static List<HistoryRecord> rankRecords(HistorySeries historySeries, List<HistoryRecord> records,
+            boolean best, int limit) {
+        Comparator<HistoryRecord> byScore = Comparator.comparingDouble(HistoryRecord::getScore);
+        // higher throughput, but lower time is better
+        if (best == Mode.Throughput.shortLabel().equals(historySeries.getMode())) {
+            byScore = byScore.reversed();
+        }
+        List<HistoryRecord> ranked = new ArrayList<>(records);
+        ranked.sort(byScore);
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        indexBuffer.force();
+        segment.force(false);
+        segment.close();
+        index.close();
+    }
+
+    private HistorySeries addSeries(HistorySeries seriesKey) throws IOException {
+        HistorySeries historySeries = new HistorySeries(seriesKey.getName(), seriesKey.getMode(),
+                seriesKey.getParams(), seriesKey.getHardwareId(), seriesKey.getJvmVersion(), seriesKey.getUnits());
+        historySeries.setId(series.size());
+        // series is stored before its records, so every stored record has known series
+        try (Writer writer = Files.newBufferedWriter(seriesFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            writer.write(String.join("\t", sanitize(historySeries.getName()), sanitize(historySeries.getMode()),
+                    sanitize(historySeries.getHardwareId()), sanitize(historySeries.getJvmVersion()),
+                    sanitize(historySeries.getUnits()), JSONUtils.marshalToJson(historySeries.getParams())));
+            writer.write('\n');
+        }
+        series.add(historySeries);
+        seriesByKey.put(historySeries.getKey(), historySeries);
+        return historySeries;
+    }
+
+    private void appendFingerprints(HistorySeries historySeries, long timestamp, String generatedFingerprint,
+            String classFingerprint) throws IOException {
+        String[] runFingerprints = { sanitize(generatedFingerprint), sanitize(classFingerprint) };
+        NavigableMap<Long, String[]> seriesFingerprints = fingerprints.computeIfAbsent(historySeries.getId(),
+                k -> new TreeMap<>());
+        Map.Entry<Long, String[]> previous = seriesFingerprints.floorEntry(timestamp);
+        if (previous != null && Arrays.equals(previous.getValue(), runFingerprints)) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(fingerprintsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(historySeries.getId() + "\t" + timestamp + "\t" + runFingerprints[0] + "\t"
+                    + runFingerprints[1]);
+            writer.write('\n');
+        }
+        seriesFingerprints.put(timestamp, runFingerprints);
+    }
+
+    private void loadFingerprints() throws IOException {
+        if (!Files.exists(fingerprintsFile)) {
+            return;
+        }
+        for (String line : Files.readAllLines(fingerprintsFile, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length == 4 && StringUtils.isNumeric(fields[0]) && StringUtils.isNumeric(fields[1])) {
+                fingerprints.computeIfAbsent(Integer.valueOf(fields[0]), k -> new TreeMap<>())
+                        .put(Long.valueOf(fields[1]), new String[] { fields[2], fields[3] });
+            } else if (StringUtils.isNotBlank(line)) {
+                LOG.error("Malformed history fingerprints: {}", line);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadSeries() throws IOException {
+        if (!Files.exists(seriesFile)) {
+            return;
+        }
+        for (String line : Files.readAllLines(seriesFile, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            HistorySeries historySeries = new HistorySeries();
+            historySeries.setId(series.size());
+            if (fields.length == 6) {
+                historySeries.setName(fields[0]);
+                historySeries.setMode(fields[1]);
+                historySeries.setHardwareId(StringUtils.defaultIfEmpty(fields[2], null));
+                historySeries.setJvmVersion(StringUtils.defaultIfEmpty(fields[3], null));
+                historySeries.setUnits(StringUtils.defaultIfEmpty(fields[4], null));
+                historySeries.setParams(new TreeMap<>((Map<String, String>) JSONUtils.parseJsonIntoMap(fields[5])));
+                seriesByKey.put(historySeries.getKey(), historySeries);
+            } else {
+                LOG.error("Malformed history series={}: {}", historySeries.getId(), line);
+            }
+            // malformed series keeps its id, so ids of following series do not shift
+            series.add(historySeries);
+        }
+    }
+
+    private void updateIndex() {
+        long indexedCount = indexBuffer.getLong(0);
+        if (indexedCount > recordsCount) {
+            LOG.warn("History index is ahead of segment, rebuilding index: indexed={}, records={}", indexedCount,
+                    recordsCount);
+            for (int position = INDEX_HEADER_SIZE; position < indexBuffer.capacity(); position += Long.BYTES) {
+                indexBuffer.putLong(position, 0);
+            }
+            indexedCount = 0;
+        }
+        mapSegment();
+        for (long record = indexedCount; record < recordsCount; record++) {
+            int seriesId = segmentBuffer.getInt((int) (record * RECORD_SIZE) + 7 * Long.BYTES);
+            indexRecord(seriesId, record);
+        }
+        indexBuffer.putLong(0, recordsCount);
+    }
+
+    private long getLastRecord(int seriesId) {
+        int position = INDEX_HEADER_SIZE + seriesId * Long.BYTES;
+        // slots keep record number + 1, so zeroed slot of new series means no record
+        return position < indexBuffer.capacity() ? indexBuffer.getLong(position) - 1 : -1;
+    }
+
+    private void indexRecord(int seriesId, long record) {
+        int position = INDEX_HEADER_SIZE + seriesId * Long.BYTES;
+        if (position >= indexBuffer.capacity()) {
+            mapIndex(Math.max(seriesId + 1, 2 * (indexBuffer.capacity() - INDEX_HEADER_SIZE) / Long.BYTES));
+        }
+        indexBuffer.putLong(position, record + 1);
+    }
+
+    private void mapIndex(int capacity) {
+        try {
+            long size = Math.max(index.size(), INDEX_HEADER_SIZE + (long) capacity * Long.BYTES);
+            indexBuffer = index.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map history index", e);
+        }
+    }
+
+    private void mapSegment() {
+        long size = recordsCount * RECORD_SIZE;
+        if (segmentBuffer != null && segmentBuffer.capacity() >= size) {
+            return;
+        }
+        try {
+            segmentBuffer = segment.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map history segment", e);
+        }
+    }
+
+    private HistoryRecord readRecord(int position) {
+        HistoryRecord record = new HistoryRecord();
+        record.setTimestamp(segmentBuffer.getLong(position + Long.BYTES));
+        record.setScore(segmentBuffer.getDouble(position + 2 * Long.BYTES));
+        record.setStdDevScore(segmentBuffer.getDouble(position + 3 * Long.BYTES));
+        record.setMinScore(segmentBuffer.getDouble(position + 4 * Long.BYTES));
+        record.setMaxScore(segmentBuffer.getDouble(position + 5 * Long.BYTES));
+        record.setN(segmentBuffer.getLong(position + 6 * Long.BYTES));
+        return record;
+    }
+
+    private static double toDouble(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
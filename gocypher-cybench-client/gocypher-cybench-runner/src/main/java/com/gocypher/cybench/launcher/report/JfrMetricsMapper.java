@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.JfrReport;
+import com.gocypher.cybench.launcher.profilers.JfrProfiler;
+
+/**
+ * Maps JFR profiler secondary results ({@code ·jfr.*}) into {@link JfrReport} of {@link BenchmarkReport}. Hot methods
+ * and allocation sites are ordered by share, recordings of all forks are taken from {@code ·jfr} text result.
+ */
+public final class JfrMetricsMapper {
+
+    private JfrMetricsMapper() {
+    }
+
+    public static void map(RunResult result, BenchmarkReport report) {
+        if (result == null || result.getSecondaryResults() == null
+                || !result.getSecondaryResults().containsKey(JfrProfiler.PREFIX)) {
+            return;
+        }
+        Map<String, Result> secondaryResults = result.getSecondaryResults();
+        JfrReport jfr = new JfrReport();
+        Result samples = secondaryResults.get(JfrProfiler.PREFIX + ".samples");
+        jfr.setSamples(samples == null ? null : samples.getScore());
+        jfr.setHotMethods(getShares(secondaryResults, JfrProfiler.HOT, true));
+        jfr.setAllocationSites(getShares(secondaryResults, JfrProfiler.ALLOC, true));
+        jfr.setThreadStates(getShares(secondaryResults, JfrProfiler.STATE, false));
+        List<String> recordings = new ArrayList<>();
+        for (String line : secondaryResults.get(JfrProfiler.PREFIX).extendedInfo().split("\\R")) {
+            if (line.startsWith(JfrProfiler.RECORDING_LINE)) {
+                recordings.add(line.substring(JfrProfiler.RECORDING_LINE.length()).trim());
+            }
+        }
+        jfr.setRecordings(recordings);
+        report.setJfr(jfr);
+    }
+
+    private static Map<String, Double> getShares(Map<String, Result> secondaryResults, String prefix,
+            boolean sorted) {
+        List<Map.Entry<String, Result>> entries = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                entries.add(entry);
+            }
+        }
+        if (sorted) {
+            entries.sort((a, b) -> Double.compare(b.getValue().getScore(), a.getValue().getScore()));
+        }
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (Map.Entry<String, Result> entry : entries) {
+            shares.put(entry.getKey().substring(prefix.length()), entry.getValue().getScore());
+        }
+        return shares;
+    }
+}
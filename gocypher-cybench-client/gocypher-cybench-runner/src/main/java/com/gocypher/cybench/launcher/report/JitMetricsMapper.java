@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.JitReport;
+import com.gocypher.cybench.launcher.profilers.JitProfiler;
+
+/**
+ * Maps JIT profiler secondary results ({@code ·jit.*}) into {@link JitReport} of {@link BenchmarkReport} and flags
+ * benchmarks whose measurement iterations overlap with JIT compilation.
+ */
+public final class JitMetricsMapper {
+    private static final Logger LOG = LoggerFactory.getLogger(JitMetricsMapper.class);
+
+    private JitMetricsMapper() {
+    }
+
+    public static void map(RunResult result, BenchmarkReport report) {
+        if (result == null || result.getSecondaryResults() == null
+                || !result.getSecondaryResults().containsKey(JitProfiler.COMPILATIONS)) {
+            return;
+        }
+        Map<String, Result> secondaryResults = result.getSecondaryResults();
+        JitReport jit = new JitReport();
+        jit.setCompilationTime(getScore(secondaryResults, JitProfiler.PREFIX + ".compilation.time"));
+        jit.setCompilations(getScore(secondaryResults, JitProfiler.COMPILATIONS));
+        jit.setC2Compilations(getScore(secondaryResults, JitProfiler.COMPILATIONS + ".c2"));
+        jit.setOsrCompilations(getScore(secondaryResults, JitProfiler.COMPILATIONS + ".osr"));
+        jit.setFailedCompilations(getScore(secondaryResults, JitProfiler.COMPILATIONS + ".failed"));
+        jit.setCompilingIterations(getScore(secondaryResults, JitProfiler.COMPILING_ITERATIONS));
+        jit.setCompilationOverlap(jit.getCompilingIterations() != null && jit.getCompilingIterations() > 0);
+        jit.setDeoptimizations(getScore(secondaryResults, JitProfiler.PREFIX + ".deoptimizations"));
+        jit.setFailedInlinings(getScore(secondaryResults, JitProfiler.PREFIX + ".inlining.failed"));
+        jit.setDeoptimizedMethods(getCounts(secondaryResults, JitProfiler.DEOPT));
+        jit.setInliningFailures(getCounts(secondaryResults, JitProfiler.INLINING));
+        jit.setInterpretedMethods(getCounts(secondaryResults, JitProfiler.INTERPRETED));
+        report.setJit(jit);
+        if (jit.getCompilationOverlap()) {
+            LOG.warn("Measurement iterations overlap with JIT compilation, score may be unstable: name={}, "
+                    + "iterations={}, compilations={}, deoptimizations={}", report.getName(),
+                    jit.getCompilingIterations(), jit.getCompilations(), jit.getDeoptimizations());
+        }
+    }
+
+    private static Map<String, Double> getCounts(Map<String, Result> secondaryResults, String prefix) {
+        List<Map.Entry<String, Result>> entries = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> Double.compare(b.getValue().getScore(), a.getValue().getScore()));
+        Map<String, Double> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Result> entry : entries) {
+            counts.put(entry.getKey().substring(prefix.length()), entry.getValue().getScore());
+        }
+        return counts;
+    }
+
+    private static Double getScore(Map<String, Result> secondaryResults, String label) {
+        Result value = secondaryResults.get(label);
+        return value == null ? null : value.getScore();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.*;
+
+import org.openjdk.jmh.annotations.Mode;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.JvmConfiguration;
+import com.gocypher.cybench.launcher.model.JvmMatrixReport;
+
+/**
+ * Compares scores of every benchmark across JVM configurations of JVM matrix run. First configuration is baseline:
+ * relative score is throughput ratio to baseline, i.e. time ratios are inverted, so higher is always better. Overall
+ * score of configuration is geometric mean of its relative scores.
+ */
+public final class JvmMatrixComparator {
+
+    private JvmMatrixComparator() {
+    }
+
+    public static JvmMatrixReport compare(List<JvmConfiguration> configurations,
+            Collection<BenchmarkReport> benchmarkReports) {
+        JvmMatrixReport matrixReport = new JvmMatrixReport();
+        matrixReport.setConfigurations(configurations);
+        Set<String> timeBenchmarks = new HashSet<>();
+        for (BenchmarkReport report : benchmarkReports) {
+            if (report.getJvmConfiguration() == null || report.getScore() == null || report.getScore() <= 0) {
+                continue;
+            }
+            String key = BenchmarkWorkItem.keyOf(report);
+            matrixReport.getScores().computeIfAbsent(key, k -> new LinkedHashMap<>())
+                    .put(report.getJvmConfiguration(), report.getScore());
+            if (!Mode.Throughput.shortLabel().equals(report.getMode())) {
+                timeBenchmarks.add(key);
+            }
+        }
+        if (configurations.isEmpty()) {
+            return matrixReport;
+        }
+
+        String baseline = configurations.get(0).getName();
+        Map<String, Double> logSums = new LinkedHashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, Map<String, Double>> benchmark : matrixReport.getScores().entrySet()) {
+            Double baselineScore = benchmark.getValue().get(baseline);
+            if (baselineScore == null) {
+                continue;
+            }
+            boolean time = timeBenchmarks.contains(benchmark.getKey());
+            Map<String, Double> relativeScores = new LinkedHashMap<>();
+            String best = null;
+            for (JvmConfiguration configuration : configurations) {
+                Double score = benchmark.getValue().get(configuration.getName());
+                if (score == null) {
+                    continue;
+                }
+                double relative = time ? baselineScore / score : score / baselineScore;
+                relativeScores.put(configuration.getName(), relative);
+                if (best == null || relative > relativeScores.get(best)) {
+                    best = configuration.getName();
+                }
+                logSums.merge(configuration.getName(), Math.log(relative), Double::sum);
+                counts.merge(configuration.getName(), 1, Integer::sum);
+            }
+            matrixReport.getRelativeScores().put(benchmark.getKey(), relativeScores);
+            matrixReport.getBestConfigurations().put(benchmark.getKey(), best);
+        }
+
+        String bestConfiguration = null;
+        for (Map.Entry<String, Double> logSum : logSums.entrySet()) {
+            double overall = Math.exp(logSum.getValue() / counts.get(logSum.getKey()));
+            matrixReport.getOverallRelativeScores().put(logSum.getKey(), overall);
+            if (bestConfiguration == null || overall > matrixReport.getOverallRelativeScores().get(bestConfiguration)) {
+                bestConfiguration = logSum.getKey();
+            }
+        }
+        matrixReport.setBestConfiguration(bestConfiguration);
+        return matrixReport;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+/**
+ * JSON Lines file holding one {@link BenchmarkReport} per line. Every report is appended and flushed as soon as it is
+ * available, so results of finished benchmarks survive a crash of a long running suite.
+ */
+public class ReportJournal {
+    private static final Logger LOG = LoggerFactory.getLogger(ReportJournal.class);
+
+    private final Path journalFile;
+
+    public ReportJournal(String journalFile) {
+        this.journalFile = Paths.get(journalFile);
+    }
+
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    public synchronized void append(BenchmarkReport report) {
+        String line = JSONUtils.marshalToJson(report);
+        if (StringUtils.isEmpty(line)) {
+            return;
+        }
+        try {
+            AppendOnlyFiles.appendLine(journalFile, line);
+        } catch (IOException e) {
+            LOG.error("Error on appending benchmark report to journal={}", journalFile, e);
+        }
+    }
+
+    public synchronized List<BenchmarkReport> read() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        if (!Files.exists(journalFile)) {
+            return reports;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                // line is incomplete if a run crashed while writing it
+                BenchmarkReport report = JSONUtils.parseJsonIntoObject(line, BenchmarkReport.class);
+                if (report != null) {
+                    reports.add(report);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Error on reading benchmark reports journal={}", journalFile, e);
+        }
+        return reports;
+    }
+
+    /**
+     * Journal may contain several reports of same benchmark when previous run crashed before checkpoint was stored,
+     * so only the latest report of every work item (and JVM configuration) is taken.
+     *
+     * @return latest reports in order they were appended
+     */
+    public synchronized Collection<BenchmarkReport> readLatest() {
+        Map<String, BenchmarkReport> reports = new LinkedHashMap<>();
+        for (BenchmarkReport report : read()) {
+            String key = BenchmarkWorkItem.keyOf(report);
+            if (report.getJvmConfiguration() != null) {
+                key = report.getJvmConfiguration() + "|" + key;
+            }
+            reports.remove(key);
+            reports.put(key, report);
+        }
+        return reports.values();
+    }
+
+    public synchronized void clear() {
+        try {
+            Files.deleteIfExists(journalFile);
+        } catch (IOException e) {
+            LOG.error("Error on removing benchmark reports journal={}", journalFile, e);
+        }
+    }
+}
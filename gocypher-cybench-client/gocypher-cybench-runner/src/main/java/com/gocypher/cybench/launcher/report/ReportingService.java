@@ -21,13 +21,21 @@ package com.gocypher.cybench.launcher.report;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.jar.Manifest;
 
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.BenchmarkResult;
 import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.Statistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,14 +43,28 @@ import com.gocypher.cybench.core.utils.JSONUtils;
 import com.gocypher.cybench.core.utils.SecurityUtils;
 import com.gocypher.cybench.launcher.model.BenchmarkOverviewReport;
 import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.MacroReport;
 import com.gocypher.cybench.launcher.model.SecuredReport;
+import com.gocypher.cybench.launcher.profilers.PerformanceProfiler;
+import com.gocypher.cybench.launcher.profilers.ThreadAllocationProfiler;
 import com.gocypher.cybench.launcher.utils.ComputationUtils;
 import com.gocypher.cybench.launcher.utils.Constants;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
 import com.gocypher.cybench.launcher.utils.SecurityBuilder;
+import com.gocypher.cybench.launcher.workload.WorkloadMetrics;
 import com.jcabi.manifests.Manifests;
 
 public class ReportingService {
     private static final Logger LOG = LoggerFactory.getLogger(ReportingService.class);
+    // same confidence level as JMH uses for score error
+    public static final double DEFAULT_SCORE_CONFIDENCE = 0.999;
+    /* bimodality coefficient of uniform distribution, higher values hint at bimodal distribution */
+    private static final double BIMODALITY_THRESHOLD = 5.0 / 9;
+    /* minimal fraction of iterations in smaller cluster, so few outliers are not taken as second mode */
+    private static final double MIN_MODE_FRACTION = 0.1;
+    /* score percentiles reported for sampling modes, 100 is max */
+    private static final double[] SCORE_PERCENTILES = { 50, 90, 99, 99.9, 99.99, 100 };
+    private static final String WORKLOAD_UNITS = "ops/s";
     private static ReportingService instance;
 
     private ReportingService() {
@@ -58,111 +80,16 @@ public class ReportingService {
 
     public BenchmarkOverviewReport createBenchmarkReport(Collection<RunResult> jmhResults,
             Map<String, Map<String, String>> defaultBenchmarksMetadata) {
-        BenchmarkOverviewReport overviewReport = new BenchmarkOverviewReport();
+        List<BenchmarkReport> reports = new ArrayList<>(jmhResults.size());
         for (RunResult item : jmhResults) {
-            BenchmarkReport report = new BenchmarkReport();
-            if (item.getPrimaryResult() != null) {
-                report.setScore(item.getPrimaryResult().getScore());
-                report.setUnits(item.getPrimaryResult().getScoreUnit());
-                if (item.getPrimaryResult().getStatistics() != null) {
-                    report.setN(item.getPrimaryResult().getStatistics().getN());
-                    report.setMeanScore(item.getPrimaryResult().getStatistics().getMean());
-                    report.setMaxScore(item.getPrimaryResult().getStatistics().getMax());
-                    report.setMinScore(item.getPrimaryResult().getStatistics().getMin());
-                    if (!Double.isNaN(item.getPrimaryResult().getStatistics().getStandardDeviation())) {
-                        report.setStdDevScore(item.getPrimaryResult().getStatistics().getStandardDeviation());
-                    }
-                }
-
-            }
-            if (item.getParams() != null) {
-                report.setName(item.getParams().getBenchmark());
-                report.setMode(item.getParams().getMode().shortLabel());
-                // System.out.println("id: "+item.getParams().id());
-                // System.out.println("Mode"+item.getParams().getMode().longLabel());
-            }
-
-            Collection<String> paramsKeys = item.getParams().getParamsKeys();
-            for (String key : paramsKeys) {
-                String value = item.getParams().getParam(key);
-                LOG.info("Collected params. Key: {}, Value: {}", key, value);
-                report.addMetadata("param" + BenchmarkReport.camelCase(key), value);
-            }
+            reports.add(createBenchmarkReport(item, defaultBenchmarksMetadata));
+        }
+        return createOverviewReport(reports);
+    }
 
-            report.setBenchForkCount(Objects.requireNonNull(item.getParams()).getForks());
-            report.setBenchThreadCount(item.getParams().getThreads());
-            report.setBenchWarmUpIteration(item.getParams().getWarmup().getCount());
-            report.setBenchWarmUpSeconds((int) item.getParams().getWarmup().getTime().getTime());
-            report.setBenchMeasurementIteration(item.getParams().getMeasurement().getCount());
-            report.setBenchMeasurementSeconds((int) item.getParams().getMeasurement().getTime().getTime());
-
-            report.setGcCalls(getScoreFromJMHSecondaryResult(item, "·gc.count"));
-            report.setGcTime(getScoreFromJMHSecondaryResult(item, "·gc.time"));
-            report.setGcAllocationRate(getScoreFromJMHSecondaryResult(item, "·gc.alloc.rate"));
-            report.setGcAllocationRateNorm(getScoreFromJMHSecondaryResult(item, "·gc.alloc.rate.norm"));
-            report.setGcChurnPsEdenSpace(getScoreFromJMHSecondaryResult(item, "·gc.churn.PS_Eden_Space"));
-            report.setGcChurnPsEdenSpaceNorm(getScoreFromJMHSecondaryResult(item, "·gc.churn.PS_Eden_Space.norm"));
-            report.setGcChurnPsSurvivorSpace(getScoreFromJMHSecondaryResult(item, "·gc.churn.PS_Survivor_Space"));
-            report.setGcChurnPsSurvivorSpaceNorm(
-                    getScoreFromJMHSecondaryResult(item, "·gc.churn.PS_Survivor_Space.norm"));
-
-            report.setThreadsAliveCount(getScoreFromJMHSecondaryResult(item, "·threads.alive"));
-            report.setThreadsDaemonCount(getScoreFromJMHSecondaryResult(item, "·threads.daemon"));
-            report.setThreadsStartedCount(getScoreFromJMHSecondaryResult(item, "·threads.started"));
-
-            report.setThreadsSafePointSyncTime(getScoreFromJMHSecondaryResult(item, "·rt.safepointSyncTime"));
-            report.setThreadsSafePointTime(getScoreFromJMHSecondaryResult(item, "·rt.safepointTime"));
-            report.setThreadsSafePointsCount(getScoreFromJMHSecondaryResult(item, "·rt.safepoints"));
-
-            report.setThreadsSyncContendedLockAttemptsCount(
-                    getScoreFromJMHSecondaryResult(item, "·rt.sync.contendedLockAttempts"));
-            report.setThreadsSyncMonitorFatMonitorsCount(getScoreFromJMHSecondaryResult(item, "·rt.sync.fatMonitors"));
-            report.setThreadsSyncMonitorFutileWakeupsCount(
-                    getScoreFromJMHSecondaryResult(item, "·rt.sync.futileWakeups"));
-            report.setThreadsSyncMonitorDeflations(getScoreFromJMHSecondaryResult(item, "·rt.sync.monitorDeflations"));
-            report.setThreadsSyncMonitorInflations(getScoreFromJMHSecondaryResult(item, "·rt.sync.monitorInflations"));
-            report.setThreadsSyncNotificationsCount(getScoreFromJMHSecondaryResult(item, "·rt.sync.notifications"));
-
-            report.setThreadsSyncParksCount(getScoreFromJMHSecondaryResult(item, "·rt.sync.parks"));
-
-            report.setThreadsSafePointsInterval(getScoreFromJMHSecondaryResult(item, "·safepoints.interval"));
-            report.setThreadsSafePointsPause(getScoreFromJMHSecondaryResult(item, "·safepoints.pause"));
-            report.setThreadsSafePointsPauseAvg(getScoreFromJMHSecondaryResult(item, "·safepoints.pause.avg"));
-            report.setThreadsSafePointsPauseCount(getScoreFromJMHSecondaryResult(item, "·safepoints.pause.count"));
-            report.setThreadsSafePointsPauseTTSP(getScoreFromJMHSecondaryResult(item, "·safepoints.ttsp"));
-            report.setThreadsSafePointsPauseTTSPAvg(getScoreFromJMHSecondaryResult(item, "·safepoints.ttsp.avg"));
-            report.setThreadsSafePointsPauseTTSPCount(getScoreFromJMHSecondaryResult(item, "·safepoints.ttsp.count"));
-
-            report.setPerformanceProcessCpuLoad(getScoreFromJMHSecondaryResult(item, "performanceProcessCpuLoad",
-                    item.getParams().getMeasurement().getCount()));
-            report.setPerformanceSystemCpuLoad(getScoreFromJMHSecondaryResult(item, "performanceSystemCpuLoad",
-                    item.getParams().getMeasurement().getCount()));
-            report.setPerformanceProcessHeapMemoryUsed(getScoreFromJMHSecondaryResult(item,
-                    "performanceProcessHeapMemoryUsed", item.getParams().getMeasurement().getCount()));
-            report.setPerformanceProcessNonHeapMemoryUsed(getScoreFromJMHSecondaryResult(item,
-                    "performanceProcessNonHeapMemoryUsed", item.getParams().getMeasurement().getCount()));
-
-            String manifestData = null;
-            if (Manifests.exists(Constants.BENCHMARK_METADATA)) {
-                manifestData = Manifests.read(Constants.BENCHMARK_METADATA);
-            }
-            Map<String, Map<String, String>> benchmarksMetadata = ComputationUtils.parseBenchmarkMetadata(manifestData);
-            Map<String, String> benchProps;
-            if (manifestData != null) {
-                benchProps = prepareBenchmarkProperties(report.getReportClassName(), benchmarksMetadata);
-            } else {
-                benchProps = prepareBenchmarkProperties(report.getReportClassName(), defaultBenchmarksMetadata);
-            }
-            if (benchProps.get("benchCategory") != null) {
-                report.setCategory(benchProps.get("benchCategory"));
-            }
-            if (benchProps.get("benchContext") != null) {
-                report.setContext(benchProps.get("benchContext"));
-            }
-            if (benchProps.get("benchVersion") != null) {
-                report.setVersion(benchProps.get("benchVersion"));
-            }
-            report.recalculateScoresToMatchNewUnits();
+    public BenchmarkOverviewReport createOverviewReport(Collection<BenchmarkReport> benchmarkReports) {
+        BenchmarkOverviewReport overviewReport = new BenchmarkOverviewReport();
+        for (BenchmarkReport report : benchmarkReports) {
             overviewReport.addToBenchmarks(report);
         }
 
@@ -173,6 +100,194 @@ public class ReportingService {
         return overviewReport;
     }
 
+    public BenchmarkReport createBenchmarkReport(RunResult item,
+            Map<String, Map<String, String>> defaultBenchmarksMetadata) {
+        BenchmarkReport report = new BenchmarkReport();
+        if (item.getPrimaryResult() != null) {
+            report.setScore(item.getPrimaryResult().getScore());
+            report.setRawScore(item.getPrimaryResult().getScore());
+            report.setUnits(item.getPrimaryResult().getScoreUnit());
+            report.setRawUnits(item.getPrimaryResult().getScoreUnit());
+            if (item.getPrimaryResult().getStatistics() != null) {
+                report.setN(item.getPrimaryResult().getStatistics().getN());
+                report.setMeanScore(item.getPrimaryResult().getStatistics().getMean());
+                report.setMaxScore(item.getPrimaryResult().getStatistics().getMax());
+                report.setMinScore(item.getPrimaryResult().getStatistics().getMin());
+                if (!Double.isNaN(item.getPrimaryResult().getStatistics().getStandardDeviation())) {
+                    report.setStdDevScore(item.getPrimaryResult().getStatistics().getStandardDeviation());
+                }
+                Double scoreError = ComputationUtils.computeRelativeError(item.getPrimaryResult().getStatistics(),
+                        DEFAULT_SCORE_CONFIDENCE);
+                if (scoreError != null) {
+                    report.setScoreErrorRelative(scoreError);
+                    report.setScoreErrorConfidence(DEFAULT_SCORE_CONFIDENCE);
+                }
+            }
+            setSamples(item, report);
+            Mode mode = item.getParams() == null ? null : item.getParams().getMode();
+            if ((mode == Mode.SampleTime || mode == Mode.SingleShotTime)
+                    && item.getPrimaryResult().getStatistics() != null) {
+                setPercentiles(item.getPrimaryResult().getStatistics(), report);
+            }
+
+        }
+        if (item.getParams() != null) {
+            report.setName(item.getParams().getBenchmark());
+            report.setMode(item.getParams().getMode().shortLabel());
+            // System.out.println("id: "+item.getParams().id());
+            // System.out.println("Mode"+item.getParams().getMode().longLabel());
+        }
+
+        Collection<String> paramsKeys = item.getParams().getParamsKeys();
+        for (String key : paramsKeys) {
+            String value = item.getParams().getParam(key);
+            LOG.info("Collected params. Key: {}, Value: {}", key, value);
+            report.addMetadata("param" + BenchmarkReport.camelCase(key), value);
+        }
+
+        report.setBenchForkCount(Objects.requireNonNull(item.getParams()).getForks());
+        report.setBenchThreadCount(item.getParams().getThreads());
+        report.setBenchWarmUpIteration(item.getParams().getWarmup().getCount());
+        report.setBenchWarmUpSeconds((int) item.getParams().getWarmup().getTime().getTime());
+        report.setBenchMeasurementIteration(item.getParams().getMeasurement().getCount());
+        report.setBenchMeasurementSeconds((int) item.getParams().getMeasurement().getTime().getTime());
+
+        GCMetricsMapper.map(item, report);
+        JfrMetricsMapper.map(item, report);
+        StackProfileMapper.map(item, report);
+        JitMetricsMapper.map(item, report);
+
+        report.setThreadsAliveCount(getScoreFromJMHSecondaryResult(item, "·threads.alive"));
+        report.setThreadsDaemonCount(getScoreFromJMHSecondaryResult(item, "·threads.daemon"));
+        report.setThreadsStartedCount(getScoreFromJMHSecondaryResult(item, "·threads.started"));
+
+        report.setThreadsSafePointSyncTime(getScoreFromJMHSecondaryResult(item, "·rt.safepointSyncTime"));
+        report.setThreadsSafePointTime(getScoreFromJMHSecondaryResult(item, "·rt.safepointTime"));
+        report.setThreadsSafePointsCount(getScoreFromJMHSecondaryResult(item, "·rt.safepoints"));
+
+        report.setThreadsSyncContendedLockAttemptsCount(
+                getScoreFromJMHSecondaryResult(item, "·rt.sync.contendedLockAttempts"));
+        report.setThreadsSyncMonitorFatMonitorsCount(getScoreFromJMHSecondaryResult(item, "·rt.sync.fatMonitors"));
+        report.setThreadsSyncMonitorFutileWakeupsCount(
+                getScoreFromJMHSecondaryResult(item, "·rt.sync.futileWakeups"));
+        report.setThreadsSyncMonitorDeflations(getScoreFromJMHSecondaryResult(item, "·rt.sync.monitorDeflations"));
+        report.setThreadsSyncMonitorInflations(getScoreFromJMHSecondaryResult(item, "·rt.sync.monitorInflations"));
+        report.setThreadsSyncNotificationsCount(getScoreFromJMHSecondaryResult(item, "·rt.sync.notifications"));
+
+        report.setThreadsSyncParksCount(getScoreFromJMHSecondaryResult(item, "·rt.sync.parks"));
+        // fills contended lock attempts, as runtime profiler providing rt.sync counters is obsolete
+        ContentionMetricsMapper.map(item, report);
+
+        report.setThreadsSafePointsInterval(getScoreFromJMHSecondaryResult(item, "·safepoints.interval"));
+        report.setThreadsSafePointsPause(getScoreFromJMHSecondaryResult(item, "·safepoints.pause"));
+        report.setThreadsSafePointsPauseAvg(getScoreFromJMHSecondaryResult(item, "·safepoints.pause.avg"));
+        report.setThreadsSafePointsPauseCount(getScoreFromJMHSecondaryResult(item, "·safepoints.pause.count"));
+        report.setThreadsSafePointsPauseTTSP(getScoreFromJMHSecondaryResult(item, "·safepoints.ttsp"));
+        report.setThreadsSafePointsPauseTTSPAvg(getScoreFromJMHSecondaryResult(item, "·safepoints.ttsp.avg"));
+        report.setThreadsSafePointsPauseTTSPCount(getScoreFromJMHSecondaryResult(item, "·safepoints.ttsp.count"));
+
+        report.setPerformanceProcessCpuLoad(
+                getScoreFromJMHSecondaryResult(item, PerformanceProfiler.PROCESS_CPU_LOAD));
+        report.setPerformanceProcessCpuLoadMax(
+                getScoreFromJMHSecondaryResult(item, PerformanceProfiler.PROCESS_CPU_LOAD_MAX));
+        report.setPerformanceSystemCpuLoad(
+                getScoreFromJMHSecondaryResult(item, PerformanceProfiler.SYSTEM_CPU_LOAD));
+        report.setPerformanceProcessHeapMemoryUsed(
+                getScoreFromJMHSecondaryResult(item, PerformanceProfiler.PROCESS_HEAP_MEMORY_USED));
+        report.setPerformanceProcessHeapMemoryMax(
+                getScoreFromJMHSecondaryResult(item, PerformanceProfiler.PROCESS_HEAP_MEMORY_MAX));
+        report.setPerformanceProcessNonHeapMemoryUsed(
+                getScoreFromJMHSecondaryResult(item, PerformanceProfiler.PROCESS_NON_HEAP_MEMORY_USED));
+
+        report.setThreadAllocationRate(
+                getScoreFromJMHSecondaryResult(item, ThreadAllocationProfiler.THREAD_ALLOCATION_RATE));
+        report.setThreadAllocationRateNorm(
+                getScoreFromJMHSecondaryResult(item, ThreadAllocationProfiler.THREAD_ALLOCATION_RATE_NORM));
+        report.setThreadAllocationNormMin(
+                getScoreFromJMHSecondaryResult(item, ThreadAllocationProfiler.THREAD_ALLOCATION_NORM_MIN));
+        report.setThreadAllocationNormMax(
+                getScoreFromJMHSecondaryResult(item, ThreadAllocationProfiler.THREAD_ALLOCATION_NORM_MAX));
+        report.setThreadAllocationSkew(
+                getScoreFromJMHSecondaryResult(item, ThreadAllocationProfiler.THREAD_ALLOCATION_SKEW));
+
+        setBenchmarkProperties(report, defaultBenchmarksMetadata);
+        report.recalculateScoresToMatchNewUnits();
+        return report;
+    }
+
+    /**
+     * Creates report of macro-benchmark workload, scored by rate of its {@link WorkloadMetrics#OPERATIONS} counter.
+     * Rates of sampling intervals are reported as measurement iterations.
+     */
+    public BenchmarkReport createWorkloadReport(String name, MacroReport macro,
+            Map<String, Map<String, String>> defaultBenchmarksMetadata) {
+        BenchmarkReport report = new BenchmarkReport();
+        report.setName(name);
+        report.setMode(Mode.Throughput.shortLabel());
+        report.setUnits(WORKLOAD_UNITS);
+        Double score = macro.getCounterRates().get(WorkloadMetrics.OPERATIONS);
+        if (score == null) {
+            LOG.warn("Workload does not count operations, score is 0: {}", name);
+        }
+        report.setScore(score == null ? 0 : score);
+        double[] sampleRates = macro.getSamples().stream()
+                .mapToDouble(sample -> sample.getCounterRates().getOrDefault(WorkloadMetrics.OPERATIONS, 0.0))
+                .toArray();
+        ListStatistics statistics = new ListStatistics(sampleRates);
+        if (statistics.getN() > 0) {
+            report.setN(statistics.getN());
+            report.setMeanScore(statistics.getMean());
+            report.setMinScore(statistics.getMin());
+            report.setMaxScore(statistics.getMax());
+            if (!Double.isNaN(statistics.getStandardDeviation())) {
+                report.setStdDevScore(statistics.getStandardDeviation());
+            }
+            Double scoreError = ComputationUtils.computeRelativeError(statistics, DEFAULT_SCORE_CONFIDENCE);
+            if (scoreError != null) {
+                report.setScoreErrorRelative(scoreError);
+                report.setScoreErrorConfidence(DEFAULT_SCORE_CONFIDENCE);
+            }
+            report.setForkSamples(new double[][] { sampleRates });
+        }
+        report.setBenchForkCount(1);
+        report.setBenchWarmUpSeconds(macro.getWarmUpSeconds());
+        report.setBenchMeasurementIteration(macro.getSamples().size());
+        report.setBenchMeasurementSeconds(macro.getMeasurementSeconds());
+        report.setGcCalls((double) macro.getGcCount());
+        report.setGcTime(macro.getGcTime());
+        report.setPerformanceProcessCpuLoad(macro.getProcessCpuLoad());
+        report.setPerformanceProcessCpuLoadMax(macro.getProcessCpuLoadMax());
+        report.setPerformanceProcessHeapMemoryMax(macro.getHeapUsedMax());
+        report.setMacro(macro);
+        setBenchmarkProperties(report, defaultBenchmarksMetadata);
+        report.recalculateScoresToMatchNewUnits();
+        return report;
+    }
+
+    private void setBenchmarkProperties(BenchmarkReport report,
+            Map<String, Map<String, String>> defaultBenchmarksMetadata) {
+        String manifestData = null;
+        if (Manifests.exists(Constants.BENCHMARK_METADATA)) {
+            manifestData = Manifests.read(Constants.BENCHMARK_METADATA);
+        }
+        Map<String, Map<String, String>> benchmarksMetadata = ComputationUtils.parseBenchmarkMetadata(manifestData);
+        Map<String, String> benchProps;
+        if (manifestData != null) {
+            benchProps = prepareBenchmarkProperties(report.getReportClassName(), benchmarksMetadata);
+        } else {
+            benchProps = prepareBenchmarkProperties(report.getReportClassName(), defaultBenchmarksMetadata);
+        }
+        if (benchProps.get("benchCategory") != null) {
+            report.setCategory(benchProps.get("benchCategory"));
+        }
+        if (benchProps.get("benchContext") != null) {
+            report.setContext(benchProps.get("benchContext"));
+        }
+        if (benchProps.get("benchVersion") != null) {
+            report.setVersion(benchProps.get("benchVersion"));
+        }
+    }
+
     public Double checkValueExistence(Double value) {
         if (value != null && value == -1) {
             return null;
@@ -263,6 +378,53 @@ public class ReportingService {
         return securedReport;
     }
 
+    private static void setSamples(RunResult item, BenchmarkReport report) {
+        double[][] forkSamples = getForkSamples(item);
+        report.setForkSamples(forkSamples);
+        double[] forkVariance = ComputationUtils.computeForkVariance(forkSamples);
+        if (forkVariance != null) {
+            report.setBetweenForkVariance(forkVariance[0]);
+            report.setWithinForkVariance(forkVariance[1]);
+        }
+        double[] samples = Arrays.stream(forkSamples).flatMapToDouble(Arrays::stream).toArray();
+        Double bimodalityCoefficient = ComputationUtils.computeBimodalityCoefficient(samples);
+        if (bimodalityCoefficient != null) {
+            report.setBimodalityCoefficient(bimodalityCoefficient);
+            report.setBimodal(bimodalityCoefficient > BIMODALITY_THRESHOLD
+                    && ComputationUtils.computeMinorModeFraction(samples) >= MIN_MODE_FRACTION);
+        }
+    }
+
+    private static void setPercentiles(Statistics statistics, BenchmarkReport report) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : SCORE_PERCENTILES) {
+            percentiles.put(BenchmarkReport.percentileKey(percentile), statistics.getPercentile(percentile));
+        }
+        report.setScorePercentiles(percentiles);
+        report.setScoreHistogram(ScoreHistogram.of(statistics).encode());
+    }
+
+    /**
+     * @return primary scores of measurement iterations grouped by fork
+     */
+    static double[][] getForkSamples(RunResult item) {
+        List<double[]> forkSamples = new ArrayList<>();
+        for (BenchmarkResult forkResult : item.getBenchmarkResults()) {
+            forkSamples.add(forkResult.getIterationResults().stream()
+                    .mapToDouble(iteration -> iteration.getPrimaryResult().getScore()).toArray());
+        }
+        int forkIterations = item.getParams() == null ? 0 : item.getParams().getMeasurement().getCount();
+        if (forkSamples.size() == 1 && forkIterations > 0 && forkSamples.get(0).length > forkIterations
+                && forkSamples.get(0).length % forkIterations == 0) {
+            // JMH passes result aggregated over all forks to output format, its iterations are ordered by fork
+            double[] samples = forkSamples.remove(0);
+            for (int from = 0; from < samples.length; from += forkIterations) {
+                forkSamples.add(Arrays.copyOfRange(samples, from, from + forkIterations));
+            }
+        }
+        return forkSamples.toArray(new double[0][]);
+    }
+
     private Double getScoreFromJMHSecondaryResult(RunResult result, String key) {
         if (result != null && result.getSecondaryResults() != null) {
             if (result.getSecondaryResults().get(key) != null) {
@@ -272,13 +434,4 @@ public class ReportingService {
         return null;
     }
 
-    private Double getScoreFromJMHSecondaryResult(RunResult result, String key, int denominator) {
-        Double value = getScoreFromJMHSecondaryResult(result, key);
-        checkValueExistence(value);
-        if (value != null && denominator != 0) {
-            return value / denominator;
-        }
-        return value;
-    }
-
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.core.utils.SecurityUtils;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.utils.Constants;
+
+/**
+ * Local store of benchmark reports keyed by benchmark method bytecode fingerprint, benchmark class fingerprint,
+ * benchmark mode/params and environment (JVM, hardware and execution settings) identity. Every entry is kept as
+ * separate JSON file in cache folder.
+ */
+public class ResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ResultCache.class);
+    public static final String CACHED_METADATA_KEY = "resultCached";
+    /**
+     * Launcher settings changing execution, measurement or profiling of benchmark, and so content of its report.
+     */
+    public static final List<String> IDENTITY_SETTINGS = Collections.unmodifiableList(Arrays.asList(
+            Constants.NUMBER_OF_FORKS, Constants.MEASUREMENT_ITERATIONS, Constants.MEASUREMENT_SECONDS,
+            Constants.WARM_UP_ITERATIONS, Constants.WARM_UP_SECONDS, Constants.RUN_THREAD_COUNT,
+            Constants.BENCHMARK_MODES, Constants.ADAPTIVE_MEASUREMENT, Constants.ADAPTIVE_TARGET_ERROR,
+            Constants.ADAPTIVE_CONFIDENCE, Constants.ADAPTIVE_MIN_ITERATIONS, Constants.ADAPTIVE_MAX_ITERATIONS,
+            Constants.WARM_UP_DETECTION, Constants.WARM_UP_MAX_ITERATIONS, Constants.WARM_UP_WINDOW,
+            Constants.WARM_UP_TOLERANCE, Constants.PARALLEL_EXECUTION, Constants.SCALABILITY_SWEEP,
+            Constants.SCALABILITY_MAX_THREADS, Constants.OPEN_LOOP, Constants.OPEN_LOOP_RATES,
+            Constants.OPEN_LOOP_THREADS, Constants.OPEN_LOOP_WARM_UP_SECONDS, Constants.OPEN_LOOP_SECONDS,
+            Constants.ASYNC_IN_FLIGHT, Constants.RAW_SAMPLES, Constants.SCORE_HISTOGRAM, Constants.SCORE_PERCENTILE,
+            Constants.JFR_PROFILER, Constants.JFR_SETTINGS, Constants.JFR_SAMPLING_PERIOD, Constants.JFR_TOP,
+            Constants.STACK_PROFILER, Constants.STACK_SAMPLING_INTERVAL, Constants.STACK_DEPTH,
+            Constants.CONTENTION_PROFILER, Constants.CONTENTION_SAMPLING_INTERVAL, Constants.JIT_PROFILER,
+            Constants.JIT_TOP, Constants.JAVA_TO_USE_PATH));
+
+    private final Path cacheFolder;
+    private final String environmentIdentity;
+
+    public ResultCache(String cacheFolder, String environmentIdentity) {
+        this.cacheFolder = Paths.get(cacheFolder);
+        this.environmentIdentity = environmentIdentity;
+    }
+
+    /**
+     * @return cache key, or {@code null} if benchmark has no generated fingerprint and can't be cached
+     */
+    public String createKey(String workItemKey, String generatedFingerprint, String classFingerprint) {
+        if (StringUtils.isEmpty(generatedFingerprint)) {
+            return null;
+        }
+        return SecurityUtils.computeStringHash(
+                workItemKey + "|" + generatedFingerprint + "|" + classFingerprint + "|" + environmentIdentity);
+    }
+
+    /**
+     * @param settings
+     *            looks up value of launcher setting
+     * @return values of {@link #IDENTITY_SETTINGS}, part of environment identity
+     */
+    public static String getSettingsIdentity(Function<String, String> settings) {
+        StringBuilder identity = new StringBuilder();
+        for (String key : IDENTITY_SETTINGS) {
+            identity.append(settings.apply(key)).append('|');
+        }
+        return identity.toString();
+    }
+
+    public BenchmarkReport get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Path entry = cacheFolder.resolve(key + ".json");
+        if (!Files.exists(entry)) {
+            return null;
+        }
+        try {
+            BenchmarkReport report = JSONUtils.parseJsonIntoObject(
+                    new String(Files.readAllBytes(entry), StandardCharsets.UTF_8), BenchmarkReport.class);
+            if (report != null) {
+                report.addMetadata(CACHED_METADATA_KEY, "true");
+            }
+            return report;
+        } catch (IOException e) {
+            LOG.error("Error on reading cached benchmark report={}", entry, e);
+            return null;
+        }
+    }
+
+    public void put(String key, BenchmarkReport report) {
+        if (key == null) {
+            return;
+        }
+        Path entry = cacheFolder.resolve(key + ".json");
+        try {
+            Files.createDirectories(cacheFolder);
+            // write to temporary file first, so concurrent or interrupted runs never see partial entry
+            Path tmpEntry = Files.createTempFile(cacheFolder, key, ".tmp");
+            Files.write(tmpEntry, JSONUtils.marshalToJson(report).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmpEntry, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.error("Error on storing benchmark report to cache={}", entry, e);
+        }
+    }
+
+    public static boolean isCached(BenchmarkReport report) {
+        return report.getMetadata() != null
+                && report.getMetadata().containsKey("bench" + BenchmarkReport.camelCase(CACHED_METADATA_KEY));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.report;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.StackProfileReport;
+import com.gocypher.cybench.launcher.profilers.StackSamplingProfiler;
+
+/**
+ * Merges collapsed stacks written by {@link StackSamplingProfiler} in every fork into single collapsed stacks file
+ * and SVG flame graph of benchmark, stored next to fork files, and links them from {@link BenchmarkReport}.
+ */
+public final class StackProfileMapper {
+    private static final Logger LOG = LoggerFactory.getLogger(StackProfileMapper.class);
+
+    private StackProfileMapper() {
+    }
+
+    public static void map(RunResult result, BenchmarkReport report) {
+        if (result == null || result.getSecondaryResults() == null
+                || !result.getSecondaryResults().containsKey(StackSamplingProfiler.PREFIX)) {
+            return;
+        }
+        Map<String, Result> secondaryResults = result.getSecondaryResults();
+        List<Path> forkFiles = new ArrayList<>();
+        for (String line : secondaryResults.get(StackSamplingProfiler.PREFIX).extendedInfo().split("\\R")) {
+            if (line.startsWith(StackSamplingProfiler.COLLAPSED_STACKS_LINE)) {
+                forkFiles.add(Paths.get(line.substring(StackSamplingProfiler.COLLAPSED_STACKS_LINE.length()).trim()));
+            }
+        }
+        if (forkFiles.isEmpty()) {
+            return;
+        }
+        String workItemKey = BenchmarkWorkItem.keyOf(result.getParams());
+        try {
+            Map<String, Long> stacks = new TreeMap<>();
+            for (Path forkFile : forkFiles) {
+                for (Map.Entry<String, Long> stack : FlameGraph.readCollapsed(forkFile).entrySet()) {
+                    stacks.merge(stack.getKey(), stack.getValue(), Long::sum);
+                }
+            }
+            Path collapsed = Files.createTempFile(forkFiles.get(0).getParent(),
+                    BenchmarkWorkItem.fileNameOf(workItemKey) + "-", FlameGraph.COLLAPSED_EXTENSION);
+            FlameGraph.writeCollapsed(stacks, collapsed);
+            String name = collapsed.getFileName().toString();
+            Path svg = collapsed.resolveSibling(
+                    name.substring(0, name.length() - FlameGraph.COLLAPSED_EXTENSION.length())
+                            + FlameGraph.SVG_EXTENSION);
+            FlameGraph.writeSvg(stacks, workItemKey, svg);
+            for (Path forkFile : forkFiles) {
+                Files.deleteIfExists(forkFile);
+            }
+
+            StackProfileReport stackProfile = new StackProfileReport();
+            Result samples = secondaryResults.get(StackSamplingProfiler.PREFIX + ".samples");
+            stackProfile.setSamples(samples == null ? null : samples.getScore());
+            stackProfile.setCollapsedStacks(collapsed.toAbsolutePath().toString());
+            stackProfile.setFlameGraph(svg.toAbsolutePath().toString());
+            report.setStackProfile(stackProfile);
+        } catch (IOException e) {
+            LOG.error("Error on building flame graph of benchmark={}", workItemKey, e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.report;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+/**
+ * JMH output format turning every finished benchmark into an enriched {@link BenchmarkReport}, appending it to
+ * {@link ReportJournal} right away and marking it finished in {@link CheckpointManifest}. All console output is passed
+ * to delegate output format.
+ */
+public class StreamingOutputFormat extends DelegatingOutputFormat {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingOutputFormat.class);
+
+    private final ReportJournal journal;
+    private final CheckpointManifest manifest;
+    private final Map<String, Map<String, String>> defaultBenchmarksMetadata;
+    private final Consumer<BenchmarkReport> enricher;
+    private final Map<String, Consumer<BenchmarkReport>> workItemCustomizers = new ConcurrentHashMap<>();
+    private volatile Consumer<BenchmarkReport> reportCustomizer = report -> {
+    };
+    private int benchmarksCount;
+
+    public StreamingOutputFormat(OutputFormat delegate, ReportJournal journal, CheckpointManifest manifest,
+            Map<String, Map<String, String>> defaultBenchmarksMetadata, Consumer<BenchmarkReport> enricher) {
+        super(delegate);
+        this.journal = journal;
+        this.manifest = manifest;
+        this.defaultBenchmarksMetadata = defaultBenchmarksMetadata;
+        this.enricher = enricher;
+    }
+
+    /**
+     * Creates output format of one of concurrently running JMH runners. Runner closes its output format and prints
+     * console output of its own benchmarks, so it gets own console delegate, while reports are stored by this output
+     * format.
+     */
+    public StreamingOutputFormat forRunner(OutputFormat runnerDelegate) {
+        return new RunnerOutputFormat(runnerDelegate, this);
+    }
+
+    public synchronized int getBenchmarksCount() {
+        return benchmarksCount;
+    }
+
+    /**
+     * Sets customizer applied to every report stored from now on, e.g. to tag reports of current JVM configuration.
+     */
+    public void setReportCustomizer(Consumer<BenchmarkReport> reportCustomizer) {
+        this.reportCustomizer = reportCustomizer;
+    }
+
+    /**
+     * Registers customizer applied to report of given work item when it is stored, e.g. by benchmark running in
+     * another thread.
+     */
+    public void setWorkItemCustomizer(String workItemKey, Consumer<BenchmarkReport> customizer) {
+        workItemCustomizers.merge(workItemKey, customizer, Consumer::andThen);
+    }
+
+    @Override
+    public void endBenchmark(BenchmarkResult result) {
+        super.endBenchmark(result);
+        // result is null when benchmark has failed
+        if (result != null) {
+            storeResult(Collections.singleton(result), report -> {
+            });
+        }
+    }
+
+    /**
+     * Stores benchmark result produced outside of JMH runner (e.g. combined from several runs), letting caller adjust
+     * report before it is stored.
+     *
+     * @param forkResults
+     *            results of every fork, or single result already aggregated over all forks
+     */
+    public synchronized void storeResult(Collection<BenchmarkResult> forkResults,
+            Consumer<BenchmarkReport> customizer) {
+        BenchmarkParams params = forkResults.iterator().next().getParams();
+        try {
+            RunResult runResult = new RunResult(params, forkResults);
+            BenchmarkReport report = ReportingService.getInstance().createBenchmarkReport(runResult,
+                    defaultBenchmarksMetadata);
+            store(BenchmarkWorkItem.keyOf(params), report, customizer);
+        } catch (Exception e) {
+            LOG.error("Error on storing benchmark report: name={}", params.getBenchmark(), e);
+        }
+    }
+
+    /**
+     * Stores report of benchmark measured without JMH, e.g. macro-benchmark workload.
+     */
+    public synchronized void storeReport(String workItemKey, BenchmarkReport report) {
+        try {
+            store(workItemKey, report, item -> {
+            });
+        } catch (Exception e) {
+            LOG.error("Error on storing benchmark report: name={}", report.getName(), e);
+        }
+    }
+
+    private void store(String workItemKey, BenchmarkReport report, Consumer<BenchmarkReport> customizer) {
+        enricher.accept(report);
+        reportCustomizer.accept(report);
+        customizer.accept(report);
+        Consumer<BenchmarkReport> workItemCustomizer = workItemCustomizers.remove(workItemKey);
+        if (workItemCustomizer != null) {
+            workItemCustomizer.accept(report);
+        }
+        journal.append(report);
+        // checkpoint only after report is stored, so resumed run never misses a result
+        manifest.markFinished(workItemKey);
+        benchmarksCount++;
+        LOG.info("Stored benchmark report: name={}, mode={}, journal={}", report.getName(), report.getMode(),
+                journal.getJournalFile());
+    }
+
+    private static class RunnerOutputFormat extends StreamingOutputFormat {
+        private final StreamingOutputFormat parent;
+
+        RunnerOutputFormat(OutputFormat delegate, StreamingOutputFormat parent) {
+            super(delegate, parent.journal, parent.manifest, parent.defaultBenchmarksMetadata, parent.enricher);
+            this.parent = parent;
+        }
+
+        @Override
+        public int getBenchmarksCount() {
+            return parent.getBenchmarksCount();
+        }
+
+        @Override
+        public void setReportCustomizer(Consumer<BenchmarkReport> reportCustomizer) {
+            parent.setReportCustomizer(reportCustomizer);
+        }
+
+        @Override
+        public void setWorkItemCustomizer(String workItemKey, Consumer<BenchmarkReport> customizer) {
+            parent.setWorkItemCustomizer(workItemKey, customizer);
+        }
+
+        @Override
+        public void storeResult(Collection<BenchmarkResult> forkResults, Consumer<BenchmarkReport> customizer) {
+            parent.storeResult(forkResults, customizer);
+        }
+
+        @Override
+        public void storeReport(String workItemKey, BenchmarkReport report) {
+            parent.storeReport(workItemKey, report);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.AbComparisonReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.AbComparator;
+
+/**
+ * Runs same benchmarks with two classpaths (e.g. old and new version of library) in one session and compares them.
+ * Every round runs one fork of every benchmark for both sides, in ABBA order, so machine drift affects both sides
+ * equally. Each side is run by {@link AbComparisonFork} JVM having side classpath ahead of launcher classpath.
+ * <p>
+ * Side classes shadow launcher ones, but classes missing from side classpath are still loaded from launcher
+ * classpath. So the compared artifact should not be on launcher classpath, otherwise a side may silently mix both
+ * versions. Launcher classpath entries looking like side artifacts are reported as warnings.
+ */
+public class AbComparison {
+    private static final Logger LOG = LoggerFactory.getLogger(AbComparison.class);
+    private static final String SIDE_A = "A";
+    private static final String SIDE_B = "B";
+
+    private final String classpathA;
+    private final String classpathB;
+    private final int rounds;
+    private final double confidence;
+
+    /**
+     * @param classpathA
+     *            comma or path separator separated classpath entries of side A
+     * @param classpathB
+     *            comma or path separator separated classpath entries of side B
+     * @param rounds
+     *            forks of every benchmark run for each side
+     * @param confidence
+     *            confidence level of significance test and delta interval, e.g. 0.95
+     */
+    public AbComparison(String classpathA, String classpathB, int rounds, double confidence) {
+        this.classpathA = toClasspath(classpathA);
+        this.classpathB = toClasspath(classpathB);
+        if (rounds < 2) {
+            LOG.warn("A/B comparison needs at least 2 rounds for significance test, rounds={} are raised to 2",
+                    rounds);
+        }
+        this.rounds = Math.max(2, rounds);
+        this.confidence = confidence;
+    }
+
+    public AbComparisonReport run(Options options) {
+        String launcherClasspath = System.getProperty("java.class.path");
+        for (String side : Arrays.asList(SIDE_A, SIDE_B)) {
+            for (String entry : findLauncherEntries(SIDE_A.equals(side) ? classpathA : classpathB,
+                    launcherClasspath)) {
+                LOG.warn("Launcher classpath entry {} looks like artifact of A/B comparison side {}, classes missing "
+                        + "from side classpath are loaded from it", entry, side);
+            }
+        }
+        Map<String, Map<String, List<BenchmarkResult>>> results = new HashMap<>();
+        Map<String, Map<String, String>> tags = new HashMap<>();
+        for (String side : Arrays.asList(SIDE_A, SIDE_B)) {
+            results.put(side, new LinkedHashMap<>());
+            tags.put(side, new HashMap<>());
+        }
+        Path optionsFile = null;
+        try {
+            // side JVM is the one forks are configured with, e.g. by javaToUsePath
+            String jvm = options.getJvm().orElse(Utils.getCurrentJvm());
+            optionsFile = Files.createTempFile("cybench-ab-options", ".ser");
+            try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(optionsFile))) {
+                out.writeObject(new OptionsBuilder().parent(options).forks(1).build());
+            }
+            for (int round = 0; round < rounds; round++) {
+                List<String> order = round % 2 == 0 ? Arrays.asList(SIDE_A, SIDE_B) : Arrays.asList(SIDE_B, SIDE_A);
+                for (String side : order) {
+                    LOG.info("A/B comparison: round={}/{}, side={}", round + 1, rounds, side);
+                    runFork(side, jvm, optionsFile, results.get(side), tags.get(side));
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Error on running A/B comparison", e);
+        } finally {
+            deleteQuietly(optionsFile);
+        }
+
+        AbComparisonReport report = AbComparator.compare(results.get(SIDE_A), tags.get(SIDE_A),
+                results.get(SIDE_B), tags.get(SIDE_B), confidence);
+        report.setClasspathA(classpathA);
+        report.setClasspathB(classpathB);
+        report.setRounds(rounds);
+        for (AbComparisonReport.AbBenchmarkComparison comparison : report.getComparisons()) {
+            LOG.info("A/B comparison: benchmark={}, params={}, A={}, B={} {}, delta={}%, p={}: {}",
+                    comparison.getBenchmarkB(), comparison.getParams(), comparison.getMeanA(), comparison.getMeanB(),
+                    comparison.getScoreUnit(), comparison.getDeltaPercent(), comparison.getWelchPValue(),
+                    comparison.getVerdict());
+        }
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runFork(String side, String jvm, Path optionsFile, Map<String, List<BenchmarkResult>> sideResults,
+            Map<String, String> sideTags) throws IOException {
+        Path resultFile = Files.createTempFile("cybench-ab-result", ".ser");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(jvm);
+            command.add("-cp");
+            command.add((SIDE_A.equals(side) ? classpathA : classpathB) + File.pathSeparator
+                    + System.getProperty("java.class.path"));
+            command.add(AbComparisonFork.class.getName());
+            command.add(optionsFile.toString());
+            command.add(resultFile.toString());
+            int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exitCode != 0 || Files.size(resultFile) == 0) {
+                LOG.error("A/B comparison fork failed: side={}, exitCode={}", side, exitCode);
+                return;
+            }
+            try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(resultFile))) {
+                for (RunResult runResult : (List<RunResult>) in.readObject()) {
+                    for (BenchmarkResult benchmarkResult : runResult.getBenchmarkResults()) {
+                        sideResults.computeIfAbsent(BenchmarkWorkItem.keyOf(benchmarkResult.getParams()),
+                                k -> new ArrayList<>()).add(benchmarkResult);
+                    }
+                }
+                sideTags.putAll((Map<String, String>) in.readObject());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("A/B comparison fork interrupted: side={}", side, e);
+        } catch (ClassNotFoundException e) {
+            LOG.error("Error on reading A/B comparison fork results: side={}", side, e);
+        } finally {
+            deleteQuietly(resultFile);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.error("Error on removing temporary file={}", file, e);
+        }
+    }
+
+    /**
+     * @return launcher classpath entries being same file or same artifact (jar name without version) as some of side
+     *         classpath entries
+     */
+    static List<String> findLauncherEntries(String sideClasspath, String launcherClasspath) {
+        Set<String> sideEntries = new HashSet<>();
+        for (String entry : toClasspath(sideClasspath).split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                sideEntries.add(toEntryIdentity(entry));
+            }
+        }
+        List<String> launcherEntries = new ArrayList<>();
+        for (String entry : toClasspath(launcherClasspath).split(File.pathSeparator)) {
+            if (!entry.isEmpty() && sideEntries.contains(toEntryIdentity(entry))) {
+                launcherEntries.add(entry);
+            }
+        }
+        return launcherEntries;
+    }
+
+    /**
+     * @return jar file name without version and extension, e.g. {@code commons-lang3.jar} of
+     *         {@code lib/commons-lang3-3.12.0.jar}, or absolute path of class folder
+     */
+    private static String toEntryIdentity(String entry) {
+        File file = new File(entry);
+        String name = file.getName();
+        if (!name.endsWith(".jar")) {
+            return file.getAbsolutePath();
+        }
+        return name.substring(0, name.length() - ".jar".length()).replaceFirst("-\\d.*$", "") + ".jar";
+    }
+
+    static String toClasspath(String entries) {
+        return Arrays.stream(StringUtils.defaultString(entries).split("[," + File.pathSeparator + "]"))
+                .map(String::trim).filter(StringUtils::isNotEmpty).collect(Collectors.joining(File.pathSeparator));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.util.UnCloseablePrintStream;
+import org.openjdk.jmh.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.annotation.BenchmarkTag;
+
+/**
+ * Entry point of JVM running one side of {@link AbComparison}: it is started with classpath of that side, runs
+ * benchmarks with options serialized to file by launcher and serializes results and benchmark tags back to file.
+ * <p>
+ * Arguments: options file, result file.
+ */
+public final class AbComparisonFork {
+    private static final Logger LOG = LoggerFactory.getLogger(AbComparisonFork.class);
+
+    private AbComparisonFork() {
+    }
+
+    public static void main(String... args) throws Exception {
+        Options options;
+        try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(Paths.get(args[0])))) {
+            options = (Options) in.readObject();
+        }
+        PrintStream out = new UnCloseablePrintStream(System.out, Utils.guessConsoleEncoding());
+        Collection<RunResult> results = new Runner(options,
+                OutputFormatFactory.createFormatInstance(out, options.verbosity().orElse(Defaults.VERBOSITY))).run();
+
+        HashMap<String, String> tags = new HashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String tag = findTag(benchmark);
+            if (tag != null) {
+                tags.put(benchmark, tag);
+            }
+        }
+        try (ObjectOutputStream resultOut = new ObjectOutputStream(Files.newOutputStream(Paths.get(args[1])))) {
+            resultOut.writeObject(new ArrayList<>(results));
+            resultOut.writeObject(tags);
+        }
+    }
+
+    static String findTag(String benchmark) {
+        int methodSeparator = benchmark.lastIndexOf('.');
+        if (methodSeparator < 0) {
+            LOG.error("Benchmark name has no class, benchmark tag is not resolved: {}", benchmark);
+            return null;
+        }
+        try {
+            Class<?> benchmarkClass = Class.forName(benchmark.substring(0, methodSeparator));
+            for (Method method : benchmarkClass.getMethods()) {
+                BenchmarkTag tag = method.getAnnotation(BenchmarkTag.class);
+                if (tag != null && method.getName().equals(benchmark.substring(methodSeparator + 1))) {
+                    return tag.tag();
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            LOG.error("Benchmark class not found, benchmark tag is not resolved: {}", benchmark, e);
+        }
+        return null;
+    }
+}
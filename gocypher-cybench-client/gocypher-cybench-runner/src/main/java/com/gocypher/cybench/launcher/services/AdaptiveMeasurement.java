@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.ListStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+import com.gocypher.cybench.launcher.utils.ComputationUtils;
+
+/**
+ * Measures a benchmark in batches of forks until the confidence interval of mean score, built from means of measured
+ * forks, is narrower than target relative error, or iterations limit is reached.
+ * <p>
+ * Iterations of one fork are not independent: JIT decisions, memory layout and other state chosen at fork start shift
+ * all of them alike. So the interval is built from fork means, and it narrows by adding forks, not iterations. Every
+ * fork measures {@code minIterations} iterations, count of forks in next batch is estimated from current error, as
+ * error shrinks proportionally to square root of forks count.
+ */
+public class AdaptiveMeasurement {
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveMeasurement.class);
+    /* JMH builds confidence interval of at least three values */
+    private static final int MIN_FORKS = 3;
+
+    private final double targetError;
+    private final double confidence;
+    private final int minIterations;
+    private final int maxIterations;
+
+    /**
+     * @param targetError
+     *            target half-width of confidence interval in percents of mean score
+     * @param confidence
+     *            confidence level, e.g. 0.99
+     * @param minIterations
+     *            measurement iterations of every fork
+     * @param maxIterations
+     *            iterations limit for benchmarks that do not converge
+     */
+    public AdaptiveMeasurement(double targetError, double confidence, int minIterations, int maxIterations) {
+        this.targetError = targetError;
+        this.confidence = confidence;
+        this.minIterations = Math.max(1, minIterations);
+        this.maxIterations = Math.max(MIN_FORKS * this.minIterations, maxIterations);
+    }
+
+    /**
+     * Runs batches of forks and stores combined result of all measured forks. If a batch fails after some forks were
+     * measured, result of measured forks is stored.
+     *
+     * @param warmUpController
+     *            controller choosing warm-up length of every fork, or {@code null} to use configured warm-up
+     */
+    public void run(Options baseOptions, BenchmarkWorkItem workItem, StreamingOutputFormat outputFormat,
+            WarmUpController warmUpController) throws RunnerException {
+        Options workItemOptions = BenchmarkPlanner.createWorkItemOptions(baseOptions, workItem);
+        List<BenchmarkResult> forkResults = new ArrayList<>();
+        ListStatistics forkMeans = new ListStatistics();
+        int iterations = 0;
+        Double error = null;
+        int batchForks = MIN_FORKS;
+        while (true) {
+            Options forkOptions = new OptionsBuilder().parent(workItemOptions) //
+                    .forks(1) //
+                    .measurementIterations(minIterations) //
+                    .build();
+            // batches are printed to console only, combined result is stored when measurement is finished
+            Collection<BenchmarkResult> batchResults;
+            try {
+                batchResults = runBatch(forkOptions, batchForks, workItem, outputFormat, warmUpController);
+            } catch (RunnerException e) {
+                if (forkResults.isEmpty()) {
+                    throw e;
+                }
+                LOG.error("Adaptive measurement batch failed: {}", workItem, e);
+                batchResults = Collections.emptyList();
+            }
+            if (batchResults.isEmpty()) {
+                if (forkResults.isEmpty()) {
+                    LOG.error("Adaptive measurement failed, benchmark produced no results: {}", workItem);
+                    return;
+                }
+                LOG.warn("Adaptive measurement stopped, result of {} measured forks is stored: {}", forkResults.size(),
+                        workItem);
+                break;
+            }
+            for (BenchmarkResult forkResult : batchResults) {
+                ListStatistics forkStatistics = new ListStatistics();
+                for (IterationResult iterationResult : forkResult.getIterationResults()) {
+                    forkStatistics.addValue(iterationResult.getPrimaryResult().getScore());
+                }
+                if (forkStatistics.getN() > 0) {
+                    forkResults.add(forkResult);
+                    forkMeans.addValue(forkStatistics.getMean());
+                    iterations += forkStatistics.getN();
+                }
+            }
+            error = ComputationUtils.computeRelativeError(forkMeans, confidence);
+            LOG.info("Adaptive measurement: benchmark={}, forks={}, iterations={}, error={}%, target={}%", workItem,
+                    forkMeans.getN(), iterations, error, targetError);
+            int remainingForks = (maxIterations - iterations) / minIterations;
+            if ((error != null && error <= targetError) || remainingForks <= 0) {
+                break;
+            }
+            batchForks = Math.min(remainingForks, estimateMissingForks(error, (int) forkMeans.getN()));
+        }
+
+        Double achievedError = error;
+        int measuredIterations = iterations;
+        outputFormat.storeResult(forkResults, report -> {
+            report.setBenchForkCount(forkResults.size());
+            report.setBenchMeasurementIteration(measuredIterations);
+            report.setScoreErrorRelative(achievedError);
+            report.setScoreErrorConfidence(achievedError == null ? null : confidence);
+            if (warmUpController != null) {
+                warmUpController.describe(workItem, report);
+            }
+            if (achievedError == null || achievedError > targetError) {
+                LOG.warn("Benchmark did not reach target error in {} iterations: {}", measuredIterations, workItem);
+            }
+        });
+    }
+
+    /**
+     * @return results of every fork of batch
+     */
+    Collection<BenchmarkResult> runBatch(Options forkOptions, int forks, BenchmarkWorkItem workItem,
+            StreamingOutputFormat outputFormat, WarmUpController warmUpController) throws RunnerException {
+        List<BenchmarkResult> batchResults = new ArrayList<>();
+        if (warmUpController != null) {
+            // warm-up controller chooses warm-up of every fork, so forks are run one by one
+            for (int fork = 0; fork < forks; fork++) {
+                BenchmarkResult forkResult = warmUpController.runFork(forkOptions, workItem,
+                        outputFormat.getDelegate());
+                if (forkResult == null) {
+                    break;
+                }
+                batchResults.add(forkResult);
+            }
+            return batchResults;
+        }
+        Options batchOptions = new OptionsBuilder().parent(forkOptions).forks(forks).build();
+        for (RunResult result : new Runner(batchOptions, outputFormat.getDelegate()).run()) {
+            batchResults.addAll(result.getBenchmarkResults());
+        }
+        return batchResults;
+    }
+
+    private int estimateMissingForks(Double error, int forks) {
+        if (error == null) {
+            return MIN_FORKS;
+        }
+        double needed = forks * Math.pow(error / targetError, 2);
+        return Math.max(1, (int) Math.ceil(needed) - forks);
+    }
+}
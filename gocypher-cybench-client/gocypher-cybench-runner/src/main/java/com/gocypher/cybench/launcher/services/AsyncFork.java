@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.Result;
+
+import com.gocypher.cybench.launcher.model.AsyncReport;
+
+/**
+ * Entry point of JVM running {@link AsyncHarness} for one benchmark and serializing primary results of measurement
+ * iterations and {@link AsyncReport} to file.
+ * <p>
+ * Arguments: result file, benchmark, mode, output time unit, threads, operations in flight, warm-up iterations,
+ * warm-up millis, measurement iterations, measurement millis, single shot batch size, benchmark params as
+ * {@code name=value}.
+ */
+public final class AsyncFork {
+
+    private AsyncFork() {
+    }
+
+    public static void main(String... args) throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        for (String param : Arrays.asList(args).subList(11, args.length)) {
+            String[] nameAndValue = param.split("=", 2);
+            params.put(nameAndValue[0], nameAndValue.length > 1 ? nameAndValue[1] : "");
+        }
+        ArrayList<Result> results;
+        AsyncReport report;
+        try (AsyncHarness harness = new AsyncHarness(args[1], params, Integer.parseInt(args[4]),
+                Integer.parseInt(args[5]))) {
+            results = new ArrayList<>(harness.run(Mode.valueOf(args[2]), TimeUnit.valueOf(args[3]),
+                    Integer.parseInt(args[6]), TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[7])),
+                    Integer.parseInt(args[8]), TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[9])),
+                    Integer.parseInt(args[10])));
+            report = harness.getReport();
+        }
+        ForkedHarness.writeResults(args[0], results, report);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.*;
+import org.openjdk.jmh.util.SampleBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.annotation.AsyncBenchmark;
+import com.gocypher.cybench.launcher.model.AsyncReport;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+/**
+ * Measures {@link AsyncBenchmark} method, outside of JMH. Every worker thread submits operations, i.e. calls benchmark
+ * method, while less than configured count of its operations is in flight. Operation latency is measured from
+ * submission to completion of returned stage. Iteration ends when all operations submitted during iteration time have
+ * completed.
+ * <p>
+ * Every measurement iteration produces JMH primary result of benchmark mode, so asynchronous benchmark is reported like
+ * JMH benchmark: throughput of completed operations, mean or sampled completion latency, or time of single shot
+ * batch.
+ */
+public class AsyncHarness extends BenchmarkHarness {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncHarness.class);
+    private static final String LATENCY_UNITS = "us";
+    /* operations still in flight after this time since the end of iteration are treated as lost */
+    private static final long DRAIN_TIMEOUT_MINUTES = 10;
+
+    private final int inFlight;
+    private final Map<Class<?>, Method> toFutureMethods = new ConcurrentHashMap<>();
+    private final ScoreHistogram latency = new ScoreHistogram();
+    private long operations;
+    private long durationNanos;
+    private long latencyNanos;
+    private long submissionNanos;
+
+    /**
+     * @param benchmark
+     *            benchmark name, i.e. class and method name
+     * @param params
+     *            benchmark params
+     * @param threads
+     *            worker threads submitting operations
+     * @param inFlight
+     *            operations in flight per worker thread
+     */
+    public AsyncHarness(String benchmark, Map<String, String> params, int threads, int inFlight)
+            throws ReflectiveOperationException {
+        super(benchmark, params, threads);
+        this.inFlight = Math.max(1, inFlight);
+    }
+
+    /**
+     * Runs warm-up and measurement iterations. Single shot iteration submits batch of operations instead of running
+     * for iteration time.
+     *
+     * @return primary results of measurement iterations
+     */
+    public List<Result> run(Mode mode, TimeUnit timeUnit, int warmUpIterations, long warmUpNanos,
+            int measurementIterations, long measurementNanos, int batchSize) throws Exception {
+        boolean singleShot = mode == Mode.SingleShotTime;
+        for (int i = 0; i < warmUpIterations; i++) {
+            Iteration iteration = measure(singleShot ? Long.MAX_VALUE : warmUpNanos, singleShot ? batchSize : 0);
+            LOG.info("Async warm-up iteration {}: {} ops/s", i + 1, iteration.getThroughput());
+        }
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < measurementIterations; i++) {
+            Iteration iteration = measure(singleShot ? Long.MAX_VALUE : measurementNanos, singleShot ? batchSize : 0);
+            LOG.info("Async measurement iteration {}: {} ops/s", i + 1, iteration.getThroughput());
+            operations += iteration.operations;
+            durationNanos += iteration.durationNanos;
+            latencyNanos += iteration.latencyNanos;
+            submissionNanos += iteration.submissionNanos;
+            latency.merge(iteration.latency);
+            results.add(iteration.toResult(mode, method.getName(), timeUnit));
+        }
+        return results;
+    }
+
+    /**
+     * @return latency and throughput of all measurement iterations
+     */
+    public AsyncReport getReport() {
+        AsyncReport report = new AsyncReport();
+        report.setThreads(threads);
+        report.setInFlight(inFlight);
+        report.setLatencyUnits(LATENCY_UNITS);
+        report.setOperations(operations);
+        if (operations > 0) {
+            report.setThroughput(operations * 1e9 / durationNanos);
+            report.setSubmissionTime(submissionNanos / 1000.0 / operations);
+            report.setMeanLatency(latencyNanos / 1000.0 / operations);
+            report.setLatencyPercentiles(getLatencyPercentiles(latency));
+            report.setLatencyHistogram(latency.encode());
+        }
+        return report;
+    }
+
+    /**
+     * @param maxOperations
+     *            operations submitted by every worker, {@code 0} - unlimited
+     */
+    private Iteration measure(long iterationNanos, int maxOperations) throws Exception {
+        callFixtures(Setup.class, Level.Iteration);
+        Iteration iteration = new Iteration();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAccumulator lastCompletion = new LongAccumulator(Math::max, 0);
+        LongAdder submissionSum = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = iterationNanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + iterationNanos;
+        Thread[] workers = new Thread[threads];
+        for (int worker = 0; worker < threads; worker++) {
+            int id = worker;
+            workers[id] = new Thread(() -> {
+                Semaphore window = new Semaphore(inFlight);
+                try {
+                    for (long submitted = 0; (maxOperations == 0 || submitted < maxOperations)
+                            && System.nanoTime() < deadline && failure.get() == null; submitted++) {
+                        window.acquire();
+                        long submissionStart = System.nanoTime();
+                        CompletionStage<?> stage = toStage(invoke(id));
+                        submissionSum.add(System.nanoTime() - submissionStart);
+                        stage.whenComplete((value, error) -> {
+                            long end = System.nanoTime();
+                            if (error != null) {
+                                failure.compareAndSet(null, error);
+                            } else {
+                                iteration.record(end - submissionStart);
+                                lastCompletion.accumulate(end);
+                            }
+                            window.release();
+                        });
+                    }
+                    if (!window.tryAcquire(inFlight, DRAIN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                        failure.compareAndSet(null, new TimeoutException("Operations did not complete in "
+                                + DRAIN_TIMEOUT_MINUTES + " minutes after iteration end"));
+                    }
+                } catch (InvocationTargetException e) {
+                    failure.compareAndSet(null, e.getCause());
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "cybench-async-" + id);
+            workers[id].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Asynchronous benchmark failed: " + method, failure.get());
+        }
+        callFixtures(TearDown.class, Level.Iteration);
+        // workers have acquired all permits released by completions, so recorders are complete and visible
+        iteration.mergeRecorders();
+        iteration.durationNanos = Math.max(1, lastCompletion.get() - start);
+        iteration.submissionNanos = submissionSum.sum();
+        return iteration;
+    }
+
+    private CompletionStage<?> toStage(Object value) throws ReflectiveOperationException {
+        if (value instanceof CompletionStage) {
+            return (CompletionStage<?>) value;
+        }
+        if (value != null) {
+            Method toFuture = toFutureMethods.computeIfAbsent(value.getClass(), AsyncHarness::findToFuture);
+            if (toFuture != null) {
+                Object future = toFuture.invoke(value);
+                if (future instanceof CompletionStage) {
+                    return (CompletionStage<?>) future;
+                }
+            }
+        }
+        throw new IllegalStateException("Asynchronous benchmark did not return CompletionStage: " + method);
+    }
+
+    private static Method findToFuture(Class<?> type) {
+        try {
+            Method toFuture = type.getMethod("toFuture");
+            toFuture.setAccessible(true);
+            return toFuture;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Completion latencies of one iteration. Operations complete on threads of benchmark executor, so every completing
+     * thread records to its own recorder, and recorders are merged when iteration ends.
+     */
+    private static class Iteration {
+        private final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(() -> {
+            Recorder threadRecorder = new Recorder();
+            recorders.add(threadRecorder);
+            return threadRecorder;
+        });
+        private final ScoreHistogram latency = new ScoreHistogram();
+        private final SampleBuffer samples = new SampleBuffer();
+        private long operations;
+        private long durationNanos;
+        private long latencyNanos;
+        private long submissionNanos;
+
+        void record(long latencyNanos) {
+            recorder.get().record(latencyNanos);
+        }
+
+        void mergeRecorders() {
+            for (Recorder threadRecorder : recorders) {
+                operations += threadRecorder.operations;
+                latencyNanos += threadRecorder.latencyNanos;
+                latency.merge(threadRecorder.latency);
+                samples.addAll(threadRecorder.samples);
+            }
+            recorders.clear();
+        }
+
+        double getThroughput() {
+            return operations * 1e9 / durationNanos;
+        }
+
+        Result toResult(Mode mode, String label, TimeUnit timeUnit) {
+            switch (mode) {
+            case AverageTime:
+                return new AverageTimeResult(ResultRole.PRIMARY, label, operations, latencyNanos, timeUnit);
+            case SampleTime:
+                return new SampleTimeResult(ResultRole.PRIMARY, label, samples, timeUnit);
+            case SingleShotTime:
+                return new SingleShotResult(ResultRole.PRIMARY, label, durationNanos, timeUnit);
+            default:
+                return new ThroughputResult(ResultRole.PRIMARY, label, operations, durationNanos, timeUnit);
+            }
+        }
+    }
+
+    /**
+     * Completion latencies recorded by one thread.
+     */
+    private static class Recorder {
+        private final ScoreHistogram latency = new ScoreHistogram();
+        private final SampleBuffer samples = new SampleBuffer();
+        private long operations;
+        private long latencyNanos;
+
+        void record(long latencyNanos) {
+            operations++;
+            this.latencyNanos += latencyNanos;
+            latency.recordValue(latencyNanos / 1000.0, 1);
+            samples.add(latencyNanos);
+        }
+    }
+}
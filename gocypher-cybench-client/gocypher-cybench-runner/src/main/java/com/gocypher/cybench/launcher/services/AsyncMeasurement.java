@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.runner.options.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.annotation.AsyncBenchmark;
+import com.gocypher.cybench.core.utils.JMHUtils;
+import com.gocypher.cybench.launcher.model.AsyncReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+/**
+ * Runs {@link AsyncBenchmark} benchmarks by {@link AsyncHarness} instead of JMH, in forks started with the same JVM
+ * and arguments as JMH forks. Forks, iterations, mode and time unit are resolved like JMH does, and measured iteration
+ * results are stored as JMH benchmark result, with {@link AsyncReport} attached.
+ */
+public class AsyncMeasurement {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncMeasurement.class);
+
+    private final int inFlight;
+
+    /**
+     * @param inFlight
+     *            operations in flight per benchmark thread, {@code 0} - value of {@link AsyncBenchmark#inFlight()}
+     */
+    public AsyncMeasurement(int inFlight) {
+        this.inFlight = Math.max(0, inFlight);
+    }
+
+    /**
+     * @return annotation of asynchronous benchmark method, or {@code null} if benchmark is not asynchronous
+     */
+    public static AsyncBenchmark getAsyncBenchmark(BenchmarkWorkItem workItem) {
+        try {
+            JMHUtils.ClassAndMethod classAndMethod = new JMHUtils.ClassAndMethod(workItem.getBenchmark()).invoke();
+            Optional<Method> benchmarkMethod = JMHUtils.getBenchmarkMethod(classAndMethod.getMethod(),
+                    Class.forName(classAndMethod.getClazz()));
+            return benchmarkMethod.map(method -> method.getAnnotation(AsyncBenchmark.class)).orElse(null);
+        } catch (ClassNotFoundException e) {
+            LOG.error("Benchmark class not found: {}", workItem.getBenchmark(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return runner measuring asynchronous benchmarks, other work items are run by given runner
+     */
+    public WorkItemRunner wrap(WorkItemRunner runner) {
+        return (baseOptions, workItem, outputFormat) -> {
+            AsyncBenchmark asyncBenchmark = getAsyncBenchmark(workItem);
+            if (asyncBenchmark == null) {
+                runner.run(baseOptions, workItem, outputFormat);
+            } else {
+                run(baseOptions, workItem, asyncBenchmark, outputFormat);
+            }
+        };
+    }
+
+    public void run(Options baseOptions, BenchmarkWorkItem workItem, AsyncBenchmark asyncBenchmark,
+            StreamingOutputFormat outputFormat) {
+        BenchmarkParams params = BenchmarkPlanner.createBenchmarkParams(baseOptions, workItem);
+        int operationsInFlight = inFlight > 0 ? inFlight : asyncBenchmark.inFlight();
+        List<String> args = createForkArgs(params, operationsInFlight);
+        // asynchronous benchmark always runs forked, as its executors would outlive the measurement
+        int forks = Math.max(1, params.getForks());
+        LOG.info("Asynchronous benchmark: benchmark={}, inFlight={}, forks={}", workItem, operationsInFlight, forks);
+        for (int fork = 0; fork < params.getWarmupForks(); fork++) {
+            ForkedHarness.run(baseOptions, workItem, AsyncFork.class, args);
+        }
+        List<BenchmarkResult> forkResults = new ArrayList<>();
+        List<AsyncReport> forkReports = new ArrayList<>();
+        for (int fork = 0; fork < forks; fork++) {
+            List<Object> results = ForkedHarness.run(baseOptions, workItem, AsyncFork.class, args);
+            if (results == null) {
+                continue;
+            }
+            List<IterationResult> iterationResults = new ArrayList<>();
+            for (Object result : (List<?>) results.get(0)) {
+                IterationResult iterationResult = new IterationResult(params, params.getMeasurement(), null);
+                iterationResult.addResult((Result<?>) result);
+                iterationResults.add(iterationResult);
+            }
+            forkResults.add(new BenchmarkResult(params, iterationResults));
+            forkReports.add((AsyncReport) results.get(1));
+        }
+        if (forkResults.isEmpty()) {
+            LOG.error("Asynchronous benchmark failed, no fork produced results: {}", workItem);
+            return;
+        }
+        AsyncReport async = merge(forkReports);
+        LOG.info("Asynchronous benchmark: benchmark={}, throughput={} ops/s, meanLatency={}{}", workItem,
+                async.getThroughput(), async.getMeanLatency(), async.getLatencyUnits());
+        outputFormat.storeResult(forkResults, report -> report.setAsync(async));
+    }
+
+    private static List<String> createForkArgs(BenchmarkParams params, int operationsInFlight) {
+        IterationParams warmup = params.getWarmup();
+        IterationParams measurement = params.getMeasurement();
+        List<String> args = new ArrayList<>();
+        args.add(params.getBenchmark());
+        args.add(params.getMode().name());
+        args.add(params.getTimeUnit().name());
+        args.add(String.valueOf(params.getThreads()));
+        args.add(String.valueOf(operationsInFlight));
+        args.add(String.valueOf(warmup.getCount()));
+        args.add(String.valueOf(warmup.getTime().convertTo(TimeUnit.MILLISECONDS)));
+        args.add(String.valueOf(measurement.getCount()));
+        args.add(String.valueOf(measurement.getTime().convertTo(TimeUnit.MILLISECONDS)));
+        args.add(String.valueOf(measurement.getBatchSize()));
+        for (String key : params.getParamsKeys()) {
+            args.add(key + "=" + params.getParam(key));
+        }
+        return args;
+    }
+
+    private static AsyncReport merge(List<AsyncReport> forkReports) {
+        AsyncReport merged = forkReports.get(0);
+        if (forkReports.size() == 1) {
+            return merged;
+        }
+        long operations = 0;
+        double seconds = 0;
+        double submissionTime = 0;
+        double latency = 0;
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (AsyncReport report : forkReports) {
+            if (report.getOperations() == 0) {
+                continue;
+            }
+            operations += report.getOperations();
+            seconds += report.getOperations() / report.getThroughput();
+            submissionTime += report.getSubmissionTime() * report.getOperations();
+            latency += report.getMeanLatency() * report.getOperations();
+            histogram.merge(ScoreHistogram.decode(report.getLatencyHistogram()));
+        }
+        merged.setOperations(operations);
+        if (operations > 0) {
+            merged.setThroughput(operations / seconds);
+            merged.setSubmissionTime(submissionTime / operations);
+            merged.setMeanLatency(latency / operations);
+            merged.setLatencyPercentiles(BenchmarkHarness.getLatencyPercentiles(histogram));
+            merged.setLatencyHistogram(histogram.encode());
+        }
+        return merged;
+    }
+}
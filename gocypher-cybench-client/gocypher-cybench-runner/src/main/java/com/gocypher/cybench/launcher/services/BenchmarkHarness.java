@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.Closeable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+/**
+ * Calls benchmark method reflectively, outside of JMH, for measurements JMH generated code can't do. Benchmark and
+ * {@link State} objects are created like JMH does: {@link Param} fields are set from benchmark params, trial and
+ * iteration {@link Setup} and {@link TearDown} methods are called, {@link Scope#Thread} states are created per worker.
+ * Benchmark method parameters may be states and {@link Blackhole}. Invocation level fixtures are not supported.
+ */
+public abstract class BenchmarkHarness implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(BenchmarkHarness.class);
+    private static final String BLACKHOLE_CHALLENGE = "Today's password is swordfish. "
+            + "I understand instantiating Blackholes directly is dangerous.";
+    private static final double[] LATENCY_PERCENTILES = { 50, 90, 99, 99.9, 99.99, 100 };
+
+    protected final Method method;
+    protected final int threads;
+    private final Class<?> benchmarkClass;
+    private final Map<String, String> params;
+    private final Map<Class<?>, Object> sharedStates = new LinkedHashMap<>();
+    private final List<Map<Class<?>, Object>> threadStates = new ArrayList<>();
+    private final Object[] instances;
+    private final Object[][] arguments;
+
+    /**
+     * @param benchmark
+     *            benchmark name, i.e. class and method name
+     * @param params
+     *            benchmark params
+     * @param threads
+     *            worker threads count
+     */
+    protected BenchmarkHarness(String benchmark, Map<String, String> params, int threads)
+            throws ReflectiveOperationException {
+        this.params = params;
+        this.threads = Math.max(1, threads);
+        int methodSeparator = benchmark.lastIndexOf('.');
+        benchmarkClass = Class.forName(benchmark.substring(0, methodSeparator));
+        method = findBenchmarkMethod(benchmarkClass, benchmark.substring(methodSeparator + 1));
+        method.setAccessible(true);
+        instances = new Object[this.threads];
+        arguments = new Object[this.threads][];
+        for (int worker = 0; worker < this.threads; worker++) {
+            Map<Class<?>, Object> states = new LinkedHashMap<>();
+            threadStates.add(states);
+            instances[worker] = getState(benchmarkClass, states);
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            arguments[worker] = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                arguments[worker][i] = parameterTypes[i] == Blackhole.class ? new Blackhole(BLACKHOLE_CHALLENGE)
+                        : getState(parameterTypes[i], states);
+            }
+        }
+    }
+
+    /**
+     * Calls benchmark method with states of given worker.
+     *
+     * @return value returned by benchmark method
+     */
+    protected Object invoke(int worker) throws ReflectiveOperationException {
+        return method.invoke(instances[worker], arguments[worker]);
+    }
+
+    /**
+     * @return latency percentiles keyed by {@link BenchmarkReport#percentileKey(double)}
+     */
+    protected static Map<String, Double> getLatencyPercentiles(ScoreHistogram latency) {
+        return getLatencyPercentiles(latency, LATENCY_PERCENTILES);
+    }
+
+    /**
+     * @return given latency percentiles keyed by {@link BenchmarkReport#percentileKey(double)}, percentile 100 is the
+     *         maximal latency
+     */
+    protected static Map<String, Double> getLatencyPercentiles(ScoreHistogram latency, double... values) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : values) {
+            percentiles.put(BenchmarkReport.percentileKey(percentile),
+                    percentile == 100 ? latency.getMax() : latency.getPercentile(percentile));
+        }
+        return percentiles;
+    }
+
+    @Override
+    public void close() {
+        try {
+            callFixtures(TearDown.class, Level.Trial);
+        } catch (ReflectiveOperationException e) {
+            LOG.error("Error on benchmark trial tear down: {}", method, e);
+        }
+    }
+
+    private Object getState(Class<?> stateClass, Map<Class<?>, Object> states) throws ReflectiveOperationException {
+        State state = stateClass.getAnnotation(State.class);
+        Map<Class<?>, Object> scopeStates = state == null || state.value() == Scope.Thread ? states : sharedStates;
+        Object instance = scopeStates.get(stateClass);
+        if (instance == null) {
+            if (state == null && stateClass != benchmarkClass) {
+                throw new IllegalArgumentException("Unsupported benchmark method parameter: " + stateClass);
+            }
+            instance = stateClass.getDeclaredConstructor().newInstance();
+            setParams(instance);
+            scopeStates.put(stateClass, instance);
+            callFixtures(instance, Setup.class, Level.Trial);
+        }
+        return instance;
+    }
+
+    private void setParams(Object instance) throws IllegalAccessException {
+        for (Class<?> type = instance.getClass(); type != null; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                String value = params.get(field.getName());
+                if (field.isAnnotationPresent(Param.class) && value != null) {
+                    field.setAccessible(true);
+                    field.set(instance, convert(value, field.getType()));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object convert(String value, Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return Integer.valueOf(value);
+        } else if (type == long.class || type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == double.class || type == Double.class) {
+            return Double.valueOf(value);
+        } else if (type == float.class || type == Float.class) {
+            return Float.valueOf(value);
+        } else if (type == short.class || type == Short.class) {
+            return Short.valueOf(value);
+        } else if (type == byte.class || type == Byte.class) {
+            return Byte.valueOf(value);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return Boolean.valueOf(value);
+        } else if (type == char.class || type == Character.class) {
+            return value.charAt(0);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        return value;
+    }
+
+    protected void callFixtures(Class<? extends Annotation> fixture, Level level) throws ReflectiveOperationException {
+        Set<Object> called = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object instance : sharedStates.values()) {
+            if (called.add(instance)) {
+                callFixtures(instance, fixture, level);
+            }
+        }
+        for (Map<Class<?>, Object> states : threadStates) {
+            for (Object instance : states.values()) {
+                if (called.add(instance)) {
+                    callFixtures(instance, fixture, level);
+                }
+            }
+        }
+    }
+
+    private static void callFixtures(Object instance, Class<? extends Annotation> fixture, Level level)
+            throws ReflectiveOperationException {
+        for (Method fixtureMethod : instance.getClass().getMethods()) {
+            Annotation annotation = fixtureMethod.getAnnotation(fixture);
+            if (annotation == null) {
+                continue;
+            }
+            Level fixtureLevel = annotation instanceof Setup ? ((Setup) annotation).value()
+                    : ((TearDown) annotation).value();
+            if (fixtureLevel == Level.Invocation && fixture == Setup.class && level == Level.Trial) {
+                LOG.warn("Invocation level fixtures are not supported by benchmark harness: {}", fixtureMethod);
+            } else if (fixtureLevel == level && fixtureMethod.getParameterCount() == 0) {
+                fixtureMethod.invoke(instance);
+            }
+        }
+    }
+
+    private static Method findBenchmarkMethod(Class<?> benchmarkClass, String name) throws NoSuchMethodException {
+        for (Method candidate : benchmarkClass.getMethods()) {
+            if (candidate.getName().equals(name) && candidate.isAnnotationPresent(Benchmark.class)
+                    && !Modifier.isStatic(candidate.getModifiers())) {
+                return candidate;
+            }
+        }
+        throw new NoSuchMethodException("Benchmark method not found: " + benchmarkClass.getName() + "." + name);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Utils;
+import org.openjdk.jmh.util.Version;
+
+import com.gocypher.cybench.core.utils.JMHUtils;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+/**
+ * Expands JMH options into the list of {@link BenchmarkWorkItem}s JMH would execute and builds options to run a single
+ * work item.
+ */
+public final class BenchmarkPlanner {
+
+    private BenchmarkPlanner() {
+    }
+
+    public static List<BenchmarkWorkItem> planWorkItems(Options options) {
+        List<String> includes = new ArrayList<>(options.getIncludes());
+        if (includes.isEmpty()) {
+            includes.add(".*");
+        }
+        SortedSet<BenchmarkListEntry> entries = BenchmarkList.defaultList()
+                .find(new JMHUtils.SilentOutputFormat(), includes, options.getExcludes());
+
+        List<BenchmarkWorkItem> workItems = new ArrayList<>();
+        for (BenchmarkListEntry entry : entries) {
+            int threads = options.getThreads().orElse(entry.getThreads().orElse(1));
+            for (Mode mode : resolveModes(options, entry)) {
+                for (Map<String, String> params : resolveParams(options, entry)) {
+                    workItems.add(new BenchmarkWorkItem(entry.getUsername(), mode, params, threads));
+                }
+            }
+        }
+        return workItems;
+    }
+
+    /**
+     * Builds options running only given work item. Base options must not have any includes, as JMH merges includes of
+     * parent options.
+     */
+    public static Options createWorkItemOptions(Options baseOptions, BenchmarkWorkItem workItem) {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(baseOptions) //
+                .include("^" + Pattern.quote(workItem.getBenchmark()) + "$") //
+                .mode(workItem.getMode());
+        for (Map.Entry<String, String> param : workItem.getParams().entrySet()) {
+            builder = builder.param(param.getKey(), param.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolves JMH parameters of given work item like JMH runner does: options override benchmark annotations, which
+     * override JMH defaults. Used to report benchmarks measured outside of JMH.
+     */
+    public static BenchmarkParams createBenchmarkParams(Options options, BenchmarkWorkItem workItem) {
+        SortedSet<BenchmarkListEntry> entries = BenchmarkList.defaultList().find(new JMHUtils.SilentOutputFormat(),
+                Collections.singletonList("^" + Pattern.quote(workItem.getBenchmark()) + "$"),
+                Collections.emptyList());
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Benchmark not found: " + workItem.getBenchmark());
+        }
+        BenchmarkListEntry entry = entries.first();
+        boolean singleShot = workItem.getMode() == Mode.SingleShotTime;
+        IterationParams warmup = new IterationParams(IterationType.WARMUP,
+                options.getWarmupIterations().orElse(entry.getWarmupIterations()
+                        .orElse(singleShot ? Defaults.WARMUP_ITERATIONS_SINGLESHOT : Defaults.WARMUP_ITERATIONS)),
+                options.getWarmupTime().orElse(entry.getWarmupTime().orElse(Defaults.WARMUP_TIME)),
+                options.getWarmupBatchSize().orElse(entry.getWarmupBatchSize().orElse(Defaults.WARMUP_BATCHSIZE)));
+        IterationParams measurement = new IterationParams(IterationType.MEASUREMENT,
+                options.getMeasurementIterations().orElse(entry.getMeasurementIterations().orElse(
+                        singleShot ? Defaults.MEASUREMENT_ITERATIONS_SINGLESHOT : Defaults.MEASUREMENT_ITERATIONS)),
+                options.getMeasurementTime().orElse(entry.getMeasurementTime().orElse(Defaults.MEASUREMENT_TIME)),
+                options.getMeasurementBatchSize()
+                        .orElse(entry.getMeasurementBatchSize().orElse(Defaults.MEASUREMENT_BATCHSIZE)));
+        WorkloadParams params = new WorkloadParams();
+        int order = 0;
+        for (Map.Entry<String, String> param : workItem.getParams().entrySet()) {
+            params.put(param.getKey(), param.getValue(), order++);
+        }
+        List<String> jvmArgs = new ArrayList<>();
+        jvmArgs.addAll(options.getJvmArgsPrepend().orElse(entry.getJvmArgsPrepend().orElse(Collections.emptyList())));
+        jvmArgs.addAll(options.getJvmArgs().orElse(entry.getJvmArgs().orElse(Collections.emptyList())));
+        jvmArgs.addAll(options.getJvmArgsAppend().orElse(entry.getJvmArgsAppend().orElse(Collections.emptyList())));
+        return new BenchmarkParams(workItem.getBenchmark(), entry.generatedTarget(),
+                options.shouldSyncIterations().orElse(Defaults.SYNC_ITERATIONS), workItem.getThreads(),
+                new int[] { workItem.getThreads() }, Collections.emptyList(),
+                options.getForkCount().orElse(entry.getForks().orElse(Defaults.MEASUREMENT_FORKS)),
+                options.getWarmupForkCount().orElse(entry.getWarmupForks().orElse(Defaults.WARMUP_FORKS)), warmup,
+                measurement, workItem.getMode(), params,
+                options.getTimeUnit().orElse(entry.getTimeUnit().orElse(Defaults.OUTPUT_TIMEUNIT)),
+                entry.getOperationsPerInvocation().orElse(Defaults.OPS_PER_INVOCATION),
+                options.getJvm().orElse(entry.getJvm().orElse(Utils.getCurrentJvm())), jvmArgs,
+                System.getProperty("java.version"), System.getProperty("java.vm.name"),
+                System.getProperty("java.vm.version"), Version.getPlainVersion(),
+                options.getTimeout().orElse(entry.getTimeout().orElse(Defaults.TIMEOUT)));
+    }
+
+    private static Collection<Mode> resolveModes(Options options, BenchmarkListEntry entry) {
+        Collection<Mode> modes = options.getBenchModes().isEmpty() ? Collections.singleton(entry.getMode())
+                : options.getBenchModes();
+        List<Mode> resolved = new ArrayList<>();
+        for (Mode mode : modes) {
+            if (mode == Mode.All) {
+                for (Mode m : Mode.values()) {
+                    if (m != Mode.All) {
+                        resolved.add(m);
+                    }
+                }
+            } else {
+                resolved.add(mode);
+            }
+        }
+        return resolved;
+    }
+
+    private static List<Map<String, String>> resolveParams(Options options, BenchmarkListEntry entry) {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new TreeMap<>());
+        if (!entry.getParams().hasValue()) {
+            return combinations;
+        }
+        for (Map.Entry<String, String[]> param : new TreeMap<>(entry.getParams().get()).entrySet()) {
+            Collection<String> values = options.getParameter(param.getKey())
+                    .orElse(Arrays.asList(param.getValue()));
+            List<Map<String, String>> expanded = new ArrayList<>();
+            for (Map<String, String> combination : combinations) {
+                for (String value : values) {
+                    Map<String, String> params = new TreeMap<>(combination);
+                    params.put(param.getKey(), value);
+                    expanded.add(params);
+                }
+            }
+            combinations = expanded;
+        }
+        return combinations;
+    }
+}
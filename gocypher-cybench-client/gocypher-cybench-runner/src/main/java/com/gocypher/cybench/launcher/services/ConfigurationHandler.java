@@ -22,15 +22,41 @@ package com.gocypher.cybench.launcher.services;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.gocypher.cybench.launcher.utils.Constants;
+
 public class ConfigurationHandler {
     private static final Logger LOG = LoggerFactory.getLogger(ConfigurationHandler.class);
     private static final String CONFIG_FILE = System.getProperty("cybench.config.file",
             "/conf/cybench-launcher.properties");
+    private static final String AB_COMPARISON_CONFLICT = "A/B comparison runs its own forks instead of regular run";
+    private static final String JVM_MATRIX_CONFLICT = "checkpoint manifest and result cache are not aware of JVM "
+            + "configuration";
+    /**
+     * Run mode pairs that can't be enabled together, with the reason.
+     */
+    private static final String[][] RUN_MODE_CONFLICTS = { //
+            { Constants.PARALLEL_EXECUTION, Constants.SCALABILITY_SWEEP, "scalability sweep needs all CPUs" },
+            { Constants.PARALLEL_EXECUTION, Constants.OPEN_LOOP, "open loop measurement needs precise scheduling" },
+            { Constants.ADAPTIVE_MEASUREMENT, Constants.JVM_MATRIX,
+                    "configurations would be measured with different forks counts" },
+            { Constants.RESUME_RUN, Constants.JVM_MATRIX, JVM_MATRIX_CONFLICT },
+            { Constants.INCREMENTAL_RUN, Constants.JVM_MATRIX, JVM_MATRIX_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.JVM_MATRIX, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.RESUME_RUN, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.INCREMENTAL_RUN, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.ADAPTIVE_MEASUREMENT, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.WARM_UP_DETECTION, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.PARALLEL_EXECUTION, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.SCALABILITY_SWEEP, AB_COMPARISON_CONFLICT },
+            { Constants.AB_COMPARISON, Constants.OPEN_LOOP, AB_COMPARISON_CONFLICT } };
 
     public static Properties loadConfiguration(String filePath) {
         Properties prop = new Properties();
@@ -62,4 +88,20 @@ public class ConfigurationHandler {
         }
         return new Properties();
     }
+
+    /**
+     * @param properties
+     *            resolves configuration property value by key
+     * @return descriptions of enabled run modes that can't be run together, empty if there are none
+     */
+    public static List<String> findRunModeConflicts(Function<String, String> properties) {
+        List<String> conflicts = new ArrayList<>();
+        for (String[] conflict : RUN_MODE_CONFLICTS) {
+            if (Boolean.parseBoolean(properties.apply(conflict[0]))
+                    && Boolean.parseBoolean(properties.apply(conflict[1]))) {
+                conflicts.add(conflict[0] + " and " + conflict[1] + " can't be enabled together, " + conflict[2]);
+            }
+        }
+        return conflicts;
+    }
 }
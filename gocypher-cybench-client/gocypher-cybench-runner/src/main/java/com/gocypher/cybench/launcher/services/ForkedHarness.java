@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+/**
+ * Runs {@link BenchmarkHarness} measurement in a separate JVM started with the same JVM and arguments as JMH forks. The
+ * forked main class gets result file as first argument and writes its results to it by
+ * {@link #writeResults(String, Serializable...)}.
+ */
+final class ForkedHarness {
+    private static final Logger LOG = LoggerFactory.getLogger(ForkedHarness.class);
+
+    private ForkedHarness() {
+    }
+
+    /**
+     * @return objects written by forked JVM, or {@code null} if it has failed
+     */
+    static List<Object> run(Options options, BenchmarkWorkItem workItem, Class<?> mainClass, List<String> args) {
+        Path resultFile = null;
+        try {
+            resultFile = Files.createTempFile("cybench-harness", ".ser");
+            List<String> command = new ArrayList<>();
+            command.add(options.getJvm().orElse(Utils.getCurrentJvm()));
+            command.addAll(options.getJvmArgsPrepend().orElse(new ArrayList<>()));
+            command.addAll(options.getJvmArgs().orElse(new ArrayList<>()));
+            command.addAll(options.getJvmArgsAppend().orElse(new ArrayList<>()));
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(mainClass.getName());
+            command.add(resultFile.toString());
+            command.addAll(args);
+            int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exitCode != 0 || Files.size(resultFile) == 0) {
+                LOG.error("Forked measurement failed: benchmark={}, harness={}, exitCode={}", workItem,
+                        mainClass.getSimpleName(), exitCode);
+                return null;
+            }
+            try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(resultFile))) {
+                int count = in.readInt();
+                List<Object> results = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    results.add(in.readObject());
+                }
+                return results;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Forked measurement interrupted: benchmark={}", workItem, e);
+        } catch (IOException | ClassNotFoundException e) {
+            LOG.error("Error on forked measurement: benchmark={}", workItem, e);
+        } finally {
+            deleteQuietly(resultFile);
+        }
+        return null;
+    }
+
+    /**
+     * Writes results of forked JVM and exits it, as benchmark may leave non-daemon threads running.
+     */
+    static void writeResults(String resultFile, Serializable... results) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(Paths.get(resultFile)))) {
+            out.writeInt(results.length);
+            for (Serializable result : results) {
+                out.writeObject(result);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.error("Error on removing temporary file={}", file, e);
+        }
+    }
+}
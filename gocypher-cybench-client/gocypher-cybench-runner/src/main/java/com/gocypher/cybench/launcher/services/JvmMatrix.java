@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.File;
+import java.util.*;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.gocypher.cybench.launcher.model.JvmConfiguration;
+
+/**
+ * Builds JVM configurations benchmarks are run with: every combination of java executables and alternatives of every
+ * JVM flags dimension (e.g. garbage collector, heap size, compressed oops).
+ */
+public final class JvmMatrix {
+    private static final String DEFAULT_CONFIGURATION = "default";
+
+    private JvmMatrix() {
+    }
+
+    /**
+     * @param javaPaths
+     *            JDK homes or java executables, empty to run forks with launcher JVM
+     * @param commonJvmArgs
+     *            JVM arguments used by every configuration
+     * @param dimensions
+     *            dimension name mapped to alternative JVM arguments, empty alternative stands for JVM defaults
+     * @return configurations in stable order, first one is used as baseline of comparison
+     */
+    public static List<JvmConfiguration> createConfigurations(List<String> javaPaths, List<String> commonJvmArgs,
+            Map<String, List<String>> dimensions) {
+        List<JvmConfiguration> configurations = new ArrayList<>();
+        for (String javaPath : javaPaths.isEmpty() ? Collections.singletonList((String) null) : javaPaths) {
+            String name = javaPaths.size() > 1 ? "java=" + javaPath.trim() : "";
+            configurations.add(new JvmConfiguration(name, resolveJavaExecutable(javaPath),
+                    new ArrayList<>(commonJvmArgs)));
+        }
+        for (Map.Entry<String, List<String>> dimension : dimensions.entrySet()) {
+            List<JvmConfiguration> expanded = new ArrayList<>();
+            for (JvmConfiguration configuration : configurations) {
+                for (String alternative : dimension.getValue()) {
+                    List<String> jvmArgs = new ArrayList<>(configuration.getJvmArgs());
+                    jvmArgs.addAll(splitJvmArgs(alternative));
+                    String name = dimension.getKey() + "="
+                            + (StringUtils.isBlank(alternative) ? DEFAULT_CONFIGURATION : alternative.trim());
+                    expanded.add(new JvmConfiguration(
+                            configuration.getName().isEmpty() ? name : configuration.getName() + ", " + name,
+                            configuration.getJavaPath(), jvmArgs));
+                }
+            }
+            configurations = expanded;
+        }
+        for (JvmConfiguration configuration : configurations) {
+            if (configuration.getName().isEmpty()) {
+                configuration.setName(DEFAULT_CONFIGURATION);
+            }
+        }
+        return configurations;
+    }
+
+    /**
+     * Builds options running forks with given configuration. Configuration JVM arguments of matrix run replace the
+     * {@code -X} and {@code -XX} flags of base options (detected launcher JVM arguments), so every configuration runs
+     * with its own flags only and empty alternative really stands for JVM defaults. Other launcher arguments, e.g.
+     * {@code -D} system properties and agents, are kept. Otherwise configuration arguments are appended to base options
+     * ones.
+     *
+     * @param jvmMatrix
+     *            {@code true} if configuration is one of JVM matrix configurations
+     */
+    public static Options applyConfiguration(Options baseOptions, JvmConfiguration configuration, boolean jvmMatrix) {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(baseOptions);
+        if (StringUtils.isNotEmpty(configuration.getJavaPath())) {
+            builder = builder.jvm(configuration.getJavaPath());
+        }
+        if (jvmMatrix) {
+            List<String> jvmArgs = new ArrayList<>();
+            for (String launcherArg : baseOptions.getJvmArgs().orElse(Collections.emptyList())) {
+                if (!launcherArg.startsWith("-X")) {
+                    jvmArgs.add(launcherArg);
+                }
+            }
+            jvmArgs.addAll(configuration.getJvmArgs());
+            builder = builder.jvmArgs(jvmArgs.toArray(new String[0]));
+        } else if (!configuration.getJvmArgs().isEmpty()) {
+            builder = builder.jvmArgsAppend(configuration.getJvmArgs().toArray(new String[0]));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return java executable of JDK home, or given path if it is not a directory
+     */
+    public static String resolveJavaExecutable(String javaPath) {
+        if (StringUtils.isBlank(javaPath)) {
+            return null;
+        }
+        File path = new File(javaPath.trim());
+        if (path.isDirectory()) {
+            File bin = new File(path, "bin");
+            File windowsExecutable = new File(bin, "java.exe");
+            return (windowsExecutable.isFile() ? windowsExecutable : new File(bin, "java")).getAbsolutePath();
+        }
+        return path.getPath();
+    }
+
+    /**
+     * Splits JVM arguments on whitespace like shell does: single or double quoted parts are kept together and quotes
+     * are removed, e.g. {@code -XX:OnOutOfMemoryError="kill -9 %p"} is single argument.
+     */
+    public static List<String> splitJvmArgs(String jvmArgs) {
+        if (StringUtils.isBlank(jvmArgs)) {
+            return Collections.emptyList();
+        }
+        List<String> args = new ArrayList<>();
+        StringBuilder arg = new StringBuilder();
+        boolean inArg = false;
+        char quote = 0;
+        for (char c : jvmArgs.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    arg.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inArg = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArg) {
+                    args.add(arg.toString());
+                    arg.setLength(0);
+                    inArg = false;
+                }
+            } else {
+                arg.append(c);
+                inArg = true;
+            }
+        }
+        if (inArg) {
+            args.add(arg.toString());
+        }
+        return args;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.options.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.MacroReport;
+import com.gocypher.cybench.launcher.report.ReportingService;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+import com.gocypher.cybench.launcher.workload.Workload;
+
+/**
+ * Runs whole application workloads (macro-benchmarks) in fresh JVM, started with the same JVM and arguments as JMH
+ * forks, and stores them as throughput benchmark reports named {@code <workload class>.start} or
+ * {@code <workload class>.main}, so they take part in history, baseline comparison and JVM matrix like
+ * micro-benchmarks do.
+ */
+public class MacroBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(MacroBenchmark.class);
+
+    private final int warmUpSeconds;
+    private final int measurementSeconds;
+    private final int sampleSeconds;
+    private final List<String> workloadArgs;
+
+    /**
+     * @param warmUpSeconds
+     *            time workload runs before it is measured
+     * @param measurementSeconds
+     *            measured time
+     * @param sampleSeconds
+     *            sampling interval of time series
+     * @param workloadArgs
+     *            arguments passed to every workload
+     */
+    public MacroBenchmark(int warmUpSeconds, int measurementSeconds, int sampleSeconds, List<String> workloadArgs) {
+        this.warmUpSeconds = Math.max(0, warmUpSeconds);
+        this.measurementSeconds = Math.max(1, measurementSeconds);
+        this.sampleSeconds = Math.max(1, Math.min(sampleSeconds, this.measurementSeconds));
+        this.workloadArgs = workloadArgs;
+    }
+
+    /**
+     * @return report name of given workload class
+     */
+    public static String getReportName(Class<?> workloadClass) {
+        return workloadClass.getName() + (Workload.class.isAssignableFrom(workloadClass) ? ".start" : ".main");
+    }
+
+    public static BenchmarkWorkItem createWorkItem(Class<?> workloadClass) {
+        return new BenchmarkWorkItem(getReportName(workloadClass), Mode.Throughput, Collections.emptyMap(), 1);
+    }
+
+    public void run(Options options, Class<?> workloadClass, StreamingOutputFormat outputFormat,
+            Map<String, Map<String, String>> defaultBenchmarksMetadata) {
+        BenchmarkWorkItem workItem = createWorkItem(workloadClass);
+        LOG.info("Running macro-benchmark workload: {}, warm-up={}s, measurement={}s", workloadClass.getName(),
+                warmUpSeconds, measurementSeconds);
+        List<String> args = new ArrayList<>(Arrays.asList(workloadClass.getName(),
+                String.valueOf(TimeUnit.SECONDS.toMillis(warmUpSeconds)),
+                String.valueOf(TimeUnit.SECONDS.toMillis(measurementSeconds)),
+                String.valueOf(TimeUnit.SECONDS.toMillis(sampleSeconds))));
+        args.addAll(workloadArgs);
+        List<Object> results = ForkedHarness.run(options, workItem, MacroWorkloadFork.class, args);
+        if (results == null || results.isEmpty()) {
+            LOG.error("Macro-benchmark workload produced no results: {}", workloadClass.getName());
+            return;
+        }
+        BenchmarkReport report = ReportingService.getInstance().createWorkloadReport(workItem.getBenchmark(),
+                (MacroReport) results.get(0), defaultBenchmarksMetadata);
+        outputFormat.storeReport(workItem.getKey(), report);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.MacroReport;
+import com.gocypher.cybench.launcher.model.MacroReport.MacroSample;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+import com.gocypher.cybench.launcher.workload.Workload;
+import com.gocypher.cybench.launcher.workload.WorkloadMetrics;
+
+/**
+ * Entry point of fresh JVM running macro-benchmark {@link Workload}: starts workload, waits for warm-up, samples
+ * {@link WorkloadMetrics}, GC, CPU and memory usage every sampling interval and serializes {@link MacroReport} to
+ * file.
+ * <p>
+ * Arguments: result file, workload class, warm-up millis, measurement millis, sampling interval millis, workload
+ * arguments.
+ */
+public final class MacroWorkloadFork {
+    private static final Logger LOG = LoggerFactory.getLogger(MacroWorkloadFork.class);
+    private static final double MB = 1024.0 * 1024.0;
+    private static final double[] SAMPLE_PERCENTILES = { 50, 99, 100 };
+    private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+    private static final String LATENCY_UNITS = "us";
+
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private MacroWorkloadFork() {
+    }
+
+    public static void main(String... args) throws Exception {
+        long warmUpMillis = Long.parseLong(args[2]);
+        long measurementMillis = Long.parseLong(args[3]);
+        long sampleMillis = Math.max(1, Long.parseLong(args[4]));
+        String[] workloadArgs = Arrays.copyOfRange(args, 5, args.length);
+        MacroWorkloadFork fork = new MacroWorkloadFork();
+        Workload workload = fork.start(Class.forName(args[1]), workloadArgs);
+        Thread.sleep(warmUpMillis);
+        MacroReport report = fork.measure(measurementMillis, sampleMillis);
+        report.setWorkload(args[1]);
+        report.setWarmUpSeconds((int) TimeUnit.MILLISECONDS.toSeconds(warmUpMillis));
+        if (workload != null) {
+            workload.stop();
+        }
+        if (fork.failure.get() != null) {
+            throw new IllegalStateException("Workload failed: " + args[1], fork.failure.get());
+        }
+        ForkedHarness.writeResults(args[0], report);
+    }
+
+    /**
+     * @return started workload, or {@code null} if workload is main class run on daemon thread
+     */
+    private Workload start(Class<?> workloadClass, String[] args) throws Exception {
+        if (Workload.class.isAssignableFrom(workloadClass)) {
+            Workload workload = (Workload) workloadClass.getDeclaredConstructor().newInstance();
+            workload.start(args);
+            return workload;
+        }
+        Method main = workloadClass.getMethod("main", String[].class);
+        Thread thread = new Thread(() -> {
+            try {
+                main.invoke(null, (Object) args);
+            } catch (InvocationTargetException e) {
+                failure.compareAndSet(null, e.getCause());
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }, "cybench-workload");
+        thread.setDaemon(true);
+        thread.start();
+        return null;
+    }
+
+    private MacroReport measure(long measurementMillis, long sampleMillis) throws InterruptedException {
+        MacroReport report = new MacroReport();
+        report.setMeasurementSeconds((int) TimeUnit.MILLISECONDS.toSeconds(measurementMillis));
+        report.setSampleSeconds((int) TimeUnit.MILLISECONDS.toSeconds(sampleMillis));
+        report.setLatencyUnits(LATENCY_UNITS);
+        // counters and latencies of warm-up are not measured
+        Map<String, Long> initialCounters = WorkloadMetrics.getCounters();
+        WorkloadMetrics.drainLatencies();
+        Map<String, Long> previousCounters = initialCounters;
+        Map<String, ScoreHistogram> latencies = new TreeMap<>();
+        long[] previousGc = getGcTotals();
+        long[] initialGc = previousGc;
+        long previousCpuTime = getProcessCpuTime();
+        long start = System.nanoTime();
+        long previous = start;
+        double cpuLoadSum = 0;
+        int cpuLoadSamples = 0;
+        long intervals = Math.max(1, measurementMillis / sampleMillis);
+        for (long interval = 1; interval <= intervals && failure.get() == null; interval++) {
+            long sleepNanos = start + TimeUnit.MILLISECONDS.toNanos(interval * sampleMillis) - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+            long now = System.nanoTime();
+            double seconds = (now - previous) / 1e9;
+            MacroSample sample = new MacroSample();
+            sample.setTime((now - start) / 1e9);
+            Map<String, Long> counters = WorkloadMetrics.getCounters();
+            sample.setCounterRates(getRates(previousCounters, counters, seconds));
+            Map<String, Map<String, Double>> samplePercentiles = new TreeMap<>();
+            for (Map.Entry<String, ScoreHistogram> latency : WorkloadMetrics.drainLatencies().entrySet()) {
+                latencies.computeIfAbsent(latency.getKey(), name -> new ScoreHistogram()).merge(latency.getValue());
+                if (latency.getValue().getTotalCount() > 0) {
+                    samplePercentiles.put(latency.getKey(), BenchmarkHarness.getLatencyPercentiles(latency.getValue(),
+                            SAMPLE_PERCENTILES));
+                }
+            }
+            sample.setLatencyPercentiles(samplePercentiles);
+            long[] gc = getGcTotals();
+            sample.setGcCount(gc[0] - previousGc[0]);
+            sample.setGcTime(gc[1] - previousGc[1]);
+            long cpuTime = getProcessCpuTime();
+            if (cpuTime >= 0 && previousCpuTime >= 0) {
+                double cpuLoad = 100.0 * (cpuTime - previousCpuTime) / (now - previous)
+                        / Runtime.getRuntime().availableProcessors();
+                sample.setProcessCpuLoad(cpuLoad);
+                cpuLoadSum += cpuLoad;
+                cpuLoadSamples++;
+                report.setProcessCpuLoadMax(report.getProcessCpuLoadMax() == null ? cpuLoad
+                        : Math.max(cpuLoad, report.getProcessCpuLoadMax()));
+            }
+            sample.setHeapUsed(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / MB);
+            sample.setRss(getRss());
+            report.setHeapUsedMax(report.getHeapUsedMax() == null ? sample.getHeapUsed()
+                    : Math.max(sample.getHeapUsed(), report.getHeapUsedMax()));
+            if (sample.getRss() != null) {
+                report.setRssMax(report.getRssMax() == null ? sample.getRss()
+                        : Math.max(sample.getRss(), report.getRssMax()));
+            }
+            report.getSamples().add(sample);
+            LOG.info("Workload sample: time={}s, rates={}, latency={}", sample.getTime(), sample.getCounterRates(),
+                    samplePercentiles);
+            previousCounters = counters;
+            previousGc = gc;
+            previousCpuTime = cpuTime;
+            previous = now;
+        }
+        report.setCounterRates(getRates(initialCounters, previousCounters, (previous - start) / 1e9));
+        Map<String, Map<String, Double>> percentiles = new TreeMap<>();
+        Map<String, String> histograms = new TreeMap<>();
+        for (Map.Entry<String, ScoreHistogram> latency : latencies.entrySet()) {
+            if (latency.getValue().getTotalCount() > 0) {
+                percentiles.put(latency.getKey(), BenchmarkHarness.getLatencyPercentiles(latency.getValue()));
+                histograms.put(latency.getKey(), latency.getValue().encode());
+            }
+        }
+        report.setLatencyPercentiles(percentiles);
+        report.setLatencyHistograms(histograms);
+        report.setGcCount(previousGc[0] - initialGc[0]);
+        report.setGcTime(previousGc[1] - initialGc[1]);
+        report.setProcessCpuLoad(cpuLoadSamples == 0 ? null : cpuLoadSum / cpuLoadSamples);
+        return report;
+    }
+
+    private static Map<String, Double> getRates(Map<String, Long> previous, Map<String, Long> current,
+            double seconds) {
+        Map<String, Double> rates = new TreeMap<>();
+        for (Map.Entry<String, Long> counter : current.entrySet()) {
+            rates.put(counter.getKey(),
+                    seconds > 0 ? (counter.getValue() - previous.getOrDefault(counter.getKey(), 0L)) / seconds : 0);
+        }
+        return rates;
+    }
+
+    /**
+     * @return count and time in milliseconds of all collections
+     */
+    private static long[] getGcTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // values are negative when not available
+            totals[0] += Math.max(0, gcBean.getCollectionCount());
+            totals[1] += Math.max(0, gcBean.getCollectionTime());
+        }
+        return totals;
+    }
+
+    private long getProcessCpuTime() {
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * @return resident set size in MB, or {@code null} if not available on the platform
+     */
+    private static Double getRss() {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return null;
+        }
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] fields = line.trim().split("\\s+");
+                    return Long.parseLong(fields[1]) * 1024 / MB;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Error on reading resident set size: {}", PROC_STATUS, e);
+        }
+        return null;
+    }
+}
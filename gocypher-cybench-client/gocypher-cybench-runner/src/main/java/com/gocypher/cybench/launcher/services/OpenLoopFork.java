@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gocypher.cybench.launcher.model.OpenLoopReport;
+
+/**
+ * Entry point of JVM running {@link OpenLoopHarness} for one benchmark and serializing {@link OpenLoopReport} to file.
+ * <p>
+ * Arguments: result file, benchmark, threads, warm-up millis, measurement millis, comma separated rates or
+ * {@code auto}, benchmark params as {@code name=value}.
+ */
+public final class OpenLoopFork {
+
+    private OpenLoopFork() {
+    }
+
+    public static void main(String... args) throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        for (String param : Arrays.asList(args).subList(6, args.length)) {
+            String[] nameAndValue = param.split("=", 2);
+            params.put(nameAndValue[0], nameAndValue.length > 1 ? nameAndValue[1] : "");
+        }
+        double[] rates = OpenLoopSweep.AUTO_RATES.equals(args[5]) ? new double[0]
+                : Arrays.stream(StringUtils.split(args[5], ',')).mapToDouble(Double::parseDouble).toArray();
+        OpenLoopReport report;
+        try (OpenLoopHarness harness = new OpenLoopHarness(args[1], params, Integer.parseInt(args[2]))) {
+            report = harness.sweep(rates, TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[3])),
+                    TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[4])));
+        }
+        ForkedHarness.writeResults(args[0], report);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.OpenLoopReport;
+import com.gocypher.cybench.launcher.model.OpenLoopReport.OpenLoopPoint;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+/**
+ * Invokes benchmark method at fixed target rate (open loop), outside of JMH. Every invocation has intended start time
+ * on a fixed schedule and its latency is measured from intended start, so invocations delayed by a slow one report the
+ * time they waited (coordinated omission is corrected). Worker threads take next scheduled invocation when they are
+ * free, like request handling threads of a server.
+ */
+public class OpenLoopHarness extends BenchmarkHarness {
+    private static final Logger LOG = LoggerFactory.getLogger(OpenLoopHarness.class);
+    /* rate is sustained when at least this fraction of target rate is achieved, i.e. backlog does not grow */
+    private static final double SUSTAINED_RATE_FRACTION = 0.99;
+    /* rate is past the knee when its p99 latency exceeds p99 latency of the lowest rate this many times */
+    private static final double KNEE_LATENCY_FACTOR = 10;
+    /* automatic sweep starts at this fraction of estimated capacity and doubles rate */
+    private static final double AUTO_START_FRACTION = 0.05;
+    private static final double AUTO_RATE_FACTOR = 2;
+    private static final int AUTO_MAX_RATES = 20;
+    /* waiting shorter than this is spinning, as parking is not precise enough */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final String LATENCY_UNITS = "us";
+
+    /**
+     * @param benchmark
+     *            benchmark name, i.e. class and method name
+     * @param params
+     *            benchmark params
+     * @param threads
+     *            worker threads count
+     */
+    public OpenLoopHarness(String benchmark, Map<String, String> params, int threads)
+            throws ReflectiveOperationException {
+        super(benchmark, params, threads);
+    }
+
+    /**
+     * Measures latency at given rates in ascending order, or, if no rates are given, at rates doubling from 5% of
+     * estimated capacity until rate is not sustained. Latency knee is relative to p99 latency of the lowest rate.
+     */
+    public OpenLoopReport sweep(double[] rates, long warmUpNanos, long measurementNanos) throws Exception {
+        OpenLoopReport report = new OpenLoopReport();
+        report.setThreads(threads);
+        report.setLatencyUnits(LATENCY_UNITS);
+        // closed loop run warms benchmark up and estimates its capacity
+        double serviceNanos = measureServiceTime(Math.max(warmUpNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+        report.setServiceTime(serviceNanos / 1000);
+        boolean autoRates = rates == null || rates.length == 0;
+        if (!autoRates) {
+            // knee latency is relative to the lowest rate, so rates are measured in ascending order
+            rates = Arrays.stream(rates).sorted().distinct().toArray();
+        }
+        double rate = autoRates ? Math.max(1, AUTO_START_FRACTION * threads * 1e9 / serviceNanos) : 0;
+        Double kneeLatency = null;
+        for (int i = 0; i < (autoRates ? AUTO_MAX_RATES : rates.length); i++) {
+            rate = autoRates ? (i == 0 ? rate : rate * AUTO_RATE_FACTOR) : rates[i];
+            LOG.info("Open loop measurement: benchmark={}, rate={}/s, threads={}", method.getName(), rate, threads);
+            if (warmUpNanos > 0) {
+                measure(rate, warmUpNanos);
+            }
+            OpenLoopPoint point = measure(rate, measurementNanos);
+            double p99 = point.getLatencyPercentiles().get(BenchmarkReport.percentileKey(99));
+            if (kneeLatency == null) {
+                kneeLatency = p99 * KNEE_LATENCY_FACTOR;
+            }
+            point.setSustained(point.getAchievedRate() >= rate * SUSTAINED_RATE_FRACTION && p99 <= kneeLatency);
+            report.getPoints().add(point);
+            LOG.info("Open loop measurement: rate={}/s, achieved={}/s, p50={}us, p99={}us, sustained={}", rate,
+                    point.getAchievedRate(), point.getLatencyPercentiles().get(BenchmarkReport.percentileKey(50)),
+                    p99, point.isSustained());
+            if (point.isSustained()) {
+                report.setSaturationRate(report.getSaturationRate() == null ? rate
+                        : Math.max(rate, report.getSaturationRate()));
+            } else if (autoRates) {
+                break;
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Invokes benchmark at target rate for given time. Invocations not started by deadline are missed, and their
+     * latency is recorded as time from intended start until they were found missed, past the deadline.
+     */
+    public OpenLoopPoint measure(double targetRate, long durationNanos) throws Exception {
+        callFixtures(Setup.class, Level.Iteration);
+        double periodNanos = 1e9 / targetRate;
+        long scheduled = Math.max(1, (long) (durationNanos / periodNanos));
+        // saturated benchmark falls behind schedule, invocations not started by deadline are missed
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1);
+        long deadline = start + 2 * durationNanos;
+        AtomicLong nextInvocation = new AtomicLong();
+        ScoreHistogram[] histograms = new ScoreHistogram[threads];
+        long[] started = new long[threads];
+        long[] finished = new long[threads];
+        Throwable[] failures = new Throwable[threads];
+        Thread[] workers = new Thread[threads];
+        for (int worker = 0; worker < threads; worker++) {
+            int id = worker;
+            histograms[id] = new ScoreHistogram();
+            workers[id] = new Thread(() -> {
+                try {
+                    long invocation;
+                    while ((invocation = nextInvocation.getAndIncrement()) < scheduled) {
+                        long intendedStart = start + (long) (invocation * periodNanos);
+                        long now = System.nanoTime();
+                        if (now > deadline) {
+                            // missed invocation has waited at least until now, omitting it would hide the backlog
+                            histograms[id].recordValue((now - intendedStart) / 1000.0, 1);
+                            continue;
+                        }
+                        waitUntil(intendedStart);
+                        invoke(id);
+                        long end = System.nanoTime();
+                        histograms[id].recordValue((end - intendedStart) / 1000.0, 1);
+                        started[id]++;
+                        finished[id] = end;
+                    }
+                } catch (InvocationTargetException e) {
+                    failures[id] = e.getCause();
+                } catch (Throwable e) {
+                    failures[id] = e;
+                }
+            }, "cybench-open-loop-" + id);
+            workers[id].start();
+        }
+        ScoreHistogram latency = new ScoreHistogram();
+        long invocations = 0;
+        long end = start;
+        for (int worker = 0; worker < threads; worker++) {
+            workers[worker].join();
+            if (failures[worker] != null) {
+                throw new IllegalStateException("Benchmark failed: " + method, failures[worker]);
+            }
+            latency.merge(histograms[worker]);
+            invocations += started[worker];
+            end = Math.max(end, finished[worker]);
+        }
+        callFixtures(TearDown.class, Level.Iteration);
+
+        OpenLoopPoint point = new OpenLoopPoint();
+        point.setTargetRate(targetRate);
+        point.setInvocations(invocations);
+        point.setMissedInvocations(scheduled - invocations);
+        point.setAchievedRate(end > start ? invocations * 1e9 / (end - start) : 0);
+        point.setLatencyPercentiles(getLatencyPercentiles(latency));
+        point.setLatencyHistogram(latency.encode());
+        return point;
+    }
+
+    /**
+     * @return mean time of closed loop invocation in nanoseconds
+     */
+    private double measureServiceTime(long durationNanos) throws ReflectiveOperationException {
+        long start = System.nanoTime();
+        long invocations = 0;
+        long now;
+        do {
+            invoke(0);
+            invocations++;
+            now = System.nanoTime();
+        } while (now - start < durationNanos);
+        return (now - start) / (double) invocations;
+    }
+
+    private static void waitUntil(long time) {
+        long remaining;
+        while ((remaining = time - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (System.nanoTime() < time) {
+            // spin
+        }
+    }
+}
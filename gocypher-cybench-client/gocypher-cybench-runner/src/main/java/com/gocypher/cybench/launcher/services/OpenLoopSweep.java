@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.OpenLoopReport;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+
+/**
+ * Measures latency of benchmark invoked at fixed target rates by {@link OpenLoopHarness}, in a separate JVM started
+ * with the same JVM and arguments as JMH forks, and attaches it to report of benchmark run by JMH.
+ */
+public class OpenLoopSweep {
+    private static final Logger LOG = LoggerFactory.getLogger(OpenLoopSweep.class);
+    static final String AUTO_RATES = "auto";
+
+    private final double[] rates;
+    private final int threads;
+    private final int warmUpSeconds;
+    private final int measurementSeconds;
+
+    /**
+     * @param rates
+     *            target rates in invocations per second, or empty to sweep rates until benchmark saturates
+     * @param threads
+     *            worker threads invoking benchmark
+     * @param warmUpSeconds
+     *            warm-up time before every rate
+     * @param measurementSeconds
+     *            measurement time of every rate
+     */
+    public OpenLoopSweep(double[] rates, int threads, int warmUpSeconds, int measurementSeconds) {
+        this.rates = rates;
+        this.threads = Math.max(1, threads);
+        this.warmUpSeconds = Math.max(0, warmUpSeconds);
+        this.measurementSeconds = Math.max(1, measurementSeconds);
+    }
+
+    /**
+     * @param runner
+     *            runs benchmark by JMH and stores report
+     */
+    public void run(Options baseOptions, BenchmarkWorkItem workItem, StreamingOutputFormat outputFormat,
+            WorkItemRunner runner) throws RunnerException {
+        OpenLoopReport openLoop = runFork(baseOptions, workItem);
+        if (openLoop != null) {
+            LOG.info("Open loop saturation rate of benchmark={}: {}/s", workItem, openLoop.getSaturationRate());
+            outputFormat.setWorkItemCustomizer(workItem.getKey(), report -> report.setOpenLoop(openLoop));
+        }
+        runner.run(baseOptions, workItem, outputFormat);
+    }
+
+    /**
+     * @return runner measuring open loop latencies before work item is run by given runner
+     */
+    public WorkItemRunner wrap(WorkItemRunner runner) {
+        return (baseOptions, workItem, outputFormat) -> run(baseOptions, workItem, outputFormat, runner);
+    }
+
+    private OpenLoopReport runFork(Options options, BenchmarkWorkItem workItem) {
+        List<String> args = new ArrayList<>();
+        args.add(workItem.getBenchmark());
+        args.add(String.valueOf(threads));
+        args.add(String.valueOf(TimeUnit.SECONDS.toMillis(warmUpSeconds)));
+        args.add(String.valueOf(TimeUnit.SECONDS.toMillis(measurementSeconds)));
+        args.add(rates.length == 0 ? AUTO_RATES
+                : Arrays.stream(rates).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+        for (Map.Entry<String, String> param : workItem.getParams().entrySet()) {
+            args.add(param.getKey() + "=" + param.getValue());
+        }
+        LOG.info("Open loop measurement: benchmark={}, threads={}, rates={}", workItem, threads,
+                rates.length == 0 ? AUTO_RATES : Arrays.toString(rates));
+        List<Object> results = ForkedHarness.run(options, workItem, OpenLoopFork.class, args);
+        return results == null ? null : (OpenLoopReport) results.get(0);
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.openjdk.jmh.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.core.annotation.AsyncBenchmark;
+import com.gocypher.cybench.core.annotation.MemoryBandwidthSensitive;
+import com.gocypher.cybench.core.utils.JMHUtils;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.DelegatingOutputFormat;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+
+/**
+ * Runs independent single-threaded benchmarks at the same time, every one pinned to its own set of CPUs using Linux
+ * {@code taskset}. CPUs the launcher is allowed to run on are split into one CPU set per physical core (with all its
+ * hardware threads), one set is left for launcher and OS. Multi-threaded, in-process (no fork),
+ * {@link MemoryBandwidthSensitive} and {@link AsyncBenchmark} benchmarks are run alone after parallel ones.
+ * <p>
+ * JVM sizes GC and compiler (and chooses GC) by count of CPUs it may use, so pinned forks are told to use as many
+ * processors as forks run one after another see, to keep results comparable. Processors count seen by the fork is
+ * stored to benchmark report metadata.
+ */
+public class ParallelScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelScheduler.class);
+    private static final String CPU_FOLDER = "/sys/devices/system/cpu";
+    private static final String ALLOWED_CPUS = "Cpus_allowed_list:";
+
+    private final List<String> cpuSets;
+    private final Map<String, Boolean> activeProcessorCountSupport = new ConcurrentHashMap<>();
+
+    public ParallelScheduler(List<String> cpuSets) {
+        this.cpuSets = cpuSets;
+    }
+
+    /**
+     * Splits CPUs allowed by process affinity (and so by container CPU set) into sets of hardware threads of every
+     * physical core, as listed in {@code /sys/devices/system/cpu/cpu<N>/topology/thread_siblings_list}.
+     *
+     * @param maxParallel
+     *            maximal number of benchmarks run at the same time, {@code 0} to use all free cores
+     * @return scheduler, or {@code null} if machine can't run benchmarks in parallel
+     */
+    public static ParallelScheduler create(int maxParallel) {
+        if (!SystemUtils.IS_OS_LINUX || !new File("/usr/bin/taskset").canExecute()
+                && !new File("/bin/taskset").canExecute()) {
+            LOG.warn("Parallel execution requires Linux taskset, benchmarks will be run one after another");
+            return null;
+        }
+        SortedSet<Integer> allowedCpus = getAllowedCpus();
+        List<String> cpuSets = createCpuSets(allowedCpus, Paths.get(CPU_FOLDER), maxParallel);
+        if (cpuSets.size() < 2) {
+            LOG.warn("Not enough CPU cores for parallel execution: allowedCpus={}", allowedCpus);
+            return null;
+        }
+        return new ParallelScheduler(cpuSets);
+    }
+
+    /**
+     * @param cpuFolder
+     *            sysfs CPU folder exposing {@code cpu<N>/topology/thread_siblings_list}
+     * @return CPU sets of physical cores, except the first one left for launcher and OS
+     */
+    static List<String> createCpuSets(SortedSet<Integer> allowedCpus, Path cpuFolder, int maxParallel) {
+        List<String> cpuSets = new ArrayList<>();
+        Set<Integer> assigned = new HashSet<>();
+        for (Integer cpu : allowedCpus) {
+            if (assigned.contains(cpu)) {
+                continue;
+            }
+            SortedSet<Integer> siblings = new TreeSet<>(
+                    readCpuList(cpuFolder.resolve("cpu" + cpu).resolve("topology").resolve("thread_siblings_list"),
+                            cpu));
+            siblings.retainAll(allowedCpus);
+            siblings.add(cpu);
+            assigned.addAll(siblings);
+            StringJoiner cpus = new StringJoiner(",");
+            for (Integer sibling : siblings) {
+                cpus.add(String.valueOf(sibling));
+            }
+            cpuSets.add(cpus.toString());
+        }
+        // first core is left for launcher and OS
+        if (!cpuSets.isEmpty()) {
+            cpuSets.remove(0);
+        }
+        if (maxParallel > 0 && cpuSets.size() > maxParallel) {
+            cpuSets = new ArrayList<>(cpuSets.subList(0, maxParallel));
+        }
+        return cpuSets;
+    }
+
+    /**
+     * @return CPUs of process affinity mask, or all CPUs visible to JVM if mask can't be read
+     */
+    private static SortedSet<Integer> getAllowedCpus() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith(ALLOWED_CPUS)) {
+                    return parseCpuList(line.substring(ALLOWED_CPUS.length()));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOG.error("Failed to read allowed CPUs of process", e);
+        }
+        SortedSet<Integer> cpus = new TreeSet<>();
+        for (int cpu = 0; cpu < Runtime.getRuntime().availableProcessors(); cpu++) {
+            cpus.add(cpu);
+        }
+        return cpus;
+    }
+
+    private static SortedSet<Integer> readCpuList(Path file, int cpu) {
+        try {
+            return parseCpuList(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException | NumberFormatException e) {
+            // topology is not exposed (e.g. CPU is offline), so CPU is its own core
+            return new TreeSet<>(Collections.singleton(cpu));
+        }
+    }
+
+    /**
+     * Parses Linux CPU list format, e.g. {@code 0-3,8,10-11}.
+     */
+    static SortedSet<Integer> parseCpuList(String cpuList) {
+        SortedSet<Integer> cpus = new TreeSet<>();
+        for (String range : cpuList.trim().split(",")) {
+            if (range.trim().isEmpty()) {
+                continue;
+            }
+            String[] bounds = range.trim().split("-");
+            int from = Integer.parseInt(bounds[0]);
+            int to = bounds.length > 1 ? Integer.parseInt(bounds[1]) : from;
+            for (int cpu = from; cpu <= to; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+
+    public int getParallelism() {
+        return cpuSets.size();
+    }
+
+    /**
+     * @return {@code true} if benchmark can share machine with other benchmarks
+     */
+    public static boolean canRunInParallel(Options baseOptions, BenchmarkWorkItem workItem) {
+        if (workItem.getThreads() != 1 || baseOptions.getForkCount().orElse(Defaults.MEASUREMENT_FORKS) == 0) {
+            return false;
+        }
+        try {
+            JMHUtils.ClassAndMethod classAndMethod = new JMHUtils.ClassAndMethod(workItem.getBenchmark()).invoke();
+            Class<?> aClass = Class.forName(classAndMethod.getClazz());
+            Optional<Method> benchmarkMethod = JMHUtils.getBenchmarkMethod(classAndMethod.getMethod(), aClass);
+            // asynchronous benchmarks use executor threads besides their own
+            return !aClass.isAnnotationPresent(MemoryBandwidthSensitive.class) && !(benchmarkMethod.isPresent()
+                    && (benchmarkMethod.get().isAnnotationPresent(MemoryBandwidthSensitive.class)
+                            || benchmarkMethod.get().isAnnotationPresent(AsyncBenchmark.class)));
+        } catch (ClassNotFoundException e) {
+            LOG.error("Benchmark class not found: {}", workItem.getBenchmark(), e);
+            return false;
+        }
+    }
+
+    public void run(Options baseOptions, List<BenchmarkWorkItem> workItems, StreamingOutputFormat outputFormat,
+            WorkItemRunner runner) {
+        List<BenchmarkWorkItem> parallelItems = new ArrayList<>();
+        List<BenchmarkWorkItem> exclusiveItems = new ArrayList<>();
+        for (BenchmarkWorkItem workItem : workItems) {
+            (canRunInParallel(baseOptions, workItem) ? parallelItems : exclusiveItems).add(workItem);
+        }
+        LOG.info("Parallel execution: cpuSets={}, parallel benchmarks={}, exclusive benchmarks={}", cpuSets,
+                parallelItems.size(), exclusiveItems.size());
+        // every concurrent run takes JMH lock otherwise, lock is only ignored while runs are concurrent
+        String ignoreLock = System.setProperty("jmh.ignoreLock", "true");
+        try {
+            runParallel(baseOptions, parallelItems, outputFormat, runner);
+        } finally {
+            if (ignoreLock == null) {
+                System.clearProperty("jmh.ignoreLock");
+            } else {
+                System.setProperty("jmh.ignoreLock", ignoreLock);
+            }
+        }
+
+        for (BenchmarkWorkItem workItem : exclusiveItems) {
+            try {
+                runner.run(baseOptions, workItem, outputFormat);
+            } catch (RunnerException e) {
+                LOG.error("Failed to run benchmark: {}", workItem, e);
+            }
+        }
+    }
+
+    private void runParallel(Options baseOptions, List<BenchmarkWorkItem> parallelItems,
+            StreamingOutputFormat outputFormat, WorkItemRunner runner) {
+        String jvm = baseOptions.getJvm().orElse(Utils.getCurrentJvm());
+        int processors = Runtime.getRuntime().availableProcessors();
+        boolean fixedProcessors = activeProcessorCountSupport.computeIfAbsent(jvm,
+                ParallelScheduler::supportsActiveProcessorCount);
+        if (!fixedProcessors) {
+            LOG.warn("JVM {} does not support -XX:ActiveProcessorCount, pinned benchmarks run with JVM ergonomics "
+                    + "of their CPU sets and may not be comparable with benchmarks run alone", jvm);
+        }
+        VerboseMode verbosity = baseOptions.verbosity().orElse(Defaults.VERBOSITY);
+        BlockingQueue<String> freeCpuSets = new LinkedBlockingQueue<>(cpuSets);
+        Map<String, Set<String>> concurrentBenchmarks = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(cpuSets.size());
+        List<Future<?>> futures = new ArrayList<>();
+        for (BenchmarkWorkItem workItem : parallelItems) {
+            futures.add(executor.submit(() -> {
+                String cpuSet = freeCpuSets.take();
+                Path script = null;
+                try {
+                    Set<String> concurrent = started(workItem, concurrentBenchmarks);
+                    outputFormat.setWorkItemCustomizer(workItem.getKey(), report -> {
+                        report.setCpuSet(cpuSet);
+                        report.addMetadata("forkAvailableProcessors",
+                                String.valueOf(fixedProcessors ? processors : cpuSet.split(",").length));
+                        synchronized (concurrentBenchmarks) {
+                            report.setConcurrentBenchmarks(new ArrayList<>(concurrent));
+                        }
+                    });
+                    LOG.info("Starting benchmark on CPUs {}: {}", cpuSet, workItem);
+                    script = createWrapperScript(jvm, cpuSet, fixedProcessors ? processors : 0);
+                    Options pinnedOptions = new OptionsBuilder().parent(baseOptions).jvm(script.toString()).build();
+                    runner.run(pinnedOptions, workItem, outputFormat.forRunner(
+                            createRunnerConsole(outputFormat.getDelegate(), "[" + cpuSet + "] ", verbosity)));
+                } finally {
+                    if (script != null) {
+                        Files.deleteIfExists(script);
+                    }
+                    finished(workItem, concurrentBenchmarks);
+                    freeCpuSets.put(cpuSet);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                LOG.error("Failed to run benchmark in parallel", e.getCause());
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Registers benchmark as running and links it with all benchmarks running at the moment. Benchmarks started later
+     * add themselves, so set is complete once benchmark finishes.
+     */
+    private static Set<String> started(BenchmarkWorkItem workItem, Map<String, Set<String>> concurrentBenchmarks) {
+        synchronized (concurrentBenchmarks) {
+            Set<String> concurrent = new TreeSet<>();
+            for (Map.Entry<String, Set<String>> running : concurrentBenchmarks.entrySet()) {
+                running.getValue().add(workItem.getKey());
+                concurrent.add(running.getKey());
+            }
+            concurrentBenchmarks.put(workItem.getKey(), concurrent);
+            return concurrent;
+        }
+    }
+
+    private static void finished(BenchmarkWorkItem workItem, Map<String, Set<String>> concurrentBenchmarks) {
+        synchronized (concurrentBenchmarks) {
+            concurrentBenchmarks.remove(workItem.getKey());
+        }
+    }
+
+    /**
+     * JMH has no option to prefix forked JVM command, so forks are started by wrapper script running JVM under
+     * {@code taskset}. Processors count is passed before JMH arguments, so benchmark JVM arguments still override it.
+     * Script is deleted by caller when benchmark has finished.
+     *
+     * @param processors
+     *            processors count JVM ergonomics should assume, {@code 0} to keep CPU set size
+     */
+    static Path createWrapperScript(String jvm, String cpuSet, int processors) throws IOException {
+        Path script = Files.createTempFile("cybench-cpuset-", ".sh");
+        String content = "#!/bin/sh" + System.lineSeparator() //
+                + "exec taskset -c " + cpuSet + " \"" + jvm + "\""
+                + (processors > 0 ? " -XX:ActiveProcessorCount=" + processors : "") + " \"$@\""
+                + System.lineSeparator();
+        Files.write(script, content.getBytes(StandardCharsets.UTF_8));
+        if (!script.toFile().setExecutable(true)) {
+            Files.delete(script);
+            throw new IOException("Can't make CPU set wrapper script executable: " + script);
+        }
+        return script;
+    }
+
+    /**
+     * Console output format of benchmark run concurrently with others: JMH text output of the benchmark is passed to
+     * shared console in whole lines having given prefix, so lines of concurrent benchmarks don't mix.
+     */
+    static OutputFormat createRunnerConsole(OutputFormat console, String prefix, VerboseMode verbosity) {
+        PrintStream out = new PrintStream(new PrefixedLineStream(console, prefix), true);
+        return new DelegatingOutputFormat(OutputFormatFactory.createFormatInstance(out, verbosity)) {
+            @Override
+            public void close() {
+                super.close();
+                // JMH text format doesn't close its stream, so unfinished line would be lost
+                out.close();
+            }
+        };
+    }
+
+    /**
+     * {@code -XX:ActiveProcessorCount} is available since JDK 8u191 and 10, older JVMs refuse to start with it.
+     */
+    private static boolean supportsActiveProcessorCount(String jvm) {
+        try {
+            Process process = new ProcessBuilder(jvm, "-XX:ActiveProcessorCount=1", "-version")
+                    .redirectErrorStream(true).redirectOutput(new File("/dev/null")).start();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            LOG.error("Failed to probe JVM options support: jvm={}", jvm, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class PrefixedLineStream extends OutputStream {
+        private final OutputFormat console;
+        private final String prefix;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        PrefixedLineStream(OutputFormat console, String prefix) {
+            this.console = console;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (b == '\n') {
+                printLine();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (line.size() > 0) {
+                printLine();
+            }
+        }
+
+        private void printLine() {
+            console.println(prefix + new String(line.toByteArray(), StandardCharsets.UTF_8));
+            line.reset();
+        }
+    }
+}
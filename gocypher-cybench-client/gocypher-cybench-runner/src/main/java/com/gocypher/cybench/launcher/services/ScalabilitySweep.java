@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.model.ScalabilityReport;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+import com.gocypher.cybench.launcher.utils.ComputationUtils;
+
+/**
+ * Runs benchmark at 1, 2, 4 ... max threads and attaches throughput curve with fitted scalability coefficients to
+ * report of benchmark run with its own threads count.
+ */
+public class ScalabilitySweep {
+    private static final Logger LOG = LoggerFactory.getLogger(ScalabilitySweep.class);
+
+    private final int maxThreads;
+
+    public ScalabilitySweep(int maxThreads) {
+        this.maxThreads = Math.max(1, maxThreads);
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @param runner
+     *            runs benchmark with its own threads count and stores report
+     */
+    public void run(Options baseOptions, BenchmarkWorkItem workItem, StreamingOutputFormat outputFormat,
+            WorkItemRunner runner) throws RunnerException {
+        int benchmarkThreads = workItem.getThreads() == Threads.MAX ? maxThreads : workItem.getThreads();
+        SortedMap<Integer, Double> scores = new TreeMap<>();
+        for (int threads : getThreadCounts(benchmarkThreads)) {
+            if (threads == benchmarkThreads) {
+                continue;
+            }
+            LOG.info("Scalability sweep: benchmark={}, threads={}", workItem, threads);
+            Options options = new OptionsBuilder().parent(BenchmarkPlanner.createWorkItemOptions(baseOptions, workItem))
+                    .threads(threads) //
+                    .build();
+            // sweep points are printed to console only, report is stored for benchmark own threads count
+            for (RunResult result : new Runner(options, outputFormat.getDelegate()).run()) {
+                scores.put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+        outputFormat.setWorkItemCustomizer(workItem.getKey(), report -> {
+            // sweep points are raw JMH scores, so report score (converted, or percentile) can't be used
+            if (report.getRawScore() == null) {
+                LOG.warn("Benchmark has no JMH score, scalability is not computed: {}", workItem);
+                return;
+            }
+            scores.put(benchmarkThreads, report.getRawScore());
+            ScalabilityReport scalability = ComputationUtils.computeScalability(scores, report.getMode());
+            report.setScalability(scalability);
+            LOG.info("Scalability of benchmark={}: {}", workItem, scalability);
+        });
+        runner.run(baseOptions, workItem, outputFormat);
+    }
+
+    /**
+     * @return runner sweeping threads counts before work item is run by given runner
+     */
+    public WorkItemRunner wrap(WorkItemRunner runner) {
+        return (baseOptions, workItem, outputFormat) -> run(baseOptions, workItem, outputFormat, runner);
+    }
+
+    private List<Integer> getThreadCounts(int benchmarkThreads) {
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+        if (!threadCounts.contains(benchmarkThreads)) {
+            threadCounts.add(benchmarkThreads);
+        }
+        return threadCounts;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.DelegatingOutputFormat;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+
+/**
+ * Runs benchmark forks one by one, choosing warm-up length of every fork from steady state detected in previous
+ * forks, instead of using same warm-up iterations count for all benchmarks.
+ * <p>
+ * Scores of all warm-up and measurement iterations of a fork are searched for steady state: first window of iterations
+ * having no significant slope and same level as the last iterations of the fork. If steady state was reached before
+ * measurement, next fork gets shorter warm-up. If it was reached during measurement or not reached at all, fork is
+ * marked as not steady and next fork gets longer warm-up, up to maximal warm-up iterations. Detected warm-up lengths
+ * are kept in history file, so next runs start with already known warm-up instead of maximal one.
+ * <p>
+ * Steady state is searched only when a fork has finished, as JMH can't end warm-up of a running fork. So the first
+ * fork of a benchmark missing from history file always runs maximal warm-up iterations, and detection shortens only
+ * later forks and later runs. Runs that don't keep the history file (e.g. fresh CI agents) pay maximal warm-up in the
+ * first fork of every benchmark.
+ */
+public class WarmUpController {
+    private static final Logger LOG = LoggerFactory.getLogger(WarmUpController.class);
+    // roughly 95% two-sided critical value, used for slope and level tests
+    private static final double CRITICAL_VALUE = 2.0;
+
+    private final int maxIterations;
+    private final int window;
+    private final double tolerance;
+    private final Path historyFile;
+    private final Properties history = new Properties();
+    private final Map<String, WarmUpState> states = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxIterations
+     *            warm-up iterations limit, also used for benchmarks without warm-up history
+     * @param window
+     *            iterations count of steady state window
+     * @param tolerance
+     *            score drift (in percents of mean score) treated as steady regardless of noise
+     * @param historyFile
+     *            file keeping detected warm-up length of every benchmark
+     */
+    public WarmUpController(int maxIterations, int window, double tolerance, String historyFile) {
+        this.maxIterations = Math.max(1, maxIterations);
+        this.window = Math.max(3, window);
+        this.tolerance = tolerance;
+        this.historyFile = Paths.get(historyFile);
+        loadHistory();
+    }
+
+    /**
+     * Runs all forks of benchmark work item and stores combined result.
+     */
+    public void run(Options baseOptions, BenchmarkWorkItem workItem, StreamingOutputFormat outputFormat)
+            throws RunnerException {
+        Options workItemOptions = BenchmarkPlanner.createWorkItemOptions(baseOptions, workItem);
+        int forks = workItemOptions.getForkCount().orElse(Defaults.MEASUREMENT_FORKS);
+        List<BenchmarkResult> forkResults = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, forks); i++) {
+            BenchmarkResult forkResult = runFork(workItemOptions, workItem, outputFormat.getDelegate());
+            if (forkResult == null) {
+                LOG.error("Benchmark fork produced no results: {}", workItem);
+                return;
+            }
+            forkResults.add(forkResult);
+        }
+        outputFormat.storeResult(forkResults, report -> {
+            report.setBenchForkCount(forkResults.size());
+            describe(workItem, report);
+        });
+    }
+
+    /**
+     * Runs single fork of benchmark with warm-up length known so far and updates it from fork iteration scores.
+     *
+     * @return fork result, or {@code null} if benchmark has failed
+     */
+    public BenchmarkResult runFork(Options forkOptions, BenchmarkWorkItem workItem, OutputFormat outputFormat)
+            throws RunnerException {
+        WarmUpState state = states.computeIfAbsent(workItem.getKey(), key -> new WarmUpState(getKnownWarmUp(key)));
+        int forkCount = forkOptions.getForkCount().orElse(Defaults.MEASUREMENT_FORKS);
+        Options options = new OptionsBuilder().parent(forkOptions) //
+                .forks(forkCount == 0 ? 0 : 1) //
+                .warmupIterations(state.warmUpIterations) //
+                .build();
+        List<Double> scores = new ArrayList<>();
+        Collection<RunResult> results = new Runner(options, new DelegatingOutputFormat(outputFormat) {
+            @Override
+            public void iterationResult(BenchmarkParams benchParams, IterationParams params, int iteration,
+                    IterationResult data) {
+                super.iterationResult(benchParams, params, iteration, data);
+                if (params.getType() == IterationType.WARMUP || params.getType() == IterationType.MEASUREMENT) {
+                    scores.add(data.getPrimaryResult().getScore());
+                }
+            }
+        }).run();
+        if (results.isEmpty()) {
+            return null;
+        }
+        update(workItem, state, scores);
+        return results.iterator().next().getAggregatedResult();
+    }
+
+    /**
+     * Records detected warm-up length and steady state flag of benchmark into report.
+     */
+    public void describe(BenchmarkWorkItem workItem, BenchmarkReport report) {
+        WarmUpState state = states.get(workItem.getKey());
+        if (state != null) {
+            report.setBenchWarmUpIteration(state.detectedIterations);
+            report.setWarmUpSteadyState(state.steady);
+        }
+    }
+
+    private void update(BenchmarkWorkItem workItem, WarmUpState state, List<Double> scores) {
+        int usedIterations = state.warmUpIterations;
+        int steadyIteration = findSteadyState(scores, window, tolerance);
+        boolean steady = steadyIteration >= 0 && steadyIteration <= usedIterations;
+        if (steady) {
+            // fork always gets at least one warm-up iteration
+            state.warmUpIterations = Math.max(1, steadyIteration);
+        } else {
+            state.warmUpIterations = steadyIteration < 0 ? maxIterations
+                    : Math.min(maxIterations, Math.max(steadyIteration, usedIterations + 1));
+        }
+        state.detectedIterations = Math.max(state.detectedIterations,
+                steadyIteration < 0 ? usedIterations : steadyIteration);
+        state.steady &= steady;
+        LOG.info("Warm-up detection: benchmark={}, warmUpIterations={}, steadyStateIteration={}, next={}", workItem,
+                usedIterations, steadyIteration < 0 ? "none" : steadyIteration, state.warmUpIterations);
+        if (!steady) {
+            LOG.warn("Benchmark did not reach steady state before measurement: {}", workItem);
+        }
+        storeHistory(workItem.getKey(), state.warmUpIterations);
+    }
+
+    /**
+     * Finds first iteration starting a window of scores with no significant slope and with mean matching mean of the
+     * last window. Noise is estimated from residuals of the last window, as warm-up trend would inflate noise estimate
+     * of earlier windows.
+     *
+     * @return index of first steady state iteration, or {@code -1} if scores never reach steady state
+     */
+    public static int findSteadyState(List<Double> scores, int window, double tolerance) {
+        int n = scores.size();
+        if (n < window) {
+            return -1;
+        }
+        double sxx = window * (window * window - 1) / 12.0;
+        double[] tail = fitWindow(scores, n - window, window);
+        double noise = Math.sqrt(tail[2] / (window - 2));
+        double slopeError = noise / Math.sqrt(sxx);
+        double levelError = noise * Math.sqrt(2.0 / window);
+        double allowedDrift = Math.abs(tail[0]) * tolerance / 100;
+        for (int start = 0; start + window <= n; start++) {
+            double[] current = fitWindow(scores, start, window);
+            double slope = Math.abs(current[1]);
+            double levelDiff = Math.abs(current[0] - tail[0]);
+            boolean flat = slope * (window - 1) <= allowedDrift || slope <= CRITICAL_VALUE * slopeError;
+            boolean level = levelDiff <= allowedDrift || levelDiff <= CRITICAL_VALUE * levelError;
+            if (flat && level) {
+                return start;
+            }
+            if (start + window == n) {
+                // last window has a trend itself, so scores are still changing
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return mean, least squares slope and residual sum of squares of scores window
+     */
+    private static double[] fitWindow(List<Double> scores, int start, int window) {
+        double meanX = (window - 1) / 2.0;
+        double meanY = 0;
+        for (int i = 0; i < window; i++) {
+            meanY += scores.get(start + i);
+        }
+        meanY /= window;
+        double sxx = 0;
+        double sxy = 0;
+        double syy = 0;
+        for (int i = 0; i < window; i++) {
+            double dx = i - meanX;
+            double dy = scores.get(start + i) - meanY;
+            sxx += dx * dx;
+            sxy += dx * dy;
+            syy += dy * dy;
+        }
+        double slope = sxy / sxx;
+        return new double[] { meanY, slope, Math.max(0, syy - slope * sxy) };
+    }
+
+    private int getKnownWarmUp(String key) {
+        String known = history.getProperty(key);
+        if (known != null) {
+            try {
+                return Math.min(maxIterations, Math.max(1, Integer.parseInt(known)));
+            } catch (NumberFormatException e) {
+                LOG.error("Invalid warm-up history entry: {}={}", key, known);
+            }
+        }
+        LOG.info("No warm-up history of benchmark, first fork runs {} warm-up iterations: {}", maxIterations, key);
+        return maxIterations;
+    }
+
+    private void loadHistory() {
+        if (Files.exists(historyFile)) {
+            try (InputStream in = Files.newInputStream(historyFile)) {
+                history.load(in);
+            } catch (IOException e) {
+                LOG.error("Error on reading warm-up history={}", historyFile, e);
+            }
+        }
+    }
+
+    private synchronized void storeHistory(String key, int warmUpIterations) {
+        history.setProperty(key, String.valueOf(warmUpIterations));
+        try {
+            if (historyFile.getParent() != null) {
+                Files.createDirectories(historyFile.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(historyFile)) {
+                history.store(out, "Detected benchmarks warm-up iterations");
+            }
+        } catch (IOException e) {
+            LOG.error("Error on storing warm-up history={}", historyFile, e);
+        }
+    }
+
+    private static class WarmUpState {
+        int warmUpIterations;
+        int detectedIterations;
+        boolean steady = true;
+
+        WarmUpState(int warmUpIterations) {
+            this.warmUpIterations = warmUpIterations;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.services;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+
+/**
+ * Runs single benchmark work item with given options and stores its report by given output format. Every run mode is
+ * a work item runner, sweeps and asynchronous measurement wrap runner of the modes they delegate to.
+ */
+@FunctionalInterface
+public interface WorkItemRunner {
+
+    /**
+     * Runs work item by JMH, with options of its benchmark, mode, parameters and threads.
+     */
+    WorkItemRunner JMH = (baseOptions, workItem, outputFormat) -> new Runner(
+            BenchmarkPlanner.createWorkItemOptions(baseOptions, workItem), outputFormat).run();
+
+    void run(Options baseOptions, BenchmarkWorkItem workItem, StreamingOutputFormat outputFormat)
+            throws RunnerException;
+}
@@ -22,14 +22,22 @@ package com.gocypher.cybench.launcher.utils;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.util.Statistics;
 
 import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.ScalabilityReport;
 
 public final class ComputationUtils {
     private static final int SCALE = 18;
@@ -107,6 +115,236 @@ public final class ComputationUtils {
         return score;
     }
 
+    /**
+     * @return half-width of mean confidence interval in percents of mean, or {@code null} if it can't be computed
+     */
+    public static Double computeRelativeError(Statistics statistics, double confidence) {
+        if (statistics == null || statistics.getN() < 2 || statistics.getMean() == 0) {
+            return null;
+        }
+        double error = statistics.getMeanErrorAt(confidence);
+        if (Double.isNaN(error) || Double.isInfinite(error)) {
+            return null;
+        }
+        return error / Math.abs(statistics.getMean()) * 100;
+    }
+
+    /**
+     * Splits variance of iteration scores into variance of fork means and variance of iterations within forks (one-way
+     * random effects ANOVA). Large between-fork variance shows that every fork settles at different score, e.g. due to
+     * different JIT compilation decisions.
+     *
+     * @return between-fork and within-fork variance, or {@code null} if there are less than 2 forks or no fork has more
+     *         than one iteration
+     */
+    public static double[] computeForkVariance(double[][] forkSamples) {
+        int forks = 0;
+        int n = 0;
+        double sum = 0;
+        double sumOfSquaredSizes = 0;
+        for (double[] samples : forkSamples) {
+            if (samples.length > 0) {
+                forks++;
+                n += samples.length;
+                sumOfSquaredSizes += (double) samples.length * samples.length;
+                for (double sample : samples) {
+                    sum += sample;
+                }
+            }
+        }
+        if (forks < 2 || n <= forks) {
+            return null;
+        }
+        double mean = sum / n;
+        double betweenSquares = 0;
+        double withinSquares = 0;
+        for (double[] samples : forkSamples) {
+            if (samples.length == 0) {
+                continue;
+            }
+            double forkMean = Arrays.stream(samples).average().orElse(0);
+            betweenSquares += samples.length * (forkMean - mean) * (forkMean - mean);
+            for (double sample : samples) {
+                withinSquares += (sample - forkMean) * (sample - forkMean);
+            }
+        }
+        double withinVariance = withinSquares / (n - forks);
+        // effective iterations count per fork when forks have different sizes
+        double forkSize = (n - sumOfSquaredSizes / n) / (forks - 1);
+        double betweenVariance = Math.max(0, (betweenSquares / (forks - 1) - withinVariance) / forkSize);
+        return new double[] { betweenVariance, withinVariance };
+    }
+
+    /**
+     * Sarle's bimodality coefficient {@code (skewness^2 + 1) / (kurtosis + 3 (n-1)^2 / ((n-2)(n-3)))}, values above
+     * 5/9 hint at bimodal (or very skewed) distribution.
+     *
+     * @return bimodality coefficient, or {@code null} if there are less than 4 samples or all samples are equal
+     */
+    public static Double computeBimodalityCoefficient(double[] samples) {
+        int n = samples.length;
+        if (n < 4) {
+            return null;
+        }
+        DescriptiveStatistics statistics = new DescriptiveStatistics(samples);
+        double skewness = statistics.getSkewness();
+        double kurtosis = statistics.getKurtosis();
+        if (Double.isNaN(skewness) || Double.isNaN(kurtosis)) {
+            return null;
+        }
+        return (skewness * skewness + 1) / (kurtosis + 3.0 * (n - 1) * (n - 1) / ((n - 2) * (n - 3)));
+    }
+
+    /**
+     * @return fraction of samples in smaller of two groups of optimal split of samples (maximizing variance between
+     *         groups), low fraction means that samples are split by outliers rather than by two modes
+     */
+    public static double computeMinorModeFraction(double[] samples) {
+        if (samples.length < 2) {
+            return 0;
+        }
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double total = Arrays.stream(sorted).sum();
+        double lowerSum = 0;
+        double bestVariance = -1;
+        int bestSplit = 1;
+        for (int split = 1; split < sorted.length; split++) {
+            lowerSum += sorted[split - 1];
+            double lowerMean = lowerSum / split;
+            double upperMean = (total - lowerSum) / (sorted.length - split);
+            double variance = (double) split * (sorted.length - split) * (upperMean - lowerMean)
+                    * (upperMean - lowerMean);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                bestSplit = split;
+            }
+        }
+        return Math.min(bestSplit, sorted.length - bestSplit) / (double) sorted.length;
+    }
+
+    /**
+     * Two-sided p-value of Welch's t-test of equal means of two samples with possibly different variances.
+     *
+     * @return p-value, or {@code null} if any sample has less than 2 values
+     */
+    public static Double computeWelchPValue(StatisticalSummary a, StatisticalSummary b) {
+        if (a.getN() < 2 || b.getN() < 2) {
+            return null;
+        }
+        double standardError = computeWelchStandardError(a, b);
+        if (standardError == 0) {
+            return a.getMean() == b.getMean() ? 1.0 : 0.0;
+        }
+        double t = (b.getMean() - a.getMean()) / standardError;
+        TDistribution distribution = new TDistribution(computeWelchDegreesOfFreedom(a, b));
+        return 2 * distribution.cumulativeProbability(-Math.abs(t));
+    }
+
+    /**
+     * Confidence interval of difference of means {@code b - a}, using Welch-Satterthwaite degrees of freedom.
+     *
+     * @return interval bounds, or {@code null} if any sample has less than 2 values
+     */
+    public static double[] computeWelchInterval(StatisticalSummary a, StatisticalSummary b, double confidence) {
+        if (a.getN() < 2 || b.getN() < 2) {
+            return null;
+        }
+        double delta = b.getMean() - a.getMean();
+        double standardError = computeWelchStandardError(a, b);
+        if (standardError == 0) {
+            return new double[] { delta, delta };
+        }
+        TDistribution distribution = new TDistribution(computeWelchDegreesOfFreedom(a, b));
+        double error = distribution.inverseCumulativeProbability(1 - (1 - confidence) / 2) * standardError;
+        return new double[] { delta - error, delta + error };
+    }
+
+    private static double computeWelchStandardError(StatisticalSummary a, StatisticalSummary b) {
+        return Math.sqrt(a.getVariance() / a.getN() + b.getVariance() / b.getN());
+    }
+
+    private static double computeWelchDegreesOfFreedom(StatisticalSummary a, StatisticalSummary b) {
+        double varianceA = a.getVariance() / a.getN();
+        double varianceB = b.getVariance() / b.getN();
+        return Math.pow(varianceA + varianceB, 2) / (varianceA * varianceA / (a.getN() - 1)
+                + varianceB * varianceB / (b.getN() - 1));
+    }
+
+    /**
+     * Computes speedup and efficiency of every threads count relative to single thread and fits Amdahl's law and
+     * Universal Scalability Law by least squares on linearized form
+     * {@code N / speedup - 1 = contention * (N - 1) + coherency * N * (N - 1)}.
+     *
+     * @param scores
+     *            benchmark score by threads count, must contain single thread score
+     * @param mode
+     *            benchmark mode short label, scores of time based modes are converted to throughput
+     * @return scalability report, or {@code null} if single thread score is missing
+     */
+    public static ScalabilityReport computeScalability(SortedMap<Integer, Double> scores, String mode) {
+        Double singleThreadScore = scores.get(1);
+        if (singleThreadScore == null || singleThreadScore <= 0) {
+            return null;
+        }
+        boolean throughputMode = Mode.Throughput.shortLabel().equals(mode);
+        double singleThreadThroughput = throughputMode ? singleThreadScore : 1 / singleThreadScore;
+        ScalabilityReport report = new ScalabilityReport();
+        double sxx = 0;
+        double sxz = 0;
+        double szz = 0;
+        double sxy = 0;
+        double szy = 0;
+        for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+            int threads = score.getKey();
+            if (score.getValue() == null || score.getValue() <= 0) {
+                continue;
+            }
+            // time based modes measure time of single operation in every thread
+            double throughput = throughputMode ? score.getValue() : threads / score.getValue();
+            double speedup = throughput / singleThreadThroughput;
+            report.getPoints().add(
+                    new ScalabilityReport.ScalabilityPoint(threads, score.getValue(), speedup, speedup / threads));
+            double x = threads - 1;
+            double z = (double) threads * (threads - 1);
+            double y = threads / speedup - 1;
+            sxx += x * x;
+            sxz += x * z;
+            szz += z * z;
+            sxy += x * y;
+            szy += z * y;
+        }
+        if (sxx == 0) {
+            return report;
+        }
+        report.setAmdahlSerialFraction(Math.min(1, Math.max(0, sxy / sxx)));
+        double contention;
+        double coherency;
+        double determinant = sxx * szz - sxz * sxz;
+        if (Math.abs(determinant) > 1e-12 * sxx * szz) {
+            contention = (sxy * szz - szy * sxz) / determinant;
+            coherency = (sxx * szy - sxz * sxy) / determinant;
+        } else {
+            contention = sxy / sxx;
+            coherency = 0;
+        }
+        // coefficients are non-negative by definition, refit remaining one when other is out of range
+        if (coherency < 0) {
+            coherency = 0;
+            contention = sxy / sxx;
+        } else if (contention < 0) {
+            contention = 0;
+            coherency = szz == 0 ? 0 : Math.max(0, szy / szz);
+        }
+        report.setUslContention(Math.max(0, contention));
+        report.setUslCoherency(coherency);
+        // ignore rounding noise of coherency, peak would be meaningless
+        if (coherency > 1e-9 && contention < 1) {
+            report.setUslPeakThreads(Math.sqrt((1 - contention) / coherency));
+        }
+        return report;
+    }
+
     // com.gocypher.cybench.jmh.jvm.client.tests.IOAsyncAP
     // IComparisonBenchmarks=category:IO,context:JVM,version:1.0.0;
     public static Map<String, Map<String, String>> parseBenchmarkMetadata(String configuration) {
@@ -43,6 +43,68 @@ public class Constants {
     public static final String WARM_UP_SECONDS = "warmUpSeconds";
     public static final String RUN_THREAD_COUNT = "runThreadCount";
     public static final String BENCHMARK_MODES = "benchmarkModes";
+    public static final String RESUME_RUN = "resumeRun";
+    public static final String INCREMENTAL_RUN = "incrementalRun";
+    public static final String ADAPTIVE_MEASUREMENT = "adaptiveMeasurement";
+    public static final String ADAPTIVE_TARGET_ERROR = "adaptiveTargetError";
+    public static final String ADAPTIVE_CONFIDENCE = "adaptiveConfidence";
+    public static final String ADAPTIVE_MIN_ITERATIONS = "adaptiveMinIterations";
+    public static final String ADAPTIVE_MAX_ITERATIONS = "adaptiveMaxIterations";
+    public static final String WARM_UP_DETECTION = "warmUpDetection";
+    public static final String WARM_UP_MAX_ITERATIONS = "warmUpMaxIterations";
+    public static final String WARM_UP_WINDOW = "warmUpWindow";
+    public static final String WARM_UP_TOLERANCE = "warmUpTolerance";
+    public static final String PARALLEL_EXECUTION = "parallelExecution";
+    public static final String PARALLEL_MAX_BENCHMARKS = "parallelMaxBenchmarks";
+    public static final String SCALABILITY_SWEEP = "scalabilitySweep";
+    public static final String SCALABILITY_MAX_THREADS = "scalabilityMaxThreads";
+    public static final String OPEN_LOOP = "openLoop";
+    public static final String OPEN_LOOP_RATES = "openLoopRates";
+    public static final String OPEN_LOOP_THREADS = "openLoopThreads";
+    public static final String OPEN_LOOP_WARM_UP_SECONDS = "openLoopWarmUpSeconds";
+    public static final String OPEN_LOOP_SECONDS = "openLoopSeconds";
+    public static final String ASYNC_IN_FLIGHT = "asyncInFlight";
+    public static final String MACRO_WORKLOADS = "macroWorkloads";
+    public static final String MACRO_WORKLOAD_ARGS = "macroWorkloadArgs";
+    public static final String MACRO_WARM_UP_SECONDS = "macroWarmUpSeconds";
+    public static final String MACRO_SECONDS = "macroSeconds";
+    public static final String MACRO_SAMPLE_SECONDS = "macroSampleSeconds";
+    public static final String JFR_PROFILER = "jfrProfiler";
+    public static final String JFR_SETTINGS = "jfrSettings";
+    public static final String JFR_SAMPLING_PERIOD = "jfrSamplingPeriod";
+    public static final String JFR_TOP = "jfrTop";
+    public static final String STACK_PROFILER = "stackProfiler";
+    public static final String STACK_SAMPLING_INTERVAL = "stackSamplingInterval";
+    public static final String STACK_DEPTH = "stackDepth";
+    public static final String CONTENTION_PROFILER = "contentionProfiler";
+    public static final String CONTENTION_SAMPLING_INTERVAL = "contentionSamplingInterval";
+    public static final String JIT_PROFILER = "jitProfiler";
+    public static final String JIT_TOP = "jitTop";
+    public static final String COMPLEXITY_ANALYSIS = "complexityAnalysis";
+    public static final String COMPLEXITY_PARAMS = "complexityParams";
+    public static final String JAVA_OPTIONS_PREFIX = "javaOptions";
+    public static final String JAVA_TO_USE_PATH = "javaToUsePath";
+    public static final String JVM_MATRIX = "jvmMatrix";
+    public static final String JVM_MATRIX_JAVA_PATHS = "jvmMatrixJavaPaths";
+    public static final String JVM_MATRIX_OPTIONS_PREFIX = "jvmMatrixOptions.";
+    public static final String AB_COMPARISON = "abComparison";
+    public static final String AB_CLASSPATH_A = "abClasspathA";
+    public static final String AB_CLASSPATH_B = "abClasspathB";
+    public static final String AB_ROUNDS = "abRounds";
+    public static final String AB_CONFIDENCE = "abConfidence";
+    public static final String BASELINE_COMPARE = "baselineCompare";
+    public static final String BASELINE_REPORT = "baselineReport";
+    public static final String BASELINE_CONFIDENCE = "baselineConfidence";
+    public static final String BASELINE_REGRESSION_THRESHOLD = "baselineRegressionThreshold";
+    public static final String BASELINE_MAX_REGRESSIONS = "baselineMaxRegressions";
+    public static final String HISTORY_STORE = "historyStore";
+    public static final String TREND_ANALYSIS = "trendAnalysis";
+    public static final String TREND_SIGNIFICANCE = "trendSignificance";
+    public static final String TREND_MIN_SEGMENT_SIZE = "trendMinSegmentSize";
+    public static final String TREND_NOISE_THRESHOLD = "trendNoiseThreshold";
+    public static final String RAW_SAMPLES = "rawSamples";
+    public static final String SCORE_HISTOGRAM = "scoreHistogram";
+    public static final String SCORE_PERCENTILE = "scorePercentile";
 
     public static final String REPORT_UPLOAD_STATUS = "reportUploadStatus";
     public static final String BENCHMARK_METADATA = "benchmarkMetadata";
@@ -50,6 +112,8 @@ public class Constants {
     public static final String REPORT_PUBLIC = "public";
     public static final String CYB_REPORT_JSON_FILE = "report";
     public static final String CYB_REPORT_CYB_FILE = "report.cyb";
+    public static final String CYB_REPORT_JOURNAL_FILE = "reportJournal";
+    public static final String CYB_REPORT_CHECKPOINT_FILE = "reportCheckpoint";
     public static final String CYB_REPORT_FILE_EXTENSION = ".cybench";
     public static final String CYB_ENCRYPTED_REPORT_FILE_EXTENSION = ".cyb";
     public static final String APPEND_SCORE_TO_FNAME = "appendScore";
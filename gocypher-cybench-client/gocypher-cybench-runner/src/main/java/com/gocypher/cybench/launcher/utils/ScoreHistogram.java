@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.utils;
+
+import java.io.*;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.util.Statistics;
+
+/**
+ * Compact histogram of benchmark scores, e.g. latencies of sampling modes. Like HDR histogram, it keeps counts of
+ * logarithmically sized buckets, so any percentile is known within relative accuracy, and histograms of different runs
+ * or machines are merged by adding bucket counts. Bucket {@code i} holds values in
+ * {@code (gamma^(i-1), gamma^i]}, where {@code gamma = (1 + accuracy) / (1 - accuracy)}.
+ * <p>
+ * Encoded form is Base64 of version, accuracy, min, max, zero values count and varint encoded bucket index deltas and
+ * counts of non-empty buckets.
+ */
+public class ScoreHistogram {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final int ENCODING_VERSION = 1;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final NavigableMap<Integer, Long> buckets = new TreeMap<>();
+    /* values not greater than zero */
+    private long zeroCount;
+    private long totalCount;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public ScoreHistogram() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public ScoreHistogram(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in range (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        logGamma = Math.log(gamma);
+    }
+
+    /**
+     * @return histogram of all values of statistics, e.g. JMH sample time histogram
+     */
+    public static ScoreHistogram of(Statistics statistics) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        Iterator<Map.Entry<Double, Long>> rawData = statistics.getRawData();
+        while (rawData.hasNext()) {
+            Map.Entry<Double, Long> value = rawData.next();
+            histogram.recordValue(value.getKey(), value.getValue());
+        }
+        return histogram;
+    }
+
+    public void recordValue(double value, long count) {
+        if (count <= 0 || Double.isNaN(value)) {
+            return;
+        }
+        if (value <= 0) {
+            zeroCount += count;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), count, Long::sum);
+        }
+        totalCount += count;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds values of other histogram, e.g. of another run or machine. Histograms must have same accuracy.
+     */
+    public void merge(ScoreHistogram other) {
+        if (Double.compare(relativeAccuracy, other.relativeAccuracy) != 0) {
+            throw new IllegalArgumentException("Histograms of different accuracy can't be merged: "
+                    + relativeAccuracy + ", " + other.relativeAccuracy);
+        }
+        for (Map.Entry<Integer, Long> bucket : other.buckets.entrySet()) {
+            buckets.merge(bucket.getKey(), bucket.getValue(), Long::sum);
+        }
+        zeroCount += other.zeroCount;
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param percentile
+     *            percentile in range [0, 100]
+     * @return value at percentile within relative accuracy, or {@code NaN} if histogram is empty
+     */
+    public double getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long count = zeroCount;
+        if (count >= rank) {
+            return min;
+        }
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            count += bucket.getValue();
+            if (count >= rank) {
+                // middle of bucket has smallest relative error to any value within it
+                double value = 2 * Math.pow(gamma, bucket.getKey()) / (gamma + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMin() {
+        return totalCount == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return totalCount == 0 ? Double.NaN : max;
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(ENCODING_VERSION);
+            out.writeDouble(relativeAccuracy);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            writeVarLong(out, zeroCount);
+            writeVarLong(out, buckets.size());
+            int previousIndex = 0;
+            for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+                int delta = bucket.getKey() - previousIndex;
+                // zigzag encoding keeps small negative first index short
+                writeVarLong(out, (delta << 1) ^ (delta >> 31));
+                writeVarLong(out, bucket.getValue());
+                previousIndex = bucket.getKey();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if encoded histogram is malformed
+     */
+    public static ScoreHistogram decode(String encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            int version = in.readByte();
+            if (version != ENCODING_VERSION) {
+                throw new IllegalArgumentException("Unsupported histogram encoding version: " + version);
+            }
+            ScoreHistogram histogram = new ScoreHistogram(in.readDouble());
+            histogram.min = in.readDouble();
+            histogram.max = in.readDouble();
+            histogram.zeroCount = readVarLong(in);
+            histogram.totalCount = histogram.zeroCount;
+            long bucketsCount = readVarLong(in);
+            int index = 0;
+            for (long i = 0; i < bucketsCount; i++) {
+                int delta = (int) readVarLong(in);
+                index += (delta >>> 1) ^ -(delta & 1);
+                long count = readVarLong(in);
+                histogram.buckets.put(index, count);
+                histogram.totalCount += count;
+            }
+            return histogram;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed encoded histogram", e);
+        }
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.workload;
+
+/**
+ * Entry point of macro-benchmark workload, e.g. service component together with clients generating its load. Launcher
+ * starts workload in a fresh JVM, samples {@link WorkloadMetrics} and JVM metrics for configured time and stops it.
+ * <p>
+ * Class with {@code public static void main(String[])} can be used as workload too: its main method is run on a
+ * daemon thread and JVM exits when measurement is finished.
+ */
+public interface Workload {
+
+    /**
+     * Starts workload. Method should return once workload is running, load is generated by workload threads.
+     *
+     * @param args
+     *            workload arguments
+     */
+    void start(String... args) throws Exception;
+
+    /**
+     * Stops workload when measurement is finished.
+     */
+    void stop() throws Exception;
+}
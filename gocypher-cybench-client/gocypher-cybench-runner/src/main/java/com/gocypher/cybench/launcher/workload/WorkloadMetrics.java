@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2020, K2N.IO.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+
+package com.gocypher.cybench.launcher.workload;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+/**
+ * Counters and latencies exposed by {@link Workload} to launcher. Counter rates and latency percentiles are sampled
+ * over time while workload runs. Rate of {@link #OPERATIONS} counter is the score of workload.
+ */
+public final class WorkloadMetrics {
+    public static final String OPERATIONS = "operations";
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyRecorder> LATENCIES = new ConcurrentHashMap<>();
+
+    private WorkloadMetrics() {
+    }
+
+    /**
+     * Counts one completed operation.
+     */
+    public static void operation() {
+        add(OPERATIONS, 1);
+    }
+
+    /**
+     * Counts one completed operation and records its latency.
+     *
+     * @param startNanos
+     *            {@link System#nanoTime()} at the start of operation
+     */
+    public static void operation(long startNanos) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        add(OPERATIONS, 1);
+        recordLatency(OPERATIONS, latencyNanos);
+    }
+
+    public static void increment(String counter) {
+        add(counter, 1);
+    }
+
+    public static void add(String counter, long count) {
+        COUNTERS.computeIfAbsent(counter, name -> new LongAdder()).add(count);
+    }
+
+    public static void recordLatency(String name, long latencyNanos) {
+        LATENCIES.computeIfAbsent(name, key -> new LatencyRecorder()).record(latencyNanos);
+    }
+
+    /**
+     * @return current values of all counters
+     */
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        return counters;
+    }
+
+    /**
+     * @return latencies in microseconds recorded since previous call, histograms are reset
+     */
+    public static Map<String, ScoreHistogram> drainLatencies() {
+        Map<String, ScoreHistogram> latencies = new TreeMap<>();
+        LATENCIES.forEach((name, recorder) -> latencies.put(name, recorder.drain()));
+        return latencies;
+    }
+
+    private static class LatencyRecorder {
+        private ScoreHistogram histogram = new ScoreHistogram();
+
+        synchronized void record(long latencyNanos) {
+            histogram.recordValue(latencyNanos / 1000.0, 1);
+        }
+
+        synchronized ScoreHistogram drain() {
+            ScoreHistogram drained = histogram;
+            histogram = new ScoreHistogram();
+            return drained;
+        }
+    }
+}
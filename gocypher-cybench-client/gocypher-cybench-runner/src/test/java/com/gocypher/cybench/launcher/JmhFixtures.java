@@ -0,0 +1,77 @@
+package com.gocypher.cybench.launcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.*;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * JMH parameters and results as JMH passes them to profilers and output formats, without running benchmarks.
+ */
+public final class JmhFixtures {
+    public static final String BENCHMARK = "com.example.ListBenchmarks.sort";
+
+    private JmhFixtures() {
+    }
+
+    public static BenchmarkParams benchmarkParams(int forks, int iterations) {
+        IterationParams warmup = new IterationParams(IterationType.WARMUP, 1, TimeValue.seconds(1), 1);
+        IterationParams measurement = new IterationParams(IterationType.MEASUREMENT, iterations,
+                TimeValue.seconds(1), 1);
+        return new BenchmarkParams(BENCHMARK, "com.example.jmh_generated.ListBenchmarks_sort_jmhTest.sort_Throughput",
+                false, 1, new int[] { 1 }, Collections.emptyList(), forks, 0, warmup, measurement, Mode.Throughput,
+                new WorkloadParams(), TimeUnit.SECONDS, 1, "java", Collections.emptyList(), "17", "OpenJDK", "17",
+                "1.32", TimeValue.minutes(10));
+    }
+
+    /**
+     * @return measurement iteration of given throughput score and secondary results
+     */
+    public static IterationResult iterationResult(BenchmarkParams params, double score, Result<?>... secondary) {
+        IterationResult iteration = new IterationResult(params, params.getMeasurement(),
+                new IterationResultMetaData(1, 1));
+        iteration.addResult(new ThroughputResult(ResultRole.PRIMARY, "sort", score, 1_000_000_000L,
+                TimeUnit.SECONDS));
+        iteration.addResults(Arrays.asList(secondary));
+        return iteration;
+    }
+
+    /**
+     * @return fork of measurement iterations having given scores
+     */
+    public static BenchmarkResult forkResult(BenchmarkParams params, double... scores) {
+        List<IterationResult> iterations = new ArrayList<>();
+        for (double score : scores) {
+            iterations.add(iterationResult(params, score));
+        }
+        return new BenchmarkResult(params, iterations);
+    }
+
+    /**
+     * @return result of single fork having single iteration with given secondary results
+     */
+    public static RunResult runResult(Result<?>... secondary) {
+        BenchmarkParams params = benchmarkParams(1, 1);
+        return new RunResult(params, Collections.singletonList(
+                new BenchmarkResult(params, Collections.singletonList(iterationResult(params, 100, secondary)))));
+    }
+
+    /**
+     * @return scores of profiler results keyed by label
+     */
+    public static Map<String, Double> scores(Collection<? extends Result> results) {
+        return results.stream().collect(Collectors.toMap(Result::getLabel, Result::getScore));
+    }
+}
@@ -0,0 +1,20 @@
+package com.gocypher.cybench.launcher;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+
+public final class ReportFixtures {
+
+    private ReportFixtures() {
+    }
+
+    /**
+     * @return throughput report of benchmark having given score
+     */
+    public static BenchmarkReport benchmarkReport(String name, double score) {
+        BenchmarkReport report = new BenchmarkReport();
+        report.setName(name);
+        report.setMode("thrpt");
+        report.setScore(score);
+        return report;
+    }
+}
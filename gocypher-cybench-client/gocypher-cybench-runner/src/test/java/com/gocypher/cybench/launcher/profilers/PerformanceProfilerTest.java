@@ -0,0 +1,45 @@
+package com.gocypher.cybench.launcher.profilers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.ProfilerException;
+
+import com.gocypher.cybench.launcher.JmhFixtures;
+
+public class PerformanceProfilerTest {
+
+    @Test
+    public void testMeasurementIteration() throws ProfilerException, InterruptedException {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(1, 1);
+        PerformanceProfiler profiler = new PerformanceProfiler("samplingInterval=5");
+
+        profiler.beforeIteration(params, params.getMeasurement());
+        Thread.sleep(50);
+        Map<String, Double> results = JmhFixtures
+                .scores(profiler.afterIteration(params, params.getMeasurement(), null));
+
+        assertTrue(results.get(PerformanceProfiler.PROCESS_HEAP_MEMORY_USED) > 0);
+        assertTrue(results.get(PerformanceProfiler.PROCESS_HEAP_MEMORY_MAX) >= results
+                .get(PerformanceProfiler.PROCESS_HEAP_MEMORY_USED));
+        assertTrue(results.get(PerformanceProfiler.PROCESS_NON_HEAP_MEMORY_USED) > 0);
+        if (results.containsKey(PerformanceProfiler.PROCESS_CPU_LOAD)) {
+            double cpuLoad = results.get(PerformanceProfiler.PROCESS_CPU_LOAD);
+            assertTrue(cpuLoad >= 0 && cpuLoad <= 100);
+            assertTrue(results.get(PerformanceProfiler.PROCESS_CPU_LOAD_MAX) >= cpuLoad);
+        }
+    }
+
+    @Test
+    public void testWarmUpIteration() throws ProfilerException {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(1, 1);
+        PerformanceProfiler profiler = new PerformanceProfiler();
+
+        profiler.beforeIteration(params, params.getWarmup());
+
+        assertTrue(profiler.afterIteration(params, params.getWarmup(), null).isEmpty());
+    }
+}
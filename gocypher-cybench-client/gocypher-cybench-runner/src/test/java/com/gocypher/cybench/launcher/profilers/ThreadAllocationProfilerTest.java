@@ -0,0 +1,77 @@
+package com.gocypher.cybench.launcher.profilers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.IterationResultMetaData;
+
+import com.gocypher.cybench.launcher.JmhFixtures;
+
+public class ThreadAllocationProfilerTest {
+    private static final int MB = 1024 * 1024;
+    private static volatile Object sink;
+
+    @Test
+    public void testWorkerAllocations() throws InterruptedException {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(1, 1);
+        ThreadAllocationProfiler profiler = new ThreadAllocationProfiler();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch allocated = new CountDownLatch(2);
+        CountDownLatch stop = new CountDownLatch(1);
+        Thread heavy = startWorker("jmh-worker-1", 10, start, allocated, stop);
+        Thread light = startWorker("jmh-worker-2", 2, start, allocated, stop);
+        Map<String, Double> results;
+        try {
+            profiler.beforeIteration(params, params.getMeasurement());
+            start.countDown();
+            allocated.await();
+            IterationResult iteration = new IterationResult(params, params.getMeasurement(),
+                    new IterationResultMetaData(1000, 1000));
+            results = JmhFixtures.scores(profiler.afterIteration(params, params.getMeasurement(), iteration));
+        } finally {
+            stop.countDown();
+            heavy.join();
+            light.join();
+        }
+
+        // 12 MB over 1000 operations, 10 MB over 500 operations of heavy worker, 2 MB of light one
+        assertEquals(12.0 * MB / 1000, results.get(ThreadAllocationProfiler.THREAD_ALLOCATION_RATE_NORM), 200);
+        assertEquals(10.0 * MB / 500, results.get(ThreadAllocationProfiler.THREAD_ALLOCATION_NORM_MAX), 200);
+        assertEquals(2.0 * MB / 500, results.get(ThreadAllocationProfiler.THREAD_ALLOCATION_NORM_MIN), 200);
+        assertEquals(8.0 / 6 * 100, results.get(ThreadAllocationProfiler.THREAD_ALLOCATION_SKEW), 2);
+        assertTrue(results.get(ThreadAllocationProfiler.THREAD_ALLOCATION_RATE) > 0);
+    }
+
+    @Test
+    public void testWarmUpIteration() {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(1, 1);
+        ThreadAllocationProfiler profiler = new ThreadAllocationProfiler();
+        profiler.beforeIteration(params, params.getWarmup());
+
+        assertTrue(profiler.afterIteration(params, params.getWarmup(), null).isEmpty());
+    }
+
+    private static Thread startWorker(String name, int megabytes, CountDownLatch start, CountDownLatch allocated,
+            CountDownLatch stop) {
+        Thread worker = new Thread(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < megabytes; i++) {
+                    sink = new byte[MB];
+                }
+                allocated.countDown();
+                // allocations of finished threads are not readable
+                stop.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, name);
+        worker.start();
+        return worker;
+    }
+}
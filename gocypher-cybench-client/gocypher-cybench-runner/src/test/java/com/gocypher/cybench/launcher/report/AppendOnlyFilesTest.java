@@ -0,0 +1,56 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+
+public class AppendOnlyFilesTest {
+
+    @Test
+    public void testTruncateLongIncompleteLine() throws IOException {
+        Path folder = Files.createTempDirectory("append");
+        try {
+            Path file = folder.resolve("lines.txt");
+            AppendOnlyFiles.appendLine(file, "first");
+            Files.write(file, StringUtils.repeat('x', 20_000).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+            assertFalse(AppendOnlyFiles.isTerminated(file));
+            assertTrue(AppendOnlyFiles.truncateIncompleteLine(file));
+            assertFalse(AppendOnlyFiles.truncateIncompleteLine(file));
+            AppendOnlyFiles.appendLine(file, "second");
+
+            assertEquals(Arrays.asList("first", "second"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testTruncateSingleIncompleteLine() throws IOException {
+        Path folder = Files.createTempDirectory("append");
+        try {
+            Path file = folder.resolve("lines.txt");
+            Files.write(file, "partial".getBytes(StandardCharsets.UTF_8));
+
+            assertTrue(AppendOnlyFiles.truncateIncompleteLine(file));
+
+            assertEquals(0, Files.size(file));
+            assertTrue(AppendOnlyFiles.isTerminated(folder.resolve("missing.txt")));
+            assertEquals(Collections.emptyList(), Files.readAllLines(file, StandardCharsets.UTF_8));
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+}
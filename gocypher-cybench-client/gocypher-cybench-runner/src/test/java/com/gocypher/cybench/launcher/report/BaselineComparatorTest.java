@@ -0,0 +1,86 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.launcher.model.BaselineComparisonReport;
+import com.gocypher.cybench.launcher.model.BaselineComparisonReport.BaselineBenchmarkComparison;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.utils.ComputationUtils;
+
+public class BaselineComparatorTest {
+    // fork means differ by 10, iterations within fork by 1 only
+    private static final double[] BASELINE_FORK_MEANS = { 100, 110, 90 };
+    private static final double[] FORK_MEANS = { 103, 113, 93 };
+
+    @Test
+    public void testWelchOverForkSamples() {
+        BaselineBenchmarkComparison comparison = compare(createReport(BASELINE_FORK_MEANS, true),
+                createReport(FORK_MEANS, true));
+
+        // fork means: t = 3 / sqrt(100 / 3 + 100 / 3) with 4 degrees of freedom
+        assertEquals(0.7319177, comparison.getWelchPValue(), 1e-6);
+        assertEquals(BaselineComparisonReport.VERDICT_NO_DIFFERENCE, comparison.getVerdict());
+    }
+
+    @Test
+    public void testWelchOverForkVariance() {
+        BaselineBenchmarkComparison comparison = compare(createReport(BASELINE_FORK_MEANS, false),
+                createReport(FORK_MEANS, false));
+
+        assertEquals(0.7319177, comparison.getWelchPValue(), 1e-6);
+    }
+
+    @Test
+    public void testWelchOverIterationsOfSingleFork() {
+        BaselineBenchmarkComparison comparison = compare(createReport(new double[] { 100 }, true),
+                createReport(new double[] { 103 }, true));
+
+        // 4 iterations of variance 4 / 3 each, so 3% change is significant
+        assertTrue(comparison.getWelchPValue() < 0.05);
+        assertEquals(BaselineComparisonReport.VERDICT_IMPROVED, comparison.getVerdict());
+    }
+
+    private static BaselineBenchmarkComparison compare(BenchmarkReport baselineReport, BenchmarkReport report) {
+        Map<?, ?> baseline = JSONUtils.parseJsonIntoMap(JSONUtils.marshalToJson(Collections.singletonMap("benchmarks",
+                Collections.singletonMap("CUSTOM", Collections.singletonList(baselineReport)))));
+        BaselineComparisonReport comparisonReport = BaselineComparator.compare(baseline,
+                Collections.singletonList(report), 0.95, 1, 0);
+        assertEquals(1, comparisonReport.getComparisons().size());
+        return comparisonReport.getComparisons().get(0);
+    }
+
+    private static BenchmarkReport createReport(double[] forkMeans, boolean keepSamples) {
+        double[][] forkSamples = new double[forkMeans.length][];
+        SummaryStatistics statistics = new SummaryStatistics();
+        for (int fork = 0; fork < forkMeans.length; fork++) {
+            double mean = forkMeans[fork];
+            forkSamples[fork] = new double[] { mean - 1, mean + 1, mean - 1, mean + 1 };
+            Arrays.stream(forkSamples[fork]).forEach(statistics::addValue);
+        }
+        BenchmarkReport report = new BenchmarkReport();
+        report.setName("com.example.ListBenchmarks.sort");
+        report.setMode("thrpt");
+        report.setUnits("ops/s");
+        report.setScore(statistics.getMean());
+        report.setStdDevScore(statistics.getStandardDeviation());
+        report.setN(statistics.getN());
+        report.setBenchForkCount(forkMeans.length);
+        double[] forkVariance = ComputationUtils.computeForkVariance(forkSamples);
+        if (forkVariance != null) {
+            report.setBetweenForkVariance(forkVariance[0]);
+            report.setWithinForkVariance(forkVariance[1]);
+        }
+        if (keepSamples) {
+            report.setForkSamples(forkSamples);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.model.HistoryRecord;
+import com.gocypher.cybench.launcher.model.HistorySeries;
+import com.gocypher.cybench.launcher.model.TrendReport;
+import com.gocypher.cybench.launcher.model.TrendReport.BenchmarkTrend;
+import com.gocypher.cybench.launcher.model.TrendReport.ChangePoint;
+
+public class ChangePointDetectorTest {
+    private final ChangePointDetector detector = new ChangePointDetector(0.01,
+            ChangePointDetector.DEFAULT_PERMUTATIONS, 5, 5);
+
+    @Test
+    public void testSingleStep() {
+        SortedMap<Integer, Double> changes = detector.findChangePoints(steps(20, 100, 80));
+
+        assertEquals(Collections.singleton(20), changes.keySet());
+        assertTrue(changes.get(20) < 0.01);
+    }
+
+    @Test
+    public void testTwoSteps() {
+        SortedMap<Integer, Double> changes = detector.findChangePoints(steps(15, 100, 80, 120));
+
+        assertEquals(new TreeSet<>(Arrays.asList(15, 30)), changes.keySet());
+    }
+
+    @Test
+    public void testOutlierIsNoChange() {
+        double[] values = steps(30, 100);
+        values[12] = 150;
+
+        assertTrue(detector.findChangePoints(values).isEmpty());
+    }
+
+    @Test
+    public void testTrendOfShiftedSeries() {
+        double[] scores = steps(10, 100, 120);
+        List<HistoryRecord> records = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            records.add(new HistoryRecord(1000L * (i + 1), scores[i], 1, scores[i] - 1, scores[i] + 1, 5));
+        }
+        NavigableMap<Long, String[]> fingerprints = new TreeMap<>();
+        fingerprints.put(1000L, new String[] { "g1", "c1" });
+        fingerprints.put(11000L, new String[] { "g2", "c1" });
+        HistorySeries series = new HistorySeries("com.example.A.a", "avgt", Collections.emptyMap(), "hw", "17",
+                "ms/op");
+
+        TrendReport report = detector.createReport();
+        BenchmarkTrend trend = detector.analyze(report, series, records, fingerprints);
+
+        assertEquals(TrendReport.STABILITY_SHIFTED, trend.getStability());
+        assertEquals(1, report.getChangePointsCount());
+        assertEquals(1, trend.getChangePoints().size());
+        ChangePoint changePoint = trend.getChangePoints().get(0);
+        assertEquals(10, changePoint.getRunIndex());
+        assertEquals(11000L, changePoint.getTimestamp());
+        assertEquals(10000L, changePoint.getPreviousTimestamp());
+        assertEquals(20, changePoint.getChangePercent(), 1);
+        // higher average time is worse
+        assertEquals(TrendReport.DIRECTION_REGRESSION, changePoint.getDirection());
+        assertEquals("g2", changePoint.getGeneratedFingerprint());
+        assertTrue(changePoint.isCodeChanged());
+        assertEquals(120, trend.getLatestMean(), 1);
+    }
+
+    @Test
+    public void testTrendOfShortSeries() {
+        List<HistoryRecord> records = Collections.singletonList(new HistoryRecord(1000L, 100, 1, 99, 101, 5));
+        HistorySeries series = new HistorySeries("com.example.A.a", "thrpt", Collections.emptyMap(), "hw", "17",
+                "ops/s");
+
+        BenchmarkTrend trend = detector.analyze(detector.createReport(), series, records, new TreeMap<>());
+
+        assertEquals(TrendReport.STABILITY_INSUFFICIENT_DATA, trend.getStability());
+        assertTrue(trend.getChangePoints().isEmpty());
+    }
+
+    /**
+     * @return {@code length} values of every level, with deterministic noise of ±1
+     */
+    private static double[] steps(int length, double... levels) {
+        double[] values = new double[length * levels.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = levels[i / length] + ((i * 7) % 5 - 2) * 0.5;
+        }
+        return values;
+    }
+}
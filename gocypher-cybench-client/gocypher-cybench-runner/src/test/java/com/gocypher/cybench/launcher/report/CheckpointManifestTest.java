@@ -0,0 +1,67 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+
+public class CheckpointManifestTest {
+
+    @Test
+    public void testReload() throws IOException {
+        Path folder = Files.createTempDirectory("manifest");
+        try {
+            String manifestFile = folder.resolve("checkpoint/manifest.txt").toString();
+            CheckpointManifest manifest = new CheckpointManifest(manifestFile);
+            assertEquals(0, manifest.load());
+            manifest.markFinished("com.example.A.a|thrpt|{}|1");
+            manifest.markFinished("com.example.A.b|thrpt|{}|1");
+            manifest.markFinished("com.example.A.a|thrpt|{}|1");
+
+            CheckpointManifest reloaded = new CheckpointManifest(manifestFile);
+
+            assertEquals(2, reloaded.load());
+            assertTrue(reloaded.isFinished("com.example.A.a|thrpt|{}|1"));
+            assertTrue(reloaded.isFinished("com.example.A.b|thrpt|{}|1"));
+            assertFalse(reloaded.isFinished("com.example.A.c|thrpt|{}|1"));
+            assertEquals(2, Files.readAllLines(folder.resolve("checkpoint/manifest.txt")).size());
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testLoadPartialManifest() throws IOException {
+        Path folder = Files.createTempDirectory("manifest");
+        try {
+            Path manifestFile = folder.resolve("manifest.txt");
+            // run crashed while writing key of third benchmark, which is a prefix of other key
+            Files.write(manifestFile, Arrays.asList("com.example.A.a|thrpt|{}|1", "", "com.example.A.b|thrpt|{}|1"),
+                    StandardCharsets.UTF_8);
+            Files.write(manifestFile, "com.example.A.c|thrpt|{}|1".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+            CheckpointManifest manifest = new CheckpointManifest(manifestFile.toString());
+
+            assertEquals(2, manifest.load());
+            assertTrue(manifest.isFinished("com.example.A.b|thrpt|{}|1"));
+            assertFalse(manifest.isFinished("com.example.A.c|thrpt|{}|1"));
+
+            manifest.markFinished("com.example.A.c|thrpt|{}|12");
+            CheckpointManifest reloaded = new CheckpointManifest(manifestFile.toString());
+
+            assertEquals(3, reloaded.load());
+            assertTrue(reloaded.isFinished("com.example.A.c|thrpt|{}|12"));
+            assertFalse(reloaded.isFinished("com.example.A.c|thrpt|{}|1"));
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+}
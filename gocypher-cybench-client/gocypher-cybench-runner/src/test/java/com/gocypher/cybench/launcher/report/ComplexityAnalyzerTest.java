@@ -0,0 +1,112 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.core.utils.JSONUtils;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.ComplexityReport;
+
+public class ComplexityAnalyzerTest {
+    private static final int[] SIZES = { 10, 100, 1000, 10000 };
+
+    @Test
+    public void testLinearAverageTime() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        for (int size : SIZES) {
+            reports.add(createReport("avgt", "us/op", size, 5 + 2.0 * size, null));
+        }
+        List<ComplexityReport> complexityReports = ComplexityAnalyzer.analyze(reports, Collections.emptyList());
+
+        assertEquals(1, complexityReports.size());
+        ComplexityReport complexityReport = complexityReports.get(0);
+        assertEquals("O(n)", complexityReport.getComplexity());
+        assertEquals("Size", complexityReport.getSizeParam());
+        assertEquals(5, complexityReport.getConstant(), 1e-6);
+        assertEquals(2, complexityReport.getCoefficient(), 1e-9);
+        assertEquals(1, complexityReport.getFitRSquared(), 1e-9);
+        assertEquals("us/op", complexityReport.getCostUnits());
+        assertTrue(complexityReport.getCliffs().isEmpty());
+    }
+
+    @Test
+    public void testLinearithmicThroughput() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        for (int size : SIZES) {
+            reports.add(createReport("thrpt", "ops/s", size, 1 / (1 + 0.5 * size * Math.log(size)), null));
+        }
+        ComplexityReport complexityReport = ComplexityAnalyzer.analyze(reports, Collections.singleton("size"))
+                .get(0);
+
+        assertEquals("O(n log n)", complexityReport.getComplexity());
+        assertEquals(1, complexityReport.getConstant(), 1e-6);
+        assertEquals(0.5, complexityReport.getCoefficient(), 1e-9);
+        assertEquals("s/op", complexityReport.getCostUnits());
+    }
+
+    @Test
+    public void testJvmConfigurationsFittedSeparately() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        for (int size : SIZES) {
+            reports.add(createReport("avgt", "us/op", size, 3.0 * size, "gc=-XX:+UseG1GC"));
+            reports.add(createReport("avgt", "us/op", size, 3.0 * size * size, "gc=-XX:+UseParallelGC"));
+        }
+        List<ComplexityReport> complexityReports = ComplexityAnalyzer.analyze(reports, Collections.emptyList());
+
+        assertEquals(2, complexityReports.size());
+        assertEquals("gc=-XX:+UseG1GC", complexityReports.get(0).getJvmConfiguration());
+        assertEquals("O(n)", complexityReports.get(0).getComplexity());
+        assertEquals("gc=-XX:+UseParallelGC", complexityReports.get(1).getJvmConfiguration());
+        assertEquals("O(n^2)", complexityReports.get(1).getComplexity());
+        assertEquals(SIZES.length, complexityReports.get(1).getPoints().size());
+    }
+
+    @Test
+    public void testFitOnRawScores() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        for (int size : SIZES) {
+            BenchmarkReport report = createReport("sample", "us/op", size, 2.0 * size, null);
+            // p99 score is reported instead of mean, and it is flat over sizes
+            report.setScore(1000.0);
+            report.setScorePercentile(99.0);
+            reports.add(JSONUtils.parseJsonIntoObject(JSONUtils.marshalToJson(report), BenchmarkReport.class));
+        }
+        ComplexityReport complexityReport = ComplexityAnalyzer.analyze(reports, Collections.emptyList()).get(0);
+
+        assertEquals("O(n)", complexityReport.getComplexity());
+        assertEquals(2, complexityReport.getCoefficient(), 1e-9);
+        assertEquals("us/op", complexityReport.getCostUnits());
+    }
+
+    @Test
+    public void testReportsWithoutRawScores() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        for (int size : SIZES) {
+            BenchmarkReport report = createReport("avgt", "us/op", size, 2.0 * size, null);
+            report.setRawScore(null);
+            reports.add(report);
+        }
+
+        assertTrue(ComplexityAnalyzer.analyze(reports, Collections.emptyList()).isEmpty());
+    }
+
+    private static BenchmarkReport createReport(String mode, String units, int size, double score,
+            String jvmConfiguration) {
+        BenchmarkReport report = new BenchmarkReport();
+        report.setName("com.example.ListBenchmarks.sort");
+        report.setMode(mode);
+        report.setUnits(units);
+        report.setScore(score);
+        report.setRawUnits(units);
+        report.setRawScore(score);
+        report.setJvmConfiguration(jvmConfiguration);
+        report.addMetadata("paramSize", String.valueOf(size));
+        report.addMetadata("paramType", "array");
+        return report;
+    }
+}
@@ -0,0 +1,70 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.ScalarResult;
+
+import com.gocypher.cybench.launcher.JmhFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.ContentionReport;
+import com.gocypher.cybench.launcher.profilers.ContentionProfiler;
+
+public class ContentionMetricsMapperTest {
+
+    @Test
+    public void testMap() {
+        BenchmarkReport report = new BenchmarkReport();
+        ContentionMetricsMapper.map(JmhFixtures.runResult(result(ContentionProfiler.PREFIX + ".samples", 200),
+                result(ContentionProfiler.PREFIX + ContentionProfiler.BLOCKED_COUNT, 30),
+                result(ContentionProfiler.PREFIX + ContentionProfiler.BLOCKED_TIME, 12.5),
+                result(ContentionProfiler.PREFIX + ContentionProfiler.WAITED_COUNT, 4),
+                result(ContentionProfiler.THREAD + "jmh.worker.1" + ContentionProfiler.BLOCKED_COUNT, 20),
+                result(ContentionProfiler.THREAD + "jmh.worker.1" + ContentionProfiler.BLOCKED_TIME, 8),
+                result(ContentionProfiler.LOCK + "java.lang.Object@1", 10),
+                result(ContentionProfiler.LOCK + "java.util.HashMap@2", 60),
+                result(ContentionProfiler.OWNER + "jmh.worker.2", 70)), report);
+
+        ContentionReport contention = report.getContention();
+        assertEquals(200, contention.getSamples());
+        assertEquals(30, contention.getBlockedCount());
+        assertEquals(12.5, contention.getBlockedTime());
+        assertEquals(4, contention.getWaitedCount());
+        assertNull(contention.getWaitedTime());
+        // thread names may contain dots
+        assertEquals(Collections.singleton("jmh.worker.1"), contention.getThreads().keySet());
+        assertEquals(20, contention.getThreads().get("jmh.worker.1").get("blockedCount"));
+        assertEquals(8, contention.getThreads().get("jmh.worker.1").get("blockedTime"));
+        // ordered by share, descending
+        assertEquals(Arrays.asList("java.util.HashMap@2", "java.lang.Object@1"),
+                Arrays.asList(contention.getLocks().keySet().toArray()));
+        assertEquals(70, contention.getOwners().get("jmh.worker.2"));
+        assertEquals(30, report.getThreadsSyncContendedLockAttemptsCount());
+    }
+
+    @Test
+    public void testMapKeepsContendedLockAttempts() {
+        BenchmarkReport report = new BenchmarkReport();
+        report.setThreadsSyncContendedLockAttemptsCount(7.0);
+        ContentionMetricsMapper.map(JmhFixtures.runResult(result(ContentionProfiler.PREFIX + ".samples", 200),
+                result(ContentionProfiler.PREFIX + ContentionProfiler.BLOCKED_COUNT, 30)), report);
+
+        assertEquals(7, report.getThreadsSyncContendedLockAttemptsCount());
+    }
+
+    @Test
+    public void testMapWithoutProfiler() {
+        BenchmarkReport report = new BenchmarkReport();
+        ContentionMetricsMapper.map(JmhFixtures.runResult(), report);
+
+        assertNull(report.getContention());
+    }
+
+    private static ScalarResult result(String label, double value) {
+        return new ScalarResult(label, value, "counts", AggregationPolicy.SUM);
+    }
+}
@@ -0,0 +1,81 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+public class FlameGraphTest {
+
+    @Test
+    public void testCollapsedRoundTrip() throws IOException {
+        Map<String, Long> stacks = new TreeMap<>();
+        stacks.put("Thread.run;A.a;B.b", 3L);
+        stacks.put("Thread.run;A.a", 2L);
+        Path file = Files.createTempFile("stacks", FlameGraph.COLLAPSED_EXTENSION);
+        try {
+            FlameGraph.writeCollapsed(stacks, file);
+
+            assertEquals(Arrays.asList("Thread.run;A.a 2", "Thread.run;A.a;B.b 3"),
+                    Files.readAllLines(file, StandardCharsets.UTF_8));
+            assertEquals(stacks, FlameGraph.readCollapsed(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadCollapsedFoldsSameStacks() throws IOException {
+        Path file = Files.createTempFile("stacks", FlameGraph.COLLAPSED_EXTENSION);
+        try {
+            // e.g. files of several forks concatenated, frames may contain spaces
+            Files.write(file, Arrays.asList("Thread.run;A.a 2", "Thread.run;A.<lambda 1> 1", "", "Thread.run;A.a 5"),
+                    StandardCharsets.UTF_8);
+
+            Map<String, Long> stacks = FlameGraph.readCollapsed(file);
+
+            assertEquals(2, stacks.size());
+            assertEquals(7, stacks.get("Thread.run;A.a"));
+            assertEquals(1, stacks.get("Thread.run;A.<lambda 1>"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSvgMergesCommonFrames() throws IOException {
+        Map<String, Long> stacks = new TreeMap<>();
+        stacks.put("Thread.run;A.a;B.b", 3L);
+        stacks.put("Thread.run;A.a;C.<init>", 1L);
+        Path file = Files.createTempFile("stacks", FlameGraph.SVG_EXTENSION);
+        try {
+            FlameGraph.writeSvg(stacks, "com.example.A.a", file);
+
+            String svg = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            assertTrue(svg.startsWith("<?xml"));
+            assertTrue(svg.trim().endsWith("</svg>"));
+            // common frames are drawn once with samples of all their stacks
+            assertEquals(1, count(svg, "<title>A.a (4 samples, 100.00%)</title>"));
+            assertEquals(1, count(svg, "<title>B.b (3 samples, 75.00%)</title>"));
+            assertEquals(1, count(svg, "<title>C.&lt;init&gt; (1 samples, 25.00%)</title>"));
+            assertEquals(5, count(svg, "<g>"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + part.length())) {
+            count++;
+        }
+        return count;
+    }
+}
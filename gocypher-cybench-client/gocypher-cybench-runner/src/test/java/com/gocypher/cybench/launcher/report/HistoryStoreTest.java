@@ -0,0 +1,86 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.model.HistoryRecord;
+import com.gocypher.cybench.launcher.model.HistorySeries;
+
+public class HistoryStoreTest {
+
+    @Test
+    public void testReopen() throws IOException {
+        Path folder = Files.createTempDirectory("history");
+        try {
+            try (HistoryStore store = new HistoryStore(folder.toString())) {
+                store.append(createSeries("com.example.A.a"), createRecord(1, 10));
+                store.append(createSeries("com.example.B.b"), createRecord(2, 20));
+                store.append(createSeries("com.example.A.a"), createRecord(3, 30));
+            }
+            try (HistoryStore store = new HistoryStore(folder.toString())) {
+                assertEquals(3, store.getRecordsCount());
+                assertEquals(2, store.getSeries().size());
+                assertScores(store, "com.example.A.a", 10, 30);
+                assertScores(store, "com.example.B.b", 20);
+            }
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testReopenAfterTruncatedSegment() throws IOException {
+        Path folder = Files.createTempDirectory("history");
+        try {
+            try (HistoryStore store = new HistoryStore(folder.toString())) {
+                store.append(createSeries("com.example.A.a"), createRecord(1, 10));
+                store.append(createSeries("com.example.B.b"), createRecord(2, 20));
+                store.append(createSeries("com.example.A.a"), createRecord(3, 30));
+            }
+            // last record written partially, while index already counts it
+            try (FileChannel segment = FileChannel.open(folder.resolve("history.seg"), StandardOpenOption.WRITE)) {
+                segment.truncate(segment.size() - 10);
+            }
+            try (HistoryStore store = new HistoryStore(folder.toString())) {
+                assertEquals(2, store.getRecordsCount());
+                assertScores(store, "com.example.A.a", 10);
+                assertScores(store, "com.example.B.b", 20);
+
+                store.append(createSeries("com.example.A.a"), createRecord(4, 40));
+            }
+            try (HistoryStore store = new HistoryStore(folder.toString())) {
+                assertEquals(3, store.getRecordsCount());
+                assertScores(store, "com.example.A.a", 10, 40);
+                assertScores(store, "com.example.B.b", 20);
+            }
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    private static void assertScores(HistoryStore store, String name, double... scores) {
+        List<HistorySeries> series = store.findSeries(name, null, null);
+        assertEquals(1, series.size());
+        List<HistoryRecord> records = store.getRecords(series.get(0), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertArrayEquals(scores, records.stream().mapToDouble(HistoryRecord::getScore).toArray());
+    }
+
+    private static HistorySeries createSeries(String name) {
+        return new HistorySeries(name, "thrpt", Collections.emptyMap(), "hw", "OpenJDK 64-Bit Server VM 17",
+                "ops/s");
+    }
+
+    private static HistoryRecord createRecord(long timestamp, double score) {
+        return new HistoryRecord(timestamp, score, 1, score - 1, score + 1, 5);
+    }
+}
@@ -0,0 +1,50 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.results.TextResult;
+
+import com.gocypher.cybench.launcher.JmhFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.JfrReport;
+import com.gocypher.cybench.launcher.profilers.JfrProfiler;
+
+public class JfrMetricsMapperTest {
+
+    @Test
+    public void testMap() {
+        BenchmarkReport report = new BenchmarkReport();
+        String summary = "Hot methods:\n" + JfrProfiler.RECORDING_LINE + "/tmp/jfr/a-1.jfr\n"
+                + JfrProfiler.RECORDING_LINE + "/tmp/jfr/a-2.jfr\n";
+        JfrMetricsMapper.map(JmhFixtures.runResult(new TextResult(summary, JfrProfiler.PREFIX.substring(1)),
+                new ScalarResult(JfrProfiler.PREFIX + ".samples", 500, "counts", AggregationPolicy.SUM),
+                share(JfrProfiler.HOT + "a.B.c", 20), share(JfrProfiler.HOT + "a.B.d", 70),
+                share(JfrProfiler.ALLOC + "a.B.e", 100), share(JfrProfiler.STATE + "RUNNABLE", 90),
+                share(JfrProfiler.STATE + "BLOCKED", 10)), report);
+
+        JfrReport jfr = report.getJfr();
+        assertEquals(500, jfr.getSamples());
+        // hot methods and allocation sites are ordered by share, thread states are not
+        assertEquals(Arrays.asList("a.B.d", "a.B.c"), Arrays.asList(jfr.getHotMethods().keySet().toArray()));
+        assertEquals(100, jfr.getAllocationSites().get("a.B.e"));
+        assertEquals(2, jfr.getThreadStates().size());
+        assertEquals(Arrays.asList("/tmp/jfr/a-1.jfr", "/tmp/jfr/a-2.jfr"), jfr.getRecordings());
+    }
+
+    @Test
+    public void testMapWithoutProfiler() {
+        BenchmarkReport report = new BenchmarkReport();
+        JfrMetricsMapper.map(JmhFixtures.runResult(share(JfrProfiler.HOT + "a.B.c", 20)), report);
+
+        assertNull(report.getJfr());
+    }
+
+    private static ScalarResult share(String label, double share) {
+        return new ScalarResult(label, share, "%", AggregationPolicy.AVG);
+    }
+}
@@ -0,0 +1,61 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.ScalarResult;
+
+import com.gocypher.cybench.launcher.JmhFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.JitReport;
+import com.gocypher.cybench.launcher.profilers.JitProfiler;
+
+public class JitMetricsMapperTest {
+
+    @Test
+    public void testMap() {
+        BenchmarkReport report = new BenchmarkReport();
+        JitMetricsMapper.map(JmhFixtures.runResult(count(JitProfiler.COMPILATIONS, 12),
+                count(JitProfiler.COMPILATIONS + ".c2", 5), count(JitProfiler.COMPILING_ITERATIONS, 2),
+                count(JitProfiler.PREFIX + ".deoptimizations", 3), count(JitProfiler.DEOPT + "a.B.small", 1),
+                count(JitProfiler.DEOPT + "a.B.large", 2), count(JitProfiler.INLINING + "a.B.c too big", 4)),
+                report);
+
+        JitReport jit = report.getJit();
+        assertEquals(12, jit.getCompilations());
+        assertEquals(5, jit.getC2Compilations());
+        assertNull(jit.getOsrCompilations());
+        assertEquals(3, jit.getDeoptimizations());
+        assertTrue(jit.getCompilationOverlap());
+        // ordered by count, descending
+        assertEquals(Arrays.asList("a.B.large", "a.B.small"), Arrays.asList(jit.getDeoptimizedMethods().keySet()
+                .toArray()));
+        assertEquals(4, jit.getInliningFailures().get("a.B.c too big"));
+        assertTrue(jit.getInterpretedMethods().isEmpty());
+    }
+
+    @Test
+    public void testMapWithoutCompilingIterations() {
+        BenchmarkReport report = new BenchmarkReport();
+        JitMetricsMapper.map(JmhFixtures.runResult(count(JitProfiler.COMPILATIONS, 12),
+                count(JitProfiler.COMPILING_ITERATIONS, 0)), report);
+
+        assertFalse(report.getJit().getCompilationOverlap());
+    }
+
+    @Test
+    public void testMapWithoutProfiler() {
+        BenchmarkReport report = new BenchmarkReport();
+        JitMetricsMapper.map(JmhFixtures.runResult(), report);
+        JitMetricsMapper.map(null, report);
+
+        assertNull(report.getJit());
+    }
+
+    private static ScalarResult count(String label, double count) {
+        return new ScalarResult(label, count, "counts", AggregationPolicy.SUM);
+    }
+}
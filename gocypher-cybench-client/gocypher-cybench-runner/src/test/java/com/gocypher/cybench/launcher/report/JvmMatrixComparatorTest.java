@@ -0,0 +1,79 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.ReportFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.JvmConfiguration;
+import com.gocypher.cybench.launcher.model.JvmMatrixReport;
+
+public class JvmMatrixComparatorTest {
+    private static final List<JvmConfiguration> CONFIGURATIONS = Arrays.asList(configuration("g1"),
+            configuration("parallel"));
+
+    @Test
+    public void testRelativeScores() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        reports.add(report("com.example.A.put", "thrpt", "g1", 100));
+        reports.add(report("com.example.A.put", "thrpt", "parallel", 200));
+        reports.add(report("com.example.A.get", "avgt", "g1", 10));
+        reports.add(report("com.example.A.get", "avgt", "parallel", 20));
+
+        JvmMatrixReport matrix = JvmMatrixComparator.compare(CONFIGURATIONS, reports);
+
+        assertEquals(2.0, matrix.getRelativeScores().get("com.example.A.put|thrpt|").get("parallel"));
+        // twice longer time is half of baseline throughput
+        assertEquals(0.5, matrix.getRelativeScores().get("com.example.A.get|avgt|").get("parallel"));
+        assertEquals("parallel", matrix.getBestConfigurations().get("com.example.A.put|thrpt|"));
+        assertEquals("g1", matrix.getBestConfigurations().get("com.example.A.get|avgt|"));
+        // geometric mean of 2 and 0.5
+        assertEquals(1.0, matrix.getOverallRelativeScores().get("parallel"), 1e-9);
+        assertEquals(1.0, matrix.getOverallRelativeScores().get("g1"), 1e-9);
+    }
+
+    @Test
+    public void testBestConfiguration() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        reports.add(report("com.example.A.put", "thrpt", "g1", 100));
+        reports.add(report("com.example.A.put", "thrpt", "parallel", 150));
+        reports.add(report("com.example.A.get", "thrpt", "g1", 100));
+        reports.add(report("com.example.A.get", "thrpt", "parallel", 600));
+
+        JvmMatrixReport matrix = JvmMatrixComparator.compare(CONFIGURATIONS, reports);
+
+        assertEquals(3.0, matrix.getOverallRelativeScores().get("parallel"), 1e-9);
+        assertEquals("parallel", matrix.getBestConfiguration());
+    }
+
+    @Test
+    public void testBenchmarksWithoutBaselineScore() {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        reports.add(report("com.example.A.put", "thrpt", "parallel", 150));
+        reports.add(report("com.example.A.get", "thrpt", "g1", 0));
+        reports.add(ReportFixtures.benchmarkReport("com.example.A.plain", 100));
+
+        JvmMatrixReport matrix = JvmMatrixComparator.compare(CONFIGURATIONS, reports);
+
+        assertEquals(Collections.singleton("com.example.A.put|thrpt|"), matrix.getScores().keySet());
+        assertTrue(matrix.getRelativeScores().isEmpty());
+        assertNull(matrix.getBestConfiguration());
+    }
+
+    private static BenchmarkReport report(String name, String mode, String jvmConfiguration, double score) {
+        BenchmarkReport report = ReportFixtures.benchmarkReport(name, score);
+        report.setMode(mode);
+        report.setJvmConfiguration(jvmConfiguration);
+        return report;
+    }
+
+    private static JvmConfiguration configuration(String name) {
+        return new JvmConfiguration(name, null, Collections.emptyList());
+    }
+}
@@ -0,0 +1,118 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.ReportFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+
+public class ReportJournalTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path folder = Files.createTempDirectory("journal");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("reports/journal.jsonl").toString());
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.a", 10));
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.b", 20));
+
+            List<BenchmarkReport> reports = new ReportJournal(journal.getJournalFile().toString()).read();
+
+            assertEquals(2, reports.size());
+            assertEquals("com.example.A.a", reports.get(0).getName());
+            assertEquals(10, reports.get(0).getScore());
+            assertEquals("thrpt", reports.get(0).getMode());
+            assertEquals("com.example.A.b", reports.get(1).getName());
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testReadSkipsIncompleteLastLine() throws IOException {
+        Path folder = Files.createTempDirectory("journal");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("journal.jsonl").toString());
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.a", 10));
+            // run crashed while writing report
+            Files.write(journal.getJournalFile(), "{\"name\":\"com.exa".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+            List<BenchmarkReport> reports = journal.read();
+
+            assertEquals(1, reports.size());
+            assertEquals("com.example.A.a", reports.get(0).getName());
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testAppendAfterIncompleteLine() throws IOException {
+        Path folder = Files.createTempDirectory("journal");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("journal.jsonl").toString());
+            Files.write(journal.getJournalFile(), "{\"name\":\"com.exa".getBytes(StandardCharsets.UTF_8));
+
+            // resumed run appends to journal of crashed run
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.a", 10));
+            List<BenchmarkReport> reports = journal.read();
+
+            assertEquals(1, reports.size());
+            assertEquals("com.example.A.a", reports.get(0).getName());
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testReadLatest() throws IOException {
+        Path folder = Files.createTempDirectory("journal");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("journal.jsonl").toString());
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.a", 10));
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.b", 20));
+            BenchmarkReport otherJvm = ReportFixtures.benchmarkReport("com.example.A.b", 30);
+            otherJvm.setJvmConfiguration("jdk17");
+            journal.append(otherJvm);
+            // benchmark rerun after crash before its checkpoint was stored
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.a", 11));
+
+            List<BenchmarkReport> reports = new ArrayList<>(journal.readLatest());
+
+            assertEquals(3, reports.size());
+            assertEquals(20, reports.get(0).getScore());
+            assertEquals(30, reports.get(1).getScore());
+            assertEquals(11, reports.get(2).getScore());
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        Path folder = Files.createTempDirectory("journal");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("journal.jsonl").toString());
+            assertTrue(journal.read().isEmpty());
+            journal.append(ReportFixtures.benchmarkReport("com.example.A.a", 10));
+
+            journal.clear();
+
+            assertFalse(Files.exists(journal.getJournalFile()));
+            assertTrue(journal.read().isEmpty());
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+
+import com.gocypher.cybench.launcher.JmhFixtures;
+
+public class ReportingServiceTest {
+
+    @Test
+    public void testForkSamplesOfForkResults() {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(2, 3);
+        RunResult result = new RunResult(params, Arrays.asList(JmhFixtures.forkResult(params, 1, 2, 3),
+                JmhFixtures.forkResult(params, 4, 5, 6)));
+
+        assertArrayEquals(new double[][] { { 1, 2, 3 }, { 4, 5, 6 } }, ReportingService.getForkSamples(result));
+    }
+
+    @Test
+    public void testForkSamplesOfAggregatedResult() {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(3, 2);
+        RunResult result = new RunResult(params,
+                Collections.singletonList(JmhFixtures.forkResult(params, 1, 2, 3, 4, 5, 6)));
+
+        assertArrayEquals(new double[][] { { 1, 2 }, { 3, 4 }, { 5, 6 } }, ReportingService.getForkSamples(result));
+    }
+
+    @Test
+    public void testForkSamplesOfUnevenAggregatedResult() {
+        BenchmarkParams params = JmhFixtures.benchmarkParams(2, 3);
+        RunResult result = new RunResult(params,
+                Collections.singletonList(JmhFixtures.forkResult(params, 1, 2, 3, 4, 5)));
+
+        // iterations can't be told apart by fork, so they are kept as one sample
+        assertArrayEquals(new double[][] { { 1, 2, 3, 4, 5 } }, ReportingService.getForkSamples(result));
+    }
+}
@@ -0,0 +1,74 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.ReportFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.utils.Constants;
+
+public class ResultCacheTest {
+    private static final String BENCHMARK = "com.example.A.a";
+    private static final String WORK_ITEM = BENCHMARK + "|thrpt|";
+
+    @Test
+    public void testCachedReport() throws IOException {
+        Path folder = Files.createTempDirectory("cache");
+        try {
+            ResultCache cache = new ResultCache(folder.toString(), "jvm|");
+            String key = cache.createKey(WORK_ITEM, "generated", "class");
+            cache.put(key, ReportFixtures.benchmarkReport(BENCHMARK, 10));
+
+            BenchmarkReport cached = new ResultCache(folder.toString(), "jvm|").get(key);
+
+            assertEquals(10, cached.getScore());
+            assertTrue(ResultCache.isCached(cached));
+            assertNull(cache.createKey(WORK_ITEM, null, "class"));
+            assertNull(cache.get(cache.createKey(WORK_ITEM, "changed", "class")));
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testChangedSettingInvalidatesCache() throws IOException {
+        Path folder = Files.createTempDirectory("cache");
+        try {
+            Map<String, String> settings = new HashMap<>();
+            settings.put(Constants.NUMBER_OF_FORKS, "2");
+            ResultCache cache = new ResultCache(folder.toString(), ResultCache.getSettingsIdentity(settings::get));
+            String key = cache.createKey(WORK_ITEM, "generated", "class");
+            cache.put(key, ReportFixtures.benchmarkReport(BENCHMARK, 10));
+            assertNotNull(cache.get(key));
+
+            settings.put(Constants.SCORE_PERCENTILE, "99");
+            ResultCache changedCache = new ResultCache(folder.toString(),
+                    ResultCache.getSettingsIdentity(settings::get));
+
+            assertNull(changedCache.get(changedCache.createKey(WORK_ITEM, "generated", "class")));
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testSettingsIdentity() {
+        Map<String, String> settings = new HashMap<>();
+        String identity = ResultCache.getSettingsIdentity(settings::get);
+        for (String key : new String[] { Constants.SCORE_PERCENTILE, Constants.OPEN_LOOP_RATES,
+                Constants.JFR_PROFILER, Constants.JIT_TOP }) {
+            settings.put(key, "1");
+            String changedIdentity = ResultCache.getSettingsIdentity(settings::get);
+            assertNotEquals(identity, changedIdentity, key);
+            identity = changedIdentity;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gocypher.cybench.launcher.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.results.TextResult;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.JmhFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.StackProfileReport;
+import com.gocypher.cybench.launcher.profilers.StackSamplingProfiler;
+
+public class StackProfileMapperTest {
+
+    @Test
+    public void testMapMergesForks() throws IOException {
+        Path folder = Files.createTempDirectory("stacks");
+        try {
+            Path fork1 = writeStacks(folder.resolve("fork1.collapsed"), "Thread.run;A.a 2", "Thread.run;B.b 1");
+            Path fork2 = writeStacks(folder.resolve("fork2.collapsed"), "Thread.run;A.a 3");
+            String forkFiles = StackSamplingProfiler.COLLAPSED_STACKS_LINE + fork1 + "\n"
+                    + StackSamplingProfiler.COLLAPSED_STACKS_LINE + fork2 + "\n";
+            BenchmarkReport report = new BenchmarkReport();
+
+            StackProfileMapper.map(JmhFixtures.runResult(
+                    new TextResult(forkFiles, StackSamplingProfiler.PREFIX.substring(1)),
+                    new ScalarResult(StackSamplingProfiler.PREFIX + ".samples", 6, "counts", AggregationPolicy.SUM)),
+                    report);
+
+            StackProfileReport stackProfile = report.getStackProfile();
+            assertEquals(6, stackProfile.getSamples());
+            Map<String, Long> expected = new TreeMap<>();
+            expected.put("Thread.run;A.a", 5L);
+            expected.put("Thread.run;B.b", 1L);
+            assertEquals(expected, FlameGraph.readCollapsed(Paths.get(stackProfile.getCollapsedStacks())));
+            assertTrue(Files.isRegularFile(Paths.get(stackProfile.getFlameGraph())));
+            // fork files are replaced by merged one
+            assertFalse(Files.exists(fork1));
+            assertFalse(Files.exists(fork2));
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    @Test
+    public void testMapWithoutProfiler() {
+        BenchmarkReport report = new BenchmarkReport();
+        StackProfileMapper.map(JmhFixtures.runResult(), report);
+
+        assertNull(report.getStackProfile());
+    }
+
+    private static Path writeStacks(Path file, String... lines) throws IOException {
+        return Files.write(file, Arrays.asList(lines));
+    }
+}
@@ -0,0 +1,31 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.core.annotation.BenchmarkTag;
+
+public class AbComparisonForkTest {
+
+    @Test
+    public void testFindTag() {
+        assertEquals("sort-tag", AbComparisonFork.findTag(TaggedBenchmark.class.getName() + ".sort"));
+        assertNull(AbComparisonFork.findTag(TaggedBenchmark.class.getName() + ".search"));
+    }
+
+    @Test
+    public void testFindTagOfUnknownBenchmark() {
+        assertNull(AbComparisonFork.findTag("com.example.Missing.sort"));
+        assertNull(AbComparisonFork.findTag("sort"));
+    }
+
+    public static class TaggedBenchmark {
+        @BenchmarkTag(tag = "sort-tag")
+        public void sort() {
+        }
+
+        public void search() {
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+public class AbComparisonTest {
+
+    @Test
+    public void testToClasspath() {
+        assertEquals(String.join(File.pathSeparator, "old/lib.jar", "old/classes"),
+                AbComparison.toClasspath(" old/lib.jar, ,old/classes" + File.pathSeparator));
+        assertEquals("", AbComparison.toClasspath(null));
+    }
+
+    @Test
+    public void testLauncherEntriesOfSideArtifacts() {
+        String launcherClasspath = String.join(File.pathSeparator, "lib/cybench-runner-1.3.jar",
+                "lib/mylib-2.0.0-SNAPSHOT.jar", "target/classes", "lib/mylib-extras-2.0.0.jar");
+
+        assertEquals(Arrays.asList("lib/mylib-2.0.0-SNAPSHOT.jar", "target/classes"),
+                AbComparison.findLauncherEntries("old/mylib-1.9.1.jar,target/classes", launcherClasspath));
+        assertEquals(Collections.emptyList(),
+                AbComparison.findLauncherEntries("old/otherlib-1.0.jar,old/classes", launcherClasspath));
+    }
+}
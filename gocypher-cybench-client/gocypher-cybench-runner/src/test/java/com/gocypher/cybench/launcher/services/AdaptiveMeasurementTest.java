@@ -0,0 +1,132 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.ListStatistics;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.JmhFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.CheckpointManifest;
+import com.gocypher.cybench.launcher.report.ReportJournal;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+import com.gocypher.cybench.launcher.utils.ComputationUtils;
+
+public class AdaptiveMeasurementTest {
+    private static final BenchmarkWorkItem WORK_ITEM = new BenchmarkWorkItem(JmhFixtures.BENCHMARK, Mode.Throughput,
+            Collections.emptyMap());
+
+    @Test
+    public void testNoisyIterationsOfEqualForks() throws Exception {
+        // iterations vary by 50%, but every fork has the same mean
+        StubMeasurement measurement = new StubMeasurement(new double[][] { { 50, 150 }, { 60, 140 } });
+
+        BenchmarkReport report = measure(measurement);
+
+        assertEquals(Collections.singletonList(3), measurement.batches);
+        assertEquals(3, report.getBenchForkCount());
+        assertEquals(6, report.getBenchMeasurementIteration());
+        assertEquals(0, report.getScoreErrorRelative());
+    }
+
+    @Test
+    public void testForksAddedUntilTargetError() throws Exception {
+        // iterations are equal, but fork means vary, so only more forks narrow the interval
+        StubMeasurement measurement = new StubMeasurement(new double[][] { { 100, 100 }, { 110, 110 } });
+
+        BenchmarkReport report = measure(measurement);
+
+        // error of first 3 forks is 13.9%, so 3 * (13.9 / 5)^2 = 24 forks are needed
+        assertEquals(Arrays.asList(3, 21), measurement.batches);
+        assertEquals(24, report.getBenchForkCount());
+        assertEquals(48, report.getBenchMeasurementIteration());
+        assertTrue(report.getScoreErrorRelative() <= 5);
+    }
+
+    @Test
+    public void testFailedBatchKeepsMeasuredForks() throws Exception {
+        StubMeasurement measurement = new StubMeasurement(new double[][] { { 100, 100 }, { 110, 110 } });
+        measurement.failingBatch = 2;
+
+        BenchmarkReport report = measure(measurement);
+
+        assertEquals(2, measurement.batches.size());
+        assertEquals(3, report.getBenchForkCount());
+        assertEquals(6, report.getBenchMeasurementIteration());
+        ListStatistics forkMeans = new ListStatistics(new double[] { 100, 110, 100 });
+        assertEquals(ComputationUtils.computeRelativeError(forkMeans, 0.95), report.getScoreErrorRelative());
+    }
+
+    @Test
+    public void testFailedFirstBatch() {
+        StubMeasurement measurement = new StubMeasurement(new double[][] { { 100, 100 } });
+        measurement.failingBatch = 1;
+
+        assertThrows(RunnerException.class, () -> measure(measurement));
+    }
+
+    private static BenchmarkReport measure(AdaptiveMeasurement measurement) throws IOException, RunnerException {
+        Path folder = Files.createTempDirectory("adaptive");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("journal.jsonl").toString());
+            StreamingOutputFormat outputFormat = new StreamingOutputFormat(null, journal,
+                    new CheckpointManifest(folder.resolve("manifest.txt").toString()), Collections.emptyMap(),
+                    report -> {
+                    });
+            measurement.run(new OptionsBuilder().build(), WORK_ITEM, outputFormat, null);
+
+            List<BenchmarkReport> reports = journal.read();
+            assertEquals(1, reports.size());
+            return reports.get(0);
+        } finally {
+            FileFixtures.delete(folder);
+        }
+    }
+
+    /**
+     * Returns forks having given iteration scores in turn instead of running JMH.
+     */
+    private static class StubMeasurement extends AdaptiveMeasurement {
+        private final BenchmarkParams params = JmhFixtures.benchmarkParams(1, 2);
+        private final double[][] forkScores;
+        private final List<Integer> batches = new ArrayList<>();
+        private int failingBatch;
+        private int fork;
+
+        StubMeasurement(double[][] forkScores) {
+            super(5, 0.95, 2, 100);
+            this.forkScores = forkScores;
+        }
+
+        @Override
+        Collection<BenchmarkResult> runBatch(Options forkOptions, int forks, BenchmarkWorkItem workItem,
+                StreamingOutputFormat outputFormat, WarmUpController warmUpController) throws RunnerException {
+            batches.add(forks);
+            if (batches.size() == failingBatch) {
+                throw new RunnerException("Fork crashed");
+            }
+            List<BenchmarkResult> results = new ArrayList<>();
+            for (int i = 0; i < forks; i++) {
+                results.add(JmhFixtures.forkResult(params, forkScores[fork++ % forkScores.length]));
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.Result;
+
+import com.gocypher.cybench.launcher.model.AsyncReport;
+
+public class AsyncHarnessTest {
+    private static final String BENCHMARK = CompletingBenchmark.class.getName() + ".complete";
+
+    @Test
+    public void testSingleShotCountsAllCompletions() throws Exception {
+        CompletingBenchmark.CALLS.set(0);
+        try (AsyncHarness harness = new AsyncHarness(BENCHMARK, Collections.emptyMap(), 2, 4)) {
+            List<Result> results = harness.run(Mode.SingleShotTime, TimeUnit.MILLISECONDS, 1, 0, 2, 0, 500);
+            AsyncReport report = harness.getReport();
+
+            assertEquals(2, results.size());
+            // warm-up operations are not reported
+            assertEquals(3 * 2 * 500, CompletingBenchmark.CALLS.get());
+            assertEquals(2 * 2 * 500, report.getOperations());
+            assertEquals(2, report.getThreads());
+            assertEquals(4, report.getInFlight());
+            assertTrue(report.getMeanLatency() > 0);
+            assertNotNull(report.getLatencyHistogram());
+        }
+    }
+
+    @Test
+    public void testThroughputCountsCompletionsOfEveryThread() throws Exception {
+        CompletingBenchmark.CALLS.set(0);
+        try (AsyncHarness harness = new AsyncHarness(BENCHMARK, Collections.emptyMap(), 3, 8)) {
+            List<Result> results = harness.run(Mode.Throughput, TimeUnit.SECONDS, 0, 0, 1,
+                    TimeUnit.MILLISECONDS.toNanos(100), 0);
+            AsyncReport report = harness.getReport();
+
+            // iteration drains in flight operations, so every submitted operation completes and is counted
+            assertEquals(CompletingBenchmark.CALLS.get(), report.getOperations());
+            assertEquals(report.getThroughput(), results.get(0).getScore(), report.getThroughput() * 1e-9);
+        }
+    }
+
+    public static class CompletingBenchmark {
+        static final AtomicLong CALLS = new AtomicLong();
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "completing-benchmark");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        @Benchmark
+        public CompletableFuture<Long> complete() {
+            long call = CALLS.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> call, EXECUTOR);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+
+public class AsyncMeasurementTest {
+
+    @Test
+    public void testWrappedRunnerRunsSynchronousBenchmarks() throws Exception {
+        BenchmarkWorkItem workItem = new BenchmarkWorkItem(Synchronous.class.getName() + ".call", Mode.Throughput,
+                Collections.emptyMap());
+        List<BenchmarkWorkItem> runItems = new ArrayList<>();
+
+        new AsyncMeasurement(0).wrap((options, item, format) -> runItems.add(item))
+                .run(new OptionsBuilder().build(), workItem, null);
+
+        assertNull(AsyncMeasurement.getAsyncBenchmark(workItem));
+        assertEquals(Collections.singletonList(workItem), runItems);
+    }
+
+    public static class Synchronous {
+        @Benchmark
+        public int call() {
+            return 1;
+        }
+    }
+}
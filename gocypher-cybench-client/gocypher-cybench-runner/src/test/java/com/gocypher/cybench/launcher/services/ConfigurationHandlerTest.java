@@ -0,0 +1,53 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.utils.Constants;
+
+public class ConfigurationHandlerTest {
+
+    @Test
+    public void testParallelExecutionConflicts() {
+        List<String> conflicts = ConfigurationHandler.findRunModeConflicts(enabled(Constants.PARALLEL_EXECUTION,
+                Constants.SCALABILITY_SWEEP, Constants.OPEN_LOOP)::getProperty);
+
+        assertEquals(Arrays.asList(
+                "parallelExecution and scalabilitySweep can't be enabled together, scalability sweep needs all CPUs",
+                "parallelExecution and openLoop can't be enabled together, "
+                        + "open loop measurement needs precise scheduling"),
+                conflicts);
+    }
+
+    @Test
+    public void testJvmMatrixConflicts() {
+        assertEquals(2, ConfigurationHandler.findRunModeConflicts(
+                enabled(Constants.JVM_MATRIX, Constants.ADAPTIVE_MEASUREMENT, Constants.RESUME_RUN)::getProperty)
+                .size());
+        assertEquals(1, ConfigurationHandler.findRunModeConflicts(
+                enabled(Constants.AB_COMPARISON, Constants.WARM_UP_DETECTION)::getProperty).size());
+    }
+
+    @Test
+    public void testCompatibleModes() {
+        Properties properties = enabled(Constants.ADAPTIVE_MEASUREMENT, Constants.WARM_UP_DETECTION,
+                Constants.PARALLEL_EXECUTION, Constants.RESUME_RUN, Constants.INCREMENTAL_RUN);
+        properties.setProperty(Constants.SCALABILITY_SWEEP, "false");
+
+        assertEquals(Collections.emptyList(), ConfigurationHandler.findRunModeConflicts(properties::getProperty));
+    }
+
+    private static Properties enabled(String... modes) {
+        Properties properties = new Properties();
+        for (String mode : modes) {
+            properties.setProperty(mode, "true");
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,99 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.model.JvmConfiguration;
+
+public class JvmMatrixTest {
+
+    @Test
+    public void testSplitJvmArgs() {
+        assertEquals(Arrays.asList("-Xmx1g", "-XX:+UseG1GC"), JvmMatrix.splitJvmArgs("  -Xmx1g\t-XX:+UseG1GC "));
+        assertEquals(Arrays.asList("-XX:OnOutOfMemoryError=kill -9 %p", "-Xmx1g"),
+                JvmMatrix.splitJvmArgs("-XX:OnOutOfMemoryError=\"kill -9 %p\" -Xmx1g"));
+        assertEquals(Arrays.asList("-Dreport.dir=/tmp/my reports", "-Dquote=\"", ""),
+                JvmMatrix.splitJvmArgs("'-Dreport.dir=/tmp/my reports' -Dquote='\"' \"\""));
+        assertTrue(JvmMatrix.splitJvmArgs(" ").isEmpty());
+    }
+
+    @Test
+    public void testConfigurationsOfEveryCombination() {
+        Map<String, List<String>> dimensions = new TreeMap<>();
+        dimensions.put("gc", Arrays.asList("-XX:+UseG1GC", "-XX:+UseParallelGC"));
+        dimensions.put("oops", Arrays.asList("", "-XX:-UseCompressedOops"));
+
+        List<JvmConfiguration> configurations = JvmMatrix.createConfigurations(Collections.emptyList(),
+                Collections.singletonList("-Xmx1g"), dimensions);
+
+        assertEquals(4, configurations.size());
+        assertEquals("gc=-XX:+UseG1GC, oops=default", configurations.get(0).getName());
+        assertEquals(Arrays.asList("-Xmx1g", "-XX:+UseG1GC"), configurations.get(0).getJvmArgs());
+        assertEquals("gc=-XX:+UseParallelGC, oops=-XX:-UseCompressedOops", configurations.get(3).getName());
+        assertEquals(Arrays.asList("-Xmx1g", "-XX:+UseParallelGC", "-XX:-UseCompressedOops"),
+                configurations.get(3).getJvmArgs());
+        assertNull(configurations.get(3).getJavaPath());
+    }
+
+    @Test
+    public void testConfigurationsOfJavaPaths() {
+        List<JvmConfiguration> configurations = JvmMatrix.createConfigurations(
+                Arrays.asList("/opt/jdk8/bin/java", "/opt/jdk17/bin/java"), Collections.emptyList(),
+                Collections.emptyMap());
+
+        assertEquals(2, configurations.size());
+        assertEquals("java=/opt/jdk8/bin/java", configurations.get(0).getName());
+        assertEquals(new File("/opt/jdk17/bin/java").getPath(), configurations.get(1).getJavaPath());
+        assertEquals("default", JvmMatrix.createConfigurations(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyMap()).get(0).getName());
+    }
+
+    @Test
+    public void testResolveJavaExecutable() throws IOException {
+        Path jdk = Files.createTempDirectory("jdk");
+        try {
+            assertEquals(jdk.resolve("bin").resolve("java").toAbsolutePath().toString(),
+                    JvmMatrix.resolveJavaExecutable(jdk.toString()));
+            assertNull(JvmMatrix.resolveJavaExecutable(" "));
+        } finally {
+            FileFixtures.delete(jdk);
+        }
+    }
+
+    @Test
+    public void testMatrixConfigurationKeepsLauncherProperties() {
+        Options launcherOptions = new OptionsBuilder()
+                .jvmArgs("-Xmx4g", "-XX:+UseSerialGC", "-Dcybench.mode=ci", "-javaagent:agent.jar").build();
+        JvmConfiguration configuration = new JvmConfiguration("gc=-XX:+UseG1GC", "/opt/jdk/bin/java",
+                Collections.singletonList("-XX:+UseG1GC"));
+
+        Options options = JvmMatrix.applyConfiguration(launcherOptions, configuration, true);
+
+        assertEquals(Arrays.asList("-Dcybench.mode=ci", "-javaagent:agent.jar", "-XX:+UseG1GC"),
+                new ArrayList<>(options.getJvmArgs().get()));
+        assertEquals("/opt/jdk/bin/java", options.getJvm().get());
+    }
+
+    @Test
+    public void testPlainConfigurationIsAppended() {
+        Options launcherOptions = new OptionsBuilder().jvmArgs("-Xmx4g").build();
+        JvmConfiguration configuration = new JvmConfiguration("default", null,
+                Collections.singletonList("-XX:+UseG1GC"));
+
+        Options options = JvmMatrix.applyConfiguration(launcherOptions, configuration, false);
+
+        assertEquals(Collections.singletonList("-Xmx4g"), new ArrayList<>(options.getJvmArgs().get()));
+        assertEquals(Collections.singletonList("-XX:+UseG1GC"), new ArrayList<>(options.getJvmArgsAppend().get()));
+        assertFalse(options.getJvm().hasValue());
+    }
+}
@@ -0,0 +1,64 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.OpenLoopReport.OpenLoopPoint;
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+public class OpenLoopHarnessTest {
+    private static final String BENCHMARK = SlowingBenchmark.class.getName() + ".call";
+
+    @Test
+    public void testSustainedRate() throws Exception {
+        SlowingBenchmark.CALLS.set(0);
+        SlowingBenchmark.fastCalls = Long.MAX_VALUE;
+        try (OpenLoopHarness harness = new OpenLoopHarness(BENCHMARK, Collections.emptyMap(), 1)) {
+            OpenLoopPoint point = harness.measure(1000, TimeUnit.MILLISECONDS.toNanos(50));
+
+            assertEquals(50, point.getInvocations());
+            assertEquals(0, point.getMissedInvocations());
+            assertEquals(50, ScoreHistogram.decode(point.getLatencyHistogram()).getTotalCount());
+        }
+    }
+
+    @Test
+    public void testMissedInvocationsAreRecorded() throws Exception {
+        SlowingBenchmark.CALLS.set(0);
+        SlowingBenchmark.fastCalls = 5;
+        long durationNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        try (OpenLoopHarness harness = new OpenLoopHarness(BENCHMARK, Collections.emptyMap(), 1)) {
+            OpenLoopPoint point = harness.measure(1000, durationNanos);
+
+            assertTrue(point.getMissedInvocations() > 0);
+            assertEquals(50, point.getInvocations() + point.getMissedInvocations());
+            assertEquals(50, ScoreHistogram.decode(point.getLatencyHistogram()).getTotalCount());
+            // missed invocations were scheduled within duration and waited at least until deadline at 2 * duration
+            double minMissedLatency = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+            assertTrue(point.getLatencyPercentiles().get(BenchmarkReport.percentileKey(99)) >= minMissedLatency
+                    * 0.99);
+            assertTrue(point.getAchievedRate() < 1000);
+        }
+    }
+
+    public static class SlowingBenchmark {
+        static final AtomicLong CALLS = new AtomicLong();
+        static volatile long fastCalls;
+
+        @Benchmark
+        public long call() throws InterruptedException {
+            long call = CALLS.incrementAndGet();
+            if (call > fastCalls) {
+                Thread.sleep(10);
+            }
+            return call;
+        }
+    }
+}
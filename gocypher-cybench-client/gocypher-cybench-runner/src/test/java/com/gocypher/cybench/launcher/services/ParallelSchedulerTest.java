@@ -0,0 +1,169 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import com.gocypher.cybench.launcher.FileFixtures;
+import com.gocypher.cybench.launcher.ReportFixtures;
+import com.gocypher.cybench.launcher.model.BenchmarkReport;
+import com.gocypher.cybench.launcher.model.BenchmarkWorkItem;
+import com.gocypher.cybench.launcher.report.CheckpointManifest;
+import com.gocypher.cybench.launcher.report.ReportJournal;
+import com.gocypher.cybench.launcher.report.StreamingOutputFormat;
+
+public class ParallelSchedulerTest {
+    private static final String IGNORE_LOCK = "jmh.ignoreLock";
+
+    @Test
+    public void testCpuSetsOfHyperThreadedCores() throws IOException {
+        Path cpuFolder = Files.createTempDirectory("cpu");
+        try {
+            for (int cpu = 0; cpu < 8; cpu++) {
+                writeSiblings(cpuFolder, cpu, (cpu % 4) + "," + (cpu % 4 + 4));
+            }
+
+            // first core is left for launcher, CPU 7 is not allowed
+            assertEquals(Arrays.asList("1,5", "2,6", "3"),
+                    ParallelScheduler.createCpuSets(ParallelScheduler.parseCpuList("0-6"), cpuFolder, 0));
+            assertEquals(Arrays.asList("1,5", "2,6"),
+                    ParallelScheduler.createCpuSets(ParallelScheduler.parseCpuList("0-7"), cpuFolder, 2));
+        } finally {
+            FileFixtures.delete(cpuFolder);
+        }
+    }
+
+    @Test
+    public void testCpuSetsWithoutTopology() throws IOException {
+        Path cpuFolder = Files.createTempDirectory("cpu");
+        try {
+            writeSiblings(cpuFolder, 0, "0-1");
+
+            // CPUs not exposing topology are their own cores
+            assertEquals(Arrays.asList("2", "3"),
+                    ParallelScheduler.createCpuSets(ParallelScheduler.parseCpuList("0-3"), cpuFolder, 0));
+        } finally {
+            FileFixtures.delete(cpuFolder);
+        }
+    }
+
+    @Test
+    public void testParseCpuList() {
+        assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3, 8, 10, 11)),
+                ParallelScheduler.parseCpuList("0-3,8,10-11\n"));
+        assertTrue(ParallelScheduler.parseCpuList(" ").isEmpty());
+    }
+
+    @Test
+    public void testWrapperScript() throws IOException {
+        Path script = ParallelScheduler.createWrapperScript("/opt/jdk/bin/java", "2,6", 8);
+        try {
+            assertTrue(Files.isExecutable(script));
+            assertTrue(new String(Files.readAllBytes(script), StandardCharsets.UTF_8)
+                    .contains("exec taskset -c 2,6 \"/opt/jdk/bin/java\" -XX:ActiveProcessorCount=8 \"$@\""));
+        } finally {
+            Files.delete(script);
+        }
+    }
+
+    @Test
+    public void testRunnerConsolePrintsWholeLines() {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        OutputFormat runnerConsole = ParallelScheduler.createRunnerConsole(
+                OutputFormatFactory.createFormatInstance(new PrintStream(console, true), VerboseMode.NORMAL), "[1] ",
+                VerboseMode.NORMAL);
+
+        runnerConsole.print("Iteration 1: ");
+        runnerConsole.println("10 ops/s");
+        runnerConsole.print("Iteration 2: ");
+        runnerConsole.close();
+
+        assertEquals(Arrays.asList("[1] Iteration 1: 10 ops/s", "[1] Iteration 2: "),
+                Arrays.asList(new String(console.toByteArray(), StandardCharsets.UTF_8).split("\\R")));
+    }
+
+    @Test
+    public void testParallelRun() throws Exception {
+        Path folder = Files.createTempDirectory("parallel");
+        String ignoreLock = System.setProperty(IGNORE_LOCK, "false");
+        try {
+            ReportJournal journal = new ReportJournal(folder.resolve("journal.jsonl").toString());
+            StreamingOutputFormat outputFormat = new StreamingOutputFormat(
+                    OutputFormatFactory.createFormatInstance(new PrintStream(new ByteArrayOutputStream()),
+                            VerboseMode.SILENT),
+                    journal, new CheckpointManifest(folder.resolve("manifest.txt").toString()),
+                    Collections.emptyMap(), report -> {
+                    });
+            BenchmarkWorkItem parallelItem = new BenchmarkWorkItem(SingleThreaded.class.getName() + ".call",
+                    Mode.Throughput, Collections.emptyMap());
+            BenchmarkWorkItem exclusiveItem = new BenchmarkWorkItem(SingleThreaded.class.getName() + ".call",
+                    Mode.AverageTime, Collections.emptyMap(), 2);
+            List<Path> scripts = new ArrayList<>();
+            // failures of parallel tasks are only logged, so task records what it has seen
+            Map<String, String> seen = new ConcurrentHashMap<>();
+
+            new ParallelScheduler(Arrays.asList("1", "2")).run(new OptionsBuilder().build(),
+                    Arrays.asList(parallelItem, exclusiveItem), outputFormat, (options, workItem, format) -> {
+                        if (options.getJvm().hasValue()) {
+                            Path script = Paths.get(options.getJvm().get());
+                            scripts.add(script);
+                            seen.put(workItem.getKey() + " script", String.valueOf(Files.exists(script)));
+                        }
+                        seen.put(workItem.getKey() + " ignoreLock", System.getProperty(IGNORE_LOCK));
+                        seen.put(workItem.getKey() + " sharedFormat", String.valueOf(format == outputFormat));
+                        format.storeReport(workItem.getKey(),
+                                ReportFixtures.benchmarkReport(workItem.getBenchmark(), 100));
+                    });
+
+            assertEquals("true", seen.get(parallelItem.getKey() + " script"));
+            assertEquals("true", seen.get(parallelItem.getKey() + " ignoreLock"));
+            assertEquals("false", seen.get(parallelItem.getKey() + " sharedFormat"));
+            assertEquals("false", seen.get(exclusiveItem.getKey() + " ignoreLock"));
+            assertEquals("true", seen.get(exclusiveItem.getKey() + " sharedFormat"));
+            assertEquals(1, scripts.size());
+            assertFalse(Files.exists(scripts.get(0)));
+            assertEquals("false", System.getProperty(IGNORE_LOCK));
+            assertEquals(2, outputFormat.getBenchmarksCount());
+            List<BenchmarkReport> reports = journal.read();
+            assertEquals(2, reports.size());
+            assertEquals("1", reports.get(0).getCpuSet());
+            assertNull(reports.get(1).getCpuSet());
+        } finally {
+            if (ignoreLock == null) {
+                System.clearProperty(IGNORE_LOCK);
+            } else {
+                System.setProperty(IGNORE_LOCK, ignoreLock);
+            }
+            FileFixtures.delete(folder);
+        }
+    }
+
+    private static void writeSiblings(Path cpuFolder, int cpu, String siblings) throws IOException {
+        Path topology = cpuFolder.resolve("cpu" + cpu).resolve("topology");
+        Files.createDirectories(topology);
+        Files.write(topology.resolve("thread_siblings_list"), (siblings + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static class SingleThreaded {
+        @Benchmark
+        public int call() {
+            return 1;
+        }
+    }
+}
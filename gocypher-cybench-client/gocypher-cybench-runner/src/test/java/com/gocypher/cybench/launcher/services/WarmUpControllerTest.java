@@ -0,0 +1,49 @@
+package com.gocypher.cybench.launcher.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class WarmUpControllerTest {
+    private static final double[] NOISE = { 0.5, -0.3, 0.2, -0.6, 0.4, -0.1, 0.3, -0.4 };
+
+    @Test
+    public void testSteadyStateAfterWarmUp() {
+        List<Double> scores = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            // score grows during 4 iterations of JIT compilation and settles at 100
+            scores.add((i < 4 ? 20.0 * (i + 1) : 100) + NOISE[i % NOISE.length]);
+        }
+
+        assertEquals(4, WarmUpController.findSteadyState(scores, 4, 2.0));
+    }
+
+    @Test
+    public void testSteadyStateFromStart() {
+        List<Double> scores = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            scores.add(100 + NOISE[i]);
+        }
+
+        assertEquals(0, WarmUpController.findSteadyState(scores, 4, 2.0));
+    }
+
+    @Test
+    public void testNoSteadyStateOfTrend() {
+        List<Double> scores = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            scores.add(100.0 + 10 * i);
+        }
+
+        assertEquals(-1, WarmUpController.findSteadyState(scores, 4, 2.0));
+    }
+
+    @Test
+    public void testNoSteadyStateOfFewScores() {
+        assertEquals(-1, WarmUpController.findSteadyState(Arrays.asList(100.0, 100.0, 100.0), 4, 2.0));
+    }
+}
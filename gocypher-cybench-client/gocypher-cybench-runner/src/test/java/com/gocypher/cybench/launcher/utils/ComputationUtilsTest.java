@@ -0,0 +1,170 @@
+package com.gocypher.cybench.launcher.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.model.ScalabilityReport;
+
+public class ComputationUtilsTest {
+    private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+    @Test
+    public void testScalabilityOfUslThroughput() {
+        SortedMap<Integer, Double> scores = new TreeMap<>();
+        for (int threads : THREADS) {
+            scores.put(threads, 1000 * uslSpeedup(threads, 0.1, 0.01));
+        }
+        ScalabilityReport report = ComputationUtils.computeScalability(scores, "thrpt");
+
+        assertEquals(THREADS.length, report.getPoints().size());
+        assertEquals(uslSpeedup(8, 0.1, 0.01), report.getPoints().get(3).getSpeedup(), 1e-9);
+        assertEquals(0.1, report.getUslContention(), 1e-9);
+        assertEquals(0.01, report.getUslCoherency(), 1e-9);
+        assertEquals(Math.sqrt(0.9 / 0.01), report.getUslPeakThreads(), 1e-6);
+    }
+
+    @Test
+    public void testScalabilityOfAmdahlAverageTime() {
+        SortedMap<Integer, Double> scores = new TreeMap<>();
+        for (int threads : THREADS) {
+            // time of one operation in every thread
+            scores.put(threads, 2.0 * threads / uslSpeedup(threads, 0.2, 0));
+        }
+        ScalabilityReport report = ComputationUtils.computeScalability(scores, "avgt");
+
+        assertEquals(0.2, report.getAmdahlSerialFraction(), 1e-9);
+        assertEquals(0.2, report.getUslContention(), 1e-9);
+        assertEquals(0, report.getUslCoherency(), 1e-9);
+        assertNull(report.getUslPeakThreads());
+    }
+
+    @Test
+    public void testScalabilityWithoutSingleThreadScore() {
+        SortedMap<Integer, Double> scores = new TreeMap<>();
+        scores.put(2, 10.0);
+        scores.put(4, 20.0);
+        assertNull(ComputationUtils.computeScalability(scores, "thrpt"));
+    }
+
+    @Test
+    public void testWelchEqualVariances() {
+        StatisticalSummary a = summary(10, 4, 10);
+        StatisticalSummary b = summary(12, 4, 10);
+
+        // t = 2.2361 with 18 degrees of freedom
+        assertEquals(0.0382496, ComputationUtils.computeWelchPValue(a, b), 1e-6);
+        assertEquals(0.0382496, ComputationUtils.computeWelchPValue(b, a), 1e-6);
+        // 2 -+ t(0.975, 18) * sqrt(4 / 10 + 4 / 10), t(0.975, 18) = 2.100922
+        double[] interval = ComputationUtils.computeWelchInterval(a, b, 0.95);
+        assertEquals(2 - 2.100922 * Math.sqrt(0.8), interval[0], 1e-5);
+        assertEquals(2 + 2.100922 * Math.sqrt(0.8), interval[1], 1e-5);
+    }
+
+    @Test
+    public void testWelchUnequalVariances() {
+        // Welch-Satterthwaite degrees of freedom are 10.71875, t = 1.4343
+        assertEquals(0.1800182, ComputationUtils.computeWelchPValue(summary(100, 25, 5), summary(106, 100, 8)),
+                1e-6);
+    }
+
+    @Test
+    public void testWelchDegenerateSamples() {
+        assertNull(ComputationUtils.computeWelchPValue(summary(10, 4, 1), summary(12, 4, 10)));
+        assertNull(ComputationUtils.computeWelchInterval(summary(10, 4, 10), summary(12, 4, 1), 0.95));
+        assertEquals(0.0, ComputationUtils.computeWelchPValue(summary(10, 0, 5), summary(12, 0, 5)));
+        assertEquals(1.0, ComputationUtils.computeWelchPValue(summary(10, 0, 5), summary(10, 0, 5)));
+        assertArrayEquals(new double[] { 2, 2 },
+                ComputationUtils.computeWelchInterval(summary(10, 0, 5), summary(12, 0, 5), 0.95));
+    }
+
+    @Test
+    public void testForkVariance() {
+        // fork means 2 and 5, mean square between forks 13.5, within forks 1
+        double[] variance = ComputationUtils.computeForkVariance(new double[][] { { 1, 2, 3 }, { 4, 5, 6 } });
+
+        assertEquals(12.5 / 3, variance[0], 1e-9);
+        assertEquals(1, variance[1], 1e-9);
+    }
+
+    @Test
+    public void testForkVarianceOfUnequalForks() {
+        // effective fork size (5 - 13 / 5) / 1 = 2.4, empty fork is ignored
+        double[] variance = ComputationUtils.computeForkVariance(new double[][] { { 1, 3 }, {}, { 4, 5, 6 } });
+
+        assertEquals((10.8 - 4.0 / 3) / 2.4, variance[0], 1e-9);
+        assertEquals(4.0 / 3, variance[1], 1e-9);
+    }
+
+    @Test
+    public void testForkVarianceWithoutVariationBetweenForks() {
+        double[] variance = ComputationUtils.computeForkVariance(new double[][] { { 1, 3 }, { 3, 1 } });
+
+        assertEquals(0, variance[0]);
+        assertEquals(2, variance[1], 1e-9);
+    }
+
+    @Test
+    public void testForkVarianceOfSingleFork() {
+        assertNull(ComputationUtils.computeForkVariance(new double[][] { { 1, 2, 3 } }));
+        assertNull(ComputationUtils.computeForkVariance(new double[][] { { 1 }, { 2 } }));
+    }
+
+    @Test
+    public void testBimodalityOfUniformSamples() {
+        double[] samples = new double[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = i;
+        }
+
+        // coefficient of uniform distribution is 5/9, sample one is slightly below it
+        double coefficient = ComputationUtils.computeBimodalityCoefficient(samples);
+        assertTrue(coefficient < 5.0 / 9);
+        assertEquals(5.0 / 9, coefficient, 0.05);
+        assertEquals(0.5, ComputationUtils.computeMinorModeFraction(samples));
+    }
+
+    @Test
+    public void testBimodalityOfBimodalSamples() {
+        double[] samples = new double[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (i < 30 ? 10 : 20) + (i % 5) * 0.1;
+        }
+
+        assertTrue(ComputationUtils.computeBimodalityCoefficient(samples) > 0.8);
+        assertEquals(0.3, ComputationUtils.computeMinorModeFraction(samples));
+    }
+
+    @Test
+    public void testBimodalityOfOutlier() {
+        double[] samples = new double[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = 100 + (i % 5) * 0.1;
+        }
+        samples[42] = 1000;
+
+        // single outlier makes coefficient high, but its mode is too small
+        assertTrue(ComputationUtils.computeBimodalityCoefficient(samples) > 5.0 / 9);
+        assertEquals(0.01, ComputationUtils.computeMinorModeFraction(samples));
+    }
+
+    @Test
+    public void testBimodalityOfFewSamples() {
+        assertNull(ComputationUtils.computeBimodalityCoefficient(new double[] { 1, 2, 3 }));
+        assertNull(ComputationUtils.computeBimodalityCoefficient(new double[] { 1, 1, 1, 1 }));
+        assertEquals(0, ComputationUtils.computeMinorModeFraction(new double[] { 1 }));
+    }
+
+    private static StatisticalSummary summary(double mean, double variance, long n) {
+        return new StatisticalSummaryValues(mean, variance, n, mean, mean, mean * n);
+    }
+
+    private static double uslSpeedup(int threads, double contention, double coherency) {
+        return threads / (1 + contention * (threads - 1) + coherency * threads * (threads - 1));
+    }
+}
@@ -0,0 +1,153 @@
+package com.gocypher.cybench.launcher.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+public class ScoreHistogramTest {
+    private static final double[] PERCENTILES = { 0, 1, 25, 50, 90, 99, 99.9, 100 };
+
+    @Test
+    public void testPercentileWithinRelativeAccuracy() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (int value = 1; value <= 10_000; value++) {
+            histogram.recordValue(value, 1);
+        }
+
+        assertEquals(10_000, histogram.getTotalCount());
+        assertPercentiles(histogram, 1, 10_000, 1);
+    }
+
+    @Test
+    public void testPercentileOfSmallValues() {
+        ScoreHistogram histogram = new ScoreHistogram(0.05);
+        for (int value = 1; value <= 1000; value++) {
+            histogram.recordValue(value * 1e-6, 2);
+        }
+
+        assertPercentiles(histogram, 1e-6, 1000e-6, 1e-6);
+    }
+
+    @Test
+    public void testPercentileBounds() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.recordValue(3.7, 10);
+        histogram.recordValue(5.1, 10);
+
+        // percentiles are never out of recorded values range
+        for (double percentile : PERCENTILES) {
+            double value = histogram.getPercentile(percentile);
+            assertTrue(value >= 3.7 && value <= 5.1, "percentile " + percentile);
+        }
+        assertEquals(3.7, histogram.getPercentile(50), 3.7 * 0.01);
+        assertEquals(5.1, histogram.getPercentile(51), 5.1 * 0.01);
+
+        ScoreHistogram single = new ScoreHistogram();
+        single.recordValue(3.7, 10);
+        for (double percentile : PERCENTILES) {
+            assertEquals(3.7, single.getPercentile(percentile));
+        }
+        assertTrue(Double.isNaN(new ScoreHistogram().getPercentile(50)));
+    }
+
+    @Test
+    public void testZeroAndNegativeValues() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.recordValue(-2, 1);
+        histogram.recordValue(0, 2);
+        histogram.recordValue(10, 1);
+        histogram.recordValue(Double.NaN, 1);
+        histogram.recordValue(20, 0);
+
+        assertEquals(4, histogram.getTotalCount());
+        assertEquals(-2, histogram.getMin());
+        assertEquals(10, histogram.getMax());
+        assertEquals(-2, histogram.getPercentile(75));
+        assertEquals(10, histogram.getPercentile(100), 0.1);
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.recordValue(0, 3);
+        for (int value = 1; value <= 500; value++) {
+            histogram.recordValue(value * 0.37, value);
+        }
+        histogram.recordValue(1e12, 1);
+
+        ScoreHistogram decoded = ScoreHistogram.decode(histogram.encode());
+
+        assertEquals(histogram.getRelativeAccuracy(), decoded.getRelativeAccuracy());
+        assertEquals(histogram.getTotalCount(), decoded.getTotalCount());
+        assertEquals(histogram.getMin(), decoded.getMin());
+        assertEquals(histogram.getMax(), decoded.getMax());
+        for (double percentile : PERCENTILES) {
+            assertEquals(histogram.getPercentile(percentile), decoded.getPercentile(percentile));
+        }
+        assertEquals(histogram.encode(), decoded.encode());
+    }
+
+    @Test
+    public void testEncodeDecodeEmpty() {
+        ScoreHistogram decoded = ScoreHistogram.decode(new ScoreHistogram(0.02).encode());
+
+        assertEquals(0.02, decoded.getRelativeAccuracy());
+        assertEquals(0, decoded.getTotalCount());
+        assertTrue(Double.isNaN(decoded.getMin()));
+        assertTrue(Double.isNaN(decoded.getPercentile(50)));
+    }
+
+    @Test
+    public void testDecodeMalformed() {
+        String encoded = new ScoreHistogram().encode();
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        bytes[0] = 42;
+
+        assertThrows(IllegalArgumentException.class, () -> ScoreHistogram.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> ScoreHistogram.decode(encoded.substring(0, 8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoreHistogram.decode(Base64.getEncoder().encodeToString(bytes)));
+    }
+
+    @Test
+    public void testMerge() {
+        ScoreHistogram all = new ScoreHistogram();
+        ScoreHistogram first = new ScoreHistogram();
+        ScoreHistogram second = new ScoreHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            all.recordValue(value, 1);
+            (value % 3 == 0 ? second : first).recordValue(value, 1);
+        }
+
+        first.merge(ScoreHistogram.decode(second.encode()));
+
+        assertEquals(all.getTotalCount(), first.getTotalCount());
+        assertEquals(1, first.getMin());
+        assertEquals(1000, first.getMax());
+        for (double percentile : PERCENTILES) {
+            assertEquals(all.getPercentile(percentile), first.getPercentile(percentile));
+        }
+    }
+
+    @Test
+    public void testMergeDifferentAccuracy() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScoreHistogram(0.01).merge(new ScoreHistogram(0.02)));
+        assertThrows(IllegalArgumentException.class, () -> new ScoreHistogram(0));
+    }
+
+    /**
+     * Asserts percentiles of values {@code from, from + step, ..., to} recorded with equal counts.
+     */
+    private static void assertPercentiles(ScoreHistogram histogram, double from, double to, double step) {
+        int valuesCount = (int) Math.round((to - from) / step) + 1;
+        for (double percentile : PERCENTILES) {
+            int rank = Math.max(1, (int) Math.ceil(percentile / 100 * valuesCount));
+            double expected = from + (rank - 1) * step;
+            double actual = histogram.getPercentile(percentile);
+            assertEquals(expected, actual, expected * histogram.getRelativeAccuracy(), "percentile " + percentile);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gocypher.cybench.launcher.workload;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.gocypher.cybench.launcher.utils.ScoreHistogram;
+
+public class WorkloadMetricsTest {
+
+    @Test
+    public void testCounters() {
+        long operations = WorkloadMetrics.getCounters().getOrDefault(WorkloadMetrics.OPERATIONS, 0L);
+        WorkloadMetrics.operation();
+        WorkloadMetrics.increment("counters.requests");
+        WorkloadMetrics.add("counters.requests", 4);
+
+        Map<String, Long> counters = WorkloadMetrics.getCounters();
+
+        assertEquals(operations + 1, counters.get(WorkloadMetrics.OPERATIONS));
+        assertEquals(5, counters.get("counters.requests"));
+    }
+
+    @Test
+    public void testDrainLatencies() {
+        WorkloadMetrics.recordLatency("latencies.query", 2_000_000);
+        WorkloadMetrics.recordLatency("latencies.query", 4_000_000);
+
+        ScoreHistogram latencies = WorkloadMetrics.drainLatencies().get("latencies.query");
+
+        // microseconds
+        assertEquals(2, latencies.getTotalCount());
+        assertEquals(2000, latencies.getMin());
+        assertEquals(4000, latencies.getMax());
+        // histograms are reset by draining
+        assertEquals(0, WorkloadMetrics.drainLatencies().get("latencies.query").getTotalCount());
+    }
+}